@@ -5,15 +5,18 @@ import com.quorum.tessera.config.keypairs.ConfigKeyPair;
 import com.quorum.tessera.config.keys.KeyEncryptor;
 import com.quorum.tessera.config.keys.KeyEncryptorFactory;
 import com.quorum.tessera.config.util.KeyDataUtil;
+import com.quorum.tessera.config.util.ParallelKeyLoader;
 import com.quorum.tessera.passwords.PasswordReader;
 import com.quorum.tessera.passwords.PasswordReaderFactory;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -23,12 +26,20 @@ public class CliKeyPasswordResolver implements KeyPasswordResolver {
 
   private final PasswordReader passwordReader;
 
+  private final KeyEncryptorFactory keyEncryptorFactory;
+
   public CliKeyPasswordResolver() {
     this(PasswordReaderFactory.create());
   }
 
   public CliKeyPasswordResolver(final PasswordReader passwordReader) {
+    this(passwordReader, KeyEncryptorFactory.newFactory());
+  }
+
+  CliKeyPasswordResolver(
+      final PasswordReader passwordReader, final KeyEncryptorFactory keyEncryptorFactory) {
     this.passwordReader = Objects.requireNonNull(passwordReader);
+    this.keyEncryptorFactory = Objects.requireNonNull(keyEncryptorFactory);
   }
 
   @Override
@@ -79,15 +90,53 @@ public class CliKeyPasswordResolver implements KeyPasswordResolver {
                   }
                 });
 
-    final KeyEncryptor keyEncryptor = KeyEncryptorFactory.newFactory().create(encryptorConfig);
+    final KeyEncryptor keyEncryptor = keyEncryptorFactory.create(encryptorConfig);
+
+    // try the given passwords first, several keys at a time, so that only the keys that are still
+    // locked afterwards need to go through the (one at a time) password prompts
+    final List<Integer> keysWithPasswords =
+        IntStream.range(0, keyPairs.size())
+            .filter(i -> hasPasswordToTry(keyPairs.get(i)))
+            .boxed()
+            .collect(Collectors.toList());
+
+    final Set<Integer> unlockedKeys = new HashSet<>();
+    if (!keysWithPasswords.isEmpty()) {
+      final List<ConfigKeyPair> configKeyPairs =
+          keysWithPasswords.stream()
+              .map(i -> KeyDataUtil.unmarshal(keyPairs.get(i), keyEncryptor))
+              .collect(Collectors.toList());
+
+      final List<Boolean> unlocked =
+          ParallelKeyLoader.from(encryptorConfig.getProperties(), configKeyPairs)
+              .load(configKeyPairs, CliKeyPasswordResolver::isUnlocked);
+
+      IntStream.range(0, unlocked.size())
+          .filter(unlocked::get)
+          .forEach(i -> unlockedKeys.add(keysWithPasswords.get(i)));
+    }
 
     IntStream.range(0, keyConfiguration.getKeyData().size())
+        .filter(keyNumber -> !unlockedKeys.contains(keyNumber))
         .forEachOrdered(
             keyNumber ->
                 getSingleKeyPassword(
                     keyNumber, keyConfiguration.getKeyData().get(keyNumber), keyEncryptor));
   }
 
+  private static boolean hasPasswordToTry(final KeyData keyData) {
+    return (KeyDataUtil.isInline(keyData) || KeyDataUtil.isFileSystem(keyData))
+        && keyData.getPassword() != null
+        && keyData.getPassword().length > 0
+        && KeyDataUtil.isLocked(keyData);
+  }
+
+  private static boolean isUnlocked(final ConfigKeyPair configKeyPair) {
+    return Optional.ofNullable(configKeyPair.getPrivateKey())
+        .filter(s -> !s.contains("NACL_FAILURE"))
+        .isPresent();
+  }
+
   // TODO: make private
   // @VisibleForTesting
   public void getSingleKeyPassword(
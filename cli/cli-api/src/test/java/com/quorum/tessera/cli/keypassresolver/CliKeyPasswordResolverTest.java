@@ -10,6 +10,7 @@ import static org.mockito.Mockito.*;
 
 import com.quorum.tessera.config.*;
 import com.quorum.tessera.config.keys.KeyEncryptor;
+import com.quorum.tessera.config.keys.KeyEncryptorFactory;
 import com.quorum.tessera.encryption.EncryptorException;
 import com.quorum.tessera.encryption.PrivateKey;
 import com.quorum.tessera.passwords.PasswordReader;
@@ -18,6 +19,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Base64;
+import java.util.List;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -147,6 +149,60 @@ public class CliKeyPasswordResolverTest {
     assertThat(String.valueOf(returned.getPassword())).isEqualTo("q");
   }
 
+  @Test
+  public void onlyKeysThatFailToUnlockRequestPasswords() {
+    when(passwordReader.readPasswordFromConsole()).thenReturn("a".toCharArray());
+
+    final char[] validPassword = "valid".toCharArray();
+    final char[] invalidPassword = "invalid".toCharArray();
+
+    when(keyEncryptor.decryptPrivateKey(any(PrivateKeyData.class), eq(validPassword)))
+        .thenReturn(PrivateKey.from("private".getBytes()));
+    when(keyEncryptor.decryptPrivateKey(any(PrivateKeyData.class), eq(invalidPassword)))
+        .thenThrow(new EncryptorException("decrypt failed"));
+    when(keyEncryptor.decryptPrivateKey(any(PrivateKeyData.class), eq("a".toCharArray())))
+        .thenThrow(new EncryptorException("decrypt failed"));
+
+    final KeyEncryptorFactory keyEncryptorFactory = mock(KeyEncryptorFactory.class);
+    when(keyEncryptorFactory.create(any())).thenReturn(keyEncryptor);
+
+    final KeyConfiguration keyConfig =
+        new KeyConfiguration(
+            null,
+            List.of("valid", "invalid"),
+            List.of(lockedKeyData(), lockedKeyData()),
+            null,
+            null);
+    final Config config = new Config();
+    config.setKeys(keyConfig);
+
+    new CliKeyPasswordResolver(passwordReader, keyEncryptorFactory).resolveKeyPasswords(config);
+
+    assertThat(systemOutRule.getLog())
+        .doesNotContain("Password for key[0]")
+        .contains("Password for key[1] missing or invalid.");
+
+    verify(keyEncryptor).decryptPrivateKey(any(PrivateKeyData.class), eq(validPassword));
+    verify(passwordReader, times(2)).readPasswordFromConsole();
+  }
+
+  private static KeyData lockedKeyData() {
+    final KeyDataConfig privKeyDataConfig =
+        new KeyDataConfig(
+            new PrivateKeyData(
+                null,
+                "yb7M8aRJzgxoJM2NecAPcmSVWDW1tRjv",
+                "MIqkFlgR2BWEpx2U0rObGg==",
+                "Gtvp1t6XZEiFVyaE/LHiP1+yvOIBBoiOL+bKeqcKgpiNt4j1oDDoqCC47UJpmQRC",
+                new ArgonOptions("i", 10, 1048576, 4)),
+            PrivateKeyType.LOCKED);
+
+    final KeyData keyData = new KeyData();
+    keyData.setPublicKey("public");
+    keyData.setConfig(privKeyDataConfig);
+    return keyData;
+  }
+
   @Test
   public void nullKeyConfigReturns() {
     final Throwable throwable =
@@ -22,6 +22,28 @@ public class JdbcConfig extends ConfigItem {
 
   @XmlElement private int fetchSize;
 
+  /**
+   * The most bytes of recently read payloads kept decoded in memory. Unset or 0 disables the cache.
+   * Only changes made through this node invalidate it, so it must not be used when the database is
+   * shared with other nodes.
+   */
+  @XmlElement private Long payloadCacheSize;
+
+  /**
+   * Keep recipient boxes added to a stored transaction in their own table rather than re-encoding
+   * them into its payload. Needs the table from ddls/add-transaction-box, and can't be turned off
+   * again once boxes have been stored that way.
+   */
+  @XmlElement(defaultValue = "false")
+  private boolean appendRecipientBoxes;
+
+  /**
+   * Look transactions up by hash with plain JDBC on a pool of read-only connections, rather than
+   * through a JPA transaction
+   */
+  @XmlElement(defaultValue = "false")
+  private boolean directReads;
+
   public JdbcConfig(String username, String password, String url) {
     this.username = username;
     this.password = password;
@@ -71,4 +93,28 @@ public class JdbcConfig extends ConfigItem {
   public void setFetchSize(int fetchSize) {
     this.fetchSize = fetchSize;
   }
+
+  public Long getPayloadCacheSize() {
+    return payloadCacheSize;
+  }
+
+  public void setPayloadCacheSize(Long payloadCacheSize) {
+    this.payloadCacheSize = payloadCacheSize;
+  }
+
+  public boolean isAppendRecipientBoxes() {
+    return appendRecipientBoxes;
+  }
+
+  public void setAppendRecipientBoxes(boolean appendRecipientBoxes) {
+    this.appendRecipientBoxes = appendRecipientBoxes;
+  }
+
+  public boolean isDirectReads() {
+    return directReads;
+  }
+
+  public void setDirectReads(boolean directReads) {
+    this.directReads = directReads;
+  }
 }
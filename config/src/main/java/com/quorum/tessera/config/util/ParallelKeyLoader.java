@@ -0,0 +1,211 @@
+package com.quorum.tessera.config.util;
+
+import com.quorum.tessera.config.ArgonOptions;
+import com.quorum.tessera.config.KeyDataConfig;
+import com.quorum.tessera.config.PrivateKeyData;
+import com.quorum.tessera.config.PrivateKeyType;
+import com.quorum.tessera.config.keypairs.ConfigKeyPair;
+import com.quorum.tessera.config.keypairs.FilesystemKeyPair;
+import com.quorum.tessera.config.keypairs.InlineKeypair;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Loads a node's keys a few at a time rather than one after the other, logging how long each key
+ * took and how long loading took overall.
+ *
+ * <p>Unlocking a password protected key runs Argon2 over the password, which takes as much memory
+ * and as many threads (lanes) as the key was locked with. The number of keys loaded at once is
+ * therefore bounded both by the available processors divided by the lanes each hash uses, and by
+ * how many hashes fit in the memory limit at the same time. Either bound can be changed through the
+ * encryptor properties {@value PARALLELISM_PROPERTY} and {@value MEMORY_LIMIT_PROPERTY} (in KiB, as
+ * Argon2 memory is).
+ */
+public class ParallelKeyLoader {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ParallelKeyLoader.class);
+
+  public static final String PARALLELISM_PROPERTY = "keyLoadParallelism";
+
+  public static final String MEMORY_LIMIT_PROPERTY = "keyLoadMemoryLimit";
+
+  public static final long DEFAULT_MEMORY_LIMIT = 4L * 1024 * 1024;
+
+  private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+  private final int parallelism;
+
+  public ParallelKeyLoader(int parallelism) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("Key load parallelism must be at least 1");
+    }
+    this.parallelism = parallelism;
+  }
+
+  /**
+   * Works out how many of the given keys can be loaded at once
+   *
+   * @param properties the encryptor properties, which may be null
+   * @param keyPairs the keys that are going to be loaded
+   * @return a loader bounded by the processors and memory the locked keys need
+   */
+  public static ParallelKeyLoader from(
+      Map<String, String> properties, Collection<? extends ConfigKeyPair> keyPairs) {
+
+    final List<ArgonOptions> argonOptions =
+        keyPairs.stream()
+            .map(ParallelKeyLoader::argonOptions)
+            .flatMap(Optional::stream)
+            .collect(Collectors.toList());
+
+    final int lanes =
+        argonOptions.stream()
+            .map(ArgonOptions::getParallelism)
+            .filter(Objects::nonNull)
+            .mapToInt(Integer::intValue)
+            .max()
+            .orElse(1);
+    final long memory =
+        argonOptions.stream()
+            .map(ArgonOptions::getMemory)
+            .filter(Objects::nonNull)
+            .mapToLong(Integer::longValue)
+            .max()
+            .orElse(0L);
+
+    final long cpuBound =
+        readPositive(
+            properties,
+            PARALLELISM_PROPERTY,
+            Math.max(1, Runtime.getRuntime().availableProcessors() / Math.max(1, lanes)));
+    final long memoryLimit = readPositive(properties, MEMORY_LIMIT_PROPERTY, DEFAULT_MEMORY_LIMIT);
+    final long memoryBound = memory > 0 ? memoryLimit / memory : Long.MAX_VALUE;
+
+    final long bound = Math.min(cpuBound, memoryBound);
+    return new ParallelKeyLoader((int) Math.max(1, Math.min(bound, Integer.MAX_VALUE)));
+  }
+
+  static Optional<ArgonOptions> argonOptions(ConfigKeyPair keyPair) {
+    final InlineKeypair inlineKeypair;
+    if (keyPair instanceof FilesystemKeyPair) {
+      inlineKeypair = ((FilesystemKeyPair) keyPair).getInlineKeypair();
+    } else if (keyPair instanceof InlineKeypair) {
+      inlineKeypair = (InlineKeypair) keyPair;
+    } else {
+      return Optional.empty();
+    }
+
+    return Optional.ofNullable(inlineKeypair)
+        .map(InlineKeypair::getPrivateKeyConfig)
+        .filter(c -> c.getType() == PrivateKeyType.LOCKED)
+        .map(KeyDataConfig::getPrivateKeyData)
+        .map(PrivateKeyData::getArgonOptions);
+  }
+
+  private static long readPositive(Map<String, String> properties, String name, long defaultValue) {
+    final String value = properties == null ? null : properties.get(name);
+    if (value == null) {
+      return defaultValue;
+    }
+    try {
+      final long parsed = Long.parseLong(value.trim());
+      if (parsed > 0) {
+        return parsed;
+      }
+    } catch (NumberFormatException ex) {
+      // fall through to the warning below
+    }
+    LOGGER.warn(
+        "Invalid {} value {}. Will use default value {} instead", name, value, defaultValue);
+    return defaultValue;
+  }
+
+  public int getParallelism() {
+    return parallelism;
+  }
+
+  /**
+   * Loads every key, keeping the order they were given in
+   *
+   * @param keys the keys to load
+   * @param loader loads a single key, and may be called from several threads at once
+   * @param <T> the type of the keys to load
+   * @param <R> the type of the loaded keys
+   * @return the loaded keys, in the same order
+   */
+  public <T, R> List<R> load(List<T> keys, Function<T, R> loader) {
+    final int threads = Math.min(parallelism, keys.size());
+    final long start = System.nanoTime();
+
+    final List<R> loaded;
+    if (threads < 2) {
+      loaded = new ArrayList<>(keys.size());
+      for (int i = 0; i < keys.size(); i++) {
+        loaded.add(timed(i, keys.get(i), loader));
+      }
+    } else {
+      loaded = loadConcurrently(keys, loader, threads);
+    }
+
+    LOGGER.info(
+        "Loaded {} keys in {} ms, {} at a time",
+        keys.size(),
+        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+        Math.max(1, threads));
+
+    return loaded;
+  }
+
+  private static <T, R> List<R> loadConcurrently(List<T> keys, Function<T, R> loader, int threads) {
+    final ExecutorService executor =
+        Executors.newFixedThreadPool(
+            threads,
+            r -> {
+              final Thread thread = new Thread(r, "key-loader-" + THREAD_COUNT.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+
+    try {
+      final List<CompletableFuture<R>> futures =
+          IntStream.range(0, keys.size())
+              .mapToObj(
+                  i -> CompletableFuture.supplyAsync(() -> timed(i, keys.get(i), loader), executor))
+              .collect(Collectors.toList());
+
+      try {
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+      } catch (CompletionException ex) {
+        // surface the same exception loading the key would have thrown on this thread
+        throw ex.getCause() instanceof RuntimeException ? (RuntimeException) ex.getCause() : ex;
+      }
+
+      return futures.stream().map(CompletableFuture::join).collect(Collectors.toList());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static <T, R> R timed(int index, T key, Function<T, R> loader) {
+    final long start = System.nanoTime();
+    final R loaded = loader.apply(key);
+    LOGGER.info(
+        "Loaded key {} in {} ms", index, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    return loaded;
+  }
+}
@@ -0,0 +1,89 @@
+package com.quorum.tessera.config.util;
+
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads the thread pool, queue, memory and connection settings given in a server's properties,
+ * falling back to the default for any that are missing or can't be parsed
+ */
+public class ServerPropertyHelper {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ServerPropertyHelper.class);
+
+  private final Map<String, String> properties;
+
+  public ServerPropertyHelper(final Map<String, String> properties) {
+    this.properties = properties;
+  }
+
+  public int resendParallelism() {
+    return parallelism("resendParallelism");
+  }
+
+  public int recoveryParallelism() {
+    return parallelism("recoveryParallelism");
+  }
+
+  /** The most threads used at once to send requests to other nodes */
+  public int publisherThreads() {
+    return positiveInt("publisherThreads", 128);
+  }
+
+  /** The most requests to other nodes left waiting for a thread before the sender has to wait */
+  public int publisherQueueSize() {
+    return positiveInt("publisherQueueSize", 1024);
+  }
+
+  /** Whether requests to other nodes are sent over pooled HTTP/2 connections */
+  public boolean http2() {
+    return Boolean.parseBoolean(properties.getOrDefault("http2", "false"));
+  }
+
+  /** Whether the server also accepts HTTP/2 connections, rather than only HTTP/1.1 */
+  public boolean acceptHttp2() {
+    return Boolean.parseBoolean(properties.getOrDefault("acceptHttp2", "false"));
+  }
+
+  /** The most HTTP/2 connections opened to any one other node */
+  public int maxConnectionsPerPeer() {
+    return positiveInt("maxConnectionsPerPeer", 8);
+  }
+
+  /** How long, in milliseconds, an unused HTTP/2 connection to another node is kept open */
+  public long connectionIdleTimeout() {
+    try {
+      return Long.parseLong(properties.getOrDefault("connectionIdleTimeout", "30000"));
+    } catch (NumberFormatException ex) {
+      LOGGER.warn("Not able to parse configured property. Will use default value instead");
+      return 30000L;
+    }
+  }
+
+  public long stagingMemoryBudget() {
+    final long defaultBudget = Runtime.getRuntime().maxMemory() / 4;
+    try {
+      return Long.parseLong(
+          properties.getOrDefault("stagingMemoryBudget", Long.toString(defaultBudget)));
+    } catch (NumberFormatException ex) {
+      LOGGER.warn("Not able to parse configured property. Will use default value instead");
+      return defaultBudget;
+    }
+  }
+
+  private int parallelism(String property) {
+    return positiveInt(property, Runtime.getRuntime().availableProcessors());
+  }
+
+  private int positiveInt(String property, int defaultValue) {
+    try {
+      final int value =
+          Integer.parseInt(properties.getOrDefault(property, Integer.toString(defaultValue)));
+      return value > 0 ? value : defaultValue;
+    } catch (NumberFormatException ex) {
+      LOGGER.warn("Not able to parse configured property. Will use default value instead");
+      return defaultValue;
+    }
+  }
+}
@@ -0,0 +1,174 @@
+package com.quorum.tessera.config.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.quorum.tessera.config.ArgonOptions;
+import com.quorum.tessera.config.KeyDataConfig;
+import com.quorum.tessera.config.PrivateKeyData;
+import com.quorum.tessera.config.PrivateKeyType;
+import com.quorum.tessera.config.keypairs.ConfigKeyPair;
+import com.quorum.tessera.config.keypairs.DirectKeyPair;
+import com.quorum.tessera.config.keypairs.FilesystemKeyPair;
+import com.quorum.tessera.config.keypairs.InlineKeypair;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.Test;
+
+public class ParallelKeyLoaderTest {
+
+  private static final int PROCESSORS = Runtime.getRuntime().availableProcessors();
+
+  @Test
+  public void parallelismMustBePositive() {
+    final Throwable throwable = catchThrowable(() -> new ParallelKeyLoader(0));
+
+    assertThat(throwable)
+        .isExactlyInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Key load parallelism must be at least 1");
+  }
+
+  @Test
+  public void loadKeepsOrderWhenLoadingConcurrently() {
+    final List<Integer> keys = IntStream.range(0, 20).boxed().collect(Collectors.toList());
+    final Map<String, Boolean> threads = new ConcurrentHashMap<>();
+
+    final List<String> loaded =
+        new ParallelKeyLoader(4)
+            .load(
+                keys,
+                key -> {
+                  threads.put(Thread.currentThread().getName(), true);
+                  return "key" + key;
+                });
+
+    assertThat(loaded)
+        .containsExactlyElementsOf(keys.stream().map(k -> "key" + k).collect(Collectors.toList()));
+    assertThat(threads.keySet()).allMatch(name -> name.startsWith("key-loader-"));
+  }
+
+  @Test
+  public void loadOnCallingThreadWhenParallelismIsOne() {
+    final String caller = Thread.currentThread().getName();
+
+    final List<String> loaded =
+        new ParallelKeyLoader(1).load(List.of(1, 2), key -> Thread.currentThread().getName());
+
+    assertThat(loaded).containsExactly(caller, caller);
+  }
+
+  @Test
+  public void loadNothing() {
+    assertThat(new ParallelKeyLoader(4).load(List.of(), key -> key)).isEmpty();
+  }
+
+  @Test
+  public void loadRethrowsLoaderException() {
+    final IllegalStateException exception = new IllegalStateException("bad key");
+
+    final Throwable throwable =
+        catchThrowable(
+            () ->
+                new ParallelKeyLoader(2)
+                    .load(
+                        List.of(1, 2),
+                        key -> {
+                          if (key == 2) {
+                            throw exception;
+                          }
+                          return key;
+                        }));
+
+    assertThat(throwable).isSameAs(exception);
+  }
+
+  @Test
+  public void loadWrapsLoaderError() {
+    final AssertionError error = new AssertionError("bad key");
+
+    final Throwable throwable =
+        catchThrowable(
+            () ->
+                new ParallelKeyLoader(2)
+                    .load(
+                        List.of(1, 2),
+                        key -> {
+                          throw error;
+                        }));
+
+    assertThat(throwable).isExactlyInstanceOf(CompletionException.class).hasCause(error);
+  }
+
+  @Test
+  public void fromDefaultsToAvailableProcessorsWithoutLockedKeys() {
+    final ParallelKeyLoader loader =
+        ParallelKeyLoader.from(null, List.of(new DirectKeyPair("public", "private")));
+
+    assertThat(loader.getParallelism()).isEqualTo(PROCESSORS);
+  }
+
+  @Test
+  public void fromBoundsByArgonLanesAndMemory() {
+    final List<ConfigKeyPair> keyPairs =
+        List.of(
+            inlineKeypair(PrivateKeyType.LOCKED, new ArgonOptions("i", 10, 1048576, 4)),
+            inlineKeypair(PrivateKeyType.LOCKED, new ArgonOptions("i", 10, 65536, 1)),
+            inlineKeypair(PrivateKeyType.UNLOCKED, new ArgonOptions("i", 10, 1 << 30, 64)));
+
+    final ParallelKeyLoader loader = ParallelKeyLoader.from(Map.of(), keyPairs);
+
+    assertThat(loader.getParallelism()).isEqualTo(Math.min(Math.max(1, PROCESSORS / 4), 4));
+  }
+
+  @Test
+  public void fromUsesConfiguredParallelismAndMemoryLimit() {
+    final FilesystemKeyPair filesystemKeyPair = mock(FilesystemKeyPair.class);
+    when(filesystemKeyPair.getInlineKeypair())
+        .thenReturn(inlineKeypair(PrivateKeyType.LOCKED, new ArgonOptions("i", 10, 1024, 4)));
+
+    final Map<String, String> properties =
+        Map.of(
+            ParallelKeyLoader.PARALLELISM_PROPERTY, "6",
+            ParallelKeyLoader.MEMORY_LIMIT_PROPERTY, " 10240 ");
+
+    assertThat(ParallelKeyLoader.from(properties, List.of(filesystemKeyPair)).getParallelism())
+        .isEqualTo(6);
+
+    final Map<String, String> lowMemory =
+        Map.of(
+            ParallelKeyLoader.PARALLELISM_PROPERTY, "6",
+            ParallelKeyLoader.MEMORY_LIMIT_PROPERTY, "512");
+
+    assertThat(ParallelKeyLoader.from(lowMemory, List.of(filesystemKeyPair)).getParallelism())
+        .isEqualTo(1);
+  }
+
+  @Test
+  public void fromIgnoresInvalidProperties() {
+    final FilesystemKeyPair unreadableKeyPair = mock(FilesystemKeyPair.class);
+    final ConfigKeyPair incompleteArgonOptions =
+        inlineKeypair(PrivateKeyType.LOCKED, new ArgonOptions());
+
+    final Map<String, String> properties =
+        Map.of(
+            ParallelKeyLoader.PARALLELISM_PROPERTY, "many",
+            ParallelKeyLoader.MEMORY_LIMIT_PROPERTY, "0");
+
+    final ParallelKeyLoader loader =
+        ParallelKeyLoader.from(properties, List.of(unreadableKeyPair, incompleteArgonOptions));
+
+    assertThat(loader.getParallelism()).isEqualTo(PROCESSORS);
+  }
+
+  private static InlineKeypair inlineKeypair(PrivateKeyType type, ArgonOptions argonOptions) {
+    final KeyDataConfig keyDataConfig =
+        new KeyDataConfig(new PrivateKeyData(null, null, null, null, argonOptions), type);
+    return new InlineKeypair("public", keyDataConfig, null);
+  }
+}
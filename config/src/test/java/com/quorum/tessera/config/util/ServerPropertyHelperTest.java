@@ -0,0 +1,70 @@
+package com.quorum.tessera.config.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+
+public class ServerPropertyHelperTest {
+
+  @Test
+  public void testDefaultValues() {
+    final ServerPropertyHelper util = new ServerPropertyHelper(Collections.emptyMap());
+
+    assertThat(util.resendParallelism()).isEqualTo(Runtime.getRuntime().availableProcessors());
+    assertThat(util.recoveryParallelism()).isEqualTo(Runtime.getRuntime().availableProcessors());
+    assertThat(util.stagingMemoryBudget()).isEqualTo(Runtime.getRuntime().maxMemory() / 4);
+    assertThat(util.publisherThreads()).isEqualTo(128);
+    assertThat(util.publisherQueueSize()).isEqualTo(1024);
+    assertThat(util.http2()).isFalse();
+    assertThat(util.acceptHttp2()).isFalse();
+    assertThat(util.maxConnectionsPerPeer()).isEqualTo(8);
+    assertThat(util.connectionIdleTimeout()).isEqualTo(30000L);
+  }
+
+  @Test
+  public void getValues() {
+    final Map<String, String> props = new HashMap<>();
+    props.put("resendParallelism", "3");
+    props.put("recoveryParallelism", "0");
+    props.put("stagingMemoryBudget", "1048576");
+    props.put("publisherThreads", "16");
+    props.put("publisherQueueSize", "-1");
+    props.put("http2", "true");
+    props.put("acceptHttp2", "true");
+    props.put("maxConnectionsPerPeer", "2");
+    props.put("connectionIdleTimeout", "1000");
+
+    final ServerPropertyHelper util = new ServerPropertyHelper(props);
+
+    assertThat(util.resendParallelism()).isEqualTo(3);
+    // non-positive values fall back to the default
+    assertThat(util.recoveryParallelism()).isEqualTo(Runtime.getRuntime().availableProcessors());
+    assertThat(util.stagingMemoryBudget()).isEqualTo(1048576L);
+    assertThat(util.publisherThreads()).isEqualTo(16);
+    assertThat(util.publisherQueueSize()).isEqualTo(1024);
+    assertThat(util.http2()).isTrue();
+    assertThat(util.acceptHttp2()).isTrue();
+    assertThat(util.maxConnectionsPerPeer()).isEqualTo(2);
+    assertThat(util.connectionIdleTimeout()).isEqualTo(1000L);
+  }
+
+  @Test
+  public void testExceptions() {
+    final Map<String, String> props = new HashMap<>();
+    props.put("resendParallelism", "four");
+    props.put("stagingMemoryBudget", "1MB");
+    props.put("publisherThreads", "many");
+    props.put("connectionIdleTimeout", "30s");
+
+    final ServerPropertyHelper util = new ServerPropertyHelper(props);
+
+    assertThat(util.resendParallelism()).isEqualTo(Runtime.getRuntime().availableProcessors());
+    assertThat(util.recoveryParallelism()).isEqualTo(Runtime.getRuntime().availableProcessors());
+    assertThat(util.stagingMemoryBudget()).isEqualTo(Runtime.getRuntime().maxMemory() / 4);
+    assertThat(util.publisherThreads()).isEqualTo(128);
+    assertThat(util.connectionIdleTimeout()).isEqualTo(30000L);
+  }
+}
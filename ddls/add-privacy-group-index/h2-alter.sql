@@ -0,0 +1,5 @@
+ALTER TABLE PRIVACY_GROUP ADD TYPE VARCHAR(20);
+ALTER TABLE PRIVACY_GROUP ADD STATE VARCHAR(20);
+CREATE TABLE PRIVACY_GROUP_MEMBER (PRIVACY_GROUP_ID LONGVARBINARY NOT NULL, MEMBER_KEY LONGVARBINARY NOT NULL, PRIMARY KEY (PRIVACY_GROUP_ID, MEMBER_KEY));
+CREATE INDEX PRIVACY_GROUP_TYPE_STATE ON PRIVACY_GROUP (TYPE, STATE);
+CREATE INDEX PRIVACY_GROUP_MEMBER_KEY ON PRIVACY_GROUP_MEMBER (MEMBER_KEY);
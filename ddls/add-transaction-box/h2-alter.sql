@@ -0,0 +1 @@
+CREATE TABLE ENCRYPTED_TRANSACTION_BOX (HASH LONGVARBINARY NOT NULL, VERSION BIGINT NOT NULL, RECIPIENT_KEY LONGVARBINARY, RECIPIENT_BOX LONGVARBINARY NOT NULL, PRIMARY KEY (HASH, VERSION));
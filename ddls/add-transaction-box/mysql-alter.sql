@@ -0,0 +1 @@
+CREATE TABLE ENCRYPTED_TRANSACTION_BOX (HASH VARBINARY(100) NOT NULL, VERSION BIGINT NOT NULL, RECIPIENT_KEY VARBINARY(100), RECIPIENT_BOX BLOB NOT NULL, PRIMARY KEY (HASH, VERSION));
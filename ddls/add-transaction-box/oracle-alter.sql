@@ -0,0 +1 @@
+CREATE TABLE ENCRYPTED_TRANSACTION_BOX (HASH RAW(100) NOT NULL, VERSION NUMBER(19) NOT NULL, RECIPIENT_KEY RAW(100), RECIPIENT_BOX BLOB NOT NULL, PRIMARY KEY (HASH, VERSION));
@@ -0,0 +1 @@
+CREATE TABLE ENCRYPTED_TRANSACTION_BOX (HASH BYTEA NOT NULL, VERSION DECIMAL(19) NOT NULL, RECIPIENT_KEY BYTEA, RECIPIENT_BOX BYTEA NOT NULL, PRIMARY KEY (HASH, VERSION));
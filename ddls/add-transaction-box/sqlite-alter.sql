@@ -0,0 +1 @@
+CREATE TABLE ENCRYPTED_TRANSACTION_BOX (HASH BLOB NOT NULL, VERSION INTEGER NOT NULL, RECIPIENT_KEY BLOB, RECIPIENT_BOX BLOB NOT NULL, PRIMARY KEY (HASH, VERSION));
@@ -0,0 +1 @@
+CREATE TABLE ENCRYPTED_TRANSACTION_RECIPIENT (HASH LONGVARBINARY NOT NULL, RECIPIENT_KEY LONGVARBINARY NOT NULL, PRIMARY KEY (HASH, RECIPIENT_KEY));
\ No newline at end of file
@@ -0,0 +1 @@
+CREATE TABLE ENCRYPTED_TRANSACTION_RECIPIENT (HASH VARBINARY(100) NOT NULL, RECIPIENT_KEY VARBINARY(100) NOT NULL, PRIMARY KEY (HASH, RECIPIENT_KEY));
\ No newline at end of file
@@ -0,0 +1 @@
+CREATE TABLE ENCRYPTED_TRANSACTION_RECIPIENT (HASH RAW(100) NOT NULL, RECIPIENT_KEY RAW(100) NOT NULL, PRIMARY KEY (HASH, RECIPIENT_KEY));
\ No newline at end of file
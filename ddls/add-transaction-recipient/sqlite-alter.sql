@@ -0,0 +1 @@
+CREATE TABLE ENCRYPTED_TRANSACTION_RECIPIENT (HASH BLOB NOT NULL, RECIPIENT_KEY BLOB NOT NULL, PRIMARY KEY (HASH, RECIPIENT_KEY));
\ No newline at end of file
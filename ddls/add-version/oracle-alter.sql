@@ -0,0 +1 @@
+ALTER TABLE ENCRYPTED_TRANSACTION ADD VERSION NUMBER(19) DEFAULT 0 NOT NULL
\ No newline at end of file
@@ -0,0 +1 @@
+ALTER TABLE ENCRYPTED_TRANSACTION ADD COLUMN VERSION INTEGER DEFAULT 0 NOT NULL
\ No newline at end of file
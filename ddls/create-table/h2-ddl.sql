@@ -1,3 +1,8 @@
-CREATE TABLE ENCRYPTED_TRANSACTION (ENCODED_PAYLOAD LONGVARBINARY NOT NULL, TIMESTAMP BIGINT, HASH LONGVARBINARY NOT NULL, PRIMARY KEY (HASH));
+CREATE TABLE ENCRYPTED_TRANSACTION (ENCODED_PAYLOAD LONGVARBINARY NOT NULL, TIMESTAMP BIGINT, HASH LONGVARBINARY NOT NULL, VERSION BIGINT DEFAULT 0 NOT NULL, PRIMARY KEY (HASH));
 CREATE TABLE ENCRYPTED_RAW_TRANSACTION (ENCRYPTED_KEY LONGVARBINARY NOT NULL, ENCRYPTED_PAYLOAD LONGVARBINARY NOT NULL, NONCE LONGVARBINARY NOT NULL, SENDER LONGVARBINARY NOT NULL, TIMESTAMP BIGINT, HASH LONGVARBINARY NOT NULL, PRIMARY KEY (HASH));
-CREATE TABLE PRIVACY_GROUP(ID LONGVARBINARY NOT NULL, LOOKUP_ID LONGVARBINARY NOT NULL, DATA LONGVARBINARY NOT NULL, TIMESTAMP BIGINT, PRIMARY KEY (ID));
+CREATE TABLE PRIVACY_GROUP(ID LONGVARBINARY NOT NULL, LOOKUP_ID LONGVARBINARY NOT NULL, DATA LONGVARBINARY NOT NULL, TIMESTAMP BIGINT, TYPE VARCHAR(20), STATE VARCHAR(20), PRIMARY KEY (ID));
+CREATE TABLE ENCRYPTED_TRANSACTION_RECIPIENT (HASH LONGVARBINARY NOT NULL, RECIPIENT_KEY LONGVARBINARY NOT NULL, PRIMARY KEY (HASH, RECIPIENT_KEY));
+CREATE TABLE ENCRYPTED_TRANSACTION_BOX (HASH LONGVARBINARY NOT NULL, VERSION BIGINT NOT NULL, RECIPIENT_KEY LONGVARBINARY, RECIPIENT_BOX LONGVARBINARY NOT NULL, PRIMARY KEY (HASH, VERSION));
+CREATE TABLE PRIVACY_GROUP_MEMBER (PRIVACY_GROUP_ID LONGVARBINARY NOT NULL, MEMBER_KEY LONGVARBINARY NOT NULL, PRIMARY KEY (PRIVACY_GROUP_ID, MEMBER_KEY));
+CREATE INDEX PRIVACY_GROUP_TYPE_STATE ON PRIVACY_GROUP (TYPE, STATE);
+CREATE INDEX PRIVACY_GROUP_MEMBER_KEY ON PRIVACY_GROUP_MEMBER (MEMBER_KEY);
@@ -1,3 +1,8 @@
-CREATE TABLE ENCRYPTED_TRANSACTION (ENCODED_PAYLOAD BLOB NOT NULL, HASH VARBINARY(100) NOT NULL, TIMESTAMP BIGINT, PRIMARY KEY (HASH));
+CREATE TABLE ENCRYPTED_TRANSACTION (ENCODED_PAYLOAD BLOB NOT NULL, HASH VARBINARY(100) NOT NULL, TIMESTAMP BIGINT, VERSION BIGINT DEFAULT 0 NOT NULL, PRIMARY KEY (HASH));
 CREATE TABLE ENCRYPTED_RAW_TRANSACTION (ENCRYPTED_KEY BLOB NOT NULL, ENCRYPTED_PAYLOAD BLOB NOT NULL, NONCE BLOB NOT NULL, SENDER BLOB NOT NULL, TIMESTAMP BIGINT, HASH VARBINARY(100) NOT NULL, PRIMARY KEY (HASH));
-CREATE TABLE PRIVACY_GROUP(ID VARBINARY(100) NOT NULL, LOOKUP_ID BLOB NOT NULL, DATA BLOB NOT NULL, TIMESTAMP BIGINT, PRIMARY KEY (ID));
+CREATE TABLE PRIVACY_GROUP(ID VARBINARY(100) NOT NULL, LOOKUP_ID BLOB NOT NULL, DATA BLOB NOT NULL, TIMESTAMP BIGINT, TYPE VARCHAR(20), STATE VARCHAR(20), PRIMARY KEY (ID));
+CREATE TABLE ENCRYPTED_TRANSACTION_RECIPIENT (HASH VARBINARY(100) NOT NULL, RECIPIENT_KEY VARBINARY(100) NOT NULL, PRIMARY KEY (HASH, RECIPIENT_KEY));
+CREATE TABLE ENCRYPTED_TRANSACTION_BOX (HASH VARBINARY(100) NOT NULL, VERSION BIGINT NOT NULL, RECIPIENT_KEY VARBINARY(100), RECIPIENT_BOX BLOB NOT NULL, PRIMARY KEY (HASH, VERSION));
+CREATE TABLE PRIVACY_GROUP_MEMBER (PRIVACY_GROUP_ID VARBINARY(100) NOT NULL, MEMBER_KEY VARBINARY(100) NOT NULL, PRIMARY KEY (PRIVACY_GROUP_ID, MEMBER_KEY));
+CREATE INDEX PRIVACY_GROUP_TYPE_STATE ON PRIVACY_GROUP (TYPE, STATE);
+CREATE INDEX PRIVACY_GROUP_MEMBER_KEY ON PRIVACY_GROUP_MEMBER (MEMBER_KEY);
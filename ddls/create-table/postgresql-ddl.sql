@@ -1,3 +1,8 @@
-CREATE TABLE ENCRYPTED_TRANSACTION (ENCODED_PAYLOAD BYTEA NOT NULL, HASH BYTEA NOT NULL, TIMESTAMP DECIMAL(19), PRIMARY KEY (HASH));
+CREATE TABLE ENCRYPTED_TRANSACTION (ENCODED_PAYLOAD BYTEA NOT NULL, HASH BYTEA NOT NULL, TIMESTAMP DECIMAL(19), VERSION DECIMAL(19) DEFAULT 0 NOT NULL, PRIMARY KEY (HASH));
 CREATE TABLE ENCRYPTED_RAW_TRANSACTION (ENCRYPTED_KEY BYTEA NOT NULL, ENCRYPTED_PAYLOAD BYTEA NOT NULL, NONCE BYTEA NOT NULL, SENDER BYTEA NOT NULL, TIMESTAMP DECIMAL(19), HASH BYTEA NOT NULL, PRIMARY KEY (HASH));
-CREATE TABLE PRIVACY_GROUP(ID BYTEA NOT NULL, LOOKUP_ID BYTEA NOT NULL, DATA BYTEA NOT NULL, TIMESTAMP DECIMAL(19), PRIMARY KEY (ID));
+CREATE TABLE PRIVACY_GROUP(ID BYTEA NOT NULL, LOOKUP_ID BYTEA NOT NULL, DATA BYTEA NOT NULL, TIMESTAMP DECIMAL(19), TYPE VARCHAR(20), STATE VARCHAR(20), PRIMARY KEY (ID));
+CREATE TABLE ENCRYPTED_TRANSACTION_RECIPIENT (HASH BYTEA NOT NULL, RECIPIENT_KEY BYTEA NOT NULL, PRIMARY KEY (HASH, RECIPIENT_KEY));
+CREATE TABLE ENCRYPTED_TRANSACTION_BOX (HASH BYTEA NOT NULL, VERSION DECIMAL(19) NOT NULL, RECIPIENT_KEY BYTEA, RECIPIENT_BOX BYTEA NOT NULL, PRIMARY KEY (HASH, VERSION));
+CREATE TABLE PRIVACY_GROUP_MEMBER (PRIVACY_GROUP_ID BYTEA NOT NULL, MEMBER_KEY BYTEA NOT NULL, PRIMARY KEY (PRIVACY_GROUP_ID, MEMBER_KEY));
+CREATE INDEX PRIVACY_GROUP_TYPE_STATE ON PRIVACY_GROUP (TYPE, STATE);
+CREATE INDEX PRIVACY_GROUP_MEMBER_KEY ON PRIVACY_GROUP_MEMBER (MEMBER_KEY);
@@ -1,3 +1,8 @@
-CREATE TABLE ENCRYPTED_TRANSACTION (ENCODED_PAYLOAD BLOB NOT NULL, TIMESTAMP NUMBER(19), HASH BLOB NOT NULL, PRIMARY KEY (HASH));
+CREATE TABLE ENCRYPTED_TRANSACTION (ENCODED_PAYLOAD BLOB NOT NULL, TIMESTAMP NUMBER(19), HASH BLOB NOT NULL, VERSION INTEGER DEFAULT 0 NOT NULL, PRIMARY KEY (HASH));
 CREATE TABLE ENCRYPTED_RAW_TRANSACTION (ENCRYPTED_KEY BLOB NOT NULL, ENCRYPTED_PAYLOAD BLOB NOT NULL, NONCE BLOB NOT NULL, SENDER BLOB NOT NULL, TIMESTAMP NUMBER(19), HASH BLOB NOT NULL, PRIMARY KEY (HASH));
-CREATE TABLE PRIVACY_GROUP(ID BLOB NOT NULL, LOOKUP_ID BLOB NOT NULL, DATA BLOB NOT NULL, TIMESTAMP NUMBER(19), PRIMARY KEY (ID));
+CREATE TABLE PRIVACY_GROUP(ID BLOB NOT NULL, LOOKUP_ID BLOB NOT NULL, DATA BLOB NOT NULL, TIMESTAMP NUMBER(19), TYPE VARCHAR(20), STATE VARCHAR(20), PRIMARY KEY (ID));
+CREATE TABLE ENCRYPTED_TRANSACTION_RECIPIENT (HASH BLOB NOT NULL, RECIPIENT_KEY BLOB NOT NULL, PRIMARY KEY (HASH, RECIPIENT_KEY));
+CREATE TABLE ENCRYPTED_TRANSACTION_BOX (HASH BLOB NOT NULL, VERSION INTEGER NOT NULL, RECIPIENT_KEY BLOB, RECIPIENT_BOX BLOB NOT NULL, PRIMARY KEY (HASH, VERSION));
+CREATE TABLE PRIVACY_GROUP_MEMBER (PRIVACY_GROUP_ID BLOB NOT NULL, MEMBER_KEY BLOB NOT NULL, PRIMARY KEY (PRIVACY_GROUP_ID, MEMBER_KEY));
+CREATE INDEX PRIVACY_GROUP_TYPE_STATE ON PRIVACY_GROUP (TYPE, STATE);
+CREATE INDEX PRIVACY_GROUP_MEMBER_KEY ON PRIVACY_GROUP_MEMBER (MEMBER_KEY);
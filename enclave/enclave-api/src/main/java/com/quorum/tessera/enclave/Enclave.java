@@ -1,10 +1,13 @@
 package com.quorum.tessera.enclave;
 
+import com.quorum.tessera.encryption.EncryptorException;
 import com.quorum.tessera.encryption.PublicKey;
 import com.quorum.tessera.service.Service;
 import java.util.List;
+import java.util.Optional;
 import java.util.ServiceLoader;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * An {@link Enclave} provides encryption/decryption functions and keeps hold of all the nodes
@@ -117,6 +120,48 @@ public interface Enclave extends Service {
    */
   byte[] createNewRecipientBox(EncodedPayload payload, PublicKey recipientKey);
 
+  /**
+   * Finds, for each of the given payloads, which of the keys managed by this Enclave it was
+   * encrypted for, by trying to decrypt it with each key in turn.
+   *
+   * <p>Legacy payloads without recipient keys are decrypted using their first recipient box, so a
+   * legacy payload with several boxes should be split into one payload per box.
+   *
+   * @param payloads the encrypted payloads to find the recipients of
+   * @return for each payload, in the same order, the managed key that decrypts it, or empty if none
+   *     of them does
+   */
+  default List<Optional<PublicKey>> findRecipientKeys(final List<EncodedPayload> payloads) {
+    final Set<PublicKey> managedKeys = getPublicKeys();
+    return payloads.stream()
+        .map(payload -> findRecipientKey(payload, managedKeys))
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Finds which of the keys managed by this Enclave the given payload was encrypted for. This is
+   * {@link #findRecipientKeys(List)} for a single payload.
+   *
+   * @param payload the encrypted payload to find the recipient of
+   * @return the managed key that decrypts the payload, or empty if none of them does
+   */
+  default Optional<PublicKey> findRecipientKey(final EncodedPayload payload) {
+    return findRecipientKeys(List.of(payload)).get(0);
+  }
+
+  private Optional<PublicKey> findRecipientKey(
+      final EncodedPayload payload, final Set<PublicKey> managedKeys) {
+    for (final PublicKey potentialMatchingKey : managedKeys) {
+      try {
+        unencryptTransaction(payload, potentialMatchingKey);
+        return Optional.of(potentialMatchingKey);
+      } catch (EnclaveException | IndexOutOfBoundsException | EncryptorException ex) {
+        // not encrypted for this key, try the next one
+      }
+    }
+    return Optional.empty();
+  }
+
   @Override
   default void start() {}
 
@@ -70,7 +70,12 @@ public class EnclaveFactoryImpl {
 
     LOGGER.debug("Creating enclave");
 
-    Enclave enclave = new EnclaveImpl(encryptor, new KeyManagerImpl(keys, forwardKeys));
+    final SharedKeyCache sharedKeyCache =
+        SharedKeyCache.from(encryptor, encryptorConfig.getProperties());
+    LOGGER.debug("Shared key cache size {}", sharedKeyCache.getMaxSize());
+
+    Enclave enclave =
+        new EnclaveImpl(encryptor, new KeyManagerImpl(keys, forwardKeys), sharedKeyCache);
 
     LOGGER.debug("Created enclave {}", enclave);
 
@@ -16,9 +16,16 @@ public class EnclaveImpl implements Enclave {
 
   private final KeyManager keyManager;
 
+  private final SharedKeyCache sharedKeyCache;
+
   public EnclaveImpl(Encryptor encryptor, KeyManager keyManager) {
+    this(encryptor, keyManager, SharedKeyCache.disabled(encryptor));
+  }
+
+  public EnclaveImpl(Encryptor encryptor, KeyManager keyManager, SharedKeyCache sharedKeyCache) {
     this.encryptor = Objects.requireNonNull(encryptor);
     this.keyManager = Objects.requireNonNull(keyManager);
+    this.sharedKeyCache = Objects.requireNonNull(sharedKeyCache);
   }
 
   @Override
@@ -186,7 +193,7 @@ public class EnclaveImpl implements Enclave {
     final PrivateKey privateKey = keyManager.getPrivateKeyForPublicKey(senderPublicKey);
 
     return recipientPublicKeys.stream()
-        .map(publicKey -> encryptor.computeSharedKey(publicKey, privateKey))
+        .map(publicKey -> sharedKeyCache.computeSharedKey(publicKey, privateKey))
         .map(
             sharedKey ->
                 encryptor.sealAfterPrecomputation(
@@ -205,7 +212,7 @@ public class EnclaveImpl implements Enclave {
 
     // TODO NL - check if it makes sense to compute a shared key from the public and private parts
     // of the same key
-    SharedKey sharedKey = encryptor.computeSharedKey(sender, privateKey);
+    SharedKey sharedKey = sharedKeyCache.computeSharedKey(sender, privateKey);
     final byte[] encryptedMasterKey =
         encryptor.sealAfterPrecomputation(masterKey.getKeyBytes(), nonce, sharedKey);
 
@@ -283,7 +290,7 @@ public class EnclaveImpl implements Enclave {
     }
 
     final PrivateKey privateKey = keyManager.getPrivateKeyForPublicKey(publicToFindPrivateFor);
-    final SharedKey sharedKey = encryptor.computeSharedKey(senderPublicKey, privateKey);
+    final SharedKey sharedKey = sharedKeyCache.computeSharedKey(senderPublicKey, privateKey);
 
     final Nonce recipientNonce = payload.getRecipientNonce();
 
@@ -303,7 +310,8 @@ public class EnclaveImpl implements Enclave {
 
     final PrivateKey senderPrivateKey = keyManager.getPrivateKeyForPublicKey(payload.getFrom());
 
-    final SharedKey sharedKey = encryptor.computeSharedKey(payload.getFrom(), senderPrivateKey);
+    final SharedKey sharedKey =
+        sharedKeyCache.computeSharedKey(payload.getFrom(), senderPrivateKey);
 
     final byte[] recipientBox = payload.getEncryptedKey();
 
@@ -324,7 +332,7 @@ public class EnclaveImpl implements Enclave {
       PublicKey recipient, PublicKey sender, Nonce nonce, byte[] encryptedKey) {
 
     final SharedKey sharedKey =
-        encryptor.computeSharedKey(recipient, keyManager.getPrivateKeyForPublicKey(sender));
+        sharedKeyCache.computeSharedKey(recipient, keyManager.getPrivateKeyForPublicKey(sender));
 
     final byte[] masterKeyBytes = encryptor.openAfterPrecomputation(encryptedKey, nonce, sharedKey);
 
@@ -391,4 +399,14 @@ public class EnclaveImpl implements Enclave {
   public Status status() {
     return Status.STARTED;
   }
+
+  @Override
+  public void stop() {
+    LOGGER.debug(
+        "Shared key cache hits {}, misses {}, evictions {}",
+        sharedKeyCache.getHitCount(),
+        sharedKeyCache.getMissCount(),
+        sharedKeyCache.getEvictionCount());
+    sharedKeyCache.clear();
+  }
 }
@@ -28,6 +28,11 @@ public class EncodedPayload {
 
   private final PrivacyGroup.Id privacyGroupId;
 
+  /** For subclasses that provide every field through their own getters */
+  EncodedPayload() {
+    this(null, null, null, null, null, null, null, null, null, null);
+  }
+
   private EncodedPayload(
       final PublicKey senderKey,
       final byte[] cipherText,
@@ -257,34 +262,34 @@ public class EncodedPayload {
   }
 
   @Override
-  public boolean equals(Object o) {
+  public final boolean equals(Object o) {
     if (this == o) return true;
-    if (o == null || getClass() != o.getClass()) return false;
+    if (!(o instanceof EncodedPayload)) return false;
     EncodedPayload that = (EncodedPayload) o;
-    return Objects.equals(senderKey, that.senderKey)
-        && Arrays.equals(cipherText, that.cipherText)
-        && Objects.equals(cipherTextNonce, that.cipherTextNonce)
-        && Objects.equals(recipientBoxes, that.recipientBoxes)
-        && Objects.equals(recipientNonce, that.recipientNonce)
-        && Objects.equals(recipientKeys, that.recipientKeys)
-        && privacyMode == that.privacyMode
-        && Arrays.equals(execHash, that.execHash)
-        && Objects.equals(privacyGroupId, that.privacyGroupId);
+    return Objects.equals(getSenderKey(), that.getSenderKey())
+        && Arrays.equals(getCipherText(), that.getCipherText())
+        && Objects.equals(getCipherTextNonce(), that.getCipherTextNonce())
+        && Objects.equals(getRecipientBoxes(), that.getRecipientBoxes())
+        && Objects.equals(getRecipientNonce(), that.getRecipientNonce())
+        && Objects.equals(getRecipientKeys(), that.getRecipientKeys())
+        && getPrivacyMode() == that.getPrivacyMode()
+        && Arrays.equals(getExecHash(), that.getExecHash())
+        && Objects.equals(getPrivacyGroupId(), that.getPrivacyGroupId());
   }
 
   @Override
-  public int hashCode() {
+  public final int hashCode() {
     int result =
         Objects.hash(
-            senderKey,
-            cipherTextNonce,
-            recipientBoxes,
-            recipientNonce,
-            recipientKeys,
-            privacyMode,
-            privacyGroupId);
-    result = 31 * result + Arrays.hashCode(cipherText);
-    result = 31 * result + Arrays.hashCode(execHash);
+            getSenderKey(),
+            getCipherTextNonce(),
+            getRecipientBoxes(),
+            getRecipientNonce(),
+            getRecipientKeys(),
+            getPrivacyMode(),
+            getPrivacyGroupId());
+    result = 31 * result + Arrays.hashCode(getCipherText());
+    result = 31 * result + Arrays.hashCode(getExecHash());
     return result;
   }
 }
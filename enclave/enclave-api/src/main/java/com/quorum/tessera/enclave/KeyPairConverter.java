@@ -1,12 +1,14 @@
 package com.quorum.tessera.enclave;
 
 import com.quorum.tessera.config.Config;
+import com.quorum.tessera.config.EncryptorConfig;
 import com.quorum.tessera.config.KeyVaultType;
 import com.quorum.tessera.config.keypairs.AWSKeyPair;
 import com.quorum.tessera.config.keypairs.AzureVaultKeyPair;
 import com.quorum.tessera.config.keypairs.ConfigKeyPair;
 import com.quorum.tessera.config.keypairs.HashicorpVaultKeyPair;
 import com.quorum.tessera.config.util.EnvironmentVariableProvider;
+import com.quorum.tessera.config.util.ParallelKeyLoader;
 import com.quorum.tessera.encryption.KeyPair;
 import com.quorum.tessera.encryption.PrivateKey;
 import com.quorum.tessera.encryption.PublicKey;
@@ -26,20 +28,54 @@ public class KeyPairConverter {
     this.envProvider = envProvider;
   }
 
+  /**
+   * Fetches and unlocks the given keys, several at a time when there are enough of them. Each key
+   * vault in use is only connected to once, and that connection is shared between its keys.
+   *
+   * @param configKeyPairs the keys as configured
+   * @return the usable key pairs, in the order they were configured
+   */
   public Collection<KeyPair> convert(Collection<ConfigKeyPair> configKeyPairs) {
-    return configKeyPairs.stream().map(this::convert).collect(Collectors.toList());
+    final List<ConfigKeyPair> keyPairs = List.copyOf(configKeyPairs);
+
+    final Map<KeyVaultType, KeyVaultService> keyVaultServices = new EnumMap<>(KeyVaultType.class);
+    keyPairs.stream()
+        .map(KeyPairConverter::keyVaultType)
+        .flatMap(Optional::stream)
+        .distinct()
+        .forEach(
+            type ->
+                keyVaultServices.put(
+                    type, KeyVaultServiceFactory.getInstance(type).create(config, envProvider)));
+
+    final Map<String, String> encryptorProperties =
+        Optional.ofNullable(config.getEncryptor()).map(EncryptorConfig::getProperties).orElse(null);
+
+    return ParallelKeyLoader.from(encryptorProperties, keyPairs)
+        .load(keyPairs, keyPair -> convert(keyPair, keyVaultServices));
   }
 
-  private KeyPair convert(ConfigKeyPair configKeyPair) {
+  private static Optional<KeyVaultType> keyVaultType(ConfigKeyPair configKeyPair) {
+    if (configKeyPair instanceof AzureVaultKeyPair) {
+      return Optional.of(KeyVaultType.AZURE);
+    }
+    if (configKeyPair instanceof HashicorpVaultKeyPair) {
+      return Optional.of(KeyVaultType.HASHICORP);
+    }
+    if (configKeyPair instanceof AWSKeyPair) {
+      return Optional.of(KeyVaultType.AWS);
+    }
+    return Optional.empty();
+  }
+
+  private static KeyPair convert(
+      ConfigKeyPair configKeyPair, Map<KeyVaultType, KeyVaultService> keyVaultServices) {
     final String base64PublicKey;
     final String base64PrivateKey;
 
     if (configKeyPair instanceof AzureVaultKeyPair) {
 
-      KeyVaultServiceFactory keyVaultServiceFactory =
-          KeyVaultServiceFactory.getInstance(KeyVaultType.AZURE);
-
-      KeyVaultService keyVaultService = keyVaultServiceFactory.create(config, envProvider);
+      KeyVaultService keyVaultService = keyVaultServices.get(KeyVaultType.AZURE);
 
       AzureVaultKeyPair akp = (AzureVaultKeyPair) configKeyPair;
 
@@ -55,10 +91,7 @@ public class KeyPairConverter {
       base64PrivateKey = keyVaultService.getSecret(getPrivateKeyData);
     } else if (configKeyPair instanceof HashicorpVaultKeyPair) {
 
-      KeyVaultServiceFactory keyVaultServiceFactory =
-          KeyVaultServiceFactory.getInstance(KeyVaultType.HASHICORP);
-
-      KeyVaultService keyVaultService = keyVaultServiceFactory.create(config, envProvider);
+      KeyVaultService keyVaultService = keyVaultServices.get(KeyVaultType.HASHICORP);
 
       HashicorpVaultKeyPair hkp = (HashicorpVaultKeyPair) configKeyPair;
 
@@ -79,10 +112,7 @@ public class KeyPairConverter {
       base64PublicKey = keyVaultService.getSecret(getPublicKeyData);
       base64PrivateKey = keyVaultService.getSecret(getPrivateKeyData);
     } else if (configKeyPair instanceof AWSKeyPair) {
-      KeyVaultServiceFactory keyVaultServiceFactory =
-          KeyVaultServiceFactory.getInstance(KeyVaultType.AWS);
-
-      KeyVaultService keyVaultService = keyVaultServiceFactory.create(config, envProvider);
+      KeyVaultService keyVaultService = keyVaultServices.get(KeyVaultType.AWS);
 
       AWSKeyPair akp = (AWSKeyPair) configKeyPair;
 
@@ -0,0 +1,236 @@
+package com.quorum.tessera.enclave;
+
+import com.quorum.tessera.encryption.Nonce;
+import com.quorum.tessera.encryption.PublicKey;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.*;
+
+/**
+ * An {@link EncodedPayload} that reads its fields straight out of the encoded bytes.
+ *
+ * <p>Decoding only walks the encoded form to record where each field starts and how long it is;
+ * a field is copied out of the encoded bytes the first time it is asked for, and kept from then
+ * on. Callers that only look at a few fields, such as the sender key or the privacy mode, never
+ * pay for copying the cipher text or every recipient box.
+ *
+ * <p>The encoded bytes are not copied, so they must not be changed once decoded.
+ */
+final class LazyEncodedPayload extends EncodedPayload {
+
+  private static final int[] NONE = new int[0];
+
+  private final byte[] data;
+
+  // each field is held as a pair of (offset, length) into the encoded bytes
+
+  private final int[] senderKeyField;
+
+  private final int[] cipherTextField;
+
+  private final int[] cipherTextNonceField;
+
+  private final int[] recipientBoxFields;
+
+  private final int[] recipientNonceField;
+
+  private final int[] recipientKeyFields;
+
+  private final PrivacyMode privacyMode;
+
+  private final int[] affectedContractTransactionFields;
+
+  private final int[] execHashField;
+
+  private final int[] privacyGroupIdField;
+
+  private volatile PublicKey senderKey;
+
+  private volatile byte[] cipherText;
+
+  private volatile Nonce cipherTextNonce;
+
+  private volatile List<RecipientBox> recipientBoxes;
+
+  private volatile Nonce recipientNonce;
+
+  private volatile List<PublicKey> recipientKeys;
+
+  private volatile Map<TxHash, SecurityHash> affectedContractTransactions;
+
+  private volatile byte[] execHash;
+
+  LazyEncodedPayload(final byte[] data) {
+    this.data = data;
+
+    final ByteBuffer buffer = ByteBuffer.wrap(data);
+
+    this.senderKeyField = readFields(buffer, 1);
+    this.cipherTextField = readFields(buffer, 1);
+    this.cipherTextNonceField = readFields(buffer, 1);
+    this.recipientBoxFields = readFields(buffer, readCount(buffer));
+    this.recipientNonceField = readFields(buffer, 1);
+
+    // older payloads stop after the recipient nonce, or after the recipient keys
+    if (!buffer.hasRemaining()) {
+      this.recipientKeyFields = NONE;
+    } else {
+      this.recipientKeyFields = readFields(buffer, readCount(buffer));
+    }
+
+    if (!buffer.hasRemaining()) {
+      this.privacyMode = PrivacyMode.STANDARD_PRIVATE;
+      this.affectedContractTransactionFields = NONE;
+      this.execHashField = null;
+      this.privacyGroupIdField = null;
+      return;
+    }
+
+    final int[] privacyFlagField = readFields(buffer, 1);
+    if (privacyFlagField[1] == 0) {
+      throw new BufferUnderflowException();
+    }
+    this.privacyMode = PrivacyMode.fromFlag(data[privacyFlagField[0]]);
+
+    // a key and a value for each affected contract transaction
+    this.affectedContractTransactionFields = readFields(buffer, readCount(buffer) * 2);
+
+    if (buffer.hasRemaining() && privacyMode == PrivacyMode.PRIVATE_STATE_VALIDATION) {
+      this.execHashField = readFields(buffer, 1);
+    } else {
+      this.execHashField = null;
+    }
+
+    final int execHashLength = execHashField == null ? 0 : execHashField[1];
+    if ((privacyMode == PrivacyMode.PRIVATE_STATE_VALIDATION) == (execHashLength == 0)) {
+      throw new RuntimeException("ExecutionHash data is invalid");
+    }
+
+    this.privacyGroupIdField = buffer.hasRemaining() ? readFields(buffer, 1) : null;
+  }
+
+  private static int readCount(final ByteBuffer buffer) {
+    final long count = buffer.getLong();
+    // every entry has at least its length left to read
+    if (count < 0 || count > buffer.remaining() / Long.BYTES) {
+      throw new BufferUnderflowException();
+    }
+    return (int) count;
+  }
+
+  private static int[] readFields(final ByteBuffer buffer, final int count) {
+    final int[] fields = new int[count * 2];
+    for (int i = 0; i < count; i++) {
+      final int length = Math.toIntExact(buffer.getLong());
+      if (length < 0 || length > buffer.remaining()) {
+        throw new BufferUnderflowException();
+      }
+      fields[i * 2] = buffer.position();
+      fields[i * 2 + 1] = length;
+      buffer.position(buffer.position() + length);
+    }
+    return fields;
+  }
+
+  private byte[] copy(final int[] fields, final int index) {
+    final int offset = fields[index * 2];
+    return Arrays.copyOfRange(data, offset, offset + fields[index * 2 + 1]);
+  }
+
+  @Override
+  public PublicKey getSenderKey() {
+    PublicKey result = senderKey;
+    if (result == null) {
+      result = senderKey = PublicKey.from(copy(senderKeyField, 0));
+    }
+    return result;
+  }
+
+  @Override
+  public byte[] getCipherText() {
+    byte[] result = cipherText;
+    if (result == null) {
+      result = cipherText = copy(cipherTextField, 0);
+    }
+    return result;
+  }
+
+  @Override
+  public Nonce getCipherTextNonce() {
+    Nonce result = cipherTextNonce;
+    if (result == null) {
+      result = cipherTextNonce = new Nonce(copy(cipherTextNonceField, 0));
+    }
+    return result;
+  }
+
+  @Override
+  public List<RecipientBox> getRecipientBoxes() {
+    List<RecipientBox> result = recipientBoxes;
+    if (result == null) {
+      final List<RecipientBox> boxes = new ArrayList<>(recipientBoxFields.length / 2);
+      for (int i = 0; i < recipientBoxFields.length / 2; i++) {
+        boxes.add(RecipientBox.from(copy(recipientBoxFields, i)));
+      }
+      result = recipientBoxes = Collections.unmodifiableList(boxes);
+    }
+    return result;
+  }
+
+  @Override
+  public Nonce getRecipientNonce() {
+    Nonce result = recipientNonce;
+    if (result == null) {
+      result = recipientNonce = new Nonce(copy(recipientNonceField, 0));
+    }
+    return result;
+  }
+
+  @Override
+  public List<PublicKey> getRecipientKeys() {
+    List<PublicKey> result = recipientKeys;
+    if (result == null) {
+      final List<PublicKey> keys = new ArrayList<>(recipientKeyFields.length / 2);
+      for (int i = 0; i < recipientKeyFields.length / 2; i++) {
+        keys.add(PublicKey.from(copy(recipientKeyFields, i)));
+      }
+      result = recipientKeys = Collections.unmodifiableList(keys);
+    }
+    return result;
+  }
+
+  @Override
+  public PrivacyMode getPrivacyMode() {
+    return privacyMode;
+  }
+
+  @Override
+  public Map<TxHash, SecurityHash> getAffectedContractTransactions() {
+    Map<TxHash, SecurityHash> result = affectedContractTransactions;
+    if (result == null) {
+      final Map<TxHash, SecurityHash> affected = new HashMap<>();
+      for (int i = 0; i < affectedContractTransactionFields.length / 2; i += 2) {
+        affected.put(
+            new TxHash(copy(affectedContractTransactionFields, i)),
+            SecurityHash.from(copy(affectedContractTransactionFields, i + 1)));
+      }
+      result = affectedContractTransactions = Collections.unmodifiableMap(affected);
+    }
+    return result;
+  }
+
+  @Override
+  public byte[] getExecHash() {
+    byte[] result = execHash;
+    if (result == null) {
+      result = execHash = execHashField == null ? new byte[0] : copy(execHashField, 0);
+    }
+    return result;
+  }
+
+  @Override
+  public Optional<PrivacyGroup.Id> getPrivacyGroupId() {
+    return Optional.ofNullable(privacyGroupIdField)
+        .map(field -> PrivacyGroup.Id.fromBytes(copy(field, 0)));
+  }
+}
@@ -1,7 +1,11 @@
 package com.quorum.tessera.enclave;
 
 import com.quorum.tessera.encryption.PublicKey;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.ServiceLoader;
+import java.util.function.Function;
 
 /** Encodes and decodes a {@link EncodedPayload} to and from its binary representation */
 public interface PayloadEncoder {
@@ -14,9 +18,47 @@ public interface PayloadEncoder {
    */
   byte[] encode(EncodedPayload payload);
 
+  /**
+   * The number of bytes the payload takes up once encoded
+   *
+   * @param payload the payload to measure
+   * @return the length of the array {@link #encode(EncodedPayload)} would return
+   */
+  default int encodedSize(EncodedPayload payload) {
+    return encode(payload).length;
+  }
+
+  /**
+   * Encodes the payload into the given buffer, starting at its current position. The buffer must
+   * have at least {@link #encodedSize(EncodedPayload)} bytes remaining and use big-endian byte
+   * order.
+   *
+   * @param payload the payload to encode
+   * @param target the buffer to write the encoded payload to
+   * @throws java.nio.BufferOverflowException if the buffer does not have enough space remaining
+   */
+  default void encode(EncodedPayload payload, ByteBuffer target) {
+    target.put(encode(payload));
+  }
+
+  /**
+   * Encodes the payload straight to the given stream, which is flushed but not closed
+   *
+   * @param payload the payload to encode
+   * @param target the stream to write the encoded payload to
+   * @throws IOException if the stream can not be written to
+   */
+  default void encode(EncodedPayload payload, OutputStream target) throws IOException {
+    target.write(encode(payload));
+    target.flush();
+  }
+
   /**
    * Decodes a byte array back into an encrypted payload
    *
+   * <p>Fields of the returned payload may be read from the input on first access, so the input
+   * must not be modified afterwards.
+   *
    * @param input The byte array to decode into an EncodedPayload
    * @return the decoded payload
    */
@@ -33,6 +75,19 @@ public interface PayloadEncoder {
    */
   EncodedPayload forRecipient(EncodedPayload input, PublicKey recipient);
 
+  /**
+   * Prepares a payload to be stripped for each of its recipients in turn, such as when it is
+   * published to every recipient. Implementations may encode the fields shared by every recipient
+   * once here, rather than for each recipient.
+   *
+   * @param input the full payload from which data needs to be stripped
+   * @return a function returning the same payload as {@link #forRecipient(EncodedPayload,
+   *     PublicKey)} for the given recipient
+   */
+  default Function<PublicKey, EncodedPayload> forRecipients(EncodedPayload input) {
+    return recipient -> forRecipient(input, recipient);
+  }
+
   /**
    * Checks whether recipientKeys is empty. If it is, it tries to add the specified recipient. If
    * the recipientKeys list is immutable then it creates a new EncodedPayload with the recipientKeys
@@ -45,6 +100,23 @@ public interface PayloadEncoder {
    */
   EncodedPayload withRecipient(EncodedPayload input, PublicKey recipient);
 
+  /**
+   * Adds the box of another recipient to a payload, ahead of the boxes it already has. Used both
+   * when a box arrives for a stored transaction and to assemble a stored payload from the boxes
+   * that were kept alongside it, rather than encoded into it, as they arrived.
+   *
+   * <p>The recipient is put first in the recipient keys, so that it still lines up with its box.
+   * A private state validation payload already lists every recipient, so the recipient is moved
+   * rather than added.
+   *
+   * @param input the payload to add the box to
+   * @param recipient the recipient the box is for, or {@code null} for a legacy payload which
+   *     doesn't list its recipients
+   * @param recipientBox the box to add
+   * @return a payload with the box and recipient added
+   */
+  EncodedPayload withRecipientBox(EncodedPayload input, PublicKey recipient, byte[] recipientBox);
+
   static PayloadEncoder create() {
     return ServiceLoader.load(PayloadEncoder.class).findFirst().get();
   }
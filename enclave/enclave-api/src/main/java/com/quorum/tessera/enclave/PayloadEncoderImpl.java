@@ -1,242 +1,248 @@
 package com.quorum.tessera.enclave;
 
 import static java.util.Collections.*;
-import static java.util.stream.Collectors.toList;
 
+import com.quorum.tessera.encryption.Nonce;
 import com.quorum.tessera.encryption.PublicKey;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 public class PayloadEncoderImpl implements PayloadEncoder, BinaryEncoder {
 
   @Override
   public byte[] encode(final EncodedPayload payload) {
+    final ByteBuffer buffer = ByteBuffer.allocate(encodedSize(payload));
+    encode(payload, buffer);
+    return buffer.array();
+  }
 
-    final byte[] senderKey = encodeField(payload.getSenderKey().getKeyBytes());
-    final byte[] cipherText = encodeField(payload.getCipherText());
-    final byte[] nonce = encodeField(payload.getCipherTextNonce().getNonceBytes());
-    final byte[] recipientNonce = encodeField(payload.getRecipientNonce().getNonceBytes());
-    final byte[] recipients =
-        encodeArray(
-            payload.getRecipientBoxes().stream()
-                .map(RecipientBox::getData)
-                .collect(Collectors.toUnmodifiableList()));
-    final byte[] recipientBytes =
-        encodeArray(
-            payload.getRecipientKeys().stream().map(PublicKey::getKeyBytes).collect(toList()));
-    final PrivacyMode privacyMode =
-        Optional.ofNullable(payload.getPrivacyMode()).orElse(PrivacyMode.STANDARD_PRIVATE);
-    final byte[] privacyModeByte = encodeField(new byte[] {(byte) privacyMode.getPrivacyFlag()});
-
-    final int affectedContractsPayloadLength =
-        payload.getAffectedContractTransactions().entrySet().stream()
-                .mapToInt(
-                    entry -> entry.getKey().getBytes().length + entry.getValue().getData().length)
-                .sum() // total size of all keys and values
-            + Long.BYTES
-            + // the number of entries in the map
-            payload.getAffectedContractTransactions().size()
-                * 2
-                * Long.BYTES; // sizes of key and value lengths (for each entry)
-    final ByteBuffer affectedContractTxs = ByteBuffer.allocate(affectedContractsPayloadLength);
-    affectedContractTxs.putLong(payload.getAffectedContractTransactions().size());
-    for (Map.Entry<TxHash, SecurityHash> entry :
-        payload.getAffectedContractTransactions().entrySet()) {
-      affectedContractTxs.putLong(entry.getKey().getBytes().length);
-      affectedContractTxs.put(entry.getKey().getBytes());
-      affectedContractTxs.putLong(entry.getValue().getData().length);
-      affectedContractTxs.put(entry.getValue().getData());
-    }
-    byte[] executionHash = new byte[0];
-    if (Objects.nonNull(payload.getExecHash()) && payload.getExecHash().length > 0) {
-      executionHash = encodeField(payload.getExecHash());
+  @Override
+  public int encodedSize(final EncodedPayload payload) {
+    if (payload instanceof RecipientEncodedPayload) {
+      return ((RecipientEncodedPayload) payload).encodedSize();
     }
+    return headSize(payload)
+        + recipientsSize(
+            payload.getRecipientBoxes(), payload.getRecipientNonce(), payload.getRecipientKeys())
+        + tailSize(payload);
+  }
 
-    byte[] privacyGroupId =
-        payload
-            .getPrivacyGroupId()
-            .map(PrivacyGroup.Id::getBytes)
-            .map(this::encodeField)
-            .orElse(new byte[0]);
-
-    return ByteBuffer.allocate(
-            senderKey.length
-                + cipherText.length
-                + nonce.length
-                + recipients.length
-                + recipientNonce.length
-                + recipientBytes.length
-                + privacyModeByte.length
-                + affectedContractsPayloadLength
-                + executionHash.length
-                + privacyGroupId.length)
-        .put(senderKey)
-        .put(cipherText)
-        .put(nonce)
-        .put(recipients)
-        .put(recipientNonce)
-        .put(recipientBytes)
-        .put(privacyModeByte)
-        .put(affectedContractTxs.array())
-        .put(executionHash)
-        .put(privacyGroupId)
-        .array();
+  @Override
+  public void encode(final EncodedPayload payload, final ByteBuffer target) {
+    write(payload, bufferWriter(target));
   }
 
   @Override
-  public EncodedPayload decode(final byte[] input) {
-    final ByteBuffer buffer = ByteBuffer.wrap(input);
-
-    final long senderSize = buffer.getLong();
-    final byte[] senderKey = new byte[Math.toIntExact(senderSize)];
-    buffer.get(senderKey);
-
-    final long cipherTextSize = buffer.getLong();
-    final byte[] cipherText = new byte[Math.toIntExact(cipherTextSize)];
-    buffer.get(cipherText);
-
-    final long nonceSize = buffer.getLong();
-    final byte[] nonce = new byte[Math.toIntExact(nonceSize)];
-    buffer.get(nonce);
-
-    final long numberOfRecipients = buffer.getLong();
-    final List<byte[]> recipientBoxes = new ArrayList<>();
-    for (long i = 0; i < numberOfRecipients; i++) {
-      final long boxSize = buffer.getLong();
-      final byte[] box = new byte[Math.toIntExact(boxSize)];
-      buffer.get(box);
-      recipientBoxes.add(box);
+  public void encode(final EncodedPayload payload, final OutputStream target) throws IOException {
+    // not closed, the stream belongs to the caller
+    final DataOutputStream output = new DataOutputStream(target);
+    write(
+        payload,
+        new FieldWriter<IOException>() {
+          @Override
+          public void writeLength(long length) throws IOException {
+            output.writeLong(length);
+          }
+
+          @Override
+          public void writeBytes(byte[] data) throws IOException {
+            output.write(data);
+          }
+        });
+    output.flush();
+  }
+
+  /**
+   * Writes each field of the payload in order, as its length followed by its bytes. Lists and maps
+   * are written as their number of entries followed by each entry.
+   *
+   * <p>A payload from {@link #forRecipients(EncodedPayload)} is written as the regions that were
+   * encoded up front, without encoding any of its fields again.
+   */
+  private static <E extends Exception> void write(
+      final EncodedPayload payload, final FieldWriter<E> writer) throws E {
+
+    if (payload instanceof RecipientEncodedPayload) {
+      final RecipientEncodedPayload recipientPayload = (RecipientEncodedPayload) payload;
+      writer.writeBytes(recipientPayload.getEncodedHead());
+      writer.writeBytes(recipientPayload.getEncodedRecipients());
+      writer.writeBytes(recipientPayload.getEncodedTail());
+      return;
     }
 
-    final long recipientNonceSize = buffer.getLong();
-    final byte[] recipientNonce = new byte[Math.toIntExact(recipientNonceSize)];
-    buffer.get(recipientNonce);
-
-    // this means there are no recipients in the payload (which we receive when we are a
-    // participant)
-    // TODO - not sure this is right
-    if (!buffer.hasRemaining()) {
-
-      return EncodedPayload.Builder.create()
-          .withSenderKey(PublicKey.from(senderKey))
-          .withCipherText(cipherText)
-          .withCipherTextNonce(nonce)
-          .withRecipientBoxes(recipientBoxes)
-          .withRecipientNonce(recipientNonce)
-          .withRecipientKeys(emptyList())
-          .withPrivacyMode(PrivacyMode.STANDARD_PRIVATE)
-          .withAffectedContractTransactions(emptyMap())
-          .withExecHash(new byte[0])
-          .build();
+    writeHead(payload, writer);
+    writeRecipients(
+        payload.getRecipientBoxes(),
+        payload.getRecipientNonce(),
+        payload.getRecipientKeys(),
+        writer);
+    writeTail(payload, writer);
+  }
+
+  /** The sender, cipher text and cipher text nonce, which are the same for every recipient */
+  private static <E extends Exception> void writeHead(
+      final EncodedPayload payload, final FieldWriter<E> writer) throws E {
+    writer.writeField(payload.getSenderKey().getKeyBytes());
+    writer.writeField(payload.getCipherText());
+    writer.writeField(payload.getCipherTextNonce().getNonceBytes());
+  }
+
+  private static int headSize(final EncodedPayload payload) {
+    return fieldSize(payload.getSenderKey().getKeyBytes())
+        + fieldSize(payload.getCipherText())
+        + fieldSize(payload.getCipherTextNonce().getNonceBytes());
+  }
+
+  /** The recipient boxes, recipient nonce and recipient keys */
+  private static <E extends Exception> void writeRecipients(
+      final List<RecipientBox> recipientBoxes,
+      final Nonce recipientNonce,
+      final List<PublicKey> recipientKeys,
+      final FieldWriter<E> writer)
+      throws E {
+    writer.writeLength(recipientBoxes.size());
+    for (RecipientBox box : recipientBoxes) {
+      writer.writeField(box.getData());
     }
 
-    final long recipientLength = buffer.getLong();
+    writer.writeField(recipientNonce.getNonceBytes());
 
-    final List<byte[]> recipientKeys = new ArrayList<>();
-    for (long i = 0; i < recipientLength; i++) {
-      final long boxSize = buffer.getLong();
-      final byte[] box = new byte[Math.toIntExact(boxSize)];
-      buffer.get(box);
-      recipientKeys.add(box);
+    writer.writeLength(recipientKeys.size());
+    for (PublicKey recipient : recipientKeys) {
+      writer.writeField(recipient.getKeyBytes());
     }
+  }
 
-    if (!buffer.hasRemaining()) {
-
-      return EncodedPayload.Builder.create()
-          .withSenderKey(PublicKey.from(senderKey))
-          .withCipherText(cipherText)
-          .withCipherTextNonce(nonce)
-          .withRecipientBoxes(recipientBoxes)
-          .withRecipientNonce(recipientNonce)
-          .withRecipientKeys(recipientKeys.stream().map(PublicKey::from).collect(toList()))
-          .withPrivacyMode(PrivacyMode.STANDARD_PRIVATE)
-          .withAffectedContractTransactions(emptyMap())
-          .withExecHash(new byte[0])
-          .build();
+  private static int recipientsSize(
+      final List<RecipientBox> recipientBoxes,
+      final Nonce recipientNonce,
+      final List<PublicKey> recipientKeys) {
+    int size = Long.BYTES;
+    for (RecipientBox box : recipientBoxes) {
+      size += fieldSize(box.getData());
     }
 
-    final long privacyFlagLength = buffer.getLong();
-    final byte[] privacyFlag = new byte[Math.toIntExact(privacyFlagLength)];
-    buffer.get(privacyFlag);
+    size += fieldSize(recipientNonce.getNonceBytes());
 
-    final long affectedContractTransactionsLength = buffer.getLong();
-    final Map<TxHash, byte[]> affectedContractTransactions = new HashMap<>();
-    for (long i = 0; i < affectedContractTransactionsLength; i++) {
-      final long txHashSize = buffer.getLong();
-      final byte[] txHash = new byte[Math.toIntExact(txHashSize)];
-      buffer.get(txHash);
+    size += Long.BYTES;
+    for (PublicKey recipient : recipientKeys) {
+      size += fieldSize(recipient.getKeyBytes());
+    }
+    return size;
+  }
 
-      final long txSecHashSize = buffer.getLong();
-      final byte[] txSecHash = new byte[Math.toIntExact(txSecHashSize)];
-      buffer.get(txSecHash);
+  /**
+   * The privacy flag, affected contract transactions, execution hash and privacy group, which are
+   * the same for every recipient
+   */
+  private static <E extends Exception> void writeTail(
+      final EncodedPayload payload, final FieldWriter<E> writer) throws E {
+    final PrivacyMode privacyMode =
+        Optional.ofNullable(payload.getPrivacyMode()).orElse(PrivacyMode.STANDARD_PRIVATE);
+    writer.writeField(new byte[] {(byte) privacyMode.getPrivacyFlag()});
+
+    final Map<TxHash, SecurityHash> affectedContractTransactions =
+        payload.getAffectedContractTransactions();
+    writer.writeLength(affectedContractTransactions.size());
+    for (Map.Entry<TxHash, SecurityHash> entry : affectedContractTransactions.entrySet()) {
+      writer.writeField(entry.getKey().getBytes());
+      writer.writeField(entry.getValue().getData());
+    }
 
-      affectedContractTransactions.put(new TxHash(txHash), txSecHash);
+    if (hasExecHash(payload)) {
+      writer.writeField(payload.getExecHash());
     }
 
-    final PrivacyMode privacyMode = PrivacyMode.fromFlag(privacyFlag[0]);
+    final Optional<PrivacyGroup.Id> privacyGroupId = payload.getPrivacyGroupId();
+    if (privacyGroupId.isPresent()) {
+      writer.writeField(privacyGroupId.get().getBytes());
+    }
+  }
 
-    byte[] executionHash = new byte[0];
-    if (buffer.hasRemaining()) {
-      if (privacyMode == PrivacyMode.PRIVATE_STATE_VALIDATION) {
-        final long executionHashSize = buffer.getLong();
-        executionHash = new byte[Math.toIntExact(executionHashSize)];
-        buffer.get(executionHash);
-      }
+  private static int tailSize(final EncodedPayload payload) {
+    // the privacy flag is a single byte
+    int size = Long.BYTES + 1;
+
+    size += Long.BYTES;
+    for (Map.Entry<TxHash, SecurityHash> entry :
+        payload.getAffectedContractTransactions().entrySet()) {
+      size += fieldSize(entry.getKey().getBytes()) + fieldSize(entry.getValue().getData());
     }
 
-    if (!buffer.hasRemaining()) {
-      return EncodedPayload.Builder.create()
-          .withSenderKey(PublicKey.from(senderKey))
-          .withCipherText(cipherText)
-          .withCipherTextNonce(nonce)
-          .withRecipientBoxes(recipientBoxes)
-          .withRecipientNonce(recipientNonce)
-          .withRecipientKeys(recipientKeys.stream().map(PublicKey::from).collect(toList()))
-          .withPrivacyMode(privacyMode)
-          .withAffectedContractTransactions(affectedContractTransactions)
-          .withExecHash(executionHash)
-          .build();
+    if (hasExecHash(payload)) {
+      size += fieldSize(payload.getExecHash());
     }
 
-    final long privacyGroupIdSize = buffer.getLong();
-    final byte[] privacyGroupId = new byte[Math.toIntExact(privacyGroupIdSize)];
-    buffer.get(privacyGroupId);
-
-    return EncodedPayload.Builder.create()
-        .withSenderKey(PublicKey.from(senderKey))
-        .withCipherText(cipherText)
-        .withCipherTextNonce(nonce)
-        .withRecipientBoxes(recipientBoxes)
-        .withRecipientNonce(recipientNonce)
-        .withRecipientKeys(recipientKeys.stream().map(PublicKey::from).collect(toList()))
-        .withPrivacyMode(privacyMode)
-        .withAffectedContractTransactions(affectedContractTransactions)
-        .withExecHash(executionHash)
-        .withPrivacyGroupId(PrivacyGroup.Id.fromBytes(privacyGroupId))
-        .build();
+    size +=
+        payload
+            .getPrivacyGroupId()
+            .map(PrivacyGroup.Id::getBytes)
+            .map(PayloadEncoderImpl::fieldSize)
+            .orElse(0);
+
+    return size;
   }
 
-  @Override
-  public EncodedPayload forRecipient(final EncodedPayload payload, final PublicKey recipient) {
+  private static boolean hasExecHash(final EncodedPayload payload) {
+    return Objects.nonNull(payload.getExecHash()) && payload.getExecHash().length > 0;
+  }
 
-    if (!payload.getRecipientKeys().contains(recipient)) {
-      throw new InvalidRecipientException(
-          "Recipient " + recipient.encodeToBase64() + " is not a recipient of transaction ");
-    }
+  private static int fieldSize(final byte[] data) {
+    return Long.BYTES + data.length;
+  }
 
-    final int recipientIndex = payload.getRecipientKeys().indexOf(recipient);
-    final byte[] recipientBox = payload.getRecipientBoxes().get(recipientIndex).getData();
+  private static byte[] encodePart(
+      final int size, final Consumer<FieldWriter<RuntimeException>> part) {
+    final ByteBuffer buffer = ByteBuffer.allocate(size);
+    part.accept(bufferWriter(buffer));
+    return buffer.array();
+  }
 
-    List<PublicKey> recipientList;
+  private static FieldWriter<RuntimeException> bufferWriter(final ByteBuffer target) {
+    return new FieldWriter<>() {
+      @Override
+      public void writeLength(long length) {
+        target.putLong(length);
+      }
 
-    if (PrivacyMode.PRIVATE_STATE_VALIDATION == payload.getPrivacyMode()) {
-      recipientList = new ArrayList<>(payload.getRecipientKeys());
-      recipientList.remove(recipientIndex);
-      recipientList.add(0, recipient);
-    } else {
-      recipientList = singletonList(recipient);
+      @Override
+      public void writeBytes(byte[] data) {
+        target.put(data);
+      }
+    };
+  }
+
+  /** Where the encoded fields of a payload are written to */
+  private interface FieldWriter<E extends Exception> {
+
+    void writeLength(long length) throws E;
+
+    void writeBytes(byte[] data) throws E;
+
+    default void writeField(byte[] data) throws E {
+      writeLength(data.length);
+      writeBytes(data);
     }
+  }
+
+  @Override
+  public EncodedPayload decode(final byte[] input) {
+    return new LazyEncodedPayload(input);
+  }
+
+  @Override
+  public EncodedPayload forRecipient(final EncodedPayload payload, final PublicKey recipient) {
+
+    final int recipientIndex = recipientIndex(payload, recipient);
+    final byte[] recipientBox = payload.getRecipientBoxes().get(recipientIndex).getData();
+
+    final List<PublicKey> recipientList = recipientKeysFor(payload, recipientIndex);
 
     Map<TxHash, byte[]> affectedTxnMap =
         payload.getAffectedContractTransactions().entrySet().stream()
@@ -258,6 +264,52 @@ public class PayloadEncoderImpl implements PayloadEncoder, BinaryEncoder {
     return builder.build();
   }
 
+  @Override
+  public Function<PublicKey, EncodedPayload> forRecipients(final EncodedPayload payload) {
+
+    final byte[] head = encodePart(headSize(payload), writer -> writeHead(payload, writer));
+    final byte[] tail = encodePart(tailSize(payload), writer -> writeTail(payload, writer));
+    final Nonce recipientNonce = payload.getRecipientNonce();
+
+    return recipient -> {
+      final int recipientIndex = recipientIndex(payload, recipient);
+
+      final List<RecipientBox> recipientBoxes =
+          singletonList(payload.getRecipientBoxes().get(recipientIndex));
+      final List<PublicKey> recipientKeys = recipientKeysFor(payload, recipientIndex);
+
+      final byte[] recipients =
+          encodePart(
+              recipientsSize(recipientBoxes, recipientNonce, recipientKeys),
+              writer -> writeRecipients(recipientBoxes, recipientNonce, recipientKeys, writer));
+
+      return new RecipientEncodedPayload(
+          payload, recipientBoxes, recipientKeys, head, recipients, tail);
+    };
+  }
+
+  private static int recipientIndex(final EncodedPayload payload, final PublicKey recipient) {
+    final int recipientIndex = payload.getRecipientKeys().indexOf(recipient);
+    if (recipientIndex < 0) {
+      throw new InvalidRecipientException(
+          "Recipient " + recipient.encodeToBase64() + " is not a recipient of transaction ");
+    }
+    return recipientIndex;
+  }
+
+  private static List<PublicKey> recipientKeysFor(
+      final EncodedPayload payload, final int recipientIndex) {
+    final PublicKey recipient = payload.getRecipientKeys().get(recipientIndex);
+
+    if (PrivacyMode.PRIVATE_STATE_VALIDATION == payload.getPrivacyMode()) {
+      final List<PublicKey> recipientList = new ArrayList<>(payload.getRecipientKeys());
+      recipientList.remove(recipientIndex);
+      recipientList.add(0, recipient);
+      return recipientList;
+    }
+    return singletonList(recipient);
+  }
+
   @Override
   public EncodedPayload withRecipient(final EncodedPayload payload, final PublicKey recipient) {
     // this method is to be used for adding a recipient to an EncodedPayload that does not have any.
@@ -266,4 +318,26 @@ public class PayloadEncoderImpl implements PayloadEncoder, BinaryEncoder {
     }
     return EncodedPayload.Builder.from(payload).withRecipientKey(recipient).build();
   }
+
+  @Override
+  public EncodedPayload withRecipientBox(
+      final EncodedPayload payload, final PublicKey recipient, final byte[] recipientBox) {
+    final List<byte[]> recipientBoxes = new ArrayList<>(payload.getRecipientBoxes().size() + 1);
+    recipientBoxes.add(recipientBox);
+    payload.getRecipientBoxes().stream().map(RecipientBox::getData).forEach(recipientBoxes::add);
+
+    final EncodedPayload.Builder builder =
+        EncodedPayload.Builder.from(payload).withRecipientBoxes(recipientBoxes);
+
+    if (recipient != null) {
+      final List<PublicKey> recipientKeys = new ArrayList<>(payload.getRecipientKeys());
+      if (payload.getPrivacyMode() == PrivacyMode.PRIVATE_STATE_VALIDATION) {
+        recipientKeys.remove(recipient);
+      }
+      recipientKeys.add(0, recipient);
+      builder.withNewRecipientKeys(recipientKeys);
+    }
+
+    return builder.build();
+  }
 }
@@ -0,0 +1,112 @@
+package com.quorum.tessera.enclave;
+
+import com.quorum.tessera.encryption.Nonce;
+import com.quorum.tessera.encryption.PublicKey;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A payload stripped down for one of its recipients, which shares everything but its recipient
+ * boxes and keys with the payload it was stripped from.
+ *
+ * <p>Alongside the fields, it holds its encoded form as three regions: the head and tail are
+ * encoded once and shared by every recipient of the original payload, and only the recipient
+ * boxes and keys in between are encoded per recipient. {@link PayloadEncoderImpl} writes these
+ * regions out as they are rather than encoding the payload again.
+ */
+final class RecipientEncodedPayload extends EncodedPayload {
+
+  private final EncodedPayload payload;
+
+  private final List<RecipientBox> recipientBoxes;
+
+  private final List<PublicKey> recipientKeys;
+
+  private final byte[] encodedHead;
+
+  private final byte[] encodedRecipients;
+
+  private final byte[] encodedTail;
+
+  RecipientEncodedPayload(
+      final EncodedPayload payload,
+      final List<RecipientBox> recipientBoxes,
+      final List<PublicKey> recipientKeys,
+      final byte[] encodedHead,
+      final byte[] encodedRecipients,
+      final byte[] encodedTail) {
+    this.payload = payload;
+    this.recipientBoxes = List.copyOf(recipientBoxes);
+    this.recipientKeys = List.copyOf(recipientKeys);
+    this.encodedHead = encodedHead;
+    this.encodedRecipients = encodedRecipients;
+    this.encodedTail = encodedTail;
+  }
+
+  byte[] getEncodedHead() {
+    return encodedHead;
+  }
+
+  byte[] getEncodedRecipients() {
+    return encodedRecipients;
+  }
+
+  byte[] getEncodedTail() {
+    return encodedTail;
+  }
+
+  int encodedSize() {
+    return encodedHead.length + encodedRecipients.length + encodedTail.length;
+  }
+
+  @Override
+  public PublicKey getSenderKey() {
+    return payload.getSenderKey();
+  }
+
+  @Override
+  public byte[] getCipherText() {
+    return payload.getCipherText();
+  }
+
+  @Override
+  public Nonce getCipherTextNonce() {
+    return payload.getCipherTextNonce();
+  }
+
+  @Override
+  public List<RecipientBox> getRecipientBoxes() {
+    return recipientBoxes;
+  }
+
+  @Override
+  public Nonce getRecipientNonce() {
+    return payload.getRecipientNonce();
+  }
+
+  @Override
+  public List<PublicKey> getRecipientKeys() {
+    return recipientKeys;
+  }
+
+  @Override
+  public PrivacyMode getPrivacyMode() {
+    return payload.getPrivacyMode();
+  }
+
+  @Override
+  public Map<TxHash, SecurityHash> getAffectedContractTransactions() {
+    return payload.getAffectedContractTransactions();
+  }
+
+  @Override
+  public byte[] getExecHash() {
+    return payload.getExecHash();
+  }
+
+  @Override
+  public Optional<PrivacyGroup.Id> getPrivacyGroupId() {
+    return payload.getPrivacyGroupId();
+  }
+}
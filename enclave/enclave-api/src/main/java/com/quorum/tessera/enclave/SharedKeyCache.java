@@ -0,0 +1,193 @@
+package com.quorum.tessera.enclave;
+
+import com.quorum.tessera.encryption.Encryptor;
+import com.quorum.tessera.encryption.PrivateKey;
+import com.quorum.tessera.encryption.PublicKey;
+import com.quorum.tessera.encryption.SharedKey;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A bounded, least-recently-used cache of precomputed shared keys, keyed by the (remote public
+ * key, local private key) pair that was used to compute them.
+ *
+ * <p>Computing a shared key is the most expensive part of sealing and opening a recipient box, and
+ * a node usually talks to the same small set of counterparties. Entries evicted from the cache have
+ * their key bytes zeroed, so callers are always handed a copy of the cached key rather than the
+ * cached instance itself.
+ *
+ * <p>A cache with a maximum size of zero is disabled and delegates every call to the {@link
+ * Encryptor}.
+ */
+public class SharedKeyCache {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SharedKeyCache.class);
+
+  public static final String MAX_SIZE_PROPERTY = "sharedKeyCacheSize";
+
+  public static final int DEFAULT_MAX_SIZE = 1024;
+
+  private final Encryptor encryptor;
+
+  private final int maxSize;
+
+  private final Map<CacheKey, SharedKey> entries;
+
+  private final LongAdder hits = new LongAdder();
+
+  private final LongAdder misses = new LongAdder();
+
+  private final LongAdder evictions = new LongAdder();
+
+  public SharedKeyCache(Encryptor encryptor, int maxSize) {
+    if (maxSize < 0) {
+      throw new IllegalArgumentException("Shared key cache size cannot be negative");
+    }
+    this.encryptor = Objects.requireNonNull(encryptor);
+    this.maxSize = maxSize;
+    this.entries =
+        new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<CacheKey, SharedKey> eldest) {
+            if (size() <= SharedKeyCache.this.maxSize) {
+              return false;
+            }
+            destroy(eldest.getValue());
+            evictions.increment();
+            return true;
+          }
+        };
+  }
+
+  public static SharedKeyCache disabled(Encryptor encryptor) {
+    return new SharedKeyCache(encryptor, 0);
+  }
+
+  public static SharedKeyCache from(Encryptor encryptor, Map<String, String> properties) {
+    final String configuredSize = properties == null ? null : properties.get(MAX_SIZE_PROPERTY);
+    if (configuredSize == null) {
+      return new SharedKeyCache(encryptor, DEFAULT_MAX_SIZE);
+    }
+    try {
+      return new SharedKeyCache(encryptor, Integer.parseInt(configuredSize.trim()));
+    } catch (IllegalArgumentException ex) {
+      LOGGER.warn(
+          "Invalid {} value {}. Will use default value {} instead",
+          MAX_SIZE_PROPERTY,
+          configuredSize,
+          DEFAULT_MAX_SIZE);
+      return new SharedKeyCache(encryptor, DEFAULT_MAX_SIZE);
+    }
+  }
+
+  /**
+   * Retrieves the shared key for the given key pair, computing it with the {@link Encryptor} only
+   * if it is not already cached.
+   *
+   * @param publicKey the public key of the remote party
+   * @param privateKey the private key of the local party
+   * @return the shared key between the two parties
+   */
+  public SharedKey computeSharedKey(final PublicKey publicKey, final PrivateKey privateKey) {
+    if (maxSize == 0) {
+      return encryptor.computeSharedKey(publicKey, privateKey);
+    }
+
+    final CacheKey cacheKey = new CacheKey(publicKey, privateKey);
+
+    synchronized (entries) {
+      final SharedKey sharedKey = entries.get(cacheKey);
+      if (sharedKey != null) {
+        hits.increment();
+        return copyOf(sharedKey);
+      }
+    }
+
+    misses.increment();
+
+    // computed outside the lock so that misses for different pairs don't serialise
+    final SharedKey computed = encryptor.computeSharedKey(publicKey, privateKey);
+    final SharedKey cached = copyOf(computed);
+
+    synchronized (entries) {
+      final SharedKey existing = entries.putIfAbsent(cacheKey, cached);
+      if (existing != null) {
+        destroy(cached);
+      }
+    }
+
+    return computed;
+  }
+
+  /** Removes and zeroes every cached shared key. */
+  public void clear() {
+    synchronized (entries) {
+      entries.values().forEach(SharedKeyCache::destroy);
+      entries.clear();
+    }
+  }
+
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  public int size() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  public long getEvictionCount() {
+    return evictions.sum();
+  }
+
+  private static SharedKey copyOf(SharedKey sharedKey) {
+    return SharedKey.from(Arrays.copyOf(sharedKey.getKeyBytes(), sharedKey.getKeyBytes().length));
+  }
+
+  private static void destroy(SharedKey sharedKey) {
+    Arrays.fill(sharedKey.getKeyBytes(), (byte) 0);
+  }
+
+  private static final class CacheKey {
+
+    private final PublicKey publicKey;
+
+    private final PrivateKey privateKey;
+
+    private CacheKey(PublicKey publicKey, PrivateKey privateKey) {
+      this.publicKey = Objects.requireNonNull(publicKey);
+      this.privateKey = Objects.requireNonNull(privateKey);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof CacheKey)) {
+        return false;
+      }
+      final CacheKey other = (CacheKey) o;
+      return publicKey.equals(other.publicKey) && privateKey.equals(other.privateKey);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(publicKey, privateKey);
+    }
+  }
+}
@@ -0,0 +1,64 @@
+package com.quorum.tessera.enclave;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import com.quorum.tessera.encryption.EncryptorException;
+import com.quorum.tessera.encryption.PublicKey;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import org.junit.Before;
+import org.junit.Test;
+
+public class EnclaveBatchOperationsTest {
+
+  private Enclave enclave;
+
+  private EncodedPayload payload1;
+
+  private EncodedPayload payload2;
+
+  @Before
+  public void onSetUp() {
+    enclave = mock(Enclave.class, CALLS_REAL_METHODS);
+    payload1 = mock(EncodedPayload.class);
+    payload2 = mock(EncodedPayload.class);
+  }
+
+  @Test
+  public void findRecipientKeys() {
+    final PublicKey key1 = PublicKey.from("key1".getBytes());
+    final PublicKey key2 = PublicKey.from("key2".getBytes());
+    final EncodedPayload unknownPayload = mock(EncodedPayload.class);
+
+    final LinkedHashSet<PublicKey> managedKeys = new LinkedHashSet<>(List.of(key1, key2));
+    doReturn(managedKeys).when(enclave).getPublicKeys();
+
+    doReturn(new byte[0]).when(enclave).unencryptTransaction(payload1, key1);
+    doThrow(EncryptorException.class).when(enclave).unencryptTransaction(payload2, key1);
+    doReturn(new byte[0]).when(enclave).unencryptTransaction(payload2, key2);
+    doThrow(EnclaveException.class).when(enclave).unencryptTransaction(unknownPayload, key1);
+    doThrow(IndexOutOfBoundsException.class)
+        .when(enclave)
+        .unencryptTransaction(unknownPayload, key2);
+
+    final List<Optional<PublicKey>> result =
+        enclave.findRecipientKeys(List.of(payload1, payload2, unknownPayload));
+
+    assertThat(result).containsExactly(Optional.of(key1), Optional.of(key2), Optional.empty());
+    verify(enclave).getPublicKeys();
+    verify(enclave, never()).unencryptTransaction(payload1, key2);
+  }
+
+  @Test
+  public void findRecipientKey() {
+    final PublicKey key = PublicKey.from("key".getBytes());
+    doReturn(List.of(Optional.of(key))).when(enclave).findRecipientKeys(List.of(payload1));
+
+    final Optional<PublicKey> result = enclave.findRecipientKey(payload1);
+
+    assertThat(result).contains(key);
+    verify(enclave).findRecipientKeys(List.of(payload1));
+  }
+}
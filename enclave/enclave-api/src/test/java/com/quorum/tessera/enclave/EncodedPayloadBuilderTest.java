@@ -6,6 +6,7 @@ import com.quorum.tessera.encryption.PublicKey;
 import java.util.List;
 import java.util.Map;
 import nl.jqno.equalsverifier.EqualsVerifier;
+import nl.jqno.equalsverifier.Warning;
 import org.junit.Test;
 
 public class EncodedPayloadBuilderTest {
@@ -101,7 +102,7 @@ public class EncodedPayloadBuilderTest {
 
     EqualsVerifier.forClass(EncodedPayload.class)
         .withIgnoredFields("affectedContractTransactions")
-        .usingGetClass()
+        .suppress(Warning.NULL_FIELDS)
         .verify();
   }
 
@@ -126,7 +127,7 @@ public class EncodedPayloadBuilderTest {
 
     EqualsVerifier.forClass(EncodedPayload.class)
         .withIgnoredFields("affectedContractTransactions")
-        .usingGetClass()
+        .suppress(Warning.NULL_FIELDS)
         .verify();
 
     assertThat(result.getPrivacyGroupId()).isPresent();
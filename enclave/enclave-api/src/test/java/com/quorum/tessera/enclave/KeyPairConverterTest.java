@@ -241,6 +241,48 @@ public class KeyPairConverterTest {
     assertThat(resultB).isEqualToComparingFieldByField(expectedB);
   }
 
+  @Test
+  public void convertMultipleVaultKeyPairsSharesKeyVaultService() {
+
+    try (var staticKeyVaultServiceFactory = mockStatic(KeyVaultServiceFactory.class)) {
+      KeyVaultServiceFactory keyVaultServiceFactory = mock(KeyVaultServiceFactory.class);
+      KeyVaultService keyVaultService = mock(KeyVaultService.class);
+      when(keyVaultService.getSecret(Map.of("secretName", "pubA"))).thenReturn("publicA");
+      when(keyVaultService.getSecret(Map.of("secretName", "privA"))).thenReturn("privateA");
+      when(keyVaultService.getSecret(Map.of("secretName", "pubB"))).thenReturn("publicB");
+      when(keyVaultService.getSecret(Map.of("secretName", "privB"))).thenReturn("privateB");
+
+      when(keyVaultServiceFactory.create(config, envProvider)).thenReturn(keyVaultService);
+
+      staticKeyVaultServiceFactory
+          .when(() -> KeyVaultServiceFactory.getInstance(KeyVaultType.AWS))
+          .thenReturn(keyVaultServiceFactory);
+
+      final List<ConfigKeyPair> keyPairs =
+          List.of(new AWSKeyPair("pubA", "privA"), new AWSKeyPair("pubB", "privB"));
+
+      Collection<KeyPair> result = converter.convert(keyPairs);
+
+      assertThat(result)
+          .extracting(KeyPair::getPublicKey)
+          .containsExactly(
+              PublicKey.from(decodeBase64("publicA")), PublicKey.from(decodeBase64("publicB")));
+      assertThat(result)
+          .extracting(KeyPair::getPrivateKey)
+          .containsExactly(
+              PrivateKey.from(decodeBase64("privateA")), PrivateKey.from(decodeBase64("privateB")));
+
+      verify(keyVaultService, times(4)).getSecret(any(Map.class));
+      verify(keyVaultServiceFactory).create(config, envProvider);
+      staticKeyVaultServiceFactory.verify(
+          () -> KeyVaultServiceFactory.getInstance(KeyVaultType.AWS));
+
+      staticKeyVaultServiceFactory.verifyNoMoreInteractions();
+      verifyNoMoreInteractions(keyVaultService);
+      verifyNoMoreInteractions(keyVaultServiceFactory);
+    }
+  }
+
   @Test
   public void convertKeyPairWithNewlineOrSpace() {
     final DirectKeyPair keyPair =
@@ -0,0 +1,231 @@
+package com.quorum.tessera.enclave;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import com.quorum.tessera.encryption.Nonce;
+import com.quorum.tessera.encryption.PublicKey;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+public class LazyEncodedPayloadTest {
+
+  private final PayloadEncoder payloadEncoder = new PayloadEncoderImpl();
+
+  private final PublicKey sender = PublicKey.from("sender".getBytes());
+
+  private final PublicKey recipient1 = PublicKey.from("recipient1".getBytes());
+
+  private final PublicKey recipient2 = PublicKey.from("recipient2".getBytes());
+
+  private final TxHash affectedHash = new TxHash("affected".getBytes());
+
+  private final PrivacyGroup.Id privacyGroupId = PrivacyGroup.Id.fromBytes("group".getBytes());
+
+  @Test
+  public void decodesEveryField() {
+    final EncodedPayload original =
+        EncodedPayload.Builder.create()
+            .withSenderKey(sender)
+            .withCipherText("cipherText".getBytes())
+            .withCipherTextNonce(new Nonce("nonce".getBytes()))
+            .withRecipientBoxes(List.of("box1".getBytes(), "box2".getBytes()))
+            .withRecipientNonce(new Nonce("recipientNonce".getBytes()))
+            .withRecipientKeys(List.of(recipient1, recipient2))
+            .withPrivacyMode(PrivacyMode.PRIVATE_STATE_VALIDATION)
+            .withAffectedContractTransactions(Map.of(affectedHash, "securityHash".getBytes()))
+            .withExecHash("execHash".getBytes())
+            .withPrivacyGroupId(privacyGroupId)
+            .build();
+
+    final EncodedPayload result = new LazyEncodedPayload(payloadEncoder.encode(original));
+
+    assertThat(result.getPrivacyMode()).isEqualTo(PrivacyMode.PRIVATE_STATE_VALIDATION);
+    assertThat(result.getSenderKey()).isEqualTo(sender);
+    assertThat(result.getCipherText()).isEqualTo("cipherText".getBytes());
+    assertThat(result.getCipherTextNonce()).isEqualTo(new Nonce("nonce".getBytes()));
+    assertThat(result.getRecipientBoxes())
+        .containsExactly(
+            RecipientBox.from("box1".getBytes()), RecipientBox.from("box2".getBytes()));
+    assertThat(result.getRecipientNonce()).isEqualTo(new Nonce("recipientNonce".getBytes()));
+    assertThat(result.getRecipientKeys()).containsExactly(recipient1, recipient2);
+    assertThat(result.getAffectedContractTransactions())
+        .containsOnlyKeys(affectedHash)
+        .containsValue(SecurityHash.from("securityHash".getBytes()));
+    assertThat(result.getExecHash()).isEqualTo("execHash".getBytes());
+    assertThat(result.getPrivacyGroupId()).contains(privacyGroupId);
+
+    assertThat(result).isEqualTo(original).hasSameHashCodeAs(original);
+    assertThat(original).isEqualTo(result);
+  }
+
+  @Test
+  public void fieldsAreOnlyCopiedOnce() {
+    final EncodedPayload original =
+        EncodedPayload.Builder.create()
+            .withSenderKey(sender)
+            .withCipherText("cipherText".getBytes())
+            .withCipherTextNonce(new Nonce("nonce".getBytes()))
+            .withRecipientBox("box1".getBytes())
+            .withRecipientNonce(new Nonce("recipientNonce".getBytes()))
+            .withRecipientKey(recipient1)
+            .withAffectedContractTransactions(Map.of(affectedHash, "securityHash".getBytes()))
+            .withPrivacyMode(PrivacyMode.PARTY_PROTECTION)
+            .build();
+
+    final EncodedPayload result = new LazyEncodedPayload(payloadEncoder.encode(original));
+
+    assertThat(result.getSenderKey()).isSameAs(result.getSenderKey());
+    assertThat(result.getCipherText()).isSameAs(result.getCipherText());
+    assertThat(result.getCipherTextNonce()).isSameAs(result.getCipherTextNonce());
+    assertThat(result.getRecipientBoxes()).isSameAs(result.getRecipientBoxes());
+    assertThat(result.getRecipientNonce()).isSameAs(result.getRecipientNonce());
+    assertThat(result.getRecipientKeys()).isSameAs(result.getRecipientKeys());
+    assertThat(result.getAffectedContractTransactions())
+        .isSameAs(result.getAffectedContractTransactions());
+    assertThat(result.getExecHash()).isEmpty();
+    assertThat(result.getExecHash()).isSameAs(result.getExecHash());
+    assertThat(result.getPrivacyGroupId()).isEmpty();
+  }
+
+  @Test
+  public void decodeDoesNotCopyInput() {
+    final byte[] encoded =
+        payloadEncoder.encode(
+            EncodedPayload.Builder.create()
+                .withSenderKey(sender)
+                .withCipherText("cipherText".getBytes())
+                .withCipherTextNonce(new Nonce("nonce".getBytes()))
+                .withRecipientNonce(new Nonce("recipientNonce".getBytes()))
+                .build());
+
+    final EncodedPayload result = new LazyEncodedPayload(encoded);
+
+    // the sender key is the first field, after its length
+    encoded[Long.BYTES] = 'S';
+
+    assertThat(result.getSenderKey()).isEqualTo(PublicKey.from("Sender".getBytes()));
+  }
+
+  @Test
+  public void decodeLegacyPayloadWithoutRecipientKeys() {
+    final byte[] encoded =
+        ByteBuffer.allocate(Long.BYTES * 6 + 5)
+            .putLong(1)
+            .put((byte) 1)
+            .putLong(1)
+            .put((byte) 2)
+            .putLong(1)
+            .put((byte) 3)
+            .putLong(1)
+            .putLong(1)
+            .put((byte) 4)
+            .putLong(1)
+            .put((byte) 5)
+            .array();
+
+    final EncodedPayload result = new LazyEncodedPayload(encoded);
+
+    assertThat(result.getRecipientBoxes()).containsExactly(RecipientBox.from(new byte[] {4}));
+    assertThat(result.getRecipientNonce()).isEqualTo(new Nonce(new byte[] {5}));
+    assertThat(result.getRecipientKeys()).isEmpty();
+    assertThat(result.getPrivacyMode()).isEqualTo(PrivacyMode.STANDARD_PRIVATE);
+    assertThat(result.getAffectedContractTransactions()).isEmpty();
+    assertThat(result.getExecHash()).isEmpty();
+    assertThat(result.getPrivacyGroupId()).isEmpty();
+  }
+
+  @Test
+  public void psvPayloadWithoutExecHashIsInvalid() {
+    final byte[] encoded = withTail(psvPrefix(), ByteBuffer.allocate(Long.BYTES).putLong(0));
+
+    final Throwable throwable = catchThrowable(() -> new LazyEncodedPayload(encoded));
+
+    assertThat(throwable).isExactlyInstanceOf(RuntimeException.class);
+    assertThat(throwable).hasMessage("ExecutionHash data is invalid");
+  }
+
+  @Test
+  public void emptyPrivacyFlag() {
+    final ByteBuffer tail = ByteBuffer.allocate(Long.BYTES * 2).putLong(0).putLong(0);
+    final byte[] encoded = withTail(recipientsPrefix(), tail);
+
+    final Throwable throwable = catchThrowable(() -> new LazyEncodedPayload(encoded));
+
+    assertThat(throwable).isInstanceOf(BufferUnderflowException.class);
+  }
+
+  @Test
+  public void fieldLongerThanPayload() {
+    final byte[] encoded = ByteBuffer.allocate(Long.BYTES + 1).putLong(2).put((byte) 1).array();
+
+    final Throwable throwable = catchThrowable(() -> new LazyEncodedPayload(encoded));
+
+    assertThat(throwable).isInstanceOf(BufferUnderflowException.class);
+  }
+
+  @Test
+  public void negativeFieldLength() {
+    final byte[] encoded = ByteBuffer.allocate(Long.BYTES + 1).putLong(-1).put((byte) 1).array();
+
+    final Throwable throwable = catchThrowable(() -> new LazyEncodedPayload(encoded));
+
+    assertThat(throwable).isInstanceOf(BufferUnderflowException.class);
+  }
+
+  @Test
+  public void recipientCountLongerThanPayload() {
+    final ByteBuffer tail = ByteBuffer.allocate(Long.BYTES).putLong(Integer.MAX_VALUE);
+    final byte[] encoded = withTail(Arrays.copyOf(recipientsPrefix(), Long.BYTES * 3 + 3), tail);
+
+    final Throwable throwable = catchThrowable(() -> new LazyEncodedPayload(encoded));
+
+    assertThat(throwable).isInstanceOf(BufferUnderflowException.class);
+  }
+
+  @Test
+  public void negativeRecipientCount() {
+    final ByteBuffer tail = ByteBuffer.allocate(Long.BYTES).putLong(-1);
+    final byte[] encoded = withTail(Arrays.copyOf(recipientsPrefix(), Long.BYTES * 3 + 3), tail);
+
+    final Throwable throwable = catchThrowable(() -> new LazyEncodedPayload(encoded));
+
+    assertThat(throwable).isInstanceOf(BufferUnderflowException.class);
+  }
+
+  /** sender, cipher text and nonce of one byte each, no boxes, a recipient nonce and no keys */
+  private static byte[] recipientsPrefix() {
+    return ByteBuffer.allocate(Long.BYTES * 6 + 4)
+        .putLong(1)
+        .put((byte) 1)
+        .putLong(1)
+        .put((byte) 2)
+        .putLong(1)
+        .put((byte) 3)
+        .putLong(0)
+        .putLong(1)
+        .put((byte) 4)
+        .putLong(0)
+        .array();
+  }
+
+  /** a payload up to and including a private state validation flag */
+  private static byte[] psvPrefix() {
+    final ByteBuffer flag =
+        ByteBuffer.allocate(Long.BYTES + 1)
+            .putLong(1)
+            .put((byte) PrivacyMode.PRIVATE_STATE_VALIDATION.getPrivacyFlag());
+    return withTail(recipientsPrefix(), flag);
+  }
+
+  private static byte[] withTail(byte[] prefix, ByteBuffer tail) {
+    return ByteBuffer.allocate(prefix.length + tail.capacity())
+        .put(prefix)
+        .put(tail.array())
+        .array();
+  }
+}
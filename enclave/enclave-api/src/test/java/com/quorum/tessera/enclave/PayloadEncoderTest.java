@@ -2,13 +2,20 @@ package com.quorum.tessera.enclave;
 
 import static java.util.Collections.*;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 
 import com.quorum.tessera.enclave.encoder.LegacyEncodedPayload;
 import com.quorum.tessera.enclave.encoder.LegacyPayloadEncoder;
 import com.quorum.tessera.encryption.Nonce;
 import com.quorum.tessera.encryption.PublicKey;
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 import java.util.*;
+import java.util.function.Function;
 import org.bouncycastle.util.encoders.Hex;
 import org.junit.Test;
 
@@ -2231,4 +2238,224 @@ public class PayloadEncoderTest {
 
     assertThat(payload.getRecipientKeys()).containsExactly(PublicKey.from("someKey".getBytes()));
   }
+
+  @Test
+  public void encodeIntoBufferAndStreamMatchesEncode() throws Exception {
+    final EncodedPayload payload =
+        EncodedPayload.Builder.create()
+            .withSenderKey(PublicKey.from("sender".getBytes()))
+            .withCipherText("cipherText".getBytes())
+            .withCipherTextNonce(new Nonce("nonce".getBytes()))
+            .withRecipientBoxes(List.of("box1".getBytes(), "box2".getBytes()))
+            .withRecipientNonce(new Nonce("recipientNonce".getBytes()))
+            .withRecipientKeys(
+                List.of(PublicKey.from("key1".getBytes()), PublicKey.from("key2".getBytes())))
+            .withPrivacyMode(PrivacyMode.PRIVATE_STATE_VALIDATION)
+            .withAffectedContractTransactions(
+                singletonMap(new TxHash("test".getBytes()), "test".getBytes()))
+            .withExecHash("execHash".getBytes())
+            .withPrivacyGroupId(PrivacyGroup.Id.fromBytes("group".getBytes()))
+            .build();
+
+    final byte[] encoded = payloadEncoder.encode(payload);
+
+    assertThat(payloadEncoder.encodedSize(payload)).isEqualTo(encoded.length);
+
+    final ByteBuffer buffer = ByteBuffer.allocate(encoded.length + 2).put((byte) 1);
+    payloadEncoder.encode(payload, buffer);
+    assertThat(buffer.position()).isEqualTo(encoded.length + 1);
+    assertThat(Arrays.copyOfRange(buffer.array(), 1, encoded.length + 1)).isEqualTo(encoded);
+
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    payloadEncoder.encode(payload, outputStream);
+    assertThat(outputStream.toByteArray()).isEqualTo(encoded);
+
+    assertThat(payloadEncoder.decode(encoded)).isEqualTo(payload);
+  }
+
+  @Test
+  public void encodeIntoBufferWithoutEnoughSpace() {
+    final EncodedPayload payload =
+        EncodedPayload.Builder.create()
+            .withSenderKey(PublicKey.from("sender".getBytes()))
+            .withCipherText("cipherText".getBytes())
+            .withCipherTextNonce(new Nonce("nonce".getBytes()))
+            .withRecipientNonce(new Nonce("recipientNonce".getBytes()))
+            .build();
+
+    final ByteBuffer buffer = ByteBuffer.allocate(payloadEncoder.encodedSize(payload) - 1);
+
+    final Throwable throwable = catchThrowable(() -> payloadEncoder.encode(payload, buffer));
+
+    assertThat(throwable).isInstanceOf(BufferOverflowException.class);
+  }
+
+  @Test
+  public void defaultEncodeMethodsUseEncodedBytes() throws Exception {
+    final EncodedPayload payload = mock(EncodedPayload.class);
+    final byte[] encoded = "encoded".getBytes();
+
+    final PayloadEncoder encoder = mock(PayloadEncoder.class, CALLS_REAL_METHODS);
+    doReturn(encoded).when(encoder).encode(payload);
+
+    assertThat(encoder.encodedSize(payload)).isEqualTo(encoded.length);
+
+    final ByteBuffer buffer = ByteBuffer.allocate(encoded.length);
+    encoder.encode(payload, buffer);
+    assertThat(buffer.array()).isEqualTo(encoded);
+
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    encoder.encode(payload, outputStream);
+    assertThat(outputStream.toByteArray()).isEqualTo(encoded);
+  }
+
+  @Test
+  public void forRecipientsMatchesForRecipient() throws Exception {
+    final PublicKey recipient = PublicKey.from("key1".getBytes());
+    final PublicKey otherRecipient = PublicKey.from("key2".getBytes());
+
+    for (PrivacyMode privacyMode : PrivacyMode.values()) {
+      final EncodedPayload.Builder builder =
+          EncodedPayload.Builder.create()
+              .withSenderKey(PublicKey.from("sender".getBytes()))
+              .withCipherText("cipherText".getBytes())
+              .withCipherTextNonce(new Nonce("nonce".getBytes()))
+              .withRecipientBoxes(List.of("box1".getBytes(), "box2".getBytes()))
+              .withRecipientNonce(new Nonce("recipientNonce".getBytes()))
+              .withRecipientKeys(List.of(recipient, otherRecipient))
+              .withPrivacyMode(privacyMode)
+              .withPrivacyGroupId(PrivacyGroup.Id.fromBytes("group".getBytes()));
+      if (privacyMode != PrivacyMode.STANDARD_PRIVATE) {
+        builder.withAffectedContractTransactions(
+            singletonMap(new TxHash("test".getBytes()), "test".getBytes()));
+      }
+      if (privacyMode == PrivacyMode.PRIVATE_STATE_VALIDATION) {
+        builder.withExecHash("execHash".getBytes());
+      }
+      final EncodedPayload payload = builder.build();
+
+      final Function<PublicKey, EncodedPayload> forRecipients =
+          payloadEncoder.forRecipients(payload);
+
+      for (PublicKey key : List.of(recipient, otherRecipient)) {
+        final EncodedPayload expected = payloadEncoder.forRecipient(payload, key);
+        final byte[] expectedEncoded = payloadEncoder.encode(expected);
+
+        final EncodedPayload result = forRecipients.apply(key);
+
+        assertThat(result).isEqualTo(expected);
+        assertThat(payloadEncoder.encodedSize(result)).isEqualTo(expectedEncoded.length);
+        assertThat(payloadEncoder.encode(result)).isEqualTo(expectedEncoded);
+
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        payloadEncoder.encode(result, outputStream);
+        assertThat(outputStream.toByteArray()).isEqualTo(expectedEncoded);
+      }
+    }
+  }
+
+  @Test
+  public void forRecipientsNotContainedInPayload() {
+    final EncodedPayload payload =
+        EncodedPayload.Builder.create()
+            .withSenderKey(PublicKey.from("sender".getBytes()))
+            .withCipherText("cipherText".getBytes())
+            .withCipherTextNonce(new Nonce("nonce".getBytes()))
+            .withRecipientBox("box".getBytes())
+            .withRecipientNonce(new Nonce("recipientNonce".getBytes()))
+            .withRecipientKey(PublicKey.from("key".getBytes()))
+            .build();
+
+    final PublicKey otherRecipient = PublicKey.from("other".getBytes());
+
+    final Throwable throwable =
+        catchThrowable(() -> payloadEncoder.forRecipients(payload).apply(otherRecipient));
+
+    assertThat(throwable)
+        .isInstanceOf(InvalidRecipientException.class)
+        .hasMessageContaining(otherRecipient.encodeToBase64());
+  }
+
+  @Test
+  public void defaultForRecipientsStripsEachRecipient() {
+    final EncodedPayload payload = mock(EncodedPayload.class);
+    final EncodedPayload strippedPayload = mock(EncodedPayload.class);
+    final PublicKey recipient = PublicKey.from("key".getBytes());
+
+    final PayloadEncoder encoder = mock(PayloadEncoder.class, CALLS_REAL_METHODS);
+    doReturn(strippedPayload).when(encoder).forRecipient(payload, recipient);
+
+    assertThat(encoder.forRecipients(payload).apply(recipient)).isSameAs(strippedPayload);
+  }
+
+  @Test
+  public void withRecipientBoxPrependsBoxAndRecipient() {
+    final PublicKey existingRecipient = PublicKey.from("existing".getBytes());
+    final PublicKey newRecipient = PublicKey.from("new".getBytes());
+    final EncodedPayload originalPayload =
+        EncodedPayload.Builder.create()
+            .withSenderKey(PublicKey.from("sender".getBytes()))
+            .withCipherText("cipherText".getBytes())
+            .withCipherTextNonce("cipherTextNonce".getBytes())
+            .withRecipientNonce("recipientNonce".getBytes())
+            .withRecipientBox("existingBox".getBytes())
+            .withRecipientKey(existingRecipient)
+            .build();
+
+    final EncodedPayload payload =
+        payloadEncoder.withRecipientBox(originalPayload, newRecipient, "newBox".getBytes());
+
+    assertThat(payload.getRecipientBoxes())
+        .containsExactly(
+            RecipientBox.from("newBox".getBytes()), RecipientBox.from("existingBox".getBytes()));
+    assertThat(payload.getRecipientKeys()).containsExactly(newRecipient, existingRecipient);
+    assertThat(payload.getCipherText()).isEqualTo(originalPayload.getCipherText());
+    assertThat(originalPayload.getRecipientBoxes()).hasSize(1);
+  }
+
+  @Test
+  public void withRecipientBoxMovesListedRecipientOfPrivateStateValidationPayload() {
+    final PublicKey first = PublicKey.from("first".getBytes());
+    final PublicKey second = PublicKey.from("second".getBytes());
+    final PublicKey third = PublicKey.from("third".getBytes());
+    final EncodedPayload originalPayload =
+        EncodedPayload.Builder.create()
+            .withSenderKey(PublicKey.from("sender".getBytes()))
+            .withCipherText("cipherText".getBytes())
+            .withCipherTextNonce("cipherTextNonce".getBytes())
+            .withRecipientNonce("recipientNonce".getBytes())
+            .withRecipientBox("firstBox".getBytes())
+            .withRecipientKeys(List.of(first, second, third))
+            .withPrivacyMode(PrivacyMode.PRIVATE_STATE_VALIDATION)
+            .withExecHash("execHash".getBytes())
+            .build();
+
+    final EncodedPayload payload =
+        payloadEncoder.withRecipientBox(originalPayload, third, "thirdBox".getBytes());
+
+    assertThat(payload.getRecipientBoxes())
+        .containsExactly(
+            RecipientBox.from("thirdBox".getBytes()), RecipientBox.from("firstBox".getBytes()));
+    assertThat(payload.getRecipientKeys()).containsExactly(third, first, second);
+  }
+
+  @Test
+  public void withRecipientBoxForLegacyPayloadOnlyAddsBox() {
+    final EncodedPayload originalPayload =
+        EncodedPayload.Builder.create()
+            .withSenderKey(PublicKey.from("sender".getBytes()))
+            .withCipherText("cipherText".getBytes())
+            .withCipherTextNonce("cipherTextNonce".getBytes())
+            .withRecipientNonce("recipientNonce".getBytes())
+            .withRecipientBox("existingBox".getBytes())
+            .build();
+
+    final EncodedPayload payload =
+        payloadEncoder.withRecipientBox(originalPayload, null, "newBox".getBytes());
+
+    assertThat(payload.getRecipientBoxes())
+        .containsExactly(
+            RecipientBox.from("newBox".getBytes()), RecipientBox.from("existingBox".getBytes()));
+    assertThat(payload.getRecipientKeys()).isEmpty();
+  }
 }
@@ -0,0 +1,126 @@
+package com.quorum.tessera.enclave;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.Mockito.*;
+
+import com.quorum.tessera.encryption.Encryptor;
+import com.quorum.tessera.encryption.PrivateKey;
+import com.quorum.tessera.encryption.PublicKey;
+import com.quorum.tessera.encryption.SharedKey;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SharedKeyCacheTest {
+
+  private Encryptor encryptor;
+
+  private final PrivateKey privateKey = PrivateKey.from("private".getBytes());
+
+  private final PublicKey publicKey = PublicKey.from("public".getBytes());
+
+  @Before
+  public void onSetUp() {
+    encryptor = mock(Encryptor.class);
+  }
+
+  @After
+  public void onTearDown() {
+    verifyNoMoreInteractions(encryptor);
+  }
+
+  @Test
+  public void repeatedPairIsOnlyComputedOnce() {
+    when(encryptor.computeSharedKey(publicKey, privateKey))
+        .thenReturn(SharedKey.from("shared".getBytes()));
+
+    final SharedKeyCache cache = new SharedKeyCache(encryptor, 10);
+
+    final SharedKey first = cache.computeSharedKey(publicKey, privateKey);
+    final SharedKey second = cache.computeSharedKey(publicKey, privateKey);
+
+    assertThat(first).isEqualTo(SharedKey.from("shared".getBytes()));
+    assertThat(second).isEqualTo(first).isNotSameAs(first);
+    assertThat(cache.size()).isEqualTo(1);
+    assertThat(cache.getHitCount()).isEqualTo(1);
+    assertThat(cache.getMissCount()).isEqualTo(1);
+
+    verify(encryptor).computeSharedKey(publicKey, privateKey);
+  }
+
+  @Test
+  public void leastRecentlyUsedEntryIsEvictedAndZeroed() {
+    final PublicKey otherPublicKey = PublicKey.from("other".getBytes());
+    final byte[] evictedBytes = "evicted".getBytes();
+
+    when(encryptor.computeSharedKey(publicKey, privateKey))
+        .thenReturn(SharedKey.from(evictedBytes.clone()));
+    when(encryptor.computeSharedKey(otherPublicKey, privateKey))
+        .thenReturn(SharedKey.from("kept".getBytes()));
+
+    final SharedKeyCache cache = new SharedKeyCache(encryptor, 1);
+
+    final SharedKey handedOut = cache.computeSharedKey(publicKey, privateKey);
+    cache.computeSharedKey(otherPublicKey, privateKey);
+
+    assertThat(cache.size()).isEqualTo(1);
+    assertThat(cache.getEvictionCount()).isEqualTo(1);
+    assertThat(handedOut.getKeyBytes()).isEqualTo(evictedBytes);
+
+    cache.computeSharedKey(publicKey, privateKey);
+
+    assertThat(cache.getMissCount()).isEqualTo(3);
+
+    verify(encryptor, times(2)).computeSharedKey(publicKey, privateKey);
+    verify(encryptor).computeSharedKey(otherPublicKey, privateKey);
+  }
+
+  @Test
+  public void clearZeroesCachedKeys() {
+    when(encryptor.computeSharedKey(publicKey, privateKey))
+        .thenReturn(SharedKey.from("shared".getBytes()));
+
+    final SharedKeyCache cache = new SharedKeyCache(encryptor, 10);
+    cache.computeSharedKey(publicKey, privateKey);
+    cache.clear();
+
+    assertThat(cache.size()).isZero();
+
+    cache.computeSharedKey(publicKey, privateKey);
+
+    verify(encryptor, times(2)).computeSharedKey(publicKey, privateKey);
+  }
+
+  @Test
+  public void disabledCacheAlwaysDelegates() {
+    final SharedKey sharedKey = mock(SharedKey.class);
+    when(encryptor.computeSharedKey(publicKey, privateKey)).thenReturn(sharedKey);
+
+    final SharedKeyCache cache = SharedKeyCache.disabled(encryptor);
+
+    assertThat(cache.computeSharedKey(publicKey, privateKey)).isSameAs(sharedKey);
+    assertThat(cache.computeSharedKey(publicKey, privateKey)).isSameAs(sharedKey);
+    assertThat(cache.size()).isZero();
+
+    verify(encryptor, times(2)).computeSharedKey(publicKey, privateKey);
+  }
+
+  @Test
+  public void createFromProperties() {
+    assertThat(SharedKeyCache.from(encryptor, null).getMaxSize())
+        .isEqualTo(SharedKeyCache.DEFAULT_MAX_SIZE);
+    assertThat(SharedKeyCache.from(encryptor, Map.of("sharedKeyCacheSize", "5")).getMaxSize())
+        .isEqualTo(5);
+    assertThat(SharedKeyCache.from(encryptor, Map.of("sharedKeyCacheSize", "bogus")).getMaxSize())
+        .isEqualTo(SharedKeyCache.DEFAULT_MAX_SIZE);
+  }
+
+  @Test
+  public void negativeSizeIsRejected() {
+    final Throwable ex = catchThrowable(() -> new SharedKeyCache(encryptor, -1));
+
+    assertThat(ex).isInstanceOf(IllegalArgumentException.class);
+  }
+}
@@ -0,0 +1,55 @@
+package com.quorum.tessera.enclave.rest;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The body of the batch requests and responses between a {@link RestfulEnclaveClient} and its
+ * enclave: 8 bytes for the number of items, then for each item 8 bytes for its length followed by
+ * its bytes. This is the same layout as {@link com.quorum.tessera.enclave.BinaryEncoder} uses for
+ * lists, written in a single pass.
+ */
+final class BinaryBatch {
+
+  private BinaryBatch() {}
+
+  static byte[] encode(final List<byte[]> items) {
+    int size = Long.BYTES;
+    for (final byte[] item : items) {
+      size = Math.addExact(size, Long.BYTES + item.length);
+    }
+
+    final ByteBuffer buffer = ByteBuffer.allocate(size).putLong(items.size());
+    for (final byte[] item : items) {
+      buffer.putLong(item.length).put(item);
+    }
+    return buffer.array();
+  }
+
+  static List<byte[]> decode(final byte[] data) {
+    if (data.length < Long.BYTES) {
+      throw new IllegalArgumentException("Invalid batch of " + data.length + " bytes");
+    }
+
+    final ByteBuffer buffer = ByteBuffer.wrap(data);
+
+    final long count = buffer.getLong();
+    // every item has at least its length left to read
+    if (count < 0 || count > buffer.remaining() / Long.BYTES) {
+      throw new IllegalArgumentException("Invalid batch item count " + count);
+    }
+
+    final List<byte[]> items = new ArrayList<>((int) count);
+    for (long i = 0; i < count; i++) {
+      final long length = buffer.getLong();
+      if (length < 0 || length > buffer.remaining()) {
+        throw new IllegalArgumentException("Invalid batch item length " + length);
+      }
+      final byte[] item = new byte[(int) length];
+      buffer.get(item);
+      items.add(item);
+    }
+    return items;
+  }
+}
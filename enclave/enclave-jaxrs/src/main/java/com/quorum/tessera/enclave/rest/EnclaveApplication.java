@@ -6,6 +6,7 @@ import com.quorum.tessera.enclave.Enclave;
 import com.quorum.tessera.enclave.EnclaveServer;
 import java.util.Objects;
 import java.util.Set;
+import java.util.UUID;
 import javax.ws.rs.core.Application;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,6 +18,8 @@ public class EnclaveApplication extends Application
 
   private final Enclave enclave;
 
+  private final String keysVersion = UUID.randomUUID().toString();
+
   public EnclaveApplication() {
     this(EnclaveServer.create());
   }
@@ -28,7 +31,10 @@ public class EnclaveApplication extends Application
 
   @Override
   public Set<Object> getSingletons() {
-    return Set.of(new EnclaveResource(enclave), new DefaultExceptionMapper());
+    return Set.of(
+        new EnclaveResource(enclave),
+        new DefaultExceptionMapper(),
+        new KeysVersionFilter(keysVersion));
   }
 
   @Override
@@ -107,8 +107,7 @@ public class EnclaveResource {
         enclave.encryptPayload(
             payload.getData(), senderKey, recipientPublicKeys, privacyMetaDataBuilder.build());
 
-    byte[] response = payloadEncoder.encode(outcome);
-    final StreamingOutput streamingOutput = out -> out.write(response);
+    final StreamingOutput streamingOutput = out -> payloadEncoder.encode(outcome, out);
     return Response.ok(streamingOutput).build();
   }
 
@@ -146,8 +145,7 @@ public class EnclaveResource {
     EncodedPayload outcome =
         enclave.encryptPayload(rawTransaction, recipientPublicKeys, privacyMetaDataBuilder.build());
 
-    byte[] response = payloadEncoder.encode(outcome);
-    final StreamingOutput streamingOutput = out -> out.write(response);
+    final StreamingOutput streamingOutput = out -> payloadEncoder.encode(outcome, out);
     return Response.ok(streamingOutput).build();
   }
 
@@ -236,6 +234,40 @@ public class EnclaveResource {
     return Response.ok(streamingOutput).build();
   }
 
+  /**
+   * Finds the managed key each of a batch of payloads was encrypted for. The body is a {@link
+   * BinaryBatch} of encoded payloads, and the response is a {@link BinaryBatch} of the key for each
+   * payload in the same order, left empty where no managed key was found. A body that is not a
+   * valid batch is rejected with a 400.
+   */
+  @POST
+  @Path("findrecipientkeys")
+  @Consumes(MediaType.APPLICATION_OCTET_STREAM)
+  @Produces(MediaType.APPLICATION_OCTET_STREAM)
+  public Response findRecipientKeys(byte[] body) {
+
+    final List<byte[]> encodedPayloads;
+    try {
+      encodedPayloads = BinaryBatch.decode(body);
+    } catch (IllegalArgumentException ex) {
+      return Response.status(Status.BAD_REQUEST)
+          .entity(ex.getMessage())
+          .type(MediaType.TEXT_PLAIN)
+          .build();
+    }
+
+    final List<EncodedPayload> payloads =
+        encodedPayloads.stream().map(payloadEncoder::decode).collect(Collectors.toList());
+
+    final List<byte[]> response =
+        enclave.findRecipientKeys(payloads).stream()
+            .map(key -> key.map(PublicKey::getKeyBytes).orElseGet(() -> new byte[0]))
+            .collect(Collectors.toList());
+
+    final StreamingOutput streamingOutput = out -> out.write(BinaryBatch.encode(response));
+    return Response.ok(streamingOutput).build();
+  }
+
   @POST
   @Path("addRecipient")
   @Consumes(MediaType.APPLICATION_JSON)
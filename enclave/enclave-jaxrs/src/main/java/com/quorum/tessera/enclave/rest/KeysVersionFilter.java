@@ -0,0 +1,32 @@
+package com.quorum.tessera.enclave.rest;
+
+import java.util.Objects;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.ext.Provider;
+
+/**
+ * Adds the version of the enclave's keys to every response, so that a {@link RestfulEnclaveClient}
+ * can keep the keys it has fetched until a response shows they have changed.
+ *
+ * <p>The keys of an enclave are fixed for as long as it runs, so a new version is given each time
+ * the enclave is started.
+ */
+@Provider
+public class KeysVersionFilter implements ContainerResponseFilter {
+
+  static final String KEYS_VERSION_HEADER = "Tessera-Enclave-Keys-Version";
+
+  private final String version;
+
+  public KeysVersionFilter(String version) {
+    this.version = Objects.requireNonNull(version);
+  }
+
+  @Override
+  public void filter(
+      ContainerRequestContext requestContext, ContainerResponseContext responseContext) {
+    responseContext.getHeaders().putSingle(KEYS_VERSION_HEADER, version);
+  }
+}
@@ -1,5 +1,7 @@
 package com.quorum.tessera.enclave.rest;
 
+import static javax.ws.rs.core.MediaType.APPLICATION_OCTET_STREAM;
+
 import com.quorum.tessera.enclave.*;
 import com.quorum.tessera.encryption.Nonce;
 import com.quorum.tessera.encryption.PublicKey;
@@ -7,8 +9,10 @@ import java.net.URI;
 import java.util.Base64;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import javax.json.JsonArray;
@@ -18,6 +22,15 @@ import javax.ws.rs.core.Response;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * An {@link EnclaveClient} for an enclave running in another process, reached over HTTP.
+ *
+ * <p>The enclave's keys are asked for on nearly every transaction, but only change when the
+ * enclave is restarted. They are cached after they are first fetched, tagged with the keys version
+ * the enclave adds to all its responses (see {@link KeysVersionFilter}). Any response carrying a
+ * different version, from whichever request, drops the cached keys so they are fetched again. An
+ * enclave that does not send a version has its keys fetched every time, as before.
+ */
 public class RestfulEnclaveClient implements EnclaveClient {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(RestfulEnclaveClient.class);
@@ -30,6 +43,9 @@ public class RestfulEnclaveClient implements EnclaveClient {
 
   private final PayloadEncoder payloadEncoder;
 
+  private final AtomicReference<CachedKeys> cachedKeys =
+      new AtomicReference<>(new CachedKeys(null));
+
   public RestfulEnclaveClient(Client client, URI uri) {
     this(client, uri, Executors.newSingleThreadExecutor());
   }
@@ -43,6 +59,10 @@ public class RestfulEnclaveClient implements EnclaveClient {
 
   @Override
   public PublicKey defaultPublicKey() {
+    final PublicKey cached = cachedKeys.get().defaultPublicKey;
+    if (cached != null) {
+      return cached;
+    }
 
     return ClientCallback.execute(
         () -> {
@@ -52,46 +72,60 @@ public class RestfulEnclaveClient implements EnclaveClient {
 
           byte[] data = response.readEntity(byte[].class);
 
-          return PublicKey.from(data);
+          final PublicKey key = PublicKey.from(data);
+          checkKeysVersion(response).ifPresent(keys -> keys.defaultPublicKey = key);
+          return key;
         });
   }
 
   @Override
   public Set<PublicKey> getForwardingKeys() {
+    final Set<PublicKey> cached = cachedKeys.get().forwardingKeys;
+    if (cached != null) {
+      return cached;
+    }
+
     return ClientCallback.execute(
         () -> {
           Response response = client.target(uri).path("forwarding").request().get();
 
           validateResponseIsOk(response);
 
-          JsonArray results = response.readEntity(JsonArray.class);
-
-          return IntStream.range(0, results.size())
-              .mapToObj(results::getString)
-              .map(s -> Base64.getDecoder().decode(s))
-              .map(PublicKey::from)
-              .collect(Collectors.toSet());
+          final Set<PublicKey> keys = readKeys(response);
+          checkKeysVersion(response).ifPresent(cache -> cache.forwardingKeys = keys);
+          return keys;
         });
   }
 
   @Override
   public Set<PublicKey> getPublicKeys() {
+    final Set<PublicKey> cached = cachedKeys.get().publicKeys;
+    if (cached != null) {
+      return cached;
+    }
+
     return ClientCallback.execute(
         () -> {
           Response response = client.target(uri).path("public").request().get();
 
           validateResponseIsOk(response);
 
-          JsonArray results = response.readEntity(JsonArray.class);
-
-          return IntStream.range(0, results.size())
-              .mapToObj(results::getString)
-              .map(s -> Base64.getDecoder().decode(s))
-              .map(PublicKey::from)
-              .collect(Collectors.toSet());
+          final Set<PublicKey> keys = readKeys(response);
+          checkKeysVersion(response).ifPresent(cache -> cache.publicKeys = keys);
+          return keys;
         });
   }
 
+  private static Set<PublicKey> readKeys(Response response) {
+    JsonArray results = response.readEntity(JsonArray.class);
+
+    return IntStream.range(0, results.size())
+        .mapToObj(results::getString)
+        .map(s -> Base64.getDecoder().decode(s))
+        .map(PublicKey::from)
+        .collect(Collectors.toUnmodifiableSet());
+  }
+
   @Override
   public EncodedPayload encryptPayload(
       final byte[] message,
@@ -226,6 +260,29 @@ public class RestfulEnclaveClient implements EnclaveClient {
         });
   }
 
+  @Override
+  public List<Optional<PublicKey>> findRecipientKeys(final List<EncodedPayload> payloads) {
+
+    return ClientCallback.execute(
+        () -> {
+          final List<byte[]> items =
+              payloads.stream().map(payloadEncoder::encode).collect(Collectors.toList());
+
+          final Response response =
+              client
+                  .target(uri)
+                  .path("findrecipientkeys")
+                  .request()
+                  .post(Entity.entity(BinaryBatch.encode(items), APPLICATION_OCTET_STREAM));
+
+          validateResponseIsOk(response);
+
+          return BinaryBatch.decode(response.readEntity(byte[].class)).stream()
+              .map(key -> Optional.of(key).filter(k -> k.length > 0).map(PublicKey::from))
+              .collect(Collectors.toList());
+        });
+  }
+
   @Override
   public byte[] unencryptRawPayload(RawTransaction payload) {
 
@@ -245,6 +302,8 @@ public class RestfulEnclaveClient implements EnclaveClient {
                   .request()
                   .post(Entity.json(enclaveRawPayload));
 
+          checkKeysVersion(response);
+
           return response.readEntity(byte[].class);
         });
   }
@@ -285,6 +344,8 @@ public class RestfulEnclaveClient implements EnclaveClient {
             .request()
             .post(Entity.json(requestPayload));
 
+    checkKeysVersion(response);
+
     EnclaveFindInvalidSecurityHashesResponsePayload responsePayload =
         response.readEntity(EnclaveFindInvalidSecurityHashesResponsePayload.class);
 
@@ -307,6 +368,8 @@ public class RestfulEnclaveClient implements EnclaveClient {
             () -> {
               Response response = client.target(uri).path("ping").request().get();
 
+              checkKeysVersion(response);
+
               if (response.getStatus() == 200) {
                 return Status.STARTED;
               }
@@ -322,7 +385,9 @@ public class RestfulEnclaveClient implements EnclaveClient {
     }
   }
 
-  private static void validateResponseIsOk(Response response) {
+  private void validateResponseIsOk(Response response) {
+    checkKeysVersion(response);
+
     if (response.getStatus() != 200) {
       Response.StatusType statusInfo = response.getStatusInfo();
       String message =
@@ -334,6 +399,23 @@ public class RestfulEnclaveClient implements EnclaveClient {
     }
   }
 
+  /**
+   * Drops the cached keys if the response shows the enclave's keys have changed
+   *
+   * @param response any response from the enclave
+   * @return the cache for the keys version of the response, or empty if it has none
+   */
+  private Optional<CachedKeys> checkKeysVersion(Response response) {
+    final String version = response.getHeaderString(KeysVersionFilter.KEYS_VERSION_HEADER);
+    if (version == null) {
+      return Optional.empty();
+    }
+
+    return Optional.of(
+        cachedKeys.updateAndGet(
+            current -> version.equals(current.version) ? current : new CachedKeys(version)));
+  }
+
   private List<KeyValuePair> convertAffectedContractTransactions(
       List<AffectedTransaction> affectedContractTransactions) {
     return affectedContractTransactions.stream()
@@ -344,4 +426,20 @@ public class RestfulEnclaveClient implements EnclaveClient {
                     this.payloadEncoder.encode(affectedTransaction.getPayload())))
         .collect(Collectors.toList());
   }
+
+  /** The keys fetched from the enclave while it reported the same keys version */
+  private static final class CachedKeys {
+
+    private final String version;
+
+    private volatile PublicKey defaultPublicKey;
+
+    private volatile Set<PublicKey> publicKeys;
+
+    private volatile Set<PublicKey> forwardingKeys;
+
+    private CachedKeys(String version) {
+      this.version = version;
+    }
+  }
 }
@@ -0,0 +1,58 @@
+package com.quorum.tessera.enclave.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import com.quorum.tessera.enclave.BinaryEncoder;
+import java.nio.ByteBuffer;
+import java.util.List;
+import org.junit.Test;
+
+public class BinaryBatchTest {
+
+  @Test
+  public void encodeAndDecode() {
+    final List<byte[]> items = List.of("one".getBytes(), new byte[0], "three".getBytes());
+
+    final byte[] encoded = BinaryBatch.encode(items);
+
+    assertThat(encoded).isEqualTo(new BinaryEncoder() {}.encodeArray(items));
+    assertThat(BinaryBatch.decode(encoded)).containsExactlyElementsOf(items);
+  }
+
+  @Test
+  public void decodeEmptyBatch() {
+    assertThat(BinaryBatch.decode(BinaryBatch.encode(List.of()))).isEmpty();
+  }
+
+  @Test
+  public void decodeTooShortForCount() {
+    final Throwable throwable = catchThrowable(() -> BinaryBatch.decode(new byte[3]));
+
+    assertThat(throwable)
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Invalid batch of 3 bytes");
+  }
+
+  @Test
+  public void decodeInvalidCount() {
+    final byte[] encoded = ByteBuffer.allocate(Long.BYTES).putLong(1).array();
+
+    final Throwable throwable = catchThrowable(() -> BinaryBatch.decode(encoded));
+
+    assertThat(throwable)
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Invalid batch item count 1");
+  }
+
+  @Test
+  public void decodeInvalidLength() {
+    final byte[] encoded = ByteBuffer.allocate(Long.BYTES * 2).putLong(1).putLong(5).array();
+
+    final Throwable throwable = catchThrowable(() -> BinaryBatch.decode(encoded));
+
+    assertThat(throwable)
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Invalid batch item length 5");
+  }
+}
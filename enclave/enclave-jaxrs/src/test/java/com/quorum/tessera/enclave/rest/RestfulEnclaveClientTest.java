@@ -9,12 +9,21 @@ import com.quorum.tessera.enclave.*;
 import com.quorum.tessera.encryption.Nonce;
 import com.quorum.tessera.encryption.PublicKey;
 import com.quorum.tessera.service.Service.Status;
+import java.net.URI;
 import java.util.*;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import javax.json.Json;
+import javax.json.JsonArray;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.client.Invocation;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
 import org.glassfish.jersey.test.JerseyTest;
 import org.junit.After;
 import org.junit.Before;
@@ -23,6 +32,8 @@ import org.mockito.ArgumentCaptor;
 
 public class RestfulEnclaveClientTest {
 
+  private static final URI ENCLAVE_URI = URI.create("http://enclave");
+
   private Enclave enclave;
 
   private JerseyTest jersey;
@@ -377,6 +388,36 @@ public class RestfulEnclaveClientTest {
     verify(enclave).unencryptTransaction(any(EncodedPayload.class), any(PublicKey.class));
   }
 
+  @Test
+  public void findRecipientKeys() {
+
+    EncodedPayload payload = Fixtures.createSample();
+
+    PublicKey recipient = PublicKey.from("Recipient".getBytes());
+
+    when(enclave.findRecipientKeys(List.of(payload, payload)))
+        .thenReturn(List.of(Optional.of(recipient), Optional.empty()));
+
+    List<Optional<PublicKey>> result = enclaveClient.findRecipientKeys(List.of(payload, payload));
+
+    assertThat(result).containsExactly(Optional.of(recipient), Optional.empty());
+
+    verify(enclave).findRecipientKeys(List.of(payload, payload));
+  }
+
+  @Test
+  public void findRecipientKeysWithMalformedBatchIsBadRequest() {
+
+    Response response =
+        jersey
+            .target("findrecipientkeys")
+            .request()
+            .post(Entity.entity(new byte[3], MediaType.APPLICATION_OCTET_STREAM));
+
+    assertThat(response.getStatus()).isEqualTo(400);
+    assertThat(response.readEntity(String.class)).isEqualTo("Invalid batch of 3 bytes");
+  }
+
   @Test
   public void unencryptRawPayload() throws Exception {
 
@@ -490,4 +531,90 @@ public class RestfulEnclaveClientTest {
       verify(enclave).defaultPublicKey();
     }
   }
+
+  @Test
+  public void keysAreCached() {
+
+    PublicKey key = PublicKey.from("HELLOW".getBytes());
+
+    when(enclave.defaultPublicKey()).thenReturn(key);
+    when(enclave.getPublicKeys()).thenReturn(Collections.singleton(key));
+    when(enclave.getForwardingKeys()).thenReturn(Collections.singleton(key));
+
+    for (int i = 0; i < 2; i++) {
+      assertThat(enclaveClient.defaultPublicKey()).isEqualTo(key);
+      assertThat(enclaveClient.getPublicKeys()).containsExactly(key);
+      assertThat(enclaveClient.getForwardingKeys()).containsExactly(key);
+    }
+
+    verify(enclave).defaultPublicKey();
+    verify(enclave).getPublicKeys();
+    verify(enclave).getForwardingKeys();
+  }
+
+  @Test
+  public void keysAreFetchedAgainWhenKeysVersionChanges() {
+
+    PublicKey key = PublicKey.from("HELLOW".getBytes());
+
+    Response first = keysResponse("1", key);
+    Response changed = keysResponse("2", key);
+    Response second = keysResponse("2", key);
+
+    Invocation.Builder builder = mock(Invocation.Builder.class);
+    when(builder.get()).thenReturn(first, second);
+    when(builder.post(any())).thenReturn(changed);
+
+    RestfulEnclaveClient restfulEnclaveClient =
+        new RestfulEnclaveClient(client(builder), ENCLAVE_URI);
+
+    assertThat(restfulEnclaveClient.getPublicKeys()).containsExactly(key);
+    assertThat(restfulEnclaveClient.getPublicKeys()).containsExactly(key);
+    verify(builder).get();
+
+    restfulEnclaveClient.unencryptRawPayload(
+        new RawTransaction(new byte[0], new byte[0], new Nonce(new byte[0]), key));
+
+    assertThat(restfulEnclaveClient.getPublicKeys()).containsExactly(key);
+    assertThat(restfulEnclaveClient.getPublicKeys()).containsExactly(key);
+    verify(builder, times(2)).get();
+  }
+
+  @Test
+  public void keysAreNotCachedWithoutKeysVersion() {
+
+    PublicKey key = PublicKey.from("HELLOW".getBytes());
+
+    Response response = keysResponse(null, key);
+
+    Invocation.Builder builder = mock(Invocation.Builder.class);
+    when(builder.get()).thenReturn(response);
+
+    RestfulEnclaveClient restfulEnclaveClient =
+        new RestfulEnclaveClient(client(builder), ENCLAVE_URI);
+
+    assertThat(restfulEnclaveClient.getPublicKeys()).containsExactly(key);
+    assertThat(restfulEnclaveClient.getPublicKeys()).containsExactly(key);
+    verify(builder, times(2)).get();
+  }
+
+  private static Client client(Invocation.Builder builder) {
+    WebTarget target = mock(WebTarget.class);
+    when(target.path(anyString())).thenReturn(target);
+    when(target.request()).thenReturn(builder);
+
+    Client client = mock(Client.class);
+    when(client.target(ENCLAVE_URI)).thenReturn(target);
+    return client;
+  }
+
+  private static Response keysResponse(String version, PublicKey key) {
+    Response response = mock(Response.class);
+    when(response.getStatus()).thenReturn(200);
+    when(response.getHeaderString(KeysVersionFilter.KEYS_VERSION_HEADER)).thenReturn(version);
+    when(response.readEntity(JsonArray.class))
+        .thenReturn(Json.createArrayBuilder().add(key.encodeToBase64()).build());
+    when(response.readEntity(byte[].class)).thenReturn(new byte[0]);
+    return response;
+  }
 }
@@ -1,6 +1,9 @@
 package com.quorum.tessera.multitenancy.migration;
 
 import com.quorum.tessera.data.EncryptedTransaction;
+import com.quorum.tessera.data.EncryptedTransactionBox;
+import com.quorum.tessera.data.EncryptedTransactionDecoder;
+import com.quorum.tessera.data.MessageHash;
 import com.quorum.tessera.enclave.EncodedPayload;
 import com.quorum.tessera.enclave.PayloadEncoder;
 import com.quorum.tessera.enclave.PrivacyMode;
@@ -10,9 +13,7 @@ import com.quorum.tessera.enclave.TxHash;
 import com.quorum.tessera.encryption.PublicKey;
 import java.util.*;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 import javax.persistence.EntityManager;
-import javax.persistence.TypedQuery;
 
 public class EncryptedTransactionMigrator {
 
@@ -22,65 +23,122 @@ public class EncryptedTransactionMigrator {
 
   private final PayloadEncoder payloadEncoder;
 
+  private static final String FETCH_SIZE_HINT = "eclipselink.jdbc.fetch-size";
+
   private final int maxBatchSize = 100;
 
+  private final boolean primaryAppendsRecipientBoxes;
+
+  private final boolean secondaryAppendsRecipientBoxes;
+
   public EncryptedTransactionMigrator(
       final EntityManager primaryEntityManager,
       final EntityManager secondaryEntityManager,
       final PayloadEncoder payloadEncoder) {
+    this(primaryEntityManager, secondaryEntityManager, payloadEncoder, false, false);
+  }
+
+  /**
+   * @param primaryAppendsRecipientBoxes whether the primary may keep boxes added to a transaction
+   *     in their own table rather than in its payload
+   * @param secondaryAppendsRecipientBoxes whether the secondary may do the same
+   */
+  public EncryptedTransactionMigrator(
+      final EntityManager primaryEntityManager,
+      final EntityManager secondaryEntityManager,
+      final PayloadEncoder payloadEncoder,
+      final boolean primaryAppendsRecipientBoxes,
+      final boolean secondaryAppendsRecipientBoxes) {
     this.primaryEntityManager = Objects.requireNonNull(primaryEntityManager);
     this.secondaryEntityManager = Objects.requireNonNull(secondaryEntityManager);
     this.payloadEncoder = Objects.requireNonNull(payloadEncoder);
+    this.primaryAppendsRecipientBoxes = primaryAppendsRecipientBoxes;
+    this.secondaryAppendsRecipientBoxes = secondaryAppendsRecipientBoxes;
   }
 
   public void migrate() {
 
-    final long secondaryTxCount =
+    // page through by hash rather than offset, so each page is a seek on the primary key instead
+    // of a rescan of every row before it
+    List<EncryptedTransaction> page =
         secondaryEntityManager
-            .createQuery("select count(e) from EncryptedTransaction e", Long.class)
-            .getSingleResult();
-    final int batchCount = calculateBatchCount(maxBatchSize, secondaryTxCount);
-
-    IntStream.range(0, batchCount)
-        .map(i -> i * maxBatchSize)
-        .mapToObj(
-            offset ->
-                secondaryEntityManager
-                    .createNamedQuery("EncryptedTransaction.FindAll", EncryptedTransaction.class)
-                    .setFirstResult(offset)
-                    .setMaxResults(maxBatchSize))
-        .flatMap(TypedQuery<EncryptedTransaction>::getResultStream)
-        .forEach(
-            et -> {
-              final Optional<EncryptedTransaction> existing =
-                  primaryEntityManager
-                      .createNamedQuery(
-                          "EncryptedTransaction.FindByHash", EncryptedTransaction.class)
-                      .setParameter("hash", et.getHash().getHashBytes())
-                      .getResultStream()
-                      .findAny();
-
-              if (existing.isEmpty()) {
-                primaryEntityManager.getTransaction().begin();
-                primaryEntityManager.persist(et);
-                primaryEntityManager.getTransaction().commit();
-                return;
-              }
-
-              final EncryptedTransaction outerTx = existing.get();
-
-              final EncodedPayload primaryTx = payloadEncoder.decode(outerTx.getEncodedPayload());
-              final EncodedPayload secondaryTx = payloadEncoder.decode(et.getEncodedPayload());
-
-              final EncodedPayload updatedPayload =
-                  this.handleSingleTransaction(primaryTx, secondaryTx);
-
-              final byte[] updatedEncoded = payloadEncoder.encode(updatedPayload);
-              outerTx.setEncodedPayload(updatedEncoded);
-              primaryEntityManager.getTransaction().begin();
-              primaryEntityManager.merge(outerTx);
-              primaryEntityManager.getTransaction().commit();
-            });
+            .createNamedQuery("EncryptedTransaction.FindFirstByHash", EncryptedTransaction.class)
+            .setMaxResults(maxBatchSize)
+            .setHint(FETCH_SIZE_HINT, maxBatchSize)
+            .getResultList();
+
+    while (!page.isEmpty()) {
+      if (secondaryAppendsRecipientBoxes) {
+        loadAddedRecipientBoxes(secondaryEntityManager, page);
+      }
+      page.forEach(this::migrateTransaction);
+
+      final byte[] lastHash = page.get(page.size() - 1).getHash().getHashBytes();
+      page =
+          secondaryEntityManager
+              .createNamedQuery("EncryptedTransaction.FindAfterHash", EncryptedTransaction.class)
+              .setParameter("hash", lastHash)
+              .setMaxResults(maxBatchSize)
+              .setHint(FETCH_SIZE_HINT, maxBatchSize)
+              .getResultList();
+    }
+  }
+
+  private void migrateTransaction(final EncryptedTransaction et) {
+    final Optional<EncryptedTransaction> existing =
+        primaryEntityManager
+            .createNamedQuery("EncryptedTransaction.FindByHash", EncryptedTransaction.class)
+            .setParameter("hash", et.getHash().getHashBytes())
+            .getResultStream()
+            .findAny();
+
+    // added boxes are written into the payload itself, so the primary needs no box rows for them
+    if (existing.isEmpty()) {
+      if (!et.getAddedRecipientBoxes().isEmpty()) {
+        et.setEncodedPayload(
+            payloadEncoder.encode(EncryptedTransactionDecoder.decode(payloadEncoder, et)));
+      }
+      primaryEntityManager.getTransaction().begin();
+      primaryEntityManager.persist(et);
+      primaryEntityManager.getTransaction().commit();
+      return;
+    }
+
+    final EncryptedTransaction outerTx = existing.get();
+    if (primaryAppendsRecipientBoxes) {
+      loadAddedRecipientBoxes(primaryEntityManager, List.of(outerTx));
+    }
+
+    final EncodedPayload primaryTx = EncryptedTransactionDecoder.decode(payloadEncoder, outerTx);
+    final EncodedPayload secondaryTx = EncryptedTransactionDecoder.decode(payloadEncoder, et);
+
+    final EncodedPayload updatedPayload = this.handleSingleTransaction(primaryTx, secondaryTx);
+
+    final byte[] updatedEncoded = payloadEncoder.encode(updatedPayload);
+    outerTx.setEncodedPayload(updatedEncoded);
+    primaryEntityManager.getTransaction().begin();
+    primaryEntityManager.merge(outerTx);
+    if (!outerTx.getAddedRecipientBoxes().isEmpty()) {
+      primaryEntityManager
+          .createNamedQuery("EncryptedTransactionBox.DeleteByHash")
+          .setParameter("hash", outerTx.getHash().getHashBytes())
+          .executeUpdate();
+    }
+    primaryEntityManager.getTransaction().commit();
+  }
+
+  private static void loadAddedRecipientBoxes(
+      final EntityManager entityManager, final List<EncryptedTransaction> transactions) {
+    final List<byte[]> hashes =
+        transactions.stream().map(t -> t.getHash().getHashBytes()).collect(Collectors.toList());
+    final Map<MessageHash, List<EncryptedTransactionBox>> boxes =
+        entityManager
+            .createNamedQuery("EncryptedTransactionBox.FindByHashes", EncryptedTransactionBox.class)
+            .setParameter("hashes", hashes)
+            .getResultStream()
+            .collect(Collectors.groupingBy(box -> new MessageHash(box.getHash())));
+
+    transactions.forEach(t -> t.setAddedRecipientBoxes(boxes.getOrDefault(t.getHash(), List.of())));
   }
 
   public EncodedPayload handleSingleTransaction(
@@ -200,8 +258,4 @@ public class EncryptedTransactionMigrator {
     return combinedAffectedTxs.entrySet().stream()
         .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, e -> e.getValue().getData()));
   }
-
-  static int calculateBatchCount(long maxResults, long total) {
-    return (int) Math.ceil((double) total / maxResults);
-  }
 }
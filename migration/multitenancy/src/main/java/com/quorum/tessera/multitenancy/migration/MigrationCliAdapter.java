@@ -43,7 +43,12 @@ public class MigrationCliAdapter implements CliAdapter, Callable<CliResult> {
         JdbcConfigUtil.entityManagerFactory(configSecondary.getJdbcConfig());
     // migrate raw
 
-    new MigrationRunner(primaryEntityManagerFactory, secondaryEntityManagerFactory).run();
+    new MigrationRunner(
+            primaryEntityManagerFactory,
+            secondaryEntityManagerFactory,
+            configPrimary.getJdbcConfig().isAppendRecipientBoxes(),
+            configSecondary.getJdbcConfig().isAppendRecipientBoxes())
+        .run();
 
     return new CliResult(0, true, null);
   }
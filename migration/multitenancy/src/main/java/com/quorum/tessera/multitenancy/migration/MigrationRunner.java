@@ -11,9 +11,23 @@ public class MigrationRunner {
 
   private final EntityManagerFactory secondary;
 
+  private final boolean primaryAppendsRecipientBoxes;
+
+  private final boolean secondaryAppendsRecipientBoxes;
+
   public MigrationRunner(final EntityManagerFactory primary, final EntityManagerFactory secondary) {
+    this(primary, secondary, false, false);
+  }
+
+  public MigrationRunner(
+      final EntityManagerFactory primary,
+      final EntityManagerFactory secondary,
+      final boolean primaryAppendsRecipientBoxes,
+      final boolean secondaryAppendsRecipientBoxes) {
     this.primary = Objects.requireNonNull(primary);
     this.secondary = Objects.requireNonNull(secondary);
+    this.primaryAppendsRecipientBoxes = primaryAppendsRecipientBoxes;
+    this.secondaryAppendsRecipientBoxes = secondaryAppendsRecipientBoxes;
   }
 
   public void run() {
@@ -28,7 +42,11 @@ public class MigrationRunner {
     // migrate regular
     final EncryptedTransactionMigrator etMigrator =
         new EncryptedTransactionMigrator(
-            primaryEntityManager, secondaryEntityManager, PayloadEncoder.create());
+            primaryEntityManager,
+            secondaryEntityManager,
+            PayloadEncoder.create(),
+            primaryAppendsRecipientBoxes,
+            secondaryAppendsRecipientBoxes);
     etMigrator.migrate();
   }
 }
@@ -3,11 +3,18 @@ package com.quorum.tessera.multitenancy.migration;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
 
+import com.quorum.tessera.data.EncryptedTransaction;
+import com.quorum.tessera.data.EncryptedTransactionBox;
+import com.quorum.tessera.data.MessageHash;
 import com.quorum.tessera.enclave.*;
 import com.quorum.tessera.encryption.PublicKey;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 import javax.persistence.EntityManager;
+import javax.persistence.EntityTransaction;
+import javax.persistence.Query;
+import javax.persistence.TypedQuery;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -473,4 +480,147 @@ public class EncryptedTransactionMigratorTest {
 
     assertThat(result).isEqualToComparingFieldByFieldRecursively(secondaryPayload);
   }
+
+  @Test
+  public void addedRecipientBoxesOfNewTransactionAreEncodedIntoItsPayload() {
+    migrator =
+        new EncryptedTransactionMigrator(primaryDao, secondaryDao, payloadEncoder, false, true);
+
+    final MessageHash hash = new MessageHash("hash".getBytes());
+    final PublicKey recipient = PublicKey.from("recipient".getBytes());
+    final EncryptedTransaction transaction = new EncryptedTransaction(hash, "payload".getBytes());
+    final EncryptedTransactionBox box =
+        new EncryptedTransactionBox(
+            hash.getHashBytes(), 1, recipient.getKeyBytes(), "box".getBytes());
+
+    mockSecondaryPage(transaction);
+    mockAddedRecipientBoxes(secondaryDao, box);
+    mockPrimaryTransaction();
+    when(primaryDao.getTransaction()).thenReturn(mock(EntityTransaction.class));
+
+    final EncodedPayload decoded = mock(EncodedPayload.class);
+    final EncodedPayload withBox = mock(EncodedPayload.class);
+    when(payloadEncoder.decode("payload".getBytes())).thenReturn(decoded);
+    when(payloadEncoder.withRecipientBox(decoded, recipient, "box".getBytes())).thenReturn(withBox);
+    when(payloadEncoder.encode(withBox)).thenReturn("merged".getBytes());
+
+    migrator.migrate();
+
+    assertThat(transaction.getEncodedPayload()).isEqualTo("merged".getBytes());
+
+    verify(primaryDao).persist(transaction);
+    verify(primaryDao, times(2)).getTransaction();
+    verify(primaryDao)
+        .createNamedQuery("EncryptedTransaction.FindByHash", EncryptedTransaction.class);
+    verifySecondaryPageRead();
+  }
+
+  @Test
+  public void addedRecipientBoxesOfExistingTransactionAreMerged() {
+    migrator =
+        new EncryptedTransactionMigrator(primaryDao, secondaryDao, payloadEncoder, true, true);
+
+    final MessageHash hash = new MessageHash("hash".getBytes());
+    final PublicKey sender = PublicKey.from("sender".getBytes());
+    final PublicKey recipient = PublicKey.from("recipient".getBytes());
+
+    final EncryptedTransaction secondaryTransaction =
+        new EncryptedTransaction(hash, "secondary".getBytes());
+    final EncryptedTransaction primaryTransaction =
+        new EncryptedTransaction(hash, "primary".getBytes());
+
+    mockSecondaryPage(secondaryTransaction);
+    mockAddedRecipientBoxes(
+        secondaryDao,
+        new EncryptedTransactionBox(hash.getHashBytes(), 1, null, "secondaryBox".getBytes()));
+    mockPrimaryTransaction(primaryTransaction);
+    mockAddedRecipientBoxes(
+        primaryDao,
+        new EncryptedTransactionBox(hash.getHashBytes(), 1, null, "primaryBox".getBytes()));
+    when(primaryDao.getTransaction()).thenReturn(mock(EntityTransaction.class));
+    final Query deleteQuery = mock(Query.class);
+    when(primaryDao.createNamedQuery("EncryptedTransactionBox.DeleteByHash"))
+        .thenReturn(deleteQuery);
+    when(deleteQuery.setParameter(anyString(), any())).thenReturn(deleteQuery);
+
+    final EncodedPayload primaryDecoded = mock(EncodedPayload.class);
+    final EncodedPayload primaryPayload = mock(EncodedPayload.class);
+    when(primaryPayload.getPrivacyMode()).thenReturn(PrivacyMode.STANDARD_PRIVATE);
+    when(primaryPayload.getSenderKey()).thenReturn(sender);
+    when(primaryPayload.getRecipientKeys()).thenReturn(List.of(recipient));
+    when(payloadEncoder.decode("primary".getBytes())).thenReturn(primaryDecoded);
+    when(payloadEncoder.withRecipientBox(primaryDecoded, null, "primaryBox".getBytes()))
+        .thenReturn(primaryPayload);
+
+    // the secondary was the sender, so its payload is the one kept
+    final EncodedPayload secondaryDecoded = mock(EncodedPayload.class);
+    final EncodedPayload secondaryPayload = mock(EncodedPayload.class);
+    when(secondaryPayload.getSenderKey()).thenReturn(sender);
+    when(secondaryPayload.getRecipientKeys()).thenReturn(List.of(sender));
+    when(payloadEncoder.decode("secondary".getBytes())).thenReturn(secondaryDecoded);
+    when(payloadEncoder.withRecipientBox(secondaryDecoded, null, "secondaryBox".getBytes()))
+        .thenReturn(secondaryPayload);
+    when(payloadEncoder.encode(secondaryPayload)).thenReturn("merged".getBytes());
+
+    migrator.migrate();
+
+    assertThat(primaryTransaction.getEncodedPayload()).isEqualTo("merged".getBytes());
+
+    verify(primaryDao).merge(primaryTransaction);
+    verify(deleteQuery).setParameter("hash", hash.getHashBytes());
+    verify(deleteQuery).executeUpdate();
+    verify(primaryDao, times(2)).getTransaction();
+    verify(primaryDao)
+        .createNamedQuery("EncryptedTransaction.FindByHash", EncryptedTransaction.class);
+    verify(primaryDao)
+        .createNamedQuery("EncryptedTransactionBox.FindByHashes", EncryptedTransactionBox.class);
+    verify(primaryDao).createNamedQuery("EncryptedTransactionBox.DeleteByHash");
+    verifySecondaryPageRead();
+  }
+
+  private void mockSecondaryPage(final EncryptedTransaction... transactions) {
+    final TypedQuery<EncryptedTransaction> firstPage = mock(TypedQuery.class);
+    when(secondaryDao.createNamedQuery(
+            "EncryptedTransaction.FindFirstByHash", EncryptedTransaction.class))
+        .thenReturn(firstPage);
+    when(firstPage.setMaxResults(anyInt())).thenReturn(firstPage);
+    when(firstPage.setHint(anyString(), any())).thenReturn(firstPage);
+    when(firstPage.getResultList()).thenReturn(List.of(transactions));
+
+    final TypedQuery<EncryptedTransaction> nextPage = mock(TypedQuery.class);
+    when(secondaryDao.createNamedQuery(
+            "EncryptedTransaction.FindAfterHash", EncryptedTransaction.class))
+        .thenReturn(nextPage);
+    when(nextPage.setParameter(anyString(), any())).thenReturn(nextPage);
+    when(nextPage.setMaxResults(anyInt())).thenReturn(nextPage);
+    when(nextPage.setHint(anyString(), any())).thenReturn(nextPage);
+    when(nextPage.getResultList()).thenReturn(List.of());
+  }
+
+  private void verifySecondaryPageRead() {
+    verify(secondaryDao)
+        .createNamedQuery("EncryptedTransaction.FindFirstByHash", EncryptedTransaction.class);
+    verify(secondaryDao)
+        .createNamedQuery("EncryptedTransactionBox.FindByHashes", EncryptedTransactionBox.class);
+    verify(secondaryDao)
+        .createNamedQuery("EncryptedTransaction.FindAfterHash", EncryptedTransaction.class);
+  }
+
+  private static void mockAddedRecipientBoxes(
+      final EntityManager entityManager, final EncryptedTransactionBox... boxes) {
+    final TypedQuery<EncryptedTransactionBox> query = mock(TypedQuery.class);
+    when(entityManager.createNamedQuery(
+            "EncryptedTransactionBox.FindByHashes", EncryptedTransactionBox.class))
+        .thenReturn(query);
+    when(query.setParameter(anyString(), any())).thenReturn(query);
+    when(query.getResultStream()).thenReturn(Stream.of(boxes));
+  }
+
+  private void mockPrimaryTransaction(final EncryptedTransaction... existing) {
+    final TypedQuery<EncryptedTransaction> query = mock(TypedQuery.class);
+    when(primaryDao.createNamedQuery("EncryptedTransaction.FindByHash", EncryptedTransaction.class))
+        .thenReturn(query);
+    when(query.setParameter(anyString(), any())).thenReturn(query);
+    when(query.getResultStream()).thenReturn(Stream.of(existing));
+  }
 }
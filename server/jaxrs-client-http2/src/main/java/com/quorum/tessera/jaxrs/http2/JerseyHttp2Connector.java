@@ -0,0 +1,45 @@
+package com.quorum.tessera.jaxrs.http2;
+
+import com.quorum.tessera.jaxrs.jetty.JettyConnector;
+import javax.net.ssl.SSLContext;
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.http2.client.HTTP2Client;
+import org.eclipse.jetty.http2.client.http.HttpClientTransportOverHTTP2;
+import org.eclipse.jetty.util.ssl.SslContextFactory;
+
+/**
+ * A Jersey connector that sends requests over HTTP/2, using a pool of connections to each peer.
+ *
+ * <p>Connections are kept open between requests until they have been idle for the configured
+ * timeout, and each connection carries many requests at once. Plain http peers are spoken to using
+ * HTTP/2 with prior knowledge (h2c), and https peers negotiate h2 using ALPN.
+ */
+public class JerseyHttp2Connector extends JettyConnector {
+
+  public JerseyHttp2Connector(
+      SSLContext sslContext,
+      int maxConnectionsPerDestination,
+      long idleTimeout,
+      long connectTimeout) {
+    super(newHttpClient(sslContext, maxConnectionsPerDestination, idleTimeout, connectTimeout));
+  }
+
+  private static HttpClient newHttpClient(
+      SSLContext sslContext,
+      int maxConnectionsPerDestination,
+      long idleTimeout,
+      long connectTimeout) {
+
+    final SslContextFactory.Client sslContextFactory = new SslContextFactory.Client();
+    sslContextFactory.setSslContext(sslContext);
+
+    final HttpClient httpClient =
+        new HttpClient(new HttpClientTransportOverHTTP2(new HTTP2Client()), sslContextFactory);
+    httpClient.setMaxConnectionsPerDestination(maxConnectionsPerDestination);
+    httpClient.setIdleTimeout(idleTimeout);
+    if (connectTimeout > 0) {
+      httpClient.setConnectTimeout(connectTimeout);
+    }
+    return httpClient;
+  }
+}
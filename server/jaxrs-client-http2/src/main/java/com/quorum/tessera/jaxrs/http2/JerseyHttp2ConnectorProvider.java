@@ -0,0 +1,52 @@
+package com.quorum.tessera.jaxrs.http2;
+
+import javax.ws.rs.client.Client;
+import javax.ws.rs.core.Configuration;
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.spi.Connector;
+import org.glassfish.jersey.client.spi.ConnectorProvider;
+
+/**
+ * Provides a {@link JerseyHttp2Connector}, configured from the client properties.
+ *
+ * <p>The connector shares the SSL context of the client, so TLS sessions negotiated by one request
+ * are resumed by the next.
+ */
+public class JerseyHttp2ConnectorProvider implements ConnectorProvider {
+
+  /** The most connections opened to a single peer */
+  public static final String MAX_CONNECTIONS_PER_DESTINATION =
+      "tessera.http2.maxConnectionsPerDestination";
+
+  /** How long, in milliseconds, an unused connection is kept open for */
+  public static final String IDLE_TIMEOUT = "tessera.http2.idleTimeout";
+
+  static final int DEFAULT_MAX_CONNECTIONS_PER_DESTINATION = 8;
+
+  static final long DEFAULT_IDLE_TIMEOUT = 30000L;
+
+  @Override
+  public Connector getConnector(Client client, Configuration runtimeConfig) {
+    final long maxConnectionsPerDestination =
+        longProperty(
+            runtimeConfig,
+            MAX_CONNECTIONS_PER_DESTINATION,
+            DEFAULT_MAX_CONNECTIONS_PER_DESTINATION);
+    final long idleTimeout = longProperty(runtimeConfig, IDLE_TIMEOUT, DEFAULT_IDLE_TIMEOUT);
+    final long connectTimeout = longProperty(runtimeConfig, ClientProperties.CONNECT_TIMEOUT, 0L);
+
+    return new JerseyHttp2Connector(
+        client.getSslContext(),
+        Math.toIntExact(maxConnectionsPerDestination),
+        idleTimeout,
+        connectTimeout);
+  }
+
+  private static long longProperty(Configuration config, String name, long defaultValue) {
+    final Object value = config.getProperty(name);
+    if (value instanceof Number) {
+      return ((Number) value).longValue();
+    }
+    return defaultValue;
+  }
+}
@@ -0,0 +1,11 @@
+module tessera.server.jersey.http2 {
+  requires java.ws.rs;
+  requires jersey.client;
+  requires org.eclipse.jetty.client;
+  requires org.eclipse.jetty.http2.client;
+  requires org.eclipse.jetty.http2.http.client.transport;
+  requires org.eclipse.jetty.util;
+  requires tessera.server.jersey.jetty;
+
+  exports com.quorum.tessera.jaxrs.http2;
+}
@@ -0,0 +1,72 @@
+package com.quorum.tessera.jaxrs.http2;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import javax.net.ssl.SSLContext;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.core.Configuration;
+import org.eclipse.jetty.client.HttpClient;
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.spi.Connector;
+import org.junit.Before;
+import org.junit.Test;
+
+public class JerseyHttp2ConnectorProviderTest {
+
+  private Client client;
+
+  private Configuration configuration;
+
+  private JerseyHttp2ConnectorProvider provider;
+
+  @Before
+  public void onSetUp() throws Exception {
+    client = mock(Client.class);
+    when(client.getSslContext()).thenReturn(SSLContext.getDefault());
+    configuration = mock(Configuration.class);
+    provider = new JerseyHttp2ConnectorProvider();
+  }
+
+  @Test
+  public void connectorUsesConfiguredProperties() {
+    when(configuration.getProperty(JerseyHttp2ConnectorProvider.MAX_CONNECTIONS_PER_DESTINATION))
+        .thenReturn(2);
+    when(configuration.getProperty(JerseyHttp2ConnectorProvider.IDLE_TIMEOUT)).thenReturn(1000L);
+    when(configuration.getProperty(ClientProperties.CONNECT_TIMEOUT)).thenReturn(500);
+
+    final Connector connector = provider.getConnector(client, configuration);
+
+    try {
+      assertThat(connector).isExactlyInstanceOf(JerseyHttp2Connector.class);
+      final HttpClient httpClient = ((JerseyHttp2Connector) connector).getHttpClient();
+      assertThat(httpClient.isStarted()).isTrue();
+      assertThat(httpClient.getMaxConnectionsPerDestination()).isEqualTo(2);
+      assertThat(httpClient.getIdleTimeout()).isEqualTo(1000L);
+      assertThat(httpClient.getConnectTimeout()).isEqualTo(500L);
+      assertThat(httpClient.getSslContextFactory().getSslContext()).isNotNull();
+    } finally {
+      connector.close();
+    }
+
+    verify(client).getSslContext();
+  }
+
+  @Test
+  public void connectorUsesDefaultsForMissingProperties() {
+    when(configuration.getProperty(JerseyHttp2ConnectorProvider.IDLE_TIMEOUT)).thenReturn("1s");
+
+    final Connector connector = provider.getConnector(client, configuration);
+
+    try {
+      final HttpClient httpClient = ((JerseyHttp2Connector) connector).getHttpClient();
+      assertThat(httpClient.getMaxConnectionsPerDestination())
+          .isEqualTo(JerseyHttp2ConnectorProvider.DEFAULT_MAX_CONNECTIONS_PER_DESTINATION);
+      assertThat(httpClient.getIdleTimeout())
+          .isEqualTo(JerseyHttp2ConnectorProvider.DEFAULT_IDLE_TIMEOUT);
+      assertThat(httpClient.getConnectTimeout()).isEqualTo(new HttpClient().getConnectTimeout());
+    } finally {
+      connector.close();
+    }
+  }
+}
@@ -0,0 +1,220 @@
+package com.quorum.tessera.jaxrs.http2;
+
+import static javax.ws.rs.core.MediaType.APPLICATION_OCTET_STREAM;
+import static javax.ws.rs.core.MediaType.TEXT_PLAIN;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.Response;
+import org.eclipse.jetty.http2.server.HTTP2CServerConnectionFactory;
+import org.eclipse.jetty.server.Connector;
+import org.eclipse.jetty.server.HttpConfiguration;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.server.handler.AbstractHandler;
+import org.glassfish.jersey.client.ClientConfig;
+import org.glassfish.jersey.client.ClientProperties;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/** Sends requests through {@link JerseyHttp2Connector} to an embedded Jetty server over h2c. */
+public class JerseyHttp2RoundTripTest {
+
+  private static final int READ_TIMEOUT = 500;
+
+  private static final int LARGE_BODY_SIZE = 4 * 1024 * 1024;
+
+  private final CountDownLatch release = new CountDownLatch(1);
+
+  private Server server;
+
+  private URI baseUri;
+
+  private Client client;
+
+  @Before
+  public void onSetUp() throws Exception {
+    server = new Server();
+    final ServerConnector connector =
+        new ServerConnector(server, new HTTP2CServerConnectionFactory(new HttpConfiguration()));
+    connector.setPort(0);
+    server.setConnectors(new Connector[] {connector});
+    server.setHandler(new SampleHandler());
+    server.start();
+
+    baseUri = URI.create("http://localhost:" + connector.getLocalPort());
+    client = newClient();
+  }
+
+  @After
+  public void onTearDown() throws Exception {
+    release.countDown();
+    client.close();
+    server.stop();
+  }
+
+  @Test
+  public void requestIsSentOverHttp2() {
+    final Response response = client.target(baseUri).path("protocol").request().get();
+
+    assertThat(response.getStatus()).isEqualTo(200);
+    assertThat(response.readEntity(String.class)).isEqualTo("HTTP/2.0");
+  }
+
+  @Test
+  public void streamedRequestBody() {
+    final byte[] body = randomBytes(LARGE_BODY_SIZE);
+
+    final Response response =
+        client
+            .target(baseUri)
+            .path("echo")
+            .request()
+            .post(Entity.entity(new ByteArrayInputStream(body), APPLICATION_OCTET_STREAM));
+
+    assertThat(response.getStatus()).isEqualTo(200);
+    assertThat(response.readEntity(byte[].class)).isEqualTo(body);
+  }
+
+  @Test
+  public void streamedResponseBody() throws IOException {
+    final Response response = client.target(baseUri).path("large").request().get();
+
+    assertThat(response.getStatus()).isEqualTo(200);
+    try (InputStream entity = response.readEntity(InputStream.class)) {
+      assertThat(entity.readAllBytes()).hasSize(LARGE_BODY_SIZE);
+    }
+  }
+
+  @Test
+  public void asyncRequestSucceeds() throws Exception {
+    final Future<Response> future =
+        client
+            .target(baseUri)
+            .path("echo")
+            .request()
+            .async()
+            .post(Entity.entity("HELLO", TEXT_PLAIN));
+
+    final Response response = future.get(5, TimeUnit.SECONDS);
+
+    assertThat(response.getStatus()).isEqualTo(200);
+    assertThat(response.readEntity(String.class)).isEqualTo("HELLO");
+  }
+
+  @Test
+  public void asyncRequestFailsWhenPeerIsDown() throws Exception {
+    final int unusedPort;
+    try (ServerSocket socket = new ServerSocket(0)) {
+      unusedPort = socket.getLocalPort();
+    }
+
+    final Future<Response> future =
+        client.target(URI.create("http://localhost:" + unusedPort)).request().async().get();
+
+    final Throwable throwable = catchThrowable(() -> future.get(5, TimeUnit.SECONDS));
+
+    assertThat(throwable)
+        .isInstanceOf(ExecutionException.class)
+        .hasCauseInstanceOf(ProcessingException.class);
+  }
+
+  @Test
+  public void readTimeout() {
+    final Throwable throwable =
+        catchThrowable(
+            () ->
+                client
+                    .property(ClientProperties.READ_TIMEOUT, READ_TIMEOUT)
+                    .target(baseUri)
+                    .path("hold")
+                    .request()
+                    .get());
+
+    assertThat(throwable)
+        .isInstanceOf(ProcessingException.class)
+        .hasRootCauseInstanceOf(TimeoutException.class);
+  }
+
+  private static Client newClient() {
+    final ClientConfig config = new ClientConfig();
+    config.connectorProvider(new JerseyHttp2ConnectorProvider());
+
+    return ClientBuilder.newClient(config);
+  }
+
+  private static byte[] randomBytes(int size) {
+    final byte[] bytes = new byte[size];
+    new Random().nextBytes(bytes);
+    return bytes;
+  }
+
+  private class SampleHandler extends AbstractHandler {
+
+    @Override
+    public void handle(
+        String target,
+        Request baseRequest,
+        HttpServletRequest request,
+        HttpServletResponse response)
+        throws IOException {
+      baseRequest.setHandled(true);
+
+      switch (target) {
+        case "/protocol":
+          response.setStatus(200);
+          response.getOutputStream().write(request.getProtocol().getBytes(StandardCharsets.UTF_8));
+          break;
+        case "/echo":
+          response.setStatus(200);
+          request.getInputStream().transferTo(response.getOutputStream());
+          break;
+        case "/large":
+          response.setStatus(200);
+          writeLargeBody(response.getOutputStream());
+          break;
+        case "/hold":
+          await(release);
+          break;
+        default:
+          response.setStatus(404);
+      }
+    }
+
+    private void writeLargeBody(OutputStream out) throws IOException {
+      final byte[] chunk = new byte[64 * 1024];
+      for (int written = 0; written < LARGE_BODY_SIZE; written += chunk.length) {
+        out.write(chunk);
+      }
+    }
+
+    private void await(CountDownLatch latch) {
+      try {
+        latch.await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+}
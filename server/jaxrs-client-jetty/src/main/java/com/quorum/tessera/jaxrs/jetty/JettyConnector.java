@@ -0,0 +1,255 @@
+package com.quorum.tessera.jaxrs.jetty;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.core.MultivaluedMap;
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.client.api.Request;
+import org.eclipse.jetty.client.api.Response;
+import org.eclipse.jetty.client.api.Result;
+import org.eclipse.jetty.client.util.InputStreamResponseListener;
+import org.eclipse.jetty.client.util.OutputStreamContentProvider;
+import org.eclipse.jetty.http.HttpMethod;
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.ClientRequest;
+import org.glassfish.jersey.client.ClientResponse;
+import org.glassfish.jersey.client.spi.AsyncConnectorCallback;
+import org.glassfish.jersey.client.spi.Connector;
+import org.glassfish.jersey.message.internal.Statuses;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A Jersey connector that sends requests through a Jetty {@link HttpClient}.
+ *
+ * <p>Request and response bodies are streamed rather than held in memory. Subclasses decide how
+ * the client connects to peers, and may send a request somewhere other than its own URI.
+ */
+public abstract class JettyConnector implements Connector {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(JettyConnector.class);
+
+  private final HttpClient httpClient;
+
+  /**
+   * @param httpClient the client to send requests with, which is started here and stopped when
+   *     the connector is closed
+   */
+  protected JettyConnector(HttpClient httpClient) {
+    this.httpClient = Objects.requireNonNull(httpClient);
+    try {
+      httpClient.start();
+    } catch (Exception ex) {
+      throw new RuntimeException(ex);
+    }
+  }
+
+  /**
+   * Get the URI the given request is sent to
+   *
+   * @param request the request to send
+   * @return the URI of the request itself, unless overridden
+   */
+  protected URI requestUri(ClientRequest request) {
+    return request.getUri();
+  }
+
+  @Override
+  public ClientResponse apply(ClientRequest request) {
+
+    try {
+      return doApply(request);
+    } catch (ProcessingException ex) {
+      throw ex;
+    } catch (Exception ex) {
+      throw new ProcessingException(ex);
+    }
+  }
+
+  private ClientResponse doApply(ClientRequest request) throws Exception {
+
+    final Request clientRequest = newRequest(request);
+    final long readTimeout = request.resolveProperty(ClientProperties.READ_TIMEOUT, 0);
+
+    final InputStreamResponseListener listener = new InputStreamResponseListener();
+    send(request, clientRequest, listener);
+
+    final Response jettyResponse;
+    try {
+      jettyResponse =
+          listener.get(readTimeout > 0 ? readTimeout : Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+    } catch (TimeoutException ex) {
+      clientRequest.abort(ex);
+      throw ex;
+    }
+
+    return toClientResponse(request, jettyResponse, listener.getInputStream());
+  }
+
+  private Request newRequest(ClientRequest request) {
+
+    final HttpMethod httpMethod = HttpMethod.valueOf(request.getMethod());
+    final long readTimeout = request.resolveProperty(ClientProperties.READ_TIMEOUT, 0);
+
+    final Request clientRequest = httpClient.newRequest(requestUri(request)).method(httpMethod);
+    if (readTimeout > 0) {
+      clientRequest.idleTimeout(readTimeout, TimeUnit.MILLISECONDS);
+    }
+
+    final MultivaluedMap<String, Object> headers = request.getHeaders();
+    headers.forEach(
+        (name, values) ->
+            values.forEach(value -> clientRequest.header(name, Objects.toString(value))));
+
+    return clientRequest;
+  }
+
+  /**
+   * Sends the request, writing its entity (if any) to the connection as it is serialised rather
+   * than buffering it first. Returns once the entity has been written; the response is passed to
+   * the listener.
+   */
+  private static void send(
+      ClientRequest request, Request clientRequest, Response.Listener listener) throws IOException {
+
+    if (!request.hasEntity()) {
+      clientRequest.send(listener);
+      return;
+    }
+
+    final OutputStreamContentProvider content = new OutputStreamContentProvider();
+    clientRequest.content(content);
+    clientRequest.send(listener);
+
+    try (OutputStream out = content.getOutputStream()) {
+      request.setStreamProvider(contentLength -> out);
+      request.writeEntity();
+    } catch (IOException ex) {
+      clientRequest.abort(ex);
+      throw ex;
+    }
+  }
+
+  private static ClientResponse toClientResponse(
+      ClientRequest request, Response jettyResponse, InputStream entityStream) {
+
+    final int statusCode = jettyResponse.getStatus();
+    final String reason = jettyResponse.getReason();
+
+    LOGGER.trace(
+        "uri {}, method: {}, version: {}, statusCode: {}, reason: {}",
+        request.getUri(),
+        request.getMethod(),
+        jettyResponse.getVersion(),
+        statusCode,
+        reason);
+
+    final javax.ws.rs.core.Response.StatusType status = Statuses.from(statusCode, reason);
+
+    final ClientResponse response = new ClientResponse(status, request);
+    jettyResponse
+        .getHeaders()
+        .forEach(header -> response.headers(header.getName(), (Object[]) header.getValues()));
+
+    response.setEntityStream(entityStream);
+    return response;
+  }
+
+  /**
+   * Sends the request without waiting for it to be written or answered. The entity is written on a
+   * thread of the http client, and the future is completed as soon as the response headers arrive,
+   * with the body still to be read from the connection; a failure after that point reaches the
+   * caller through the entity stream instead. The callback itself runs on a thread of the http
+   * client rather than the one that read the headers, and cancelling the future aborts the request.
+   */
+  @Override
+  public Future<?> apply(final ClientRequest request, final AsyncConnectorCallback callback) {
+
+    final CompletableFuture<ClientResponse> result = new CompletableFuture<>();
+    result.whenCompleteAsync(
+        (response, failure) -> {
+          if (failure == null) {
+            callback.response(response);
+          } else if (failure instanceof IOException) {
+            callback.failure(new ProcessingException(failure));
+          } else {
+            callback.failure(failure);
+          }
+        },
+        httpClient.getExecutor());
+
+    final InputStreamResponseListener listener =
+        new InputStreamResponseListener() {
+          @Override
+          public void onHeaders(Response response) {
+            super.onHeaders(response);
+            final ClientResponse clientResponse =
+                toClientResponse(request, response, getInputStream());
+            if (!result.complete(clientResponse)) {
+              clientResponse.close();
+            }
+          }
+
+          @Override
+          public void onComplete(Result jettyResult) {
+            super.onComplete(jettyResult);
+            if (jettyResult.isFailed()) {
+              result.completeExceptionally(jettyResult.getFailure());
+            }
+          }
+        };
+
+    try {
+      final Request clientRequest = newRequest(request);
+      result.whenComplete(
+          (response, failure) -> {
+            if (result.isCancelled()) {
+              clientRequest.abort(failure);
+            }
+          });
+      httpClient
+          .getExecutor()
+          .execute(
+              () -> {
+                if (result.isDone()) {
+                  return;
+                }
+                try {
+                  send(request, clientRequest, listener);
+                } catch (Throwable t) {
+                  result.completeExceptionally(t);
+                }
+              });
+    } catch (Throwable t) {
+      result.completeExceptionally(t);
+    }
+
+    return result;
+  }
+
+  public HttpClient getHttpClient() {
+    return httpClient;
+  }
+
+  @Override
+  public String getName() {
+    return getClass().getSimpleName();
+  }
+
+  @Override
+  public void close() {
+    try {
+      httpClient.stop();
+    } catch (Exception ex) {
+      LOGGER.debug("Unable to stop http client", ex);
+    }
+  }
+}
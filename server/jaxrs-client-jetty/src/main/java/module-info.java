@@ -0,0 +1,11 @@
+module tessera.server.jersey.jetty {
+  requires java.ws.rs;
+  requires transitive jersey.client;
+  requires jersey.common;
+  requires transitive org.eclipse.jetty.client;
+  requires org.eclipse.jetty.http;
+  requires org.eclipse.jetty.util;
+  requires org.slf4j;
+
+  exports com.quorum.tessera.jaxrs.jetty;
+}
@@ -0,0 +1,378 @@
+package com.quorum.tessera.jaxrs.jetty;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.client.api.Request;
+import org.eclipse.jetty.client.api.Response;
+import org.eclipse.jetty.client.api.Result;
+import org.eclipse.jetty.client.util.OutputStreamContentProvider;
+import org.eclipse.jetty.http.HttpFields;
+import org.eclipse.jetty.http.HttpMethod;
+import org.eclipse.jetty.http.HttpVersion;
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.ClientRequest;
+import org.glassfish.jersey.client.ClientResponse;
+import org.glassfish.jersey.client.spi.AsyncConnectorCallback;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+public class JettyConnectorTest {
+
+  private static final URI REQUEST_URI = URI.create("http://localhost:8080/path");
+
+  private HttpClient httpClient;
+
+  private Request jettyRequest;
+
+  private ClientRequest request;
+
+  private AsyncConnectorCallback callback;
+
+  private JettyConnector connector;
+
+  private final List<Runnable> deferred = new ArrayList<>();
+
+  @Before
+  public void onSetUp() {
+    final Executor executor = Runnable::run;
+
+    httpClient = mock(HttpClient.class);
+    jettyRequest = mock(Request.class);
+    when(httpClient.newRequest(REQUEST_URI)).thenReturn(jettyRequest);
+    when(httpClient.getExecutor()).thenReturn(executor);
+    when(jettyRequest.method(HttpMethod.GET)).thenReturn(jettyRequest);
+
+    final MultivaluedMap<String, Object> headers = new MultivaluedHashMap<>();
+    headers.add("Accept", "text/plain");
+
+    request = mock(ClientRequest.class);
+    when(request.getMethod()).thenReturn("GET");
+    when(request.getUri()).thenReturn(REQUEST_URI);
+    when(request.getHeaders()).thenReturn(headers);
+    when(request.resolveProperty(ClientProperties.READ_TIMEOUT, 0)).thenReturn(0);
+
+    callback = mock(AsyncConnectorCallback.class);
+
+    connector = new TestConnector(httpClient);
+  }
+
+  @After
+  public void onTearDown() {
+    verifyNoMoreInteractions(callback);
+  }
+
+  @Test
+  public void failureToStartClientIsRethrown() throws Exception {
+    final HttpClient failingClient = mock(HttpClient.class);
+    final Exception cause = new Exception("not started");
+    doThrow(cause).when(failingClient).start();
+
+    final Throwable throwable = catchThrowable(() -> new TestConnector(failingClient));
+
+    assertThat(throwable).isInstanceOf(RuntimeException.class).hasCause(cause);
+  }
+
+  @Test
+  public void closeStopsClient() throws Exception {
+    connector.close();
+
+    verify(httpClient).stop();
+  }
+
+  @Test
+  public void closeIgnoresFailureToStopClient() throws Exception {
+    doThrow(new Exception("not stopped")).when(httpClient).stop();
+
+    connector.close();
+
+    verify(httpClient).stop();
+  }
+
+  @Test
+  public void getName() {
+    assertThat(connector.getName()).isEqualTo("TestConnector");
+  }
+
+  @Test
+  public void getHttpClient() {
+    assertThat(connector.getHttpClient()).isSameAs(httpClient);
+  }
+
+  @Test
+  public void requestIsSentToTheUriChosenBySubclass() {
+    final URI otherUri = URI.create("http://localhost:9090/other");
+    final Request otherRequest = mock(Request.class);
+    when(httpClient.newRequest(otherUri)).thenReturn(otherRequest);
+    when(otherRequest.method(HttpMethod.GET)).thenReturn(otherRequest);
+
+    final JettyConnector redirecting =
+        new TestConnector(httpClient) {
+          @Override
+          protected URI requestUri(ClientRequest request) {
+            return otherUri;
+          }
+        };
+
+    redirecting.apply(request, callback);
+
+    verify(otherRequest).send(any(Response.Listener.class));
+    verifyNoInteractions(jettyRequest);
+  }
+
+  @Test
+  public void responseIsReturnedOnceHeadersArrive() {
+    doAnswer(
+            invocation -> {
+              final Response.Listener listener = invocation.getArgument(0);
+              listener.onHeaders(jettyResponse());
+              return null;
+            })
+        .when(jettyRequest)
+        .send(any(Response.Listener.class));
+
+    final ClientResponse response = connector.apply(request);
+
+    assertThat(response.getStatus()).isEqualTo(200);
+    assertThat(response.getHeaderString("X-Test")).isEqualTo("value");
+    verify(jettyRequest).header("Accept", "text/plain");
+  }
+
+  @Test
+  public void readTimeoutAbortsRequest() {
+    when(request.resolveProperty(ClientProperties.READ_TIMEOUT, 0)).thenReturn(100);
+
+    final Throwable throwable = catchThrowable(() -> connector.apply(request));
+
+    assertThat(throwable)
+        .isInstanceOf(ProcessingException.class)
+        .hasCauseInstanceOf(TimeoutException.class);
+
+    verify(jettyRequest).idleTimeout(100, TimeUnit.MILLISECONDS);
+    verify(jettyRequest).header("Accept", "text/plain");
+    verify(jettyRequest).abort(any(TimeoutException.class));
+  }
+
+  @Test
+  public void failureWritingEntityAbortsRequest() throws Exception {
+    final IOException cause = new IOException("broken pipe");
+    when(request.hasEntity()).thenReturn(true);
+    doThrow(cause).when(request).writeEntity();
+
+    final Throwable throwable = catchThrowable(() -> connector.apply(request));
+
+    assertThat(throwable).isInstanceOf(ProcessingException.class).hasCause(cause);
+
+    verify(jettyRequest).content(any(OutputStreamContentProvider.class));
+    verify(jettyRequest).send(any(Response.Listener.class));
+    verify(jettyRequest).abort(cause);
+  }
+
+  @Test
+  public void processingExceptionIsNotWrapped() throws Exception {
+    final ProcessingException cause = new ProcessingException("no writer");
+    when(request.hasEntity()).thenReturn(true);
+    doThrow(cause).when(request).writeEntity();
+
+    final Throwable throwable = catchThrowable(() -> connector.apply(request));
+
+    assertThat(throwable).isSameAs(cause);
+  }
+
+  @Test
+  public void asyncResponseIsGivenOnceHeadersArrive() {
+    final Future<?> future = connector.apply(request, callback);
+    assertThat(future).isNotDone();
+
+    final Response.Listener listener = sentListener();
+    listener.onHeaders(jettyResponse());
+    listener.onComplete(new Result(jettyRequest, jettyResponse()));
+
+    assertThat(future).isDone();
+
+    final ArgumentCaptor<ClientResponse> response = ArgumentCaptor.forClass(ClientResponse.class);
+    verify(callback).response(response.capture());
+    assertThat(response.getValue().getStatus()).isEqualTo(200);
+    assertThat(response.getValue().getHeaderString("X-Test")).isEqualTo("value");
+  }
+
+  @Test
+  public void asyncFailureAfterHeadersIsNotReported() {
+    connector.apply(request, callback);
+
+    final Response.Listener listener = sentListener();
+    listener.onHeaders(jettyResponse());
+    listener.onComplete(
+        new Result(jettyRequest, jettyResponse(), new TimeoutException("idle timeout")));
+
+    verify(callback).response(any(ClientResponse.class));
+  }
+
+  @Test
+  public void asyncIOExceptionIsReportedAsProcessingException() {
+    final IOException cause = new IOException("connection refused");
+
+    final Future<?> future = connector.apply(request, callback);
+    sentListener().onComplete(new Result(jettyRequest, cause, (Response) null));
+
+    assertThat(future).isDone();
+
+    final ArgumentCaptor<Throwable> failure = ArgumentCaptor.forClass(Throwable.class);
+    verify(callback).failure(failure.capture());
+    assertThat(failure.getValue()).isInstanceOf(ProcessingException.class).hasCause(cause);
+  }
+
+  @Test
+  public void asyncFailureIsReported() {
+    final TimeoutException cause = new TimeoutException("idle timeout");
+
+    connector.apply(request, callback);
+    sentListener().onComplete(new Result(jettyRequest, cause, (Response) null));
+
+    verify(callback).failure(cause);
+  }
+
+  @Test
+  public void asyncEntityIsWrittenOnTheClientExecutor() throws Exception {
+    when(httpClient.getExecutor()).thenReturn(deferred::add);
+    when(request.hasEntity()).thenReturn(true);
+
+    final Future<?> future = connector.apply(request, callback);
+
+    assertThat(future).isNotDone();
+    verify(request, never()).writeEntity();
+    verify(jettyRequest, never()).send(any(Response.Listener.class));
+
+    runDeferred();
+
+    verify(jettyRequest).content(any(OutputStreamContentProvider.class));
+    verify(request).writeEntity();
+
+    sentListener().onHeaders(jettyResponse());
+    runDeferred();
+
+    assertThat(future).isDone();
+    verify(callback).response(any(ClientResponse.class));
+  }
+
+  @Test
+  public void asyncFailureWritingEntityIsReported() throws Exception {
+    final IOException cause = new IOException("broken pipe");
+    when(request.hasEntity()).thenReturn(true);
+    doThrow(cause).when(request).writeEntity();
+
+    final Future<?> future = connector.apply(request, callback);
+
+    assertThat(future).isDone();
+    verify(jettyRequest).abort(cause);
+
+    final ArgumentCaptor<Throwable> failure = ArgumentCaptor.forClass(Throwable.class);
+    verify(callback).failure(failure.capture());
+    assertThat(failure.getValue()).isInstanceOf(ProcessingException.class).hasCause(cause);
+  }
+
+  @Test
+  public void asyncRequestCancelledBeforeItIsSentIsNotSent() {
+    when(httpClient.getExecutor()).thenReturn(deferred::add);
+
+    final Future<?> future = connector.apply(request, callback);
+    assertThat(future.cancel(true)).isTrue();
+    runDeferred();
+
+    verify(jettyRequest).abort(any(CancellationException.class));
+    verify(jettyRequest, never()).send(any(Response.Listener.class));
+    verify(callback).failure(any(CancellationException.class));
+  }
+
+  @Test
+  public void asyncRequestRejectedByTheClientExecutorIsReported() {
+    final RejectedExecutionException cause = new RejectedExecutionException("stopped");
+    final Executor direct = Runnable::run;
+    final Executor stopped = mock(Executor.class);
+    doThrow(cause).when(stopped).execute(any(Runnable.class));
+    // the first executor runs the callback, the second is asked to send the request
+    when(httpClient.getExecutor()).thenReturn(direct, stopped);
+
+    final Future<?> future = connector.apply(request, callback);
+
+    assertThat(future).isDone();
+    verify(callback).failure(cause);
+    verify(jettyRequest, never()).send(any(Response.Listener.class));
+  }
+
+  @Test
+  public void asyncFailureToCreateRequestIsReported() {
+    when(request.getMethod()).thenReturn("BOGUS");
+
+    final Future<?> future = connector.apply(request, callback);
+
+    assertThat(future).isDone();
+    verify(callback).failure(any(IllegalArgumentException.class));
+    verifyNoInteractions(jettyRequest);
+  }
+
+  @Test
+  public void cancellingAsyncRequestAbortsIt() {
+    final Future<?> future = connector.apply(request, callback);
+    final Response.Listener listener = sentListener();
+
+    assertThat(future.cancel(true)).isTrue();
+
+    verify(jettyRequest).abort(any(CancellationException.class));
+    verify(callback).failure(any(CancellationException.class));
+
+    listener.onHeaders(jettyResponse());
+
+    verify(callback, never()).response(any(ClientResponse.class));
+  }
+
+  private void runDeferred() {
+    final List<Runnable> tasks = new ArrayList<>(deferred);
+    deferred.clear();
+    tasks.forEach(Runnable::run);
+  }
+
+  private Response.Listener sentListener() {
+    final ArgumentCaptor<Response.Listener> listener =
+        ArgumentCaptor.forClass(Response.Listener.class);
+    verify(jettyRequest).send(listener.capture());
+    return listener.getValue();
+  }
+
+  private static Response jettyResponse() {
+    final HttpFields fields = new HttpFields();
+    fields.put("X-Test", "value");
+
+    final Response response = mock(Response.class);
+    when(response.getStatus()).thenReturn(200);
+    when(response.getReason()).thenReturn("OK");
+    when(response.getVersion()).thenReturn(HttpVersion.HTTP_2);
+    when(response.getHeaders()).thenReturn(fields);
+    return response;
+  }
+
+  private static class TestConnector extends JettyConnector {
+
+    TestConnector(HttpClient httpClient) {
+      super(httpClient);
+    }
+  }
+}
@@ -7,6 +7,7 @@ module tessera.server.jersey.unixsocket {
   requires org.eclipse.jetty.unixsocket;
   requires org.eclipse.jetty.util;
   requires org.slf4j;
+  requires tessera.server.jersey.jetty;
 
   exports com.quorum.tessera.jaxrs.unixsocket;
 }
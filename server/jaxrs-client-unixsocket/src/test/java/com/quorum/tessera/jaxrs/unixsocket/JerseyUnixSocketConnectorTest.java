@@ -0,0 +1,327 @@
+package com.quorum.tessera.jaxrs.unixsocket;
+
+import static javax.ws.rs.core.MediaType.APPLICATION_OCTET_STREAM;
+import static javax.ws.rs.core.MediaType.TEXT_PLAIN;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.Response;
+import org.eclipse.jetty.server.Connector;
+import org.eclipse.jetty.server.HttpConnectionFactory;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.handler.AbstractHandler;
+import org.eclipse.jetty.unixsocket.UnixSocketConnector;
+import org.glassfish.jersey.client.ClientConfig;
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.ClientRequest;
+import org.glassfish.jersey.client.ClientResponse;
+import org.glassfish.jersey.client.spi.AsyncConnectorCallback;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class JerseyUnixSocketConnectorTest {
+
+  private static final URI BASE_URI = URI.create("http://localhost:88");
+
+  private static final int READ_TIMEOUT = 500;
+
+  private static final int LARGE_BODY_SIZE = 4 * 1024 * 1024;
+
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private final CountDownLatch arrived = new CountDownLatch(1);
+
+  private final CountDownLatch release = new CountDownLatch(1);
+
+  private final CountDownLatch aborted = new CountDownLatch(1);
+
+  private URI unixfile;
+
+  private Server server;
+
+  private Client client;
+
+  @Before
+  public void onSetUp() throws Exception {
+    final Path socket = temporaryFolder.getRoot().toPath().resolve("test.sock");
+    unixfile = socket.toUri();
+
+    server = new Server();
+    final UnixSocketConnector connector =
+        new UnixSocketConnector(server, new HttpConnectionFactory());
+    connector.setUnixSocket(socket.toString());
+    server.setConnectors(new Connector[] {connector});
+    server.setHandler(new SampleHandler());
+    server.start();
+
+    client = newClient(unixfile);
+  }
+
+  @After
+  public void onTearDown() throws Exception {
+    release.countDown();
+    client.close();
+    server.stop();
+  }
+
+  @Test
+  public void streamedRequestBody() {
+    final byte[] body = randomBytes(LARGE_BODY_SIZE);
+
+    final Response response =
+        client
+            .target(BASE_URI)
+            .path("echo")
+            .request()
+            .post(Entity.entity(new ByteArrayInputStream(body), APPLICATION_OCTET_STREAM));
+
+    assertThat(response.getStatus()).isEqualTo(200);
+    assertThat(response.readEntity(byte[].class)).isEqualTo(body);
+  }
+
+  @Test
+  public void streamedResponseBody() throws IOException {
+    final Response response = client.target(BASE_URI).path("large").request().get();
+
+    assertThat(response.getStatus()).isEqualTo(200);
+    try (InputStream entity = response.readEntity(InputStream.class)) {
+      assertThat(entity.readAllBytes()).hasSize(LARGE_BODY_SIZE);
+    }
+  }
+
+  @Test
+  public void asyncRequestSucceeds() throws Exception {
+    final Future<Response> future =
+        client
+            .target(BASE_URI)
+            .path("echo")
+            .request()
+            .async()
+            .post(Entity.entity("HELLO", TEXT_PLAIN));
+
+    final Response response = future.get(5, TimeUnit.SECONDS);
+
+    assertThat(response.getStatus()).isEqualTo(200);
+    assertThat(response.readEntity(String.class)).isEqualTo("HELLO");
+  }
+
+  @Test
+  public void asyncRequestFailsWhenSocketIsMissing() {
+    final Client missingSocketClient =
+        newClient(temporaryFolder.getRoot().toPath().resolve("missing.sock").toUri());
+
+    try {
+      final Future<Response> future =
+          missingSocketClient.target(BASE_URI).path("echo").request().async().get();
+
+      final Throwable throwable = catchThrowable(() -> future.get(5, TimeUnit.SECONDS));
+
+      assertThat(throwable)
+          .isInstanceOf(ExecutionException.class)
+          .hasCauseInstanceOf(ProcessingException.class);
+    } finally {
+      missingSocketClient.close();
+    }
+  }
+
+  @Test
+  public void readTimeout() {
+    final Throwable throwable =
+        catchThrowable(
+            () ->
+                client
+                    .property(ClientProperties.READ_TIMEOUT, READ_TIMEOUT)
+                    .target(BASE_URI)
+                    .path("hold")
+                    .request()
+                    .get());
+
+    assertThat(throwable)
+        .isInstanceOf(ProcessingException.class)
+        .hasRootCauseInstanceOf(TimeoutException.class);
+  }
+
+  @Test
+  public void asyncFailureAfterHeadersIsReportedByTheEntity() throws Exception {
+    final Future<Response> future =
+        client
+            .property(ClientProperties.READ_TIMEOUT, READ_TIMEOUT)
+            .target(BASE_URI)
+            .path("truncated")
+            .request()
+            .async()
+            .get();
+
+    final Response response = future.get(5, TimeUnit.SECONDS);
+
+    assertThat(response.getStatus()).isEqualTo(200);
+    assertThat(catchThrowable(() -> response.readEntity(byte[].class)))
+        .isInstanceOf(ProcessingException.class);
+  }
+
+  @Test
+  public void asyncEntityIsWrittenOffTheCallingThread() {
+    final ClientRequest request = mock(ClientRequest.class);
+    when(request.getMethod()).thenReturn("POST");
+    when(request.getUri()).thenReturn(BASE_URI.resolve("/echo"));
+    when(request.getHeaders()).thenReturn(new MultivaluedHashMap<>());
+    when(request.resolveProperty(ClientProperties.READ_TIMEOUT, 0)).thenReturn(0);
+    when(request.hasEntity()).thenReturn(true);
+
+    final AtomicReference<Thread> writer = new AtomicReference<>();
+    doAnswer(
+            invocation -> {
+              writer.set(Thread.currentThread());
+              return null;
+            })
+        .when(request)
+        .writeEntity();
+
+    final AsyncConnectorCallback callback = mock(AsyncConnectorCallback.class);
+
+    final JerseyUnixSocketConnector connector = new JerseyUnixSocketConnector(unixfile);
+    try {
+      connector.apply(request, callback);
+
+      verify(callback, timeout(5000)).response(any(ClientResponse.class));
+      verifyNoMoreInteractions(callback);
+      assertThat(writer.get()).isNotNull().isNotSameAs(Thread.currentThread());
+    } finally {
+      connector.close();
+    }
+  }
+
+  @Test
+  public void cancellingAsyncRequestAbortsIt() throws Exception {
+    final ClientRequest request = mock(ClientRequest.class);
+    when(request.getMethod()).thenReturn("GET");
+    when(request.getUri()).thenReturn(BASE_URI.resolve("/hold"));
+    when(request.getHeaders()).thenReturn(new MultivaluedHashMap<>());
+    when(request.resolveProperty(ClientProperties.READ_TIMEOUT, 0)).thenReturn(0);
+
+    final AsyncConnectorCallback callback = mock(AsyncConnectorCallback.class);
+
+    final JerseyUnixSocketConnector connector = new JerseyUnixSocketConnector(unixfile);
+    try {
+      final Future<?> future = connector.apply(request, callback);
+
+      assertThat(arrived.await(5, TimeUnit.SECONDS)).isTrue();
+      assertThat(future.cancel(true)).isTrue();
+      release.countDown();
+
+      assertThat(aborted.await(5, TimeUnit.SECONDS)).isTrue();
+      verify(callback, timeout(5000)).failure(any(CancellationException.class));
+      verifyNoMoreInteractions(callback);
+    } finally {
+      connector.close();
+    }
+  }
+
+  private static Client newClient(URI unixfile) {
+    final ClientConfig config = new ClientConfig();
+    config.connectorProvider(new JerseyUnixSocketConnectorProvider());
+
+    return ClientBuilder.newClient(config).property("unixfile", unixfile);
+  }
+
+  private static byte[] randomBytes(int size) {
+    final byte[] bytes = new byte[size];
+    new Random().nextBytes(bytes);
+    return bytes;
+  }
+
+  private class SampleHandler extends AbstractHandler {
+
+    @Override
+    public void handle(
+        String target,
+        Request baseRequest,
+        HttpServletRequest request,
+        HttpServletResponse response)
+        throws IOException {
+      baseRequest.setHandled(true);
+
+      switch (target) {
+        case "/echo":
+          response.setStatus(200);
+          request.getInputStream().transferTo(response.getOutputStream());
+          break;
+        case "/large":
+          response.setStatus(200);
+          writeLargeBody(response.getOutputStream());
+          break;
+        case "/truncated":
+          response.setStatus(200);
+          response.setContentLength(1024);
+          response.getOutputStream().write(new byte[16]);
+          response.flushBuffer();
+          await(release);
+          break;
+        case "/hold":
+          arrived.countDown();
+          await(release);
+          writeUntilClientHasGone(response);
+          break;
+        default:
+          response.setStatus(404);
+      }
+    }
+
+    private void writeLargeBody(OutputStream out) throws IOException {
+      final byte[] chunk = new byte[64 * 1024];
+      for (int written = 0; written < LARGE_BODY_SIZE; written += chunk.length) {
+        out.write(chunk);
+      }
+    }
+
+    private void writeUntilClientHasGone(HttpServletResponse response) {
+      try {
+        final OutputStream out = response.getOutputStream();
+        for (int i = 0; i < 100; i++) {
+          out.write(new byte[1024]);
+          out.flush();
+          TimeUnit.MILLISECONDS.sleep(50);
+        }
+      } catch (IOException ex) {
+        aborted.countDown();
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    private void await(CountDownLatch latch) {
+      try {
+        latch.await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+}
@@ -1,11 +1,16 @@
 package com.quorum.tessera.server.utils;
 
 import com.quorum.tessera.config.ServerConfig;
+import com.quorum.tessera.config.util.ServerPropertyHelper;
 import com.quorum.tessera.ssl.context.ServerSSLContextFactory;
 import java.net.URI;
 import java.nio.file.Paths;
 import java.util.Objects;
 import javax.net.ssl.SSLContext;
+import org.eclipse.jetty.alpn.server.ALPNServerConnectionFactory;
+import org.eclipse.jetty.http2.HTTP2Cipher;
+import org.eclipse.jetty.http2.server.HTTP2CServerConnectionFactory;
+import org.eclipse.jetty.http2.server.HTTP2ServerConnectionFactory;
 import org.eclipse.jetty.server.Connector;
 import org.eclipse.jetty.server.HttpConfiguration;
 import org.eclipse.jetty.server.HttpConnectionFactory;
@@ -53,20 +58,55 @@ public class ServerUtils {
       if (Objects.nonNull(excludedCipherSuites)) {
         sslContextFactory.addExcludeCipherSuites(excludedCipherSuites);
       }
-      ServerConnector connector =
-          new ServerConnector(
-              server,
-              new SslConnectionFactory(sslContextFactory, "http/1.1"),
-              new HttpConnectionFactory(https));
+
+      final HttpConnectionFactory http1 = new HttpConnectionFactory(https);
+
+      final ServerConnector connector;
+      if (isHttp2Enabled(serverConfig)) {
+        sslContextFactory.setCipherComparator(HTTP2Cipher.COMPARATOR);
+
+        final ALPNServerConnectionFactory alpn = new ALPNServerConnectionFactory();
+        alpn.setDefaultProtocol(http1.getProtocol());
+
+        connector =
+            new ServerConnector(
+                server,
+                new SslConnectionFactory(sslContextFactory, alpn.getProtocol()),
+                alpn,
+                new HTTP2ServerConnectionFactory(https),
+                http1);
+      } else {
+        connector =
+            new ServerConnector(
+                server, new SslConnectionFactory(sslContextFactory, "http/1.1"), http1);
+      }
       connector.setPort(uri.getPort());
       server.setConnectors(new Connector[] {connector});
       return server;
     }
 
-    ServerConnector connector = new ServerConnector(server);
+    final ServerConnector connector;
+    if (isHttp2Enabled(serverConfig)) {
+      final HttpConfiguration http = new HttpConfiguration();
+      connector =
+          new ServerConnector(
+              server, new HttpConnectionFactory(http), new HTTP2CServerConnectionFactory(http));
+    } else {
+      connector = new ServerConnector(server);
+    }
     connector.setPort(uri.getPort());
     server.setConnectors(new Connector[] {connector});
 
     return server;
   }
+
+  /**
+   * Whether the server also accepts HTTP/2, as h2 negotiated using ALPN over TLS or as h2c over
+   * plain connections. HTTP/1.1 clients are still served as before. Servers only speak HTTP/1.1
+   * unless the {@code acceptHttp2} property is set, which every peer needs before any node sends
+   * over HTTP/2.
+   */
+  private static boolean isHttp2Enabled(ServerConfig serverConfig) {
+    return new ServerPropertyHelper(serverConfig.getProperties()).acceptHttp2();
+  }
 }
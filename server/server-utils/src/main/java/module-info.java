@@ -1,4 +1,7 @@
 module tessera.server.utils {
+  requires org.eclipse.jetty.alpn.server;
+  requires org.eclipse.jetty.http2.common;
+  requires org.eclipse.jetty.http2.server;
   requires org.eclipse.jetty.server;
   requires org.eclipse.jetty.unixsocket;
   requires org.eclipse.jetty.util;
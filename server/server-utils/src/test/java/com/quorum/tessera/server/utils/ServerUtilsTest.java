@@ -0,0 +1,131 @@
+package com.quorum.tessera.server.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import com.quorum.tessera.config.ServerConfig;
+import com.quorum.tessera.config.SslAuthenticationMode;
+import com.quorum.tessera.config.SslConfig;
+import com.quorum.tessera.ssl.context.SSLContextFactory;
+import com.quorum.tessera.ssl.context.ServerSSLContextFactory;
+import java.nio.file.Path;
+import java.util.Map;
+import javax.net.ssl.SSLContext;
+import org.eclipse.jetty.server.Connector;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.unixsocket.UnixSocketConnector;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.MockedStatic;
+
+public class ServerUtilsTest {
+
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void plainServerSpeaksHttp1ByDefault() {
+    final ServerConfig serverConfig = new ServerConfig();
+    serverConfig.setServerAddress("http://localhost:8080");
+
+    final Server server = ServerUtils.buildWebServer(serverConfig);
+
+    final ServerConnector connector = onlyServerConnector(server);
+    assertThat(connector.getPort()).isEqualTo(8080);
+    assertThat(connector.getProtocols()).containsExactly("http/1.1");
+  }
+
+  @Test
+  public void plainServerAlsoAcceptsH2cWhenEnabled() {
+    final ServerConfig serverConfig = new ServerConfig();
+    serverConfig.setServerAddress("http://localhost:8080");
+    serverConfig.setProperties(Map.of("acceptHttp2", "true"));
+
+    final Server server = ServerUtils.buildWebServer(serverConfig);
+
+    final ServerConnector connector = onlyServerConnector(server);
+    assertThat(connector.getPort()).isEqualTo(8080);
+    assertThat(connector.getProtocols()).contains("http/1.1", "h2c");
+  }
+
+  @Test
+  public void sslServerSpeaksHttp1ByDefault() throws Exception {
+    final ServerConfig serverConfig = sslServerConfig();
+
+    final Server server;
+    try (MockedStatic<ServerSSLContextFactory> factory = mockSslContextFactory()) {
+      server = ServerUtils.buildWebServer(serverConfig);
+    }
+
+    final ServerConnector connector = onlyServerConnector(server);
+    assertThat(connector.getPort()).isEqualTo(8443);
+    assertThat(connector.getProtocols()).containsExactly("ssl", "http/1.1");
+  }
+
+  @Test
+  public void sslServerNegotiatesH2WhenEnabled() throws Exception {
+    final ServerConfig serverConfig = sslServerConfig();
+    serverConfig.setProperties(Map.of("acceptHttp2", "true"));
+    serverConfig.getSslConfig().setExcludeCipherSuites(new String[] {"TLS_RSA_WITH_NULL_SHA"});
+
+    final Server server;
+    try (MockedStatic<ServerSSLContextFactory> factory = mockSslContextFactory()) {
+      server = ServerUtils.buildWebServer(serverConfig);
+    }
+
+    final ServerConnector connector = onlyServerConnector(server);
+    assertThat(connector.getPort()).isEqualTo(8443);
+    assertThat(connector.getProtocols()).contains("ssl", "alpn", "h2", "http/1.1");
+  }
+
+  @Test
+  public void unixSocketServer() {
+    final Path socket = temporaryFolder.getRoot().toPath().resolve("test.sock");
+    final ServerConfig serverConfig = new ServerConfig();
+    serverConfig.setServerAddress("unix:" + socket);
+
+    final Server server = ServerUtils.buildWebServer(serverConfig);
+
+    assertThat(server.getConnectors()).hasSize(1);
+    assertThat(server.getConnectors()[0]).isExactlyInstanceOf(UnixSocketConnector.class);
+    final UnixSocketConnector connector = (UnixSocketConnector) server.getConnectors()[0];
+    assertThat(connector.getUnixSocket()).isEqualTo(socket.toString());
+    assertThat(connector.getProtocols()).containsExactly("http/1.1");
+  }
+
+  @Test
+  public void defaultConstructorForCoverage() {
+    assertThat(new ServerUtils()).isNotNull();
+  }
+
+  private static ServerConfig sslServerConfig() {
+    final SslConfig sslConfig = new SslConfig();
+    sslConfig.setTls(SslAuthenticationMode.STRICT);
+
+    final ServerConfig serverConfig = new ServerConfig();
+    serverConfig.setServerAddress("https://localhost:8443");
+    serverConfig.setSslConfig(sslConfig);
+    return serverConfig;
+  }
+
+  private static MockedStatic<ServerSSLContextFactory> mockSslContextFactory() throws Exception {
+    final SSLContextFactory sslContextFactory = mock(SSLContextFactory.class);
+    when(sslContextFactory.from(anyString(), any(SslConfig.class)))
+        .thenReturn(SSLContext.getDefault());
+
+    final MockedStatic<ServerSSLContextFactory> factory =
+        mockStatic(ServerSSLContextFactory.class);
+    factory.when(ServerSSLContextFactory::create).thenReturn(sslContextFactory);
+    return factory;
+  }
+
+  private static ServerConnector onlyServerConnector(Server server) {
+    final Connector[] connectors = server.getConnectors();
+    assertThat(connectors).hasSize(1);
+    assertThat(connectors[0]).isExactlyInstanceOf(ServerConnector.class);
+    return (ServerConnector) connectors[0];
+  }
+}
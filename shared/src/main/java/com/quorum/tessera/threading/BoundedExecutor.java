@@ -0,0 +1,122 @@
+package com.quorum.tessera.threading;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A thread pool with a fixed upper limit on both its threads and the tasks waiting for them.
+ *
+ * <p>Idle threads are let go after a minute, so the pool only holds on to threads while there is
+ * work to do. Once every thread is busy and the queue is full, new tasks are run on the submitting
+ * thread instead, which slows down whoever is submitting rather than dropping the task or starting
+ * yet another thread. Tasks submitted after the pool is shut down are rejected with a {@link
+ * RejectedExecutionException}.
+ *
+ * <p>Queue depth, active tasks and task latency are exposed through {@link BoundedExecutorMXBean},
+ * registered as {@code com.quorum.tessera:type=Executor,name=<name>}.
+ */
+public class BoundedExecutor extends ThreadPoolExecutor implements BoundedExecutorMXBean {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(BoundedExecutor.class);
+
+  private static final long KEEP_ALIVE_SECONDS = 60;
+
+  private final LongAdder rejectedTasks = new LongAdder();
+
+  private final LongAdder timedTasks = new LongAdder();
+
+  private final LongAdder totalLatencyNanos = new LongAdder();
+
+  private final LongAccumulator maxLatencyNanos = new LongAccumulator(Math::max, 0L);
+
+  public BoundedExecutor(final String name, final int maxThreads, final int queueCapacity) {
+    super(
+        maxThreads,
+        maxThreads,
+        KEEP_ALIVE_SECONDS,
+        TimeUnit.SECONDS,
+        new ArrayBlockingQueue<>(queueCapacity),
+        threadFactory(name));
+    allowCoreThreadTimeOut(true);
+    setRejectedExecutionHandler(
+        (task, executor) -> {
+          if (executor.isShutdown()) {
+            throw new RejectedExecutionException("Executor " + name + " has been shut down");
+          }
+          rejectedTasks.increment();
+          task.run();
+        });
+    register(name);
+  }
+
+  @Override
+  public void execute(final Runnable command) {
+    final long submitted = System.nanoTime();
+    super.execute(
+        () -> {
+          try {
+            command.run();
+          } finally {
+            final long latency = System.nanoTime() - submitted;
+            timedTasks.increment();
+            totalLatencyNanos.add(latency);
+            maxLatencyNanos.accumulate(latency);
+          }
+        });
+  }
+
+  @Override
+  public int getQueueDepth() {
+    return getQueue().size();
+  }
+
+  @Override
+  public long getRejectedTaskCount() {
+    return rejectedTasks.sum();
+  }
+
+  @Override
+  public double getAverageTaskLatencyMillis() {
+    final long count = timedTasks.sum();
+    if (count == 0) {
+      return 0;
+    }
+    return totalLatencyNanos.sum() / (double) count / TimeUnit.MILLISECONDS.toNanos(1);
+  }
+
+  @Override
+  public long getMaxTaskLatencyMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(maxLatencyNanos.get());
+  }
+
+  private void register(final String name) {
+    final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+    try {
+      mBeanServer.registerMBean(
+          this, new ObjectName("com.quorum.tessera:type=Executor,name=" + name));
+    } catch (JMException ex) {
+      LOGGER.warn("Unable to register metrics for executor {}: {}", name, ex.getMessage());
+    }
+  }
+
+  private static ThreadFactory threadFactory(final String name) {
+    final AtomicInteger threadCount = new AtomicInteger();
+    return runnable -> {
+      final Thread thread = new Thread(runnable, name + "-" + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+}
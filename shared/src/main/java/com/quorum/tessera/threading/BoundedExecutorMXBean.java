@@ -0,0 +1,26 @@
+package com.quorum.tessera.threading;
+
+/** The metrics of a {@link BoundedExecutor}, as exposed over JMX */
+public interface BoundedExecutorMXBean {
+
+  /** @return the number of tasks waiting for a thread */
+  int getQueueDepth();
+
+  /** @return the number of threads currently running a task */
+  int getActiveCount();
+
+  int getPoolSize();
+
+  int getMaximumPoolSize();
+
+  long getCompletedTaskCount();
+
+  /** @return the number of tasks that found the queue full and ran on the submitting thread */
+  long getRejectedTaskCount();
+
+  /** @return the mean time from submitting a task to it completing, in milliseconds */
+  double getAverageTaskLatencyMillis();
+
+  /** @return the longest time from submitting a task to it completing, in milliseconds */
+  long getMaxTaskLatencyMillis();
+}
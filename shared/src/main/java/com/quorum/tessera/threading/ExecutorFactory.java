@@ -1,11 +1,36 @@
 package com.quorum.tessera.threading;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
 public class ExecutorFactory {
 
+  static final String PUBLISHER_EXECUTOR_NAME = "p2p-publisher";
+
+  private static BoundedExecutor publisherExecutor;
+
   public Executor createCachedThreadPool() {
     return Executors.newCachedThreadPool();
   }
+
+  /**
+   * Get the executor shared by everything that sends requests out to other nodes, such as the
+   * batch publishers and pollers, so the number of threads making outbound requests is bounded as
+   * a whole. It is created by the first call, and later calls return the same executor whatever
+   * limits they ask for.
+   *
+   * @param maxThreads the most threads the executor may run at once
+   * @param queueCapacity the most tasks that may wait for a thread before tasks are run on the
+   *     submitting thread instead
+   * @return the shared publisher executor
+   */
+  public ExecutorService publisherExecutor(int maxThreads, int queueCapacity) {
+    synchronized (ExecutorFactory.class) {
+      if (publisherExecutor == null) {
+        publisherExecutor = new BoundedExecutor(PUBLISHER_EXECUTOR_NAME, maxThreads, queueCapacity);
+      }
+      return publisherExecutor;
+    }
+  }
 }
@@ -0,0 +1,68 @@
+package com.quorum.tessera.threading;
+
+import java.util.Objects;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * A fixed set of reentrant locks, where each key is mapped onto one lock by its hash code.
+ *
+ * <p>Work on equal keys is always serialised, while work on different keys only contends when the
+ * keys happen to share a stripe. This allows mutually exclusive sections to be scoped to a single
+ * entity without keeping a lock per entity alive.
+ */
+public class StripedLock {
+
+  public static final int DEFAULT_STRIPES = 256;
+
+  private final Lock[] locks;
+
+  public StripedLock() {
+    this(DEFAULT_STRIPES);
+  }
+
+  public StripedLock(int stripes) {
+    if (stripes < 1) {
+      throw new IllegalArgumentException("Number of stripes must be positive");
+    }
+    this.locks = new Lock[stripes];
+    for (int i = 0; i < stripes; i++) {
+      locks[i] = new ReentrantLock();
+    }
+  }
+
+  /**
+   * Get the lock guarding the given key
+   *
+   * @param key the key to find the lock for
+   * @return the lock shared by every key equal to the given one
+   */
+  public Lock get(Object key) {
+    final int hash = Objects.requireNonNull(key).hashCode();
+    // spread the high bits so keys differing only there don't all land on one stripe
+    return locks[Math.floorMod(hash ^ (hash >>> 16), locks.length)];
+  }
+
+  /**
+   * Run the given action while holding the lock for the given key
+   *
+   * @param key the key to lock on
+   * @param action the action to run
+   * @param <T> the type of result the action produces
+   * @return the result of the action
+   */
+  public <T> T execute(Object key, Supplier<T> action) {
+    final Lock lock = get(key);
+    lock.lock();
+    try {
+      return action.get();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public int getStripes() {
+    return locks.length;
+  }
+}
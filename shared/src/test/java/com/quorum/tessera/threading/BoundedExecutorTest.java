@@ -0,0 +1,133 @@
+package com.quorum.tessera.threading;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import javax.management.ObjectName;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BoundedExecutorTest {
+
+  private BoundedExecutor executor;
+
+  @Before
+  public void onSetUp() {
+    executor = new BoundedExecutor("bounded-executor-test", 1, 1);
+  }
+
+  @After
+  public void onTearDown() throws Exception {
+    executor.shutdownNow();
+    final ObjectName name =
+        new ObjectName("com.quorum.tessera:type=Executor,name=bounded-executor-test");
+    if (ManagementFactory.getPlatformMBeanServer().isRegistered(name)) {
+      ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+    }
+  }
+
+  @Test
+  public void metricsAreRegistered() throws Exception {
+    final ObjectName name =
+        new ObjectName("com.quorum.tessera:type=Executor,name=bounded-executor-test");
+
+    assertThat(ManagementFactory.getPlatformMBeanServer().getAttribute(name, "QueueDepth"))
+        .isEqualTo(0);
+    assertThat(ManagementFactory.getPlatformMBeanServer().getAttribute(name, "MaximumPoolSize"))
+        .isEqualTo(1);
+  }
+
+  @Test
+  public void registeringTheSameNameTwiceStillCreatesExecutor() {
+    final BoundedExecutor other = new BoundedExecutor("bounded-executor-test", 1, 1);
+    assertThat(other.getMaximumPoolSize()).isEqualTo(1);
+    other.shutdown();
+  }
+
+  @Test
+  public void tasksRunOnCallerOnceQueueIsFull() throws Exception {
+    final CountDownLatch release = new CountDownLatch(1);
+    final CountDownLatch started = new CountDownLatch(1);
+
+    // occupies the only thread
+    executor.execute(
+        () -> {
+          started.countDown();
+          awaitQuietly(release);
+        });
+    started.await();
+
+    // waits in the queue
+    final CountDownLatch queuedRan = new CountDownLatch(1);
+    executor.execute(queuedRan::countDown);
+
+    assertThat(executor.getActiveCount()).isEqualTo(1);
+    assertThat(executor.getQueueDepth()).isEqualTo(1);
+
+    // no room left, so runs on this thread
+    final Thread caller = Thread.currentThread();
+    final Thread[] ranOn = new Thread[1];
+    executor.execute(() -> ranOn[0] = Thread.currentThread());
+
+    assertThat(ranOn[0]).isSameAs(caller);
+    assertThat(executor.getRejectedTaskCount()).isEqualTo(1);
+
+    release.countDown();
+    assertThat(queuedRan.await(5, TimeUnit.SECONDS)).isTrue();
+
+    executor.shutdown();
+    assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+
+    assertThat(executor.getCompletedTaskCount()).isEqualTo(2);
+    assertThat(executor.getAverageTaskLatencyMillis()).isGreaterThanOrEqualTo(0);
+    assertThat(executor.getMaxTaskLatencyMillis()).isGreaterThanOrEqualTo(0);
+  }
+
+  @Test
+  public void noLatencyBeforeAnyTaskCompletes() {
+    assertThat(executor.getAverageTaskLatencyMillis()).isZero();
+    assertThat(executor.getMaxTaskLatencyMillis()).isZero();
+  }
+
+  @Test
+  public void tasksAreRejectedOnceShutdown() {
+    executor.shutdown();
+
+    final boolean[] ran = new boolean[1];
+    final Throwable throwable = catchThrowable(() -> executor.execute(() -> ran[0] = true));
+
+    assertThat(throwable)
+        .isInstanceOf(RejectedExecutionException.class)
+        .hasMessageContaining("bounded-executor-test");
+    assertThat(ran[0]).isFalse();
+    assertThat(executor.getRejectedTaskCount()).isZero();
+  }
+
+  @Test
+  public void threadsAreNamedDaemons() throws Exception {
+    final Thread[] ranOn = new Thread[1];
+    final CountDownLatch ran = new CountDownLatch(1);
+    executor.execute(
+        () -> {
+          ranOn[0] = Thread.currentThread();
+          ran.countDown();
+        });
+    ran.await();
+
+    assertThat(ranOn[0].getName()).isEqualTo("bounded-executor-test-1");
+    assertThat(ranOn[0].isDaemon()).isTrue();
+  }
+
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
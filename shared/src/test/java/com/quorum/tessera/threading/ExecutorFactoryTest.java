@@ -3,6 +3,7 @@ package com.quorum.tessera.threading;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 import org.junit.Test;
 
 public class ExecutorFactoryTest {
@@ -12,4 +13,12 @@ public class ExecutorFactoryTest {
     Executor executor = new ExecutorFactory().createCachedThreadPool();
     assertThat(executor).isNotNull();
   }
+
+  @Test
+  public void publisherExecutorIsShared() {
+    ExecutorService executor = new ExecutorFactory().publisherExecutor(2, 10);
+
+    assertThat(executor).isExactlyInstanceOf(BoundedExecutor.class);
+    assertThat(new ExecutorFactory().publisherExecutor(4, 20)).isSameAs(executor);
+  }
 }
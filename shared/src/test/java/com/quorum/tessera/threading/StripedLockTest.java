@@ -0,0 +1,117 @@
+package com.quorum.tessera.threading;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Supplier;
+import org.junit.Test;
+
+public class StripedLockTest {
+
+  @Test
+  public void defaultStripes() {
+    assertThat(new StripedLock().getStripes()).isEqualTo(StripedLock.DEFAULT_STRIPES);
+  }
+
+  @Test
+  public void nonPositiveStripesAreRejected() {
+    final Throwable throwable = catchThrowable(() -> new StripedLock(0));
+
+    assertThat(throwable).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void equalKeysShareALock() {
+    final StripedLock stripedLock = new StripedLock(16);
+
+    assertThat(stripedLock.get(new String("KEY"))).isSameAs(stripedLock.get(new String("KEY")));
+  }
+
+  @Test
+  public void equalKeysAreMutuallyExclusive() throws Exception {
+    final StripedLock stripedLock = new StripedLock(16);
+
+    final boolean acquired = whileHolding(stripedLock.get("KEY"), () -> stripedLock.get("KEY"));
+
+    assertThat(acquired).isFalse();
+  }
+
+  @Test
+  public void keysOnDifferentStripesDoNotBlockEachOther() throws Exception {
+    // with one key per stripe, neighbouring integers never share a lock
+    final StripedLock stripedLock = new StripedLock(16);
+    assertThat(stripedLock.get(1)).isNotSameAs(stripedLock.get(2));
+
+    final boolean acquired = whileHolding(stripedLock.get(1), () -> stripedLock.get(2));
+
+    assertThat(acquired).isTrue();
+  }
+
+  @Test
+  public void executeReturnsResultAndReleasesLock() throws Exception {
+    final StripedLock stripedLock = new StripedLock(1);
+
+    final String result = stripedLock.execute("KEY", () -> "RESULT");
+
+    assertThat(result).isEqualTo("RESULT");
+    assertThat(CompletableFuture.supplyAsync(() -> tryLockAndRelease(stripedLock.get("KEY"))).get())
+        .isTrue();
+  }
+
+  @Test
+  public void executeReleasesLockWhenActionFails() throws Exception {
+    final StripedLock stripedLock = new StripedLock(1);
+
+    final Throwable throwable =
+        catchThrowable(
+            () ->
+                stripedLock.execute(
+                    "KEY",
+                    () -> {
+                      throw new IllegalStateException("OUCH");
+                    }));
+
+    assertThat(throwable).isInstanceOf(IllegalStateException.class).hasMessage("OUCH");
+    assertThat(CompletableFuture.supplyAsync(() -> tryLockAndRelease(stripedLock.get("KEY"))).get())
+        .isTrue();
+  }
+
+  private static boolean whileHolding(Lock held, Supplier<Lock> other) throws Exception {
+    final CountDownLatch locked = new CountDownLatch(1);
+    final CountDownLatch done = new CountDownLatch(1);
+
+    final CompletableFuture<Void> holder =
+        CompletableFuture.runAsync(
+            () -> {
+              held.lock();
+              try {
+                locked.countDown();
+                done.await(5, TimeUnit.SECONDS);
+              } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+              } finally {
+                held.unlock();
+              }
+            });
+
+    try {
+      assertThat(locked.await(5, TimeUnit.SECONDS)).isTrue();
+      return CompletableFuture.supplyAsync(() -> tryLockAndRelease(other.get())).get();
+    } finally {
+      done.countDown();
+      holder.get(5, TimeUnit.SECONDS);
+    }
+  }
+
+  private static boolean tryLockAndRelease(Lock lock) {
+    if (lock.tryLock()) {
+      lock.unlock();
+      return true;
+    }
+    return false;
+  }
+}
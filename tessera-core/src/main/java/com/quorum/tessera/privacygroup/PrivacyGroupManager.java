@@ -56,6 +56,14 @@ public interface PrivacyGroupManager {
    */
   List<PrivacyGroup> findPrivacyGroupByType(PrivacyGroup.Type privacyGroupType);
 
+  /**
+   * Find the active privacy groups in database that have a key as one of their members
+   *
+   * @param member The member public key
+   * @return A list of privacy groups containing the member
+   */
+  List<PrivacyGroup> findPrivacyGroupByMember(PublicKey member);
+
   /**
    * Retrieve the privacy group from database based on privacy group id. Throws an {@link
    * PrivacyGroupNotFoundException} if privacy group does not exist.
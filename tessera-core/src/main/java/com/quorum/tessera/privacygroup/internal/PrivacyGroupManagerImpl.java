@@ -26,6 +26,8 @@ public class PrivacyGroupManagerImpl implements PrivacyGroupManager {
 
   private final PrivacyGroupUtil privacyGroupUtil;
 
+  private volatile boolean unindexedGroupsChecked;
+
   public PrivacyGroupManagerImpl(
       Enclave enclave, PrivacyGroupDAO privacyGroupDAO, BatchPrivacyGroupPublisher publisher) {
     this(enclave, privacyGroupDAO, publisher, PrivacyGroupUtil.create());
@@ -73,7 +75,7 @@ public class PrivacyGroupManagerImpl implements PrivacyGroupManager {
         members.stream().filter(Predicate.not(localKeys::contains)).collect(Collectors.toList());
 
     privacyGroupDAO.save(
-        new PrivacyGroupEntity(groupIdBytes, lookupId, encodedData),
+        index(new PrivacyGroupEntity(groupIdBytes, lookupId, encodedData), created),
         () -> {
           publisher.publishPrivacyGroup(encodedData, forwardingMembers);
           return null;
@@ -108,7 +110,8 @@ public class PrivacyGroupManagerImpl implements PrivacyGroupManager {
     final byte[] lookupId = privacyGroupUtil.generateLookupId(members);
     final byte[] encodedData = privacyGroupUtil.encode(created);
 
-    privacyGroupDAO.retrieveOrSave(new PrivacyGroupEntity(groupIdBytes, lookupId, encodedData));
+    privacyGroupDAO.retrieveOrSave(
+        index(new PrivacyGroupEntity(groupIdBytes, lookupId, encodedData), created));
 
     return created;
   }
@@ -122,7 +125,8 @@ public class PrivacyGroupManagerImpl implements PrivacyGroupManager {
     final byte[] lookupId = privacyGroupUtil.generateLookupId(members);
     final byte[] encodedData = privacyGroupUtil.encode(privacyGroup);
 
-    privacyGroupDAO.update(new PrivacyGroupEntity(name.getBytes(), lookupId, encodedData));
+    privacyGroupDAO.update(
+        index(new PrivacyGroupEntity(name.getBytes(), lookupId, encodedData), privacyGroup));
 
     return privacyGroup;
   }
@@ -141,10 +145,25 @@ public class PrivacyGroupManagerImpl implements PrivacyGroupManager {
 
   @Override
   public List<PrivacyGroup> findPrivacyGroupByType(PrivacyGroup.Type type) {
-    return privacyGroupDAO.findAll().stream()
+    indexUnindexedGroups();
+
+    return privacyGroupDAO
+        .findByTypeAndState(type.name(), PrivacyGroup.State.ACTIVE.name())
+        .stream()
+        .map(PrivacyGroupEntity::getData)
+        .map(privacyGroupUtil::decode)
+        .collect(Collectors.toUnmodifiableList());
+  }
+
+  @Override
+  public List<PrivacyGroup> findPrivacyGroupByMember(PublicKey member) {
+    indexUnindexedGroups();
+
+    return privacyGroupDAO
+        .findByMemberAndState(member.getKeyBytes(), PrivacyGroup.State.ACTIVE.name())
+        .stream()
         .map(PrivacyGroupEntity::getData)
         .map(privacyGroupUtil::decode)
-        .filter(pg -> pg.getState() == PrivacyGroup.State.ACTIVE && pg.getType() == type)
         .collect(Collectors.toUnmodifiableList());
   }
 
@@ -173,7 +192,7 @@ public class PrivacyGroupManagerImpl implements PrivacyGroupManager {
           .ifPresent(
               et -> {
                 et.setData(encodedData);
-                privacyGroupDAO.update(et);
+                privacyGroupDAO.update(index(et, privacyGroup));
               });
       return;
     }
@@ -181,7 +200,7 @@ public class PrivacyGroupManagerImpl implements PrivacyGroupManager {
     final byte[] lookupId = privacyGroupUtil.generateLookupId(privacyGroup.getMembers());
     final PrivacyGroupEntity newEntity = new PrivacyGroupEntity(id, lookupId, encodedData);
 
-    privacyGroupDAO.save(newEntity);
+    privacyGroupDAO.save(index(newEntity, privacyGroup));
   }
 
   @Override
@@ -200,7 +219,7 @@ public class PrivacyGroupManagerImpl implements PrivacyGroupManager {
     final byte[] updatedData = privacyGroupUtil.encode(updated);
     final byte[] lookupId = privacyGroupUtil.generateLookupId(updated.getMembers());
     final PrivacyGroupEntity updatedEt =
-        new PrivacyGroupEntity(updated.getId().getBytes(), lookupId, updatedData);
+        index(new PrivacyGroupEntity(updated.getId().getBytes(), lookupId, updatedData), updated);
 
     final Set<PublicKey> localKeys = enclave.getPublicKeys();
     final List<PublicKey> forwardingMembers =
@@ -218,6 +237,30 @@ public class PrivacyGroupManagerImpl implements PrivacyGroupManager {
     return updated;
   }
 
+  // Groups stored before their type, state and members had their own columns only hold them in
+  // the encoded data, which the database can't search. Those columns are filled in the first time
+  // groups are looked up by them.
+  private void indexUnindexedGroups() {
+    if (unindexedGroupsChecked) {
+      return;
+    }
+    for (PrivacyGroupEntity entity : privacyGroupDAO.findUnindexed()) {
+      privacyGroupDAO.update(index(entity, privacyGroupUtil.decode(entity.getData())));
+    }
+    unindexedGroupsChecked = true;
+  }
+
+  private static PrivacyGroupEntity index(PrivacyGroupEntity entity, PrivacyGroup privacyGroup) {
+    entity.setType(privacyGroup.getType().name());
+    entity.setState(privacyGroup.getState().name());
+    entity.setMembers(
+        privacyGroup.getMembers().stream()
+            .distinct()
+            .map(PublicKey::getKeyBytes)
+            .collect(Collectors.toList()));
+    return entity;
+  }
+
   @Override
   public PublicKey defaultPublicKey() {
     return enclave.defaultPublicKey();
@@ -2,7 +2,6 @@ package com.quorum.tessera.transaction.internal;
 
 import com.quorum.tessera.data.MessageHash;
 import com.quorum.tessera.enclave.*;
-import com.quorum.tessera.encryption.EncryptorException;
 import com.quorum.tessera.encryption.PublicKey;
 import com.quorum.tessera.transaction.EncodedPayloadManager;
 import com.quorum.tessera.transaction.PrivacyHelper;
@@ -79,7 +78,8 @@ public class EncodedPayloadManagerImpl implements EncodedPayloadManager {
         Optional.ofNullable(maybeDefaultRecipient)
             .orElseGet(
                 () ->
-                    searchForRecipientKey(payload)
+                    enclave
+                        .findRecipientKey(payload)
                         .orElseThrow(
                             () ->
                                 new RecipientKeyNotFoundException(
@@ -107,26 +107,4 @@ public class EncodedPayloadManagerImpl implements EncodedPayloadManager {
 
     return builder.build();
   }
-
-  private Optional<PublicKey> searchForRecipientKey(final EncodedPayload payload) {
-    final MessageHash customPayloadHash =
-        new MessageHash(payloadDigest.digest(payload.getCipherText()));
-    for (final PublicKey potentialMatchingKey : enclave.getPublicKeys()) {
-      try {
-        LOGGER.debug(
-            "Attempting to decrypt {} using key {}",
-            customPayloadHash,
-            potentialMatchingKey.encodeToBase64());
-        enclave.unencryptTransaction(payload, potentialMatchingKey);
-        LOGGER.debug(
-            "Succeeded decrypting {} using key {}",
-            customPayloadHash,
-            potentialMatchingKey.encodeToBase64());
-        return Optional.of(potentialMatchingKey);
-      } catch (EnclaveException | IndexOutOfBoundsException | EncryptorException ex) {
-        LOGGER.debug("Attempted payload decryption using wrong key, discarding.");
-      }
-    }
-    return Optional.empty();
-  }
 }
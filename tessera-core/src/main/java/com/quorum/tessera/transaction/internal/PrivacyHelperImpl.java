@@ -1,6 +1,5 @@
 package com.quorum.tessera.transaction.internal;
 
-import com.quorum.tessera.data.EncryptedTransaction;
 import com.quorum.tessera.data.EncryptedTransactionDAO;
 import com.quorum.tessera.data.MessageHash;
 import com.quorum.tessera.enclave.*;
@@ -23,15 +22,10 @@ public class PrivacyHelperImpl implements PrivacyHelper {
 
   private final boolean isEnhancedPrivacyEnabled;
 
-  private final PayloadEncoder payloadEncoder;
-
   public PrivacyHelperImpl(
-      EncryptedTransactionDAO encryptedTransactionDAO,
-      boolean isEnhancedPrivacyEnabled,
-      PayloadEncoder payloadEncoder) {
+      EncryptedTransactionDAO encryptedTransactionDAO, boolean isEnhancedPrivacyEnabled) {
     this.encryptedTransactionDAO = Objects.requireNonNull(encryptedTransactionDAO);
     this.isEnhancedPrivacyEnabled = isEnhancedPrivacyEnabled;
-    this.payloadEncoder = Objects.requireNonNull(payloadEncoder);
   }
 
   @Override
@@ -42,15 +36,12 @@ public class PrivacyHelperImpl implements PrivacyHelper {
       return Collections.emptyList();
     }
 
-    final List<EncryptedTransaction> encryptedTransactions =
-        encryptedTransactionDAO.findByHashes(affectedHashes);
-    final Set<MessageHash> foundHashes =
-        encryptedTransactions.stream()
-            .map(EncryptedTransaction::getHash)
-            .collect(Collectors.toSet());
+    // contract creation transactions are looked up again for every call on the contract
+    final Map<MessageHash, EncodedPayload> payloads =
+        encryptedTransactionDAO.findPayloadsByHashes(affectedHashes);
 
     affectedHashes.stream()
-        .filter(Predicate.not(foundHashes::contains))
+        .filter(Predicate.not(payloads::containsKey))
         .findAny()
         .ifPresent(
             messageHash -> {
@@ -58,14 +49,7 @@ public class PrivacyHelperImpl implements PrivacyHelper {
                   "Unable to find affectedContractTransaction " + messageHash);
             });
 
-    return encryptedTransactions.stream()
-        .map(
-            et ->
-                AffectedTransaction.Builder.create()
-                    .withHash(et.getHash().getHashBytes())
-                    .withPayload(payloadEncoder.decode(et.getEncodedPayload()))
-                    .build())
-        .collect(Collectors.toList());
+    return toAffectedTransactions(payloads);
   }
 
   @Override
@@ -84,23 +68,24 @@ public class PrivacyHelperImpl implements PrivacyHelper {
             .map(MessageHash::new)
             .collect(Collectors.toSet());
 
-    final List<EncryptedTransaction> encryptedTransactions =
-        encryptedTransactionDAO.findByHashes(hashesToFind);
-    final Set<MessageHash> foundHashes =
-        encryptedTransactions.stream()
-            .map(EncryptedTransaction::getHash)
-            .collect(Collectors.toSet());
+    final Map<MessageHash, EncodedPayload> payloads =
+        encryptedTransactionDAO.findPayloadsByHashes(hashesToFind);
 
     hashesToFind.stream()
-        .filter(Predicate.not(foundHashes::contains))
+        .filter(Predicate.not(payloads::containsKey))
         .forEach(txHash -> LOGGER.debug("Unable to find affectedContractTransaction {}", txHash));
 
-    return encryptedTransactions.stream()
+    return toAffectedTransactions(payloads);
+  }
+
+  private static List<AffectedTransaction> toAffectedTransactions(
+      Map<MessageHash, EncodedPayload> payloads) {
+    return payloads.entrySet().stream()
         .map(
-            et ->
+            e ->
                 AffectedTransaction.Builder.create()
-                    .withHash(et.getHash().getHashBytes())
-                    .withPayload(payloadEncoder.decode(et.getEncodedPayload()))
+                    .withHash(e.getKey().getHashBytes())
+                    .withPayload(e.getValue())
                     .build())
         .collect(Collectors.toList());
   }
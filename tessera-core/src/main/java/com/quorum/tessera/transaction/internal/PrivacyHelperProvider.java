@@ -2,7 +2,6 @@ package com.quorum.tessera.transaction.internal;
 
 import com.quorum.tessera.context.RuntimeContext;
 import com.quorum.tessera.data.EncryptedTransactionDAO;
-import com.quorum.tessera.enclave.PayloadEncoder;
 import com.quorum.tessera.transaction.PrivacyHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -16,9 +15,7 @@ public class PrivacyHelperProvider {
     LOGGER.debug("Creating PrivacyHelper");
     boolean privacyEnabled = runtimeContext.isEnhancedPrivacy();
     EncryptedTransactionDAO encryptedTransactionDAO = EncryptedTransactionDAO.create();
-    PayloadEncoder payloadEncoder = PayloadEncoder.create();
-    PrivacyHelper privacyHelper =
-        new PrivacyHelperImpl(encryptedTransactionDAO, privacyEnabled, payloadEncoder);
+    PrivacyHelper privacyHelper = new PrivacyHelperImpl(encryptedTransactionDAO, privacyEnabled);
     LOGGER.debug("Created PrivacyHelper {}", privacyHelper);
     return privacyHelper;
   }
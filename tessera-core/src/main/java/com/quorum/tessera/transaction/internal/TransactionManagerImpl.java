@@ -5,7 +5,6 @@ import static java.util.function.Predicate.not;
 import com.quorum.tessera.data.*;
 import com.quorum.tessera.enclave.*;
 import com.quorum.tessera.enclave.PayloadDigest;
-import com.quorum.tessera.encryption.EncryptorException;
 import com.quorum.tessera.encryption.Nonce;
 import com.quorum.tessera.encryption.PublicKey;
 import com.quorum.tessera.transaction.*;
@@ -13,6 +12,7 @@ import com.quorum.tessera.transaction.exception.RecipientKeyNotFoundException;
 import com.quorum.tessera.transaction.exception.TransactionNotFoundException;
 import com.quorum.tessera.transaction.publish.BatchPayloadPublisher;
 import com.quorum.tessera.transaction.resend.ResendManager;
+import com.quorum.tessera.threading.StripedLock;
 import java.util.*;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -39,6 +39,10 @@ public class TransactionManagerImpl implements TransactionManager {
 
   private final PayloadDigest payloadDigest;
 
+  private final EncryptedTransactionRecipientDAO encryptedTransactionRecipientDAO;
+
+  private final StripedLock transactionLocks = new StripedLock();
+
   public TransactionManagerImpl(
       EncryptedTransactionDAO encryptedTransactionDAO,
       Enclave enclave,
@@ -46,7 +50,8 @@ public class TransactionManagerImpl implements TransactionManager {
       ResendManager resendManager,
       BatchPayloadPublisher batchPayloadPublisher,
       PrivacyHelper privacyHelper,
-      PayloadDigest payloadDigest) {
+      PayloadDigest payloadDigest,
+      EncryptedTransactionRecipientDAO encryptedTransactionRecipientDAO) {
     this(
         PayloadEncoder.create(),
         encryptedTransactionDAO,
@@ -55,7 +60,8 @@ public class TransactionManagerImpl implements TransactionManager {
         encryptedRawTransactionDAO,
         resendManager,
         privacyHelper,
-        payloadDigest);
+        payloadDigest,
+        encryptedTransactionRecipientDAO);
   }
 
   // Only use for tests
@@ -67,7 +73,8 @@ public class TransactionManagerImpl implements TransactionManager {
       EncryptedRawTransactionDAO encryptedRawTransactionDAO,
       ResendManager resendManager,
       PrivacyHelper privacyHelper,
-      PayloadDigest payloadDigest) {
+      PayloadDigest payloadDigest,
+      EncryptedTransactionRecipientDAO encryptedTransactionRecipientDAO) {
 
     this.payloadEncoder = Objects.requireNonNull(payloadEncoder, "payloadEncoder is required");
     this.encryptedTransactionDAO =
@@ -81,6 +88,9 @@ public class TransactionManagerImpl implements TransactionManager {
     this.resendManager = Objects.requireNonNull(resendManager, "resendManager is required");
     this.privacyHelper = Objects.requireNonNull(privacyHelper, "privacyHelper is required");
     this.payloadDigest = Objects.requireNonNull(payloadDigest, "payloadDigest is required");
+    this.encryptedTransactionRecipientDAO =
+        Objects.requireNonNull(
+            encryptedTransactionRecipientDAO, "encryptedTransactionRecipientDAO is required");
   }
 
   @Override
@@ -146,6 +156,8 @@ public class TransactionManagerImpl implements TransactionManager {
           return null;
         });
 
+    this.encryptedTransactionRecipientDAO.save(transactionHash, managedParties);
+
     return SendResponse.Builder.create()
         .withMessageHash(transactionHash)
         .withManagedParties(managedParties)
@@ -218,6 +230,8 @@ public class TransactionManagerImpl implements TransactionManager {
           return null;
         });
 
+    this.encryptedTransactionRecipientDAO.save(messageHash, managedParties);
+
     return SendResponse.Builder.create()
         .withMessageHash(messageHash)
         .withManagedParties(managedParties)
@@ -226,7 +240,7 @@ public class TransactionManagerImpl implements TransactionManager {
   }
 
   @Override
-  public synchronized MessageHash storePayload(final EncodedPayload payload) {
+  public MessageHash storePayload(final EncodedPayload payload) {
 
     final byte[] digest = payloadDigest.digest(payload.getCipherText());
     final MessageHash transactionHash = new MessageHash(digest);
@@ -254,26 +268,45 @@ public class TransactionManagerImpl implements TransactionManager {
 
     // Validations are complete, now we need to save it to the database
 
-    if (enclave.getPublicKeys().contains(encodedPayload.getSenderKey())) {
+    final Set<PublicKey> managedPublicKeys = enclave.getPublicKeys();
+    if (managedPublicKeys.contains(encodedPayload.getSenderKey())) {
       // This is our own message that we are rebuilding, handle separately
       this.resendManager.acceptOwnMessage(encodedPayload);
       LOGGER.debug("Stored payload for which we were the sender. Hash = {}", transactionHash);
       return transactionHash;
     }
 
-    // This is a transaction with a different node as the sender
+    // This is a transaction with a different node as the sender. Only pushes for the same
+    // transaction need to be serialised, and the version check on update catches any writer
+    // outside this process (e.g. another node sharing the database)
+    return transactionLocks.execute(
+        transactionHash,
+        () ->
+            OptimisticLockRetry.execute(
+                transactionHash,
+                () ->
+                    storeRecipientPayload(
+                        transactionHash, payload, encodedPayload, managedPublicKeys)));
+  }
+
+  private MessageHash storeRecipientPayload(
+      final MessageHash transactionHash,
+      final EncodedPayload payload,
+      final EncodedPayload encodedPayload,
+      final Set<PublicKey> managedPublicKeys) {
     final Optional<EncryptedTransaction> tx =
         this.encryptedTransactionDAO.retrieveByHash(transactionHash);
     if (tx.isEmpty()) {
       // This is the first time we have seen the payload, so just save it to the database as is
       this.encryptedTransactionDAO.save(
           new EncryptedTransaction(transactionHash, payloadEncoder.encode(encodedPayload)));
+      this.indexRecipientKey(transactionHash, encodedPayload, managedPublicKeys);
       LOGGER.debug("Stored new payload with hash {}", transactionHash);
       return transactionHash;
     }
 
     final EncryptedTransaction encryptedTransaction = tx.get();
-    final EncodedPayload existing = payloadEncoder.decode(encryptedTransaction.getEncodedPayload());
+    final EncodedPayload existing = encryptedTransactionDAO.decodePayload(encryptedTransaction);
 
     // check all the other bits of the payload match
     final boolean txMatches =
@@ -310,50 +343,41 @@ public class TransactionManagerImpl implements TransactionManager {
       }
     }
 
-    final EncodedPayload.Builder existingPayloadBuilder = EncodedPayload.Builder.from(existing);
-
-    // Boxes are all handled the same way. The new payload will only contain one box, and this will
-    // be prepended
-    // to the the list of existing boxes.
-    final List<RecipientBox> existingBoxes = new ArrayList<>(existing.getRecipientBoxes());
-    existingBoxes.add(0, encodedPayload.getRecipientBoxes().get(0));
-    existingPayloadBuilder.withRecipientBoxes(
-        existingBoxes.stream().map(RecipientBox::getData).collect(Collectors.toList()));
-
-    // The case where a legacy transaction, which contains no recipients, is sent to us
-    // is handled implicitly, as we don't need to add anything to the recipients list
-    if (PrivacyMode.PRIVATE_STATE_VALIDATION == encodedPayload.getPrivacyMode()) {
-      // PSV transaction, we have one box, and the relevant key is the first value
-      // the existing payload will contain the key, but we can remove it and prepend the key again,
-      // along with the
-      // box
-      final List<PublicKey> existingKeys = new ArrayList<>(existing.getRecipientKeys());
-      final PublicKey newRecipient = encodedPayload.getRecipientKeys().get(0);
-      if (!existingKeys.contains(newRecipient)) {
-        throw new RuntimeException("expected recipient not found");
-      }
-      existingKeys.remove(newRecipient);
-      existingKeys.add(0, newRecipient);
-      existingPayloadBuilder.withNewRecipientKeys(existingKeys);
-    } else if (!encodedPayload.getRecipientKeys().isEmpty()) {
-      // Regular tx, add the recipient and the box
-      final List<PublicKey> existingKeys = new ArrayList<>(existing.getRecipientKeys());
-      final PublicKey newRecipient = encodedPayload.getRecipientKeys().get(0);
-
-      existingKeys.add(0, newRecipient);
-      existingPayloadBuilder.withNewRecipientKeys(existingKeys);
+    // The new payload will only contain one box, which is added ahead of the existing boxes along
+    // with its recipient. The case where a legacy transaction, which contains no recipients, is
+    // sent to us is handled implicitly, as there is no recipient to add.
+    final PublicKey newRecipient =
+        encodedPayload.getRecipientKeys().stream().findFirst().orElse(null);
+    if (PrivacyMode.PRIVATE_STATE_VALIDATION == encodedPayload.getPrivacyMode()
+        && !existing.getRecipientKeys().contains(newRecipient)) {
+      // PSV transaction, the existing payload will already list every recipient
+      throw new RuntimeException("expected recipient not found");
     }
 
-    encryptedTransaction.setEncodedPayload(payloadEncoder.encode(existingPayloadBuilder.build()));
-    this.encryptedTransactionDAO.update(encryptedTransaction);
+    this.encryptedTransactionDAO.addRecipientBox(
+        encryptedTransaction, newRecipient, encodedPayload.getRecipientBoxes().get(0).getData());
+    this.indexRecipientKey(transactionHash, encodedPayload, managedPublicKeys);
 
     LOGGER.info("Updated existing payload with hash {}", transactionHash);
     return transactionHash;
   }
 
+  // The box of a payload pushed to us by another node belongs to the first listed recipient.
+  // Legacy payloads don't list their recipients, so those are indexed when first received.
+  private void indexRecipientKey(
+      final MessageHash transactionHash,
+      final EncodedPayload encodedPayload,
+      final Set<PublicKey> managedPublicKeys) {
+    encodedPayload.getRecipientKeys().stream()
+        .findFirst()
+        .filter(managedPublicKeys::contains)
+        .ifPresent(key -> encryptedTransactionRecipientDAO.save(transactionHash, List.of(key)));
+  }
+
   @Override
   public void delete(MessageHash messageHash) {
     LOGGER.info("Received request to delete message with hash {}", messageHash);
+    this.encryptedTransactionRecipientDAO.delete(messageHash);
     this.encryptedTransactionDAO.delete(messageHash);
   }
 
@@ -390,31 +414,25 @@ public class TransactionManagerImpl implements TransactionManager {
           .build();
     }
 
-    final EncryptedTransaction encryptedTransaction =
+    final EncodedPayload payload =
         encryptedTransactionDAO
-            .retrieveByHash(hash)
+            .retrievePayloadByHash(hash)
             .orElseThrow(
                 () ->
                     new TransactionNotFoundException(
                         "Message with hash " + hash + " was not found"));
 
-    final EncodedPayload payload =
-        Optional.of(encryptedTransaction)
-            .map(EncryptedTransaction::getEncodedPayload)
-            .map(payloadEncoder::decode)
-            .orElseThrow(
-                () -> new IllegalStateException("Unable to decode previously encoded payload"));
-
-    PublicKey recipientKey =
+    final PublicKey recipientKey =
         request
             .getRecipient()
-            .orElse(
-                searchForRecipientKey(payload)
-                    .orElseThrow(
-                        () ->
-                            new RecipientKeyNotFoundException(
-                                "No suitable recipient keys found to decrypt payload for : "
-                                    + hash)));
+            .orElseGet(
+                () ->
+                    findRecipientKey(hash, payload)
+                        .orElseThrow(
+                            () ->
+                                new RecipientKeyNotFoundException(
+                                    "No suitable recipient keys found to decrypt payload for : "
+                                        + hash)));
 
     byte[] unencryptedTransactionData = enclave.unencryptTransaction(payload, recipientKey);
 
@@ -424,15 +442,10 @@ public class TransactionManagerImpl implements TransactionManager {
             .map(MessageHash::new)
             .collect(Collectors.toSet());
 
-    Set<PublicKey> managedParties = new HashSet<>();
+    final Set<PublicKey> managedParties;
     if (payload.getRecipientKeys().isEmpty()) {
       // legacy tx
-      for (RecipientBox box : payload.getRecipientBoxes()) {
-        EncodedPayload singleBoxPayload =
-            EncodedPayload.Builder.from(payload).withRecipientBoxes(List.of(box.getData())).build();
-        Optional<PublicKey> possibleRecipient = searchForRecipientKey(singleBoxPayload);
-        possibleRecipient.ifPresent(managedParties::add);
-      }
+      managedParties = findLegacyManagedParties(hash, payload);
     } else {
       managedParties =
           enclave.getPublicKeys().stream()
@@ -453,16 +466,55 @@ public class TransactionManagerImpl implements TransactionManager {
         .build();
   }
 
-  private Optional<PublicKey> searchForRecipientKey(final EncodedPayload payload) {
-    for (final PublicKey potentialMatchingKey : enclave.getPublicKeys()) {
-      try {
-        enclave.unencryptTransaction(payload, potentialMatchingKey);
-        return Optional.of(potentialMatchingKey);
-      } catch (EnclaveException | IndexOutOfBoundsException | EncryptorException ex) {
-        LOGGER.debug("Attempted payload decryption using wrong key, discarding.");
-      }
+  private Optional<PublicKey> findRecipientKey(
+      final MessageHash hash, final EncodedPayload payload) {
+    final Set<PublicKey> managedPublicKeys = enclave.getPublicKeys();
+    final Optional<PublicKey> indexedKey =
+        encryptedTransactionRecipientDAO.findRecipientKeys(hash).stream()
+            .filter(managedPublicKeys::contains)
+            .findFirst();
+    if (indexedKey.isPresent()) {
+      return indexedKey;
     }
-    return Optional.empty();
+
+    final Optional<PublicKey> recipientKey = enclave.findRecipientKey(payload);
+    recipientKey.ifPresent(key -> encryptedTransactionRecipientDAO.save(hash, List.of(key)));
+    return recipientKey;
+  }
+
+  // Legacy payloads don't list their recipients, so every box needs to be matched to the key
+  // that opens it. The index is only trusted once it holds a key for each box.
+  private Set<PublicKey> findLegacyManagedParties(
+      final MessageHash hash, final EncodedPayload payload) {
+    if (payload.getRecipientBoxes().isEmpty()) {
+      return Set.of();
+    }
+
+    final Set<PublicKey> managedPublicKeys = enclave.getPublicKeys();
+    final Set<PublicKey> indexedKeys =
+        encryptedTransactionRecipientDAO.findRecipientKeys(hash).stream()
+            .filter(managedPublicKeys::contains)
+            .collect(Collectors.toSet());
+    if (indexedKeys.size() >= payload.getRecipientBoxes().size()) {
+      return indexedKeys;
+    }
+
+    final List<EncodedPayload> singleBoxPayloads =
+        payload.getRecipientBoxes().stream()
+            .map(
+                box ->
+                    EncodedPayload.Builder.from(payload)
+                        .withRecipientBoxes(List.of(box.getData()))
+                        .build())
+            .collect(Collectors.toList());
+
+    // one call for every box, so a remote enclave is only asked once
+    final Set<PublicKey> managedParties =
+        enclave.findRecipientKeys(singleBoxPayloads).stream()
+            .flatMap(Optional::stream)
+            .collect(Collectors.toSet());
+    encryptedTransactionRecipientDAO.save(hash, managedParties);
+    return managedParties;
   }
 
   @Override
@@ -510,9 +562,7 @@ public class TransactionManagerImpl implements TransactionManager {
 
   private EncodedPayload fetchPayload(final MessageHash hash) {
     return encryptedTransactionDAO
-        .retrieveByHash(hash)
-        .map(EncryptedTransaction::getEncodedPayload)
-        .map(payloadEncoder::decode)
+        .retrievePayloadByHash(hash)
         .orElseThrow(
             () ->
                 new TransactionNotFoundException(
@@ -2,6 +2,7 @@ package com.quorum.tessera.transaction.internal;
 
 import com.quorum.tessera.data.EncryptedRawTransactionDAO;
 import com.quorum.tessera.data.EncryptedTransactionDAO;
+import com.quorum.tessera.data.EncryptedTransactionRecipientDAO;
 import com.quorum.tessera.enclave.Enclave;
 import com.quorum.tessera.enclave.PayloadDigest;
 import com.quorum.tessera.transaction.PrivacyHelper;
@@ -26,6 +27,8 @@ public class TransactionManagerProvider {
     final Enclave enclave = Enclave.create();
     final EncryptedRawTransactionDAO encryptedRawTransactionDAO =
         EncryptedRawTransactionDAO.create();
+    final EncryptedTransactionRecipientDAO encryptedTransactionRecipientDAO =
+        EncryptedTransactionRecipientDAO.create();
 
     LOGGER.debug("Creating ResendManager");
     final ResendManager resendManager = ResendManager.create();
@@ -56,6 +59,7 @@ public class TransactionManagerProvider {
             resendManager,
             batchPayloadPublisher,
             privacyHelper,
-            messageHashFactory));
+            messageHashFactory,
+            encryptedTransactionRecipientDAO));
   }
 }
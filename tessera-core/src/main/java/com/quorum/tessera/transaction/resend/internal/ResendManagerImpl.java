@@ -3,8 +3,10 @@ package com.quorum.tessera.transaction.resend.internal;
 import com.quorum.tessera.data.EncryptedTransaction;
 import com.quorum.tessera.data.EncryptedTransactionDAO;
 import com.quorum.tessera.data.MessageHash;
+import com.quorum.tessera.data.OptimisticLockRetry;
 import com.quorum.tessera.enclave.*;
 import com.quorum.tessera.encryption.PublicKey;
+import com.quorum.tessera.threading.StripedLock;
 import com.quorum.tessera.transaction.resend.ResendManager;
 import java.util.*;
 
@@ -18,6 +20,8 @@ public class ResendManagerImpl implements ResendManager {
 
   private final PayloadDigest payloadDigest;
 
+  private final StripedLock transactionLocks = new StripedLock();
+
   public ResendManagerImpl(
       EncryptedTransactionDAO encryptedTransactionDAO,
       Enclave enclave,
@@ -36,8 +40,7 @@ public class ResendManagerImpl implements ResendManager {
     this.payloadDigest = payloadDigest;
   }
 
-  // TODO: synchronize based on messagehash, so different message don't lock each other
-  public synchronized void acceptOwnMessage(final EncodedPayload payload) {
+  public void acceptOwnMessage(final EncodedPayload payload) {
     // check the payload can be decrypted to ensure it isn't rubbish being sent to us
     final byte[] newDecrypted;
     if (payload.getPrivacyMode() == PrivacyMode.PRIVATE_STATE_VALIDATION) {
@@ -72,6 +75,23 @@ public class ResendManagerImpl implements ResendManager {
               + " does not have one the nodes own keys as a sender");
     }
 
+    // only messages for the same transaction need to be serialised, and the version check on
+    // update catches any writer outside this process
+    transactionLocks.execute(
+        transactionHash,
+        () ->
+            OptimisticLockRetry.execute(
+                transactionHash,
+                () -> {
+                  storeOwnMessage(transactionHash, payload, newDecrypted);
+                  return null;
+                }));
+  }
+
+  private void storeOwnMessage(
+      final MessageHash transactionHash, final EncodedPayload payload, final byte[] newDecrypted) {
+    final PublicKey sender = payload.getSenderKey();
+
     // this is a tx which we created
     final Optional<EncryptedTransaction> tx =
         this.encryptedTransactionDAO.retrieveByHash(transactionHash);
@@ -79,8 +99,7 @@ public class ResendManagerImpl implements ResendManager {
     if (tx.isPresent()) {
 
       // we just need to add the recipient
-      final byte[] encodedPayload = tx.get().getEncodedPayload();
-      final EncodedPayload existing = payloadEncoder.decode(encodedPayload);
+      final EncodedPayload existing = encryptedTransactionDAO.decodePayload(tx.get());
 
       // check if the box already exists
       // this is the easiest way to tell if a recipient has already been included
@@ -91,8 +110,6 @@ public class ResendManagerImpl implements ResendManager {
         }
       }
 
-      final EncodedPayload.Builder payloadBuilder = EncodedPayload.Builder.from(existing);
-
       if (!existing.getRecipientKeys().contains(payload.getRecipientKeys().get(0))) {
         // lets compare it against another message received before
         final byte[] oldDecrypted = enclave.unencryptTransaction(existing, existing.getSenderKey());
@@ -104,18 +121,10 @@ public class ResendManagerImpl implements ResendManager {
           throw new IllegalArgumentException("Invalid payload provided");
         }
 
-        // check recipients
-        if (!existing.getRecipientKeys().contains(payload.getRecipientKeys().get(0))) {
-          payloadBuilder
-              .withRecipientKey(payload.getRecipientKeys().get(0))
-              .withRecipientBox(payload.getRecipientBoxes().get(0).getData());
-        }
-
-        EncryptedTransaction encryptedTransaction = tx.get();
-
-        encryptedTransaction.setEncodedPayload(payloadEncoder.encode(payloadBuilder.build()));
-
-        this.encryptedTransactionDAO.update(encryptedTransaction);
+        this.encryptedTransactionDAO.addRecipientBox(
+            tx.get(),
+            payload.getRecipientKeys().get(0),
+            payload.getRecipientBoxes().get(0).getData());
       }
 
     } else {
@@ -5,6 +5,7 @@ module tessera.transaction {
   requires tessera.encryption.api;
   requires tessera.shared;
   requires tessera.data;
+  requires java.persistence;
   requires tessera.partyinfo;
   requires tessera.context;
 
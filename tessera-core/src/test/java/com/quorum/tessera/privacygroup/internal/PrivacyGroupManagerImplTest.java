@@ -88,6 +88,9 @@ public class PrivacyGroupManagerImplTest {
     assertThat(savedEntity.getId()).isEqualTo("generatedId".getBytes());
     assertThat(savedEntity.getLookupId()).isEqualTo("lookup".getBytes());
     assertThat(savedEntity.getData()).isEqualTo("encoded".getBytes());
+    assertThat(savedEntity.getType()).isEqualTo("PANTHEON");
+    assertThat(savedEntity.getState()).isEqualTo("ACTIVE");
+    assertThat(savedEntity.getMembers()).hasSize(3);
 
     // Verify payload being distributed has the correct values
     ArgumentCaptor<byte[]> payloadCaptor = ArgumentCaptor.forClass(byte[].class);
@@ -303,35 +306,75 @@ public class PrivacyGroupManagerImplTest {
 
     final PrivacyGroupEntity mockResult1 = mock(PrivacyGroupEntity.class);
     final PrivacyGroup mockPrivacyGroup1 = mock(PrivacyGroup.class);
-    when(mockPrivacyGroup1.getState()).thenReturn(PrivacyGroup.State.ACTIVE);
-    when(mockPrivacyGroup1.getType()).thenReturn(PrivacyGroup.Type.RESIDENT);
     when(mockResult1.getData()).thenReturn("data1".getBytes());
 
     final PrivacyGroupEntity mockResult2 = mock(PrivacyGroupEntity.class);
     final PrivacyGroup mockPrivacyGroup2 = mock(PrivacyGroup.class);
-    when(mockPrivacyGroup2.getState()).thenReturn(PrivacyGroup.State.DELETED);
-    when(mockPrivacyGroup2.getType()).thenReturn(PrivacyGroup.Type.RESIDENT);
     when(mockResult2.getData()).thenReturn("data2".getBytes());
 
-    final PrivacyGroupEntity mockResult3 = mock(PrivacyGroupEntity.class);
-    final PrivacyGroup mockPrivacyGroup3 = mock(PrivacyGroup.class);
-    when(mockPrivacyGroup3.getState()).thenReturn(PrivacyGroup.State.ACTIVE);
-    when(mockPrivacyGroup3.getType()).thenReturn(PrivacyGroup.Type.PANTHEON);
-    when(mockResult3.getData()).thenReturn("data3".getBytes());
-
     when(privacyGroupUtil.decode("data1".getBytes())).thenReturn(mockPrivacyGroup1);
     when(privacyGroupUtil.decode("data2".getBytes())).thenReturn(mockPrivacyGroup2);
-    when(privacyGroupUtil.decode("data3".getBytes())).thenReturn(mockPrivacyGroup3);
 
-    when(privacyGroupDAO.findAll()).thenReturn(List.of(mockResult1, mockResult2, mockResult3));
+    when(privacyGroupDAO.findUnindexed()).thenReturn(List.of());
+    when(privacyGroupDAO.findByTypeAndState("RESIDENT", "ACTIVE"))
+        .thenReturn(List.of(mockResult1, mockResult2));
 
     final List<PrivacyGroup> result =
         privacyGroupManager.findPrivacyGroupByType(PrivacyGroup.Type.RESIDENT);
 
     assertThat(result).isNotNull();
-    assertThat(result).containsExactly(mockPrivacyGroup1);
+    assertThat(result).containsExactly(mockPrivacyGroup1, mockPrivacyGroup2);
 
-    verify(privacyGroupDAO).findAll();
+    verify(privacyGroupDAO).findUnindexed();
+    verify(privacyGroupDAO).findByTypeAndState("RESIDENT", "ACTIVE");
+  }
+
+  @Test
+  public void findPrivacyGroupByMember() {
+
+    final PublicKey member = PublicKey.from("member".getBytes());
+
+    final PrivacyGroupEntity mockResult = mock(PrivacyGroupEntity.class);
+    final PrivacyGroup mockPrivacyGroup = mock(PrivacyGroup.class);
+    when(mockResult.getData()).thenReturn("data".getBytes());
+    when(privacyGroupUtil.decode("data".getBytes())).thenReturn(mockPrivacyGroup);
+
+    when(privacyGroupDAO.findUnindexed()).thenReturn(List.of());
+    when(privacyGroupDAO.findByMemberAndState("member".getBytes(), "ACTIVE"))
+        .thenReturn(List.of(mockResult));
+
+    final List<PrivacyGroup> result = privacyGroupManager.findPrivacyGroupByMember(member);
+
+    assertThat(result).containsExactly(mockPrivacyGroup);
+
+    verify(privacyGroupDAO).findUnindexed();
+    verify(privacyGroupDAO).findByMemberAndState("member".getBytes(), "ACTIVE");
+  }
+
+  @Test
+  public void unindexedGroupsAreIndexedOnFirstLookup() {
+
+    final PrivacyGroupEntity unindexed =
+        new PrivacyGroupEntity("id".getBytes(), "lookup".getBytes(), "data".getBytes());
+    final PrivacyGroup privacyGroup = mock(PrivacyGroup.class);
+    when(privacyGroup.getType()).thenReturn(PrivacyGroup.Type.RESIDENT);
+    when(privacyGroup.getState()).thenReturn(PrivacyGroup.State.ACTIVE);
+    when(privacyGroup.getMembers()).thenReturn(List.of(localKey, localKey));
+    when(privacyGroupUtil.decode("data".getBytes())).thenReturn(privacyGroup);
+
+    when(privacyGroupDAO.findUnindexed()).thenReturn(List.of(unindexed));
+    when(privacyGroupDAO.findByTypeAndState("RESIDENT", "ACTIVE")).thenReturn(List.of());
+
+    privacyGroupManager.findPrivacyGroupByType(PrivacyGroup.Type.RESIDENT);
+    privacyGroupManager.findPrivacyGroupByType(PrivacyGroup.Type.RESIDENT);
+
+    verify(privacyGroupDAO).findUnindexed();
+    verify(privacyGroupDAO).update(unindexed);
+    verify(privacyGroupDAO, times(2)).findByTypeAndState("RESIDENT", "ACTIVE");
+
+    assertThat(unindexed.getType()).isEqualTo("RESIDENT");
+    assertThat(unindexed.getState()).isEqualTo("ACTIVE");
+    assertThat(unindexed.getMembers()).containsExactly(localKey.getKeyBytes());
   }
 
   @Test
@@ -339,6 +382,9 @@ public class PrivacyGroupManagerImplTest {
 
     final PrivacyGroup mockPrivacyGroup = mock(PrivacyGroup.class);
     when(mockPrivacyGroup.getId()).thenReturn(PrivacyGroup.Id.fromBytes("id".getBytes()));
+    when(mockPrivacyGroup.getType()).thenReturn(PrivacyGroup.Type.PANTHEON);
+    when(mockPrivacyGroup.getState()).thenReturn(PrivacyGroup.State.ACTIVE);
+    when(mockPrivacyGroup.getMembers()).thenReturn(List.of(localKey));
     final byte[] encoded = "encoded".getBytes();
     when(privacyGroupUtil.decode(encoded)).thenReturn(mockPrivacyGroup);
     when(privacyGroupUtil.generateLookupId(anyList())).thenReturn("lookup".getBytes());
@@ -357,6 +403,9 @@ public class PrivacyGroupManagerImplTest {
     assertThat(saved.getId()).isEqualTo("id".getBytes());
     assertThat(saved.getLookupId()).isEqualTo("lookup".getBytes());
     assertThat(saved.getData()).isEqualTo("encoded".getBytes());
+    assertThat(saved.getType()).isEqualTo("PANTHEON");
+    assertThat(saved.getState()).isEqualTo("ACTIVE");
+    assertThat(saved.getMembers()).containsExactly(localKey.getKeyBytes());
   }
 
   @Test
@@ -364,6 +413,7 @@ public class PrivacyGroupManagerImplTest {
 
     final PrivacyGroup mockPrivacyGroup = mock(PrivacyGroup.class);
     when(mockPrivacyGroup.getId()).thenReturn(PrivacyGroup.Id.fromBytes("id".getBytes()));
+    when(mockPrivacyGroup.getType()).thenReturn(PrivacyGroup.Type.PANTHEON);
     when(mockPrivacyGroup.getState()).thenReturn(PrivacyGroup.State.DELETED);
     final byte[] encoded = "encoded".getBytes();
     when(privacyGroupUtil.decode(encoded)).thenReturn(mockPrivacyGroup);
@@ -386,6 +436,7 @@ public class PrivacyGroupManagerImplTest {
     assertThat(saved.getId()).isEqualTo("id".getBytes());
     assertThat(saved.getLookupId()).isEqualTo("lookup".getBytes());
     assertThat(saved.getData()).isEqualTo("encoded".getBytes());
+    assertThat(saved.getState()).isEqualTo("DELETED");
   }
 
   @Test
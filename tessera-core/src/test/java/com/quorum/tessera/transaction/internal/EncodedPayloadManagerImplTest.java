@@ -14,7 +14,7 @@ import com.quorum.tessera.transaction.SendRequest;
 import com.quorum.tessera.transaction.exception.RecipientKeyNotFoundException;
 import java.util.Base64;
 import java.util.List;
-import java.util.Set;
+import java.util.Optional;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -148,7 +148,7 @@ public class EncodedPayloadManagerImplTest {
             .build();
 
     when(payloadDigest.digest(any())).thenReturn("test hash".getBytes());
-    when(enclave.getPublicKeys()).thenReturn(Set.of(singleRecipient));
+    when(enclave.findRecipientKey(samplePayload)).thenReturn(Optional.of(singleRecipient));
     when(enclave.unencryptTransaction(samplePayload, singleRecipient))
         .thenReturn("decrypted data".getBytes());
 
@@ -159,9 +159,9 @@ public class EncodedPayloadManagerImplTest {
     assertThat(response.getAffectedTransactions()).isEmpty();
     assertThat(response.getExecHash()).isEmpty();
 
-    verify(payloadDigest, times(2)).digest(any());
-    verify(enclave).getPublicKeys();
-    verify(enclave, times(2)).unencryptTransaction(samplePayload, singleRecipient);
+    verify(payloadDigest).digest(any());
+    verify(enclave).findRecipientKey(samplePayload);
+    verify(enclave).unencryptTransaction(samplePayload, singleRecipient);
   }
 
   @Test
@@ -187,9 +187,7 @@ public class EncodedPayloadManagerImplTest {
             .build();
 
     when(payloadDigest.digest(any())).thenReturn("test hash".getBytes());
-    when(enclave.getPublicKeys()).thenReturn(Set.of(singleRecipient));
-    when(enclave.unencryptTransaction(any(), any()))
-        .thenThrow(new EnclaveException("test exception"));
+    when(enclave.findRecipientKey(samplePayload)).thenReturn(Optional.empty());
 
     final Throwable throwable =
         catchThrowable(() -> encodedPayloadManager.decrypt(samplePayload, null));
@@ -198,9 +196,8 @@ public class EncodedPayloadManagerImplTest {
         .isInstanceOf(RecipientKeyNotFoundException.class)
         .hasMessage("No suitable recipient keys found to decrypt payload for dGVzdCBoYXNo");
 
-    verify(payloadDigest, times(2)).digest(any());
-    verify(enclave).getPublicKeys();
-    verify(enclave).unencryptTransaction(any(), any());
+    verify(payloadDigest).digest(any());
+    verify(enclave).findRecipientKey(samplePayload);
   }
 
   @Test
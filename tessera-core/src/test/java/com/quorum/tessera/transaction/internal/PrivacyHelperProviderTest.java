@@ -5,7 +5,6 @@ import static org.mockito.Mockito.*;
 
 import com.quorum.tessera.context.RuntimeContext;
 import com.quorum.tessera.data.EncryptedTransactionDAO;
-import com.quorum.tessera.enclave.PayloadEncoder;
 import com.quorum.tessera.transaction.PrivacyHelper;
 import org.junit.Test;
 
@@ -20,8 +19,7 @@ public class PrivacyHelperProviderTest {
   public void provider() {
 
     try (var mockedRuntimeContext = mockStatic(RuntimeContext.class);
-        var mockedEncryptedTransactionDAO = mockStatic(EncryptedTransactionDAO.class);
-        var mockedPayloadEncoder = mockStatic(PayloadEncoder.class)) {
+        var mockedEncryptedTransactionDAO = mockStatic(EncryptedTransactionDAO.class)) {
       RuntimeContext runtimeContext = mock(RuntimeContext.class);
       when(runtimeContext.isEnhancedPrivacy()).thenReturn(true);
       mockedRuntimeContext.when(RuntimeContext::getInstance).thenReturn(runtimeContext);
@@ -30,8 +28,6 @@ public class PrivacyHelperProviderTest {
           .when(EncryptedTransactionDAO::create)
           .thenReturn(mock(EncryptedTransactionDAO.class));
 
-      mockedPayloadEncoder.when(PayloadEncoder::create).thenReturn(mock(PayloadEncoder.class));
-
       PrivacyHelper privacyHelper = PrivacyHelperProvider.provider();
 
       assertThat(privacyHelper).isNotNull();
@@ -5,7 +5,6 @@ import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.Mockito.*;
 
-import com.quorum.tessera.data.EncryptedTransaction;
 import com.quorum.tessera.data.EncryptedTransactionDAO;
 import com.quorum.tessera.data.MessageHash;
 import com.quorum.tessera.enclave.*;
@@ -24,18 +23,15 @@ public class PrivacyHelperTest {
 
   private EncryptedTransactionDAO encryptedTransactionDAO;
 
-  private PayloadEncoder payloadEncoder;
-
   @Before
   public void setUp() {
     encryptedTransactionDAO = mock(EncryptedTransactionDAO.class);
-    payloadEncoder = mock(PayloadEncoder.class);
-    privacyHelper = new PrivacyHelperImpl(encryptedTransactionDAO, true, payloadEncoder);
+    privacyHelper = new PrivacyHelperImpl(encryptedTransactionDAO, true);
   }
 
   @After
   public void onTearDown() {
-    verifyNoMoreInteractions(encryptedTransactionDAO, payloadEncoder);
+    verifyNoMoreInteractions(encryptedTransactionDAO);
   }
 
   @Test
@@ -63,26 +59,25 @@ public class PrivacyHelperTest {
     final MessageHash hash1 = mock(MessageHash.class);
     final MessageHash hash2 = mock(MessageHash.class);
 
-    EncryptedTransaction et1 = mock(EncryptedTransaction.class);
-    when(et1.getEncodedPayload()).thenReturn("payload1".getBytes());
-    when(et1.getHash()).thenReturn(hash1);
-
-    EncryptedTransaction et2 = mock(EncryptedTransaction.class);
-    when(et2.getEncodedPayload()).thenReturn("payload2".getBytes());
-    when(et2.getHash()).thenReturn(hash2);
+    when(hash1.getHashBytes()).thenReturn("hash1".getBytes());
+    when(hash2.getHashBytes()).thenReturn("hash2".getBytes());
 
-    when(payloadEncoder.decode(any(byte[].class))).thenReturn(mock(EncodedPayload.class));
+    final EncodedPayload payload1 = mock(EncodedPayload.class);
+    final EncodedPayload payload2 = mock(EncodedPayload.class);
 
-    when(encryptedTransactionDAO.findByHashes(anyCollection())).thenReturn(List.of(et1, et2));
+    when(encryptedTransactionDAO.findPayloadsByHashes(anyCollection()))
+        .thenReturn(Map.of(hash1, payload1, hash2, payload2));
 
     List<AffectedTransaction> affectedTransactions =
         privacyHelper.findAffectedContractTransactionsFromSendRequest(Set.of(hash1, hash2));
 
     assertThat(affectedTransactions).isNotNull();
     assertThat(affectedTransactions.size()).isEqualTo(2);
+    assertThat(affectedTransactions)
+        .extracting(AffectedTransaction::getPayload)
+        .containsExactlyInAnyOrder(payload1, payload2);
 
-    verify(encryptedTransactionDAO).findByHashes(any());
-    verify(payloadEncoder, times(2)).decode(any(byte[].class));
+    verify(encryptedTransactionDAO).findPayloadsByHashes(Set.of(hash1, hash2));
   }
 
   @Test
@@ -91,11 +86,8 @@ public class PrivacyHelperTest {
     final MessageHash hash1 = mock(MessageHash.class);
     final MessageHash hash2 = mock(MessageHash.class);
 
-    EncryptedTransaction et1 = mock(EncryptedTransaction.class);
-    when(et1.getEncodedPayload()).thenReturn("payload1".getBytes());
-    when(et1.getHash()).thenReturn(new MessageHash("hash1".getBytes()));
-
-    when(encryptedTransactionDAO.findByHashes(anyCollection())).thenReturn(List.of(et1));
+    when(encryptedTransactionDAO.findPayloadsByHashes(anyCollection()))
+        .thenReturn(Map.of(new MessageHash("hash1".getBytes()), mock(EncodedPayload.class)));
 
     assertThatExceptionOfType(PrivacyViolationException.class)
         .isThrownBy(
@@ -105,7 +97,7 @@ public class PrivacyHelperTest {
             })
         .withMessageContaining("Unable to find affectedContractTransaction");
 
-    verify(encryptedTransactionDAO).findByHashes(any());
+    verify(encryptedTransactionDAO).findPayloadsByHashes(any());
   }
 
   @Test
@@ -230,23 +222,20 @@ public class PrivacyHelperTest {
     affected.put(TxHash.from("Hash1".getBytes()), SecurityHash.from("secHash1".getBytes()));
     affected.put(TxHash.from("Hash2".getBytes()), SecurityHash.from("secHash2".getBytes()));
 
-    EncryptedTransaction et1 = mock(EncryptedTransaction.class);
-    when(et1.getEncodedPayload()).thenReturn("payload1".getBytes());
-    when(et1.getHash()).thenReturn(new MessageHash("Hash1".getBytes()));
-
-    when(payloadEncoder.decode(any(byte[].class))).thenReturn(mock(EncodedPayload.class));
+    final EncodedPayload affectedPayload = mock(EncodedPayload.class);
 
     when(payload.getAffectedContractTransactions()).thenReturn(affected);
-    when(encryptedTransactionDAO.findByHashes(any())).thenReturn(singletonList(et1));
+    when(encryptedTransactionDAO.findPayloadsByHashes(any()))
+        .thenReturn(Map.of(new MessageHash("Hash1".getBytes()), affectedPayload));
 
     List<AffectedTransaction> result =
         privacyHelper.findAffectedContractTransactionsFromPayload(payload);
 
     assertThat(result).hasSize(1);
+    assertThat(result.get(0).getHash()).isEqualTo(TxHash.from("Hash1".getBytes()));
+    assertThat(result.get(0).getPayload()).isSameAs(affectedPayload);
 
-    verify(encryptedTransactionDAO).findByHashes(any());
-
-    verify(payloadEncoder).decode(any(byte[].class));
+    verify(encryptedTransactionDAO).findPayloadsByHashes(any());
   }
 
   @Test
@@ -473,8 +462,7 @@ public class PrivacyHelperTest {
 
   @Test
   public void throwExceptionForSendRequestWhenPrivacyNotEnabled() {
-    final PrivacyHelper anotherHelper =
-        new PrivacyHelperImpl(encryptedTransactionDAO, false, payloadEncoder);
+    final PrivacyHelper anotherHelper = new PrivacyHelperImpl(encryptedTransactionDAO, false);
 
     assertThatExceptionOfType(EnhancedPrivacyNotSupportedException.class)
         .isThrownBy(
@@ -486,8 +474,7 @@ public class PrivacyHelperTest {
 
   @Test
   public void throwExceptionForPayloadWhenPrivacyNotEnabled() {
-    final PrivacyHelper anotherHelper =
-        new PrivacyHelperImpl(encryptedTransactionDAO, false, payloadEncoder);
+    final PrivacyHelper anotherHelper = new PrivacyHelperImpl(encryptedTransactionDAO, false);
 
     EncodedPayload payload = mock(EncodedPayload.class);
     when(payload.getPrivacyMode()).thenReturn(PrivacyMode.PARTY_PROTECTION);
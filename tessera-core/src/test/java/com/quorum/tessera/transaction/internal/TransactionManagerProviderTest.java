@@ -7,6 +7,7 @@ import com.quorum.tessera.config.Config;
 import com.quorum.tessera.config.ConfigFactory;
 import com.quorum.tessera.data.EncryptedRawTransactionDAO;
 import com.quorum.tessera.data.EncryptedTransactionDAO;
+import com.quorum.tessera.data.EncryptedTransactionRecipientDAO;
 import com.quorum.tessera.enclave.Enclave;
 import com.quorum.tessera.enclave.PayloadDigest;
 import com.quorum.tessera.transaction.PrivacyHelper;
@@ -34,6 +35,8 @@ public class TransactionManagerProviderTest {
         var mockedStaticEncryptedTransactionDAO = mockStatic(EncryptedTransactionDAO.class);
         var mockedStaticEnclave = mockStatic(Enclave.class);
         var mockedStaticEncryptedRawTransactionDAO = mockStatic(EncryptedRawTransactionDAO.class);
+        var mockedStaticEncryptedTransactionRecipientDAO =
+            mockStatic(EncryptedTransactionRecipientDAO.class);
         var mockedStaticPayloadPublisher = mockStatic(PayloadPublisher.class);
         var mockedStaticBatchPayloadPublisher = mockStatic(BatchPayloadPublisher.class);
         var mockedStaticPrivacyHelper = mockStatic(PrivacyHelper.class);
@@ -59,6 +62,10 @@ public class TransactionManagerProviderTest {
           .when(EncryptedRawTransactionDAO::create)
           .thenReturn(mock(EncryptedRawTransactionDAO.class));
 
+      mockedStaticEncryptedTransactionRecipientDAO
+          .when(EncryptedTransactionRecipientDAO::create)
+          .thenReturn(mock(EncryptedTransactionRecipientDAO.class));
+
       mockedStaticEnclave.when(Enclave::create).thenReturn(mock(Enclave.class));
 
       mockedStaticEncryptedTransactionDAO
@@ -87,6 +94,9 @@ public class TransactionManagerProviderTest {
       mockedStaticEncryptedRawTransactionDAO.verify(EncryptedRawTransactionDAO::create);
       mockedStaticEncryptedRawTransactionDAO.verifyNoMoreInteractions();
 
+      mockedStaticEncryptedTransactionRecipientDAO.verify(EncryptedTransactionRecipientDAO::create);
+      mockedStaticEncryptedTransactionRecipientDAO.verifyNoMoreInteractions();
+
       mockedStaticPayloadPublisher.verify(PayloadPublisher::create);
       mockedStaticPayloadPublisher.verifyNoMoreInteractions();
 
@@ -17,6 +17,7 @@ import com.quorum.tessera.transaction.publish.BatchPayloadPublisher;
 import com.quorum.tessera.transaction.resend.ResendManager;
 import java.util.*;
 import java.util.concurrent.Callable;
+import javax.persistence.OptimisticLockException;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -42,6 +43,8 @@ public class TransactionManagerTest {
 
   private BatchPayloadPublisher batchPayloadPublisher;
 
+  private EncryptedTransactionRecipientDAO encryptedTransactionRecipientDAO;
+
   @Before
   public void onSetUp() {
     payloadEncoder = mock(PayloadEncoder.class);
@@ -49,9 +52,10 @@ public class TransactionManagerTest {
     encryptedTransactionDAO = mock(EncryptedTransactionDAO.class);
     encryptedRawTransactionDAO = mock(EncryptedRawTransactionDAO.class);
     resendManager = mock(ResendManager.class);
-    privacyHelper = new PrivacyHelperImpl(encryptedTransactionDAO, true, payloadEncoder);
+    privacyHelper = new PrivacyHelperImpl(encryptedTransactionDAO, true);
     batchPayloadPublisher = mock(BatchPayloadPublisher.class);
     mockDigest = cipherText -> cipherText;
+    encryptedTransactionRecipientDAO = mock(EncryptedTransactionRecipientDAO.class);
 
     transactionManager =
         new TransactionManagerImpl(
@@ -62,7 +66,8 @@ public class TransactionManagerTest {
             encryptedRawTransactionDAO,
             resendManager,
             privacyHelper,
-            mockDigest);
+            mockDigest,
+            encryptedTransactionRecipientDAO);
   }
 
   @After
@@ -374,6 +379,7 @@ public class TransactionManagerTest {
     transactionManager.delete(messageHash);
 
     verify(encryptedTransactionDAO).delete(messageHash);
+    verify(encryptedTransactionRecipientDAO).delete(messageHash);
   }
 
   @Test
@@ -393,6 +399,29 @@ public class TransactionManagerTest {
     verify(enclave).findInvalidSecurityHashes(any(EncodedPayload.class), anyList());
   }
 
+  @Test
+  public void storePayloadAsRecipientIndexesRecipientKey() {
+    final PublicKey recipient = PublicKey.from("recipient".getBytes());
+
+    EncodedPayload payload = mock(EncodedPayload.class);
+    when(payload.getCipherText()).thenReturn("CIPHERTEXT".getBytes());
+    when(payload.getSenderKey()).thenReturn(PublicKey.from("sender".getBytes()));
+    when(payload.getRecipientKeys()).thenReturn(List.of(recipient));
+
+    when(enclave.getPublicKeys()).thenReturn(Set.of(recipient));
+    when(encryptedTransactionDAO.retrieveByHash(any(MessageHash.class)))
+        .thenReturn(Optional.empty());
+
+    final MessageHash messageHash = transactionManager.storePayload(payload);
+
+    verify(encryptedTransactionDAO).save(any(EncryptedTransaction.class));
+    verify(encryptedTransactionDAO).retrieveByHash(any(MessageHash.class));
+    verify(encryptedTransactionRecipientDAO).save(messageHash, List.of(recipient));
+    verify(payloadEncoder).encode(payload);
+    verify(enclave).getPublicKeys();
+    verify(enclave).findInvalidSecurityHashes(any(EncodedPayload.class), anyList());
+  }
+
   @Test
   public void storePayloadWhenWeAreSender() {
     final PublicKey senderKey = PublicKey.from("SENDER".getBytes());
@@ -461,27 +490,18 @@ public class TransactionManagerTest {
   @Test
   public void storePayloadAsRecipientWithAffectedContractTxsButPsvFlagMismatched() {
 
-    final byte[] input = "SOMEDATA".getBytes();
-    final byte[] affectedContractPayload = "SOMEOTHERDATA".getBytes();
     final PublicKey senderKey = PublicKey.from("sender".getBytes());
 
     final EncodedPayload payload = mock(EncodedPayload.class);
-    final EncryptedTransaction affectedContractTx = mock(EncryptedTransaction.class);
     final EncodedPayload affectedContractEncodedPayload = mock(EncodedPayload.class);
 
-    Map<TxHash, SecurityHash> affectedContractTransactionHashes = new HashMap<>();
-    affectedContractTransactionHashes.put(
+    final TxHash txHash =
         new TxHash(
-            "bfMIqWJ/QGQhkK4USxMBxduzfgo/SIGoCros5bWYfPKUBinlAUCqLVOUAP9q+BgLlsWni1M6rnzfmaqSw2J5hQ=="),
-        SecurityHash.from("securityHash".getBytes()));
-
-    when(affectedContractTx.getEncodedPayload()).thenReturn(input);
-    when(affectedContractTx.getHash())
-        .thenReturn(
-            new MessageHash(
-                new TxHash(
-                        "bfMIqWJ/QGQhkK4USxMBxduzfgo/SIGoCros5bWYfPKUBinlAUCqLVOUAP9q+BgLlsWni1M6rnzfmaqSw2J5hQ==")
-                    .getBytes()));
+            "bfMIqWJ/QGQhkK4USxMBxduzfgo/SIGoCros5bWYfPKUBinlAUCqLVOUAP9q+BgLlsWni1M6rnzfmaqSw2J5hQ==");
+
+    Map<TxHash, SecurityHash> affectedContractTransactionHashes = new HashMap<>();
+    affectedContractTransactionHashes.put(txHash, SecurityHash.from("securityHash".getBytes()));
+
     when(payload.getCipherText()).thenReturn("CIPHERTEXT".getBytes());
     when(payload.getPrivacyMode()).thenReturn(PrivacyMode.STANDARD_PRIVATE);
     when(affectedContractEncodedPayload.getPrivacyMode())
@@ -490,24 +510,19 @@ public class TransactionManagerTest {
     when(payload.getSenderKey()).thenReturn(senderKey);
     when(affectedContractEncodedPayload.getRecipientKeys()).thenReturn(List.of(senderKey));
 
-    when(encryptedTransactionDAO.findByHashes(any())).thenReturn(List.of(affectedContractTx));
-    when(affectedContractTx.getEncodedPayload()).thenReturn(affectedContractPayload);
-    when(payloadEncoder.decode(affectedContractPayload)).thenReturn(affectedContractEncodedPayload);
+    when(encryptedTransactionDAO.findPayloadsByHashes(any()))
+        .thenReturn(Map.of(new MessageHash(txHash.getBytes()), affectedContractEncodedPayload));
 
     transactionManager.storePayload(payload);
     // Ignore transaction - not save
-    verify(encryptedTransactionDAO).findByHashes(any());
-    verify(payloadEncoder).decode(any(byte[].class));
+    verify(encryptedTransactionDAO).findPayloadsByHashes(any());
   }
 
   @Test
   public void storePayloadSenderNotGenuineACOTHNotFound() {
-    final byte[] input = "SOMEDATA".getBytes();
-    final byte[] affectedContractPayload = "SOMEOTHERDATA".getBytes();
     final PublicKey senderKey = PublicKey.from("sender".getBytes());
 
     final EncodedPayload payload = mock(EncodedPayload.class);
-    final EncryptedTransaction affectedContractTx = mock(EncryptedTransaction.class);
     final EncodedPayload affectedContractEncodedPayload = mock(EncodedPayload.class);
 
     final TxHash txHash =
@@ -521,7 +536,6 @@ public class TransactionManagerTest {
             "bfMIqWJ/QGQhkK4USxMBxduzfgo/SIGoCros5bWYfPKUBinlAUCqLVOUAP9q+BgLlsWni1M6rnzfmaqSr5J5hQ=="),
         SecurityHash.from("bogus".getBytes()));
 
-    when(affectedContractTx.getEncodedPayload()).thenReturn(input);
     when(payload.getCipherText()).thenReturn("CIPHERTEXT".getBytes());
     when(payload.getPrivacyMode()).thenReturn(PrivacyMode.PRIVATE_STATE_VALIDATION);
     when(affectedContractEncodedPayload.getPrivacyMode())
@@ -530,26 +544,21 @@ public class TransactionManagerTest {
     when(payload.getSenderKey()).thenReturn(senderKey);
     when(affectedContractEncodedPayload.getRecipientKeys()).thenReturn(Arrays.asList(senderKey));
 
-    when(encryptedTransactionDAO.findByHashes(List.of(new MessageHash(txHash.getBytes()))))
-        .thenReturn(List.of(affectedContractTx));
-    when(affectedContractTx.getEncodedPayload()).thenReturn(affectedContractPayload);
-    when(payloadEncoder.decode(affectedContractPayload)).thenReturn(affectedContractEncodedPayload);
+    when(encryptedTransactionDAO.findPayloadsByHashes(List.of(new MessageHash(txHash.getBytes()))))
+        .thenReturn(Map.of(new MessageHash(txHash.getBytes()), affectedContractEncodedPayload));
 
     transactionManager.storePayload(payload);
     // Ignore transaction - not save
     verify(encryptedTransactionDAO, times(0)).save(any(EncryptedTransaction.class));
-    verify(encryptedTransactionDAO).findByHashes(any());
+    verify(encryptedTransactionDAO).findPayloadsByHashes(any());
   }
 
   @Test
   public void storePayloadSenderNotInRecipientList() {
-    final byte[] input = "SOMEDATA".getBytes();
-    final byte[] affectedContractPayload = "SOMEOTHERDATA".getBytes();
     final PublicKey senderKey = PublicKey.from("sender".getBytes());
     final PublicKey someOtherKey = PublicKey.from("otherKey".getBytes());
 
     final EncodedPayload payload = mock(EncodedPayload.class);
-    final EncryptedTransaction affectedContractTx = mock(EncryptedTransaction.class);
     final EncodedPayload affectedContractEncodedPayload = mock(EncodedPayload.class);
 
     final TxHash txHash =
@@ -563,8 +572,6 @@ public class TransactionManagerTest {
             "bfMIqWJ/QGQhkK4USxMBxduzfgo/SIGoCros5bWYfPKUBinlAUCqLVOUAP9q+BgLlsWni1M6rnzfmaqSr5J5hQ=="),
         SecurityHash.from("bogus".getBytes()));
 
-    when(affectedContractTx.getEncodedPayload()).thenReturn(input);
-    when(affectedContractTx.getHash()).thenReturn(new MessageHash(txHash.getBytes()));
     when(payload.getCipherText()).thenReturn("CIPHERTEXT".getBytes());
     when(payload.getPrivacyMode()).thenReturn(PrivacyMode.PRIVATE_STATE_VALIDATION);
     when(affectedContractEncodedPayload.getPrivacyMode())
@@ -573,14 +580,12 @@ public class TransactionManagerTest {
     when(payload.getSenderKey()).thenReturn(senderKey);
     when(affectedContractEncodedPayload.getRecipientKeys()).thenReturn(Arrays.asList(someOtherKey));
 
-    when(encryptedTransactionDAO.findByHashes(any())).thenReturn(List.of(affectedContractTx));
-    when(affectedContractTx.getEncodedPayload()).thenReturn(affectedContractPayload);
-    when(payloadEncoder.decode(affectedContractPayload)).thenReturn(affectedContractEncodedPayload);
+    when(encryptedTransactionDAO.findPayloadsByHashes(any()))
+        .thenReturn(Map.of(new MessageHash(txHash.getBytes()), affectedContractEncodedPayload));
 
     transactionManager.storePayload(payload);
     // Ignore transaction - not save
-    verify(encryptedTransactionDAO).findByHashes(any());
-    verify(payloadEncoder).decode(affectedContractPayload);
+    verify(encryptedTransactionDAO).findPayloadsByHashes(any());
   }
 
   @Test
@@ -636,7 +641,7 @@ public class TransactionManagerTest {
                 .get(TxHash.from("invalidHash".getBytes())))
         .isNull();
 
-    verify(encryptedTransactionDAO).findByHashes(any());
+    verify(encryptedTransactionDAO).findPayloadsByHashes(any());
     verify(encryptedTransactionDAO).save(any(EncryptedTransaction.class));
     verify(encryptedTransactionDAO).retrieveByHash(any(MessageHash.class));
     verify(enclave).getPublicKeys();
@@ -649,7 +654,7 @@ public class TransactionManagerTest {
         new EncryptedTransaction(new MessageHash(new byte[0]), new byte[0]);
     EncodedPayload existingPayload =
         EncodedPayload.Builder.create().withCipherText("ct1".getBytes()).build();
-    when(payloadEncoder.decode(any())).thenReturn(existingPayload);
+    when(encryptedTransactionDAO.decodePayload(any())).thenReturn(existingPayload);
     when(encryptedTransactionDAO.retrieveByHash(any(MessageHash.class)))
         .thenReturn(Optional.of(existingDatabaseEntry));
 
@@ -664,7 +669,7 @@ public class TransactionManagerTest {
         .hasMessage("Invalid existing transaction");
 
     verify(encryptedTransactionDAO).retrieveByHash(any(MessageHash.class));
-    verify(payloadEncoder).decode(any());
+    verify(encryptedTransactionDAO).decodePayload(any());
     verify(enclave).getPublicKeys();
     verify(enclave).findInvalidSecurityHashes(any(EncodedPayload.class), anyList());
   }
@@ -679,7 +684,7 @@ public class TransactionManagerTest {
             .withPrivacyMode(PrivacyMode.PRIVATE_STATE_VALIDATION)
             .withExecHash("execHash".getBytes())
             .build();
-    when(payloadEncoder.decode(any())).thenReturn(existingPayload);
+    when(encryptedTransactionDAO.decodePayload(any())).thenReturn(existingPayload);
     when(encryptedTransactionDAO.retrieveByHash(any(MessageHash.class)))
         .thenReturn(Optional.of(existingDatabaseEntry));
 
@@ -700,7 +705,7 @@ public class TransactionManagerTest {
         .hasMessage("expected recipient not found");
 
     verify(encryptedTransactionDAO).retrieveByHash(any(MessageHash.class));
-    verify(payloadEncoder).decode(any());
+    verify(encryptedTransactionDAO).decodePayload(any());
     verify(enclave).getPublicKeys();
     verify(enclave).findInvalidSecurityHashes(any(EncodedPayload.class), anyList());
   }
@@ -717,7 +722,8 @@ public class TransactionManagerTest {
             encryptedRawTransactionDAO,
             resendManager,
             privacyHelper,
-            mockDigest);
+            mockDigest,
+            encryptedTransactionRecipientDAO);
 
     when(privacyHelper.validatePayload(any(), any(), any())).thenReturn(true);
 
@@ -734,7 +740,7 @@ public class TransactionManagerTest {
             .withExecHash("execHash".getBytes())
             .withRecipientKeys(List.of(recipient1, recipient2))
             .build();
-    when(payloadEncoder.decode(any())).thenReturn(existingPayload);
+    when(encryptedTransactionDAO.decodePayload(any())).thenReturn(existingPayload);
     when(encryptedTransactionDAO.retrieveByHash(any(MessageHash.class)))
         .thenReturn(Optional.of(existingDatabaseEntry));
 
@@ -752,23 +758,54 @@ public class TransactionManagerTest {
 
     assertThat(response.toString()).isEqualTo("Y3Qx");
 
-    ArgumentCaptor<EncodedPayload> payloadCaptor = ArgumentCaptor.forClass(EncodedPayload.class);
-    verify(payloadEncoder).encode(payloadCaptor.capture());
+    verify(encryptedTransactionDAO).retrieveByHash(any(MessageHash.class));
+    verify(encryptedTransactionDAO)
+        .addRecipientBox(existingDatabaseEntry, recipient1, "recipient_box1".getBytes());
+    verify(encryptedTransactionDAO).decodePayload(any());
+    verify(enclave).getPublicKeys();
+    verify(enclave).findInvalidSecurityHashes(any(EncodedPayload.class), anyList());
+  }
 
-    EncodedPayload updatedTransaction = payloadCaptor.getValue();
-    assertThat(updatedTransaction.getRecipientKeys()).containsExactly(recipient1, recipient2);
-    assertThat(updatedTransaction.getRecipientBoxes())
-        .containsExactly(RecipientBox.from("recipient_box1".getBytes()));
+  @Test
+  public void storePayloadWithExistingRecipientNonPSV() {
+    PublicKey recipient1 = PublicKey.from("recipient1".getBytes());
+    PublicKey recipient2 = PublicKey.from("recipient2".getBytes());
+
+    EncryptedTransaction existingDatabaseEntry =
+        new EncryptedTransaction(new MessageHash(new byte[0]), new byte[0]);
+    EncodedPayload existingPayload =
+        EncodedPayload.Builder.create()
+            .withCipherText("ct1".getBytes())
+            .withPrivacyMode(PrivacyMode.STANDARD_PRIVATE)
+            .withRecipientKeys(List.of(recipient1))
+            .withRecipientBox("recipient_box1".getBytes())
+            .build();
+    when(encryptedTransactionDAO.decodePayload(any())).thenReturn(existingPayload);
+    when(encryptedTransactionDAO.retrieveByHash(any(MessageHash.class)))
+        .thenReturn(Optional.of(existingDatabaseEntry));
+
+    EncodedPayload payloadToStore =
+        EncodedPayload.Builder.create()
+            .withCipherText("ct1".getBytes())
+            .withPrivacyMode(PrivacyMode.STANDARD_PRIVATE)
+            .withRecipientKeys(List.of(recipient2))
+            .withRecipientBox("recipient_box2".getBytes())
+            .build();
+
+    MessageHash response = transactionManager.storePayload(payloadToStore);
+
+    assertThat(response.toString()).isEqualTo("Y3Qx");
 
     verify(encryptedTransactionDAO).retrieveByHash(any(MessageHash.class));
-    verify(encryptedTransactionDAO).update(existingDatabaseEntry);
-    verify(payloadEncoder).decode(any());
+    verify(encryptedTransactionDAO)
+        .addRecipientBox(existingDatabaseEntry, recipient2, "recipient_box2".getBytes());
+    verify(encryptedTransactionDAO).decodePayload(any());
     verify(enclave).getPublicKeys();
     verify(enclave).findInvalidSecurityHashes(any(EncodedPayload.class), anyList());
   }
 
   @Test
-  public void storePayloadWithExistingRecipientNonPSV() {
+  public void storePayloadRetriesConcurrentlyModifiedTransaction() {
     PublicKey recipient1 = PublicKey.from("recipient1".getBytes());
     PublicKey recipient2 = PublicKey.from("recipient2".getBytes());
 
@@ -781,9 +818,13 @@ public class TransactionManagerTest {
             .withRecipientKeys(List.of(recipient1))
             .withRecipientBox("recipient_box1".getBytes())
             .build();
-    when(payloadEncoder.decode(any())).thenReturn(existingPayload);
+    when(encryptedTransactionDAO.decodePayload(any())).thenReturn(existingPayload);
     when(encryptedTransactionDAO.retrieveByHash(any(MessageHash.class)))
         .thenReturn(Optional.of(existingDatabaseEntry));
+    when(encryptedTransactionDAO.addRecipientBox(
+            existingDatabaseEntry, recipient2, "recipient_box2".getBytes()))
+        .thenThrow(new OptimisticLockException())
+        .thenReturn(existingDatabaseEntry);
 
     EncodedPayload payloadToStore =
         EncodedPayload.Builder.create()
@@ -797,19 +838,52 @@ public class TransactionManagerTest {
 
     assertThat(response.toString()).isEqualTo("Y3Qx");
 
-    ArgumentCaptor<EncodedPayload> payloadCaptor = ArgumentCaptor.forClass(EncodedPayload.class);
-    verify(payloadEncoder).encode(payloadCaptor.capture());
+    verify(encryptedTransactionDAO, times(2)).retrieveByHash(any(MessageHash.class));
+    verify(encryptedTransactionDAO, times(2))
+        .addRecipientBox(existingDatabaseEntry, recipient2, "recipient_box2".getBytes());
+    verify(encryptedTransactionDAO, times(2)).decodePayload(any());
+    verify(enclave).getPublicKeys();
+    verify(enclave).findInvalidSecurityHashes(any(EncodedPayload.class), anyList());
+  }
 
-    EncodedPayload updatedTransaction = payloadCaptor.getValue();
-    assertThat(updatedTransaction.getRecipientKeys()).containsExactly(recipient2, recipient1);
-    assertThat(updatedTransaction.getRecipientBoxes())
-        .containsExactly(
-            RecipientBox.from("recipient_box2".getBytes()),
-            RecipientBox.from("recipient_box1".getBytes()));
+  @Test
+  public void storePayloadGivesUpOnRepeatedlyModifiedTransaction() {
+    PublicKey recipient1 = PublicKey.from("recipient1".getBytes());
+    PublicKey recipient2 = PublicKey.from("recipient2".getBytes());
 
-    verify(encryptedTransactionDAO).retrieveByHash(any(MessageHash.class));
-    verify(encryptedTransactionDAO).update(existingDatabaseEntry);
-    verify(payloadEncoder).decode(any());
+    EncryptedTransaction existingDatabaseEntry =
+        new EncryptedTransaction(new MessageHash(new byte[0]), new byte[0]);
+    EncodedPayload existingPayload =
+        EncodedPayload.Builder.create()
+            .withCipherText("ct1".getBytes())
+            .withPrivacyMode(PrivacyMode.STANDARD_PRIVATE)
+            .withRecipientKeys(List.of(recipient1))
+            .withRecipientBox("recipient_box1".getBytes())
+            .build();
+    when(encryptedTransactionDAO.decodePayload(any())).thenReturn(existingPayload);
+    when(encryptedTransactionDAO.retrieveByHash(any(MessageHash.class)))
+        .thenReturn(Optional.of(existingDatabaseEntry));
+    when(encryptedTransactionDAO.addRecipientBox(
+            existingDatabaseEntry, recipient2, "recipient_box2".getBytes()))
+        .thenThrow(new OptimisticLockException());
+
+    EncodedPayload payloadToStore =
+        EncodedPayload.Builder.create()
+            .withCipherText("ct1".getBytes())
+            .withPrivacyMode(PrivacyMode.STANDARD_PRIVATE)
+            .withRecipientKeys(List.of(recipient2))
+            .withRecipientBox("recipient_box2".getBytes())
+            .build();
+
+    final Throwable throwable =
+        catchThrowable(() -> transactionManager.storePayload(payloadToStore));
+
+    assertThat(throwable).isInstanceOf(OptimisticLockException.class);
+
+    verify(encryptedTransactionDAO, times(3)).retrieveByHash(any(MessageHash.class));
+    verify(encryptedTransactionDAO, times(3))
+        .addRecipientBox(existingDatabaseEntry, recipient2, "recipient_box2".getBytes());
+    verify(encryptedTransactionDAO, times(3)).decodePayload(any());
     verify(enclave).getPublicKeys();
     verify(enclave).findInvalidSecurityHashes(any(EncodedPayload.class), anyList());
   }
@@ -829,7 +903,7 @@ public class TransactionManagerTest {
             .withRecipientBox("recipient_box1".getBytes())
             .build();
 
-    when(payloadEncoder.decode(any())).thenReturn(existingPayload);
+    when(encryptedTransactionDAO.decodePayload(any())).thenReturn(existingPayload);
     when(encryptedTransactionDAO.retrieveByHash(any(MessageHash.class)))
         .thenReturn(Optional.of(existingDatabaseEntry));
 
@@ -846,7 +920,7 @@ public class TransactionManagerTest {
     assertThat(response.toString()).isEqualTo("Y3Qx");
 
     verify(encryptedTransactionDAO).retrieveByHash(any(MessageHash.class));
-    verify(payloadEncoder).decode(any());
+    verify(encryptedTransactionDAO).decodePayload(any());
     verify(enclave).getPublicKeys();
     verify(enclave).findInvalidSecurityHashes(any(EncodedPayload.class), anyList());
   }
@@ -861,7 +935,7 @@ public class TransactionManagerTest {
             .withPrivacyMode(PrivacyMode.STANDARD_PRIVATE)
             .withRecipientBox("recipient_box1".getBytes())
             .build();
-    when(payloadEncoder.decode(any())).thenReturn(existingPayload);
+    when(encryptedTransactionDAO.decodePayload(any())).thenReturn(existingPayload);
     when(encryptedTransactionDAO.retrieveByHash(any(MessageHash.class)))
         .thenReturn(Optional.of(existingDatabaseEntry));
 
@@ -876,19 +950,10 @@ public class TransactionManagerTest {
 
     assertThat(response.toString()).isEqualTo("Y3Qx");
 
-    ArgumentCaptor<EncodedPayload> payloadCaptor = ArgumentCaptor.forClass(EncodedPayload.class);
-    verify(payloadEncoder).encode(payloadCaptor.capture());
-
-    EncodedPayload updatedTransaction = payloadCaptor.getValue();
-    assertThat(updatedTransaction.getRecipientKeys()).isEmpty();
-    assertThat(updatedTransaction.getRecipientBoxes())
-        .containsExactly(
-            RecipientBox.from("recipient_box2".getBytes()),
-            RecipientBox.from("recipient_box1".getBytes()));
-
     verify(encryptedTransactionDAO).retrieveByHash(any(MessageHash.class));
-    verify(encryptedTransactionDAO).update(existingDatabaseEntry);
-    verify(payloadEncoder).decode(any());
+    verify(encryptedTransactionDAO)
+        .addRecipientBox(existingDatabaseEntry, null, "recipient_box2".getBytes());
+    verify(encryptedTransactionDAO).decodePayload(any());
     verify(enclave).getPublicKeys();
     verify(enclave).findInvalidSecurityHashes(any(EncodedPayload.class), anyList());
   }
@@ -905,16 +970,13 @@ public class TransactionManagerTest {
             .withTransactionHash(messageHash)
             .build();
 
-    EncryptedTransaction encryptedTransaction = new EncryptedTransaction(messageHash, randomData);
-
     EncodedPayload payload = mock(EncodedPayload.class);
     when(payload.getExecHash()).thenReturn("execHash".getBytes());
     when(payload.getPrivacyMode()).thenReturn(PrivacyMode.PRIVATE_STATE_VALIDATION);
     when(payload.getSenderKey()).thenReturn(sender);
-    when(payloadEncoder.decode(any(byte[].class))).thenReturn(payload);
 
-    when(encryptedTransactionDAO.retrieveByHash(any(MessageHash.class)))
-        .thenReturn(Optional.of(encryptedTransaction));
+    when(encryptedTransactionDAO.retrievePayloadByHash(any(MessageHash.class)))
+        .thenReturn(Optional.of(payload));
 
     byte[] expectedOutcome = "Encrypted payload".getBytes();
 
@@ -931,10 +993,8 @@ public class TransactionManagerTest {
     assertThat(receiveResponse.getUnencryptedTransactionData()).isEqualTo(expectedOutcome);
     assertThat(receiveResponse.getPrivacyGroupId()).isNotPresent();
 
-    verify(payloadEncoder).decode(any(byte[].class));
-    verify(encryptedTransactionDAO).retrieveByHash(any(MessageHash.class));
-    verify(enclave, times(2)).unencryptTransaction(any(EncodedPayload.class), any(PublicKey.class));
-    verify(enclave).getPublicKeys();
+    verify(encryptedTransactionDAO).retrievePayloadByHash(any(MessageHash.class));
+    verify(enclave).unencryptTransaction(any(EncodedPayload.class), any(PublicKey.class));
   }
 
   @Test
@@ -949,18 +1009,15 @@ public class TransactionManagerTest {
             .withTransactionHash(messageHash)
             .build();
 
-    EncryptedTransaction encryptedTransaction = new EncryptedTransaction(messageHash, randomData);
-
     EncodedPayload payload = mock(EncodedPayload.class);
     when(payload.getExecHash()).thenReturn("execHash".getBytes());
     when(payload.getPrivacyMode()).thenReturn(PrivacyMode.PRIVATE_STATE_VALIDATION);
     when(payload.getSenderKey()).thenReturn(sender);
     when(payload.getPrivacyGroupId())
         .thenReturn(Optional.of(PrivacyGroup.Id.fromBytes("group".getBytes())));
-    when(payloadEncoder.decode(any(byte[].class))).thenReturn(payload);
 
-    when(encryptedTransactionDAO.retrieveByHash(any(MessageHash.class)))
-        .thenReturn(Optional.of(encryptedTransaction));
+    when(encryptedTransactionDAO.retrievePayloadByHash(any(MessageHash.class)))
+        .thenReturn(Optional.of(payload));
 
     byte[] expectedOutcome = "Encrypted payload".getBytes();
 
@@ -979,10 +1036,8 @@ public class TransactionManagerTest {
     assertThat(receiveResponse.getPrivacyGroupId().get())
         .isEqualTo(PrivacyGroup.Id.fromBytes("group".getBytes()));
 
-    verify(payloadEncoder).decode(any(byte[].class));
-    verify(encryptedTransactionDAO).retrieveByHash(any(MessageHash.class));
-    verify(enclave, times(2)).unencryptTransaction(any(EncodedPayload.class), any(PublicKey.class));
-    verify(enclave).getPublicKeys();
+    verify(encryptedTransactionDAO).retrievePayloadByHash(any(MessageHash.class));
+    verify(enclave).unencryptTransaction(any(EncodedPayload.class), any(PublicKey.class));
   }
 
   @Test
@@ -1000,17 +1055,14 @@ public class TransactionManagerTest {
             .withTransactionHash(messageHash)
             .build();
 
-    EncryptedTransaction encryptedTransaction = new EncryptedTransaction(messageHash, randomData);
-
     EncodedPayload payload = mock(EncodedPayload.class);
     when(payload.getExecHash()).thenReturn("execHash".getBytes());
     when(payload.getPrivacyMode()).thenReturn(PrivacyMode.STANDARD_PRIVATE);
     when(payload.getRecipientKeys()).thenReturn(List.of(recipient1, recipient2));
     when(payload.getSenderKey()).thenReturn(sender);
-    when(payloadEncoder.decode(any(byte[].class))).thenReturn(payload);
 
-    when(encryptedTransactionDAO.retrieveByHash(any(MessageHash.class)))
-        .thenReturn(Optional.of(encryptedTransaction));
+    when(encryptedTransactionDAO.retrievePayloadByHash(any(MessageHash.class)))
+        .thenReturn(Optional.of(payload));
 
     byte[] expectedOutcome = "Encrypted payload".getBytes();
 
@@ -1026,10 +1078,9 @@ public class TransactionManagerTest {
         .containsExactlyInAnyOrder(recipient1, recipient2);
     assertThat(receiveResponse.sender()).isEqualTo(sender);
 
-    verify(payloadEncoder).decode(any(byte[].class));
-    verify(encryptedTransactionDAO).retrieveByHash(any(MessageHash.class));
-    verify(enclave, times(2)).unencryptTransaction(any(EncodedPayload.class), any(PublicKey.class));
-    verify(enclave, times(2)).getPublicKeys();
+    verify(encryptedTransactionDAO).retrievePayloadByHash(any(MessageHash.class));
+    verify(enclave).unencryptTransaction(any(EncodedPayload.class), any(PublicKey.class));
+    verify(enclave).getPublicKeys();
   }
 
   @Test
@@ -1046,22 +1097,20 @@ public class TransactionManagerTest {
             .withTransactionHash(messageHash)
             .build();
 
-    EncryptedTransaction encryptedTransaction = new EncryptedTransaction(messageHash, randomData);
-
     EncodedPayload payload = mock(EncodedPayload.class);
     when(payload.getSenderKey()).thenReturn(sender);
     when(payload.getPrivacyMode()).thenReturn(PrivacyMode.STANDARD_PRIVATE);
     when(payload.getRecipientBoxes()).thenReturn(List.of(RecipientBox.from("box1".getBytes())));
-    when(payloadEncoder.decode(any(byte[].class))).thenReturn(payload);
 
-    when(encryptedTransactionDAO.retrieveByHash(any(MessageHash.class)))
-        .thenReturn(Optional.of(encryptedTransaction));
+    when(encryptedTransactionDAO.retrievePayloadByHash(any(MessageHash.class)))
+        .thenReturn(Optional.of(payload));
 
     byte[] expectedOutcome = "Encrypted payload".getBytes();
 
     when(enclave.unencryptTransaction(any(EncodedPayload.class), any(PublicKey.class)))
         .thenReturn(expectedOutcome);
     when(enclave.getPublicKeys()).thenReturn(Set.of(recipient1));
+    when(enclave.findRecipientKeys(anyList())).thenReturn(List.of(Optional.of(recipient1)));
 
     ReceiveResponse receiveResponse = transactionManager.receive(receiveRequest);
 
@@ -1070,10 +1119,12 @@ public class TransactionManagerTest {
     assertThat(receiveResponse.getManagedParties()).containsExactly(recipient1);
     assertThat(receiveResponse.sender()).isEqualTo(sender);
 
-    verify(payloadEncoder).decode(any(byte[].class));
-    verify(encryptedTransactionDAO).retrieveByHash(any(MessageHash.class));
-    verify(enclave, times(3)).unencryptTransaction(any(EncodedPayload.class), any(PublicKey.class));
-    verify(enclave, times(2)).getPublicKeys();
+    verify(encryptedTransactionDAO).retrievePayloadByHash(any(MessageHash.class));
+    verify(enclave).unencryptTransaction(any(EncodedPayload.class), any(PublicKey.class));
+    verify(enclave).getPublicKeys();
+    verify(enclave).findRecipientKeys(anyList());
+    verify(encryptedTransactionRecipientDAO).findRecipientKeys(messageHash);
+    verify(encryptedTransactionRecipientDAO).save(messageHash, Set.of(recipient1));
   }
 
   @Test
@@ -1140,9 +1191,6 @@ public class TransactionManagerTest {
             .withTransactionHash(messageHash)
             .build();
 
-    final EncryptedTransaction encryptedTransaction =
-        new EncryptedTransaction(messageHash, keyData);
-
     final String b64AffectedTxHash =
         "bfMIqWJ/QGQhkK4USxMBxduzfgo/SIGoCros5bWYfPKUBinlAUCqLVOUAP9q+BgLlsWni1M6rnzfmaqSw2J5hQ==";
     final Map<TxHash, SecurityHash> affectedTxs =
@@ -1154,10 +1202,8 @@ public class TransactionManagerTest {
     when(payload.getAffectedContractTransactions()).thenReturn(affectedTxs);
     when(payload.getSenderKey()).thenReturn(sender);
 
-    when(payloadEncoder.decode(any(byte[].class))).thenReturn(payload);
-
-    when(encryptedTransactionDAO.retrieveByHash(any(MessageHash.class)))
-        .thenReturn(Optional.of(encryptedTransaction));
+    when(encryptedTransactionDAO.retrievePayloadByHash(any(MessageHash.class)))
+        .thenReturn(Optional.of(payload));
 
     byte[] expectedOutcome = "Encrypted payload".getBytes();
 
@@ -1176,10 +1222,8 @@ public class TransactionManagerTest {
     assertThat(receiveResponse.getAffectedTransactions()).hasSize(1);
     assertThat(receiveResponse.sender()).isEqualTo(sender);
 
-    verify(payloadEncoder).decode(any(byte[].class));
-    verify(encryptedTransactionDAO).retrieveByHash(any(MessageHash.class));
-    verify(enclave, times(2)).unencryptTransaction(any(EncodedPayload.class), any(PublicKey.class));
-    verify(enclave).getPublicKeys();
+    verify(encryptedTransactionDAO).retrievePayloadByHash(any(MessageHash.class));
+    verify(enclave).unencryptTransaction(any(EncodedPayload.class), any(PublicKey.class));
   }
 
   @Test
@@ -1196,23 +1240,20 @@ public class TransactionManagerTest {
 
     EncodedPayload payload = mock(EncodedPayload.class);
 
-    when(payloadEncoder.decode(any(byte[].class))).thenReturn(payload);
-
-    when(encryptedTransactionDAO.retrieveByHash(any(MessageHash.class)))
+    when(encryptedTransactionDAO.retrievePayloadByHash(any(MessageHash.class)))
         .thenReturn(Optional.empty());
 
     try {
       transactionManager.receive(receiveRequest);
       failBecauseExceptionWasNotThrown(TransactionNotFoundException.class);
     } catch (TransactionNotFoundException ex) {
-      verify(encryptedTransactionDAO).retrieveByHash(any(MessageHash.class));
+      verify(encryptedTransactionDAO).retrievePayloadByHash(any(MessageHash.class));
     }
   }
 
   @Test
-  public void receiveNoRecipientKeyFound() {
+  public void receiveWithRecipientDoesNotSearchForRecipientKey() {
 
-    final byte[] keyData = Base64.getEncoder().encode("KEY".getBytes());
     PublicKey recipient = PublicKey.from("recipient".getBytes());
 
     MessageHash messageHash = mock(MessageHash.class);
@@ -1222,14 +1263,10 @@ public class TransactionManagerTest {
     when(receiveRequest.getTransactionHash()).thenReturn(messageHash);
     when(receiveRequest.getRecipient()).thenReturn(Optional.of(recipient));
 
-    EncryptedTransaction encryptedTransaction = new EncryptedTransaction(messageHash, keyData);
-
     EncodedPayload payload = mock(EncodedPayload.class);
 
-    when(payloadEncoder.decode(any(byte[].class))).thenReturn(payload);
-
-    when(encryptedTransactionDAO.retrieveByHash(any(MessageHash.class)))
-        .thenReturn(Optional.of(encryptedTransaction));
+    when(encryptedTransactionDAO.retrievePayloadByHash(any(MessageHash.class)))
+        .thenReturn(Optional.of(payload));
 
     PublicKey publicKey = mock(PublicKey.class);
     when(enclave.getPublicKeys()).thenReturn(Collections.singleton(publicKey));
@@ -1237,123 +1274,146 @@ public class TransactionManagerTest {
     when(enclave.unencryptTransaction(any(EncodedPayload.class), any(PublicKey.class)))
         .thenThrow(EncryptorException.class);
 
-    try {
-      transactionManager.receive(receiveRequest);
-      failBecauseExceptionWasNotThrown(RecipientKeyNotFoundException.class);
-    } catch (RecipientKeyNotFoundException ex) {
-      verify(encryptedTransactionDAO).retrieveByHash(any(MessageHash.class));
-      verify(enclave).getPublicKeys();
-      verify(enclave).unencryptTransaction(any(EncodedPayload.class), any(PublicKey.class));
-      verify(payloadEncoder).decode(any(byte[].class));
-    }
+    final Throwable throwable = catchThrowable(() -> transactionManager.receive(receiveRequest));
+
+    assertThat(throwable).isInstanceOf(EncryptorException.class);
+
+    verify(encryptedTransactionDAO).retrievePayloadByHash(any(MessageHash.class));
+    verify(enclave).unencryptTransaction(payload, recipient);
+    verifyNoInteractions(encryptedTransactionRecipientDAO);
   }
 
   @Test
-  public void receiveHH() {
+  public void receiveUsesIndexedRecipientKey() {
+    final PublicKey sender = PublicKey.from("sender".getBytes());
+    final PublicKey recipient = PublicKey.from("recipient".getBytes());
+    final PublicKey otherKey = PublicKey.from("other".getBytes());
 
-    byte[] keyData = Base64.getEncoder().encode("KEY".getBytes());
-    PublicKey recipient = PublicKey.from("recipient".getBytes());
+    byte[] randomData = Base64.getEncoder().encode("odd-data".getBytes());
+    MessageHash messageHash = new MessageHash(randomData);
 
-    MessageHash messageHash = mock(MessageHash.class);
-    when(messageHash.getHashBytes()).thenReturn("KEY".getBytes());
+    ReceiveRequest receiveRequest =
+        ReceiveRequest.Builder.create().withTransactionHash(messageHash).build();
 
-    ReceiveRequest receiveRequest = mock(ReceiveRequest.class);
-    when(receiveRequest.getRecipient()).thenReturn(Optional.of(recipient));
-    when(receiveRequest.getTransactionHash()).thenReturn(messageHash);
+    EncodedPayload payload = mock(EncodedPayload.class);
+    when(payload.getPrivacyMode()).thenReturn(PrivacyMode.STANDARD_PRIVATE);
+    when(payload.getRecipientKeys()).thenReturn(List.of(recipient));
+    when(payload.getSenderKey()).thenReturn(sender);
 
-    EncryptedTransaction encryptedTransaction = new EncryptedTransaction(messageHash, null);
+    when(encryptedTransactionDAO.retrievePayloadByHash(messageHash))
+        .thenReturn(Optional.of(payload));
+    when(encryptedTransactionRecipientDAO.findRecipientKeys(messageHash))
+        .thenReturn(List.of(recipient));
 
-    EncodedPayload payload = mock(EncodedPayload.class);
+    byte[] expectedOutcome = "Encrypted payload".getBytes();
 
-    when(payloadEncoder.decode(any(byte[].class))).thenReturn(payload).thenReturn(null);
+    when(enclave.unencryptTransaction(payload, recipient)).thenReturn(expectedOutcome);
+    when(enclave.getPublicKeys()).thenReturn(Set.of(otherKey, recipient));
 
-    when(encryptedTransactionDAO.retrieveByHash(any(MessageHash.class)))
-        .thenReturn(Optional.of(encryptedTransaction));
+    ReceiveResponse receiveResponse = transactionManager.receive(receiveRequest);
 
-    byte[] expectedOutcome = "Encrypted payload".getBytes();
+    assertThat(receiveResponse.getUnencryptedTransactionData()).isEqualTo(expectedOutcome);
+    assertThat(receiveResponse.getManagedParties()).containsExactly(recipient);
 
-    when(enclave.unencryptTransaction(any(EncodedPayload.class), any(PublicKey.class)))
-        .thenReturn(expectedOutcome);
+    verify(encryptedTransactionDAO).retrievePayloadByHash(messageHash);
+    verify(encryptedTransactionRecipientDAO).findRecipientKeys(messageHash);
+    verify(enclave).unencryptTransaction(payload, recipient);
+    verify(enclave, times(2)).getPublicKeys();
+    verifyNoMoreInteractions(encryptedTransactionRecipientDAO);
+  }
 
-    PublicKey publicKey = mock(PublicKey.class);
-    when(enclave.getPublicKeys()).thenReturn(Collections.singleton(publicKey));
+  @Test
+  public void receiveIndexesRecipientKeyFoundBySearch() {
+    final PublicKey sender = PublicKey.from("sender".getBytes());
+    final PublicKey recipient = PublicKey.from("recipient".getBytes());
 
-    final Throwable throwable = catchThrowable(() -> transactionManager.receive(receiveRequest));
+    byte[] randomData = Base64.getEncoder().encode("odd-data".getBytes());
+    MessageHash messageHash = new MessageHash(randomData);
 
-    assertThat(throwable).isInstanceOf(IllegalStateException.class);
+    ReceiveRequest receiveRequest =
+        ReceiveRequest.Builder.create().withTransactionHash(messageHash).build();
 
-    verify(encryptedTransactionDAO).retrieveByHash(any(MessageHash.class));
+    EncodedPayload payload = mock(EncodedPayload.class);
+    when(payload.getPrivacyMode()).thenReturn(PrivacyMode.STANDARD_PRIVATE);
+    when(payload.getRecipientKeys()).thenReturn(List.of(recipient));
+    when(payload.getSenderKey()).thenReturn(sender);
+
+    when(encryptedTransactionDAO.retrievePayloadByHash(messageHash))
+        .thenReturn(Optional.of(payload));
+
+    byte[] expectedOutcome = "Encrypted payload".getBytes();
+
+    when(enclave.unencryptTransaction(payload, recipient)).thenReturn(expectedOutcome);
+    when(enclave.getPublicKeys()).thenReturn(Set.of(recipient));
+    when(enclave.findRecipientKey(payload)).thenReturn(Optional.of(recipient));
+
+    ReceiveResponse receiveResponse = transactionManager.receive(receiveRequest);
+
+    assertThat(receiveResponse.getUnencryptedTransactionData()).isEqualTo(expectedOutcome);
+
+    verify(encryptedTransactionDAO).retrievePayloadByHash(messageHash);
+    verify(encryptedTransactionRecipientDAO).findRecipientKeys(messageHash);
+    verify(encryptedTransactionRecipientDAO).save(messageHash, List.of(recipient));
+    verify(enclave).findRecipientKey(payload);
+    verify(enclave).unencryptTransaction(payload, recipient);
+    verify(enclave, times(2)).getPublicKeys();
+    verifyNoMoreInteractions(encryptedTransactionRecipientDAO);
   }
 
   @Test
   public void receiveNullRecipientThrowsNoRecipientKeyFound() {
 
-    byte[] keyData = Base64.getEncoder().encode("KEY".getBytes());
-
     MessageHash transactionHash = mock(MessageHash.class);
     when(transactionHash.getHashBytes()).thenReturn("KEY".getBytes());
     ReceiveRequest receiveRequest = mock(ReceiveRequest.class);
     when(receiveRequest.getRecipient()).thenReturn(Optional.empty());
     when(receiveRequest.getTransactionHash()).thenReturn(transactionHash);
 
-    EncryptedTransaction encryptedTransaction = new EncryptedTransaction(transactionHash, keyData);
-
     EncodedPayload payload = mock(EncodedPayload.class);
 
-    when(payloadEncoder.decode(any(byte[].class))).thenReturn(payload);
-
-    when(encryptedTransactionDAO.retrieveByHash(any(MessageHash.class)))
-        .thenReturn(Optional.of(encryptedTransaction));
+    when(encryptedTransactionDAO.retrievePayloadByHash(any(MessageHash.class)))
+        .thenReturn(Optional.of(payload));
 
     PublicKey publicKey = mock(PublicKey.class);
     when(enclave.getPublicKeys()).thenReturn(Collections.singleton(publicKey));
 
-    when(enclave.unencryptTransaction(any(EncodedPayload.class), any(PublicKey.class)))
-        .thenThrow(EncryptorException.class);
+    when(enclave.findRecipientKey(payload)).thenReturn(Optional.empty());
 
     try {
       transactionManager.receive(receiveRequest);
       failBecauseExceptionWasNotThrown(RecipientKeyNotFoundException.class);
     } catch (RecipientKeyNotFoundException ex) {
-      verify(encryptedTransactionDAO).retrieveByHash(any(MessageHash.class));
+      verify(encryptedTransactionDAO).retrievePayloadByHash(any(MessageHash.class));
       verify(enclave).getPublicKeys();
-      verify(enclave).unencryptTransaction(any(EncodedPayload.class), any(PublicKey.class));
-      verify(payloadEncoder).decode(any(byte[].class));
+      verify(enclave).findRecipientKey(payload);
     }
   }
 
   @Test
   public void receiveEmptyRecipientThrowsNoRecipientKeyFound() {
 
-    byte[] keyData = Base64.getEncoder().encode("KEY".getBytes());
     ReceiveRequest receiveRequest = mock(ReceiveRequest.class);
     MessageHash transactionHash = mock(MessageHash.class);
     when(transactionHash.getHashBytes()).thenReturn("KEY".getBytes());
     when(receiveRequest.getTransactionHash()).thenReturn(transactionHash);
 
-    EncryptedTransaction encryptedTransaction = new EncryptedTransaction(transactionHash, keyData);
-
     EncodedPayload payload = mock(EncodedPayload.class);
 
-    when(payloadEncoder.decode(any(byte[].class))).thenReturn(payload);
-
-    when(encryptedTransactionDAO.retrieveByHash(any(MessageHash.class)))
-        .thenReturn(Optional.of(encryptedTransaction));
+    when(encryptedTransactionDAO.retrievePayloadByHash(any(MessageHash.class)))
+        .thenReturn(Optional.of(payload));
 
     PublicKey publicKey = mock(PublicKey.class);
     when(enclave.getPublicKeys()).thenReturn(Collections.singleton(publicKey));
 
-    when(enclave.unencryptTransaction(any(EncodedPayload.class), any(PublicKey.class)))
-        .thenThrow(EncryptorException.class);
+    when(enclave.findRecipientKey(payload)).thenReturn(Optional.empty());
 
     try {
       transactionManager.receive(receiveRequest);
       failBecauseExceptionWasNotThrown(RecipientKeyNotFoundException.class);
     } catch (RecipientKeyNotFoundException ex) {
-      verify(encryptedTransactionDAO).retrieveByHash(any(MessageHash.class));
+      verify(encryptedTransactionDAO).retrievePayloadByHash(any(MessageHash.class));
       verify(enclave).getPublicKeys();
-      verify(enclave).unencryptTransaction(any(EncodedPayload.class), any(PublicKey.class));
-      verify(payloadEncoder).decode(any(byte[].class));
+      verify(enclave).findRecipientKey(payload);
     }
   }
 
@@ -1445,7 +1505,8 @@ public class TransactionManagerTest {
             encryptedRawTransactionDAO,
             resendManager,
             privacyHelper,
-            mockDigest);
+            mockDigest,
+            encryptedTransactionRecipientDAO);
 
     assertThat(tm).isNotNull();
   }
@@ -1456,7 +1517,8 @@ public class TransactionManagerTest {
     MessageHash transactionHash = mock(MessageHash.class);
     when(transactionHash.getHashBytes()).thenReturn("DUMMY_TRANSACTION".getBytes());
 
-    when(encryptedTransactionDAO.retrieveByHash(transactionHash)).thenReturn(Optional.empty());
+    when(encryptedTransactionDAO.retrievePayloadByHash(transactionHash))
+        .thenReturn(Optional.empty());
 
     final Throwable throwable = catchThrowable(() -> transactionManager.isSender(transactionHash));
 
@@ -1464,7 +1526,7 @@ public class TransactionManagerTest {
         .isInstanceOf(TransactionNotFoundException.class)
         .hasMessage("Message with hash RFVNTVlfVFJBTlNBQ1RJT04= was not found");
 
-    verify(encryptedTransactionDAO).retrieveByHash(transactionHash);
+    verify(encryptedTransactionDAO).retrievePayloadByHash(transactionHash);
   }
 
   @Test
@@ -1472,19 +1534,12 @@ public class TransactionManagerTest {
     final MessageHash transactionHash = mock(MessageHash.class);
     when(transactionHash.getHashBytes()).thenReturn("DUMMY_TRANSACTION".getBytes());
 
-    final byte[] input = "SOMEDATA".getBytes();
-
-    final EncryptedTransaction encryptedTransaction = mock(EncryptedTransaction.class);
-    when(encryptedTransaction.getEncodedPayload()).thenReturn(input);
-
     final EncodedPayload encodedPayload = mock(EncodedPayload.class);
     PublicKey sender = mock(PublicKey.class);
     when(encodedPayload.getSenderKey()).thenReturn(sender);
 
-    when(encryptedTransactionDAO.retrieveByHash(transactionHash))
-        .thenReturn(Optional.of(encryptedTransaction));
-
-    when(payloadEncoder.decode(input)).thenReturn(encodedPayload);
+    when(encryptedTransactionDAO.retrievePayloadByHash(transactionHash))
+        .thenReturn(Optional.of(encodedPayload));
 
     when(enclave.getPublicKeys()).thenReturn(emptySet());
 
@@ -1493,8 +1548,7 @@ public class TransactionManagerTest {
     assertThat(isSender).isFalse();
 
     verify(enclave).getPublicKeys();
-    verify(payloadEncoder).decode(input);
-    verify(encryptedTransactionDAO).retrieveByHash(transactionHash);
+    verify(encryptedTransactionDAO).retrievePayloadByHash(transactionHash);
   }
 
   @Test
@@ -1503,18 +1557,12 @@ public class TransactionManagerTest {
     MessageHash transactionHash = mock(MessageHash.class);
     when(transactionHash.getHashBytes()).thenReturn("DUMMY_TRANSACTION".getBytes());
 
-    final byte[] input = "SOMEDATA".getBytes();
-    final EncryptedTransaction encryptedTransaction = mock(EncryptedTransaction.class);
-    when(encryptedTransaction.getEncodedPayload()).thenReturn(input);
-
     final PublicKey senderKey = mock(PublicKey.class);
 
     final EncodedPayload encodedPayload = mock(EncodedPayload.class);
     when(encodedPayload.getSenderKey()).thenReturn(senderKey);
-    when(encryptedTransactionDAO.retrieveByHash(transactionHash))
-        .thenReturn(Optional.of(encryptedTransaction));
-
-    when(payloadEncoder.decode(input)).thenReturn(encodedPayload);
+    when(encryptedTransactionDAO.retrievePayloadByHash(transactionHash))
+        .thenReturn(Optional.of(encodedPayload));
 
     when(enclave.getPublicKeys()).thenReturn(Set.of(senderKey));
 
@@ -1523,8 +1571,7 @@ public class TransactionManagerTest {
     assertThat(isSender).isTrue();
 
     verify(enclave).getPublicKeys();
-    verify(payloadEncoder).decode(input);
-    verify(encryptedTransactionDAO).retrieveByHash(transactionHash);
+    verify(encryptedTransactionDAO).retrievePayloadByHash(transactionHash);
   }
 
   @Test
@@ -1533,7 +1580,7 @@ public class TransactionManagerTest {
     MessageHash transactionHash = mock(MessageHash.class);
     when(transactionHash.getHashBytes()).thenReturn("DUMMY_TRANSACTION".getBytes());
 
-    when(encryptedTransactionDAO.retrieveByHash(any(MessageHash.class)))
+    when(encryptedTransactionDAO.retrievePayloadByHash(any(MessageHash.class)))
         .thenReturn(Optional.empty());
 
     final Throwable throwable =
@@ -1543,7 +1590,7 @@ public class TransactionManagerTest {
         .isInstanceOf(TransactionNotFoundException.class)
         .hasMessage("Message with hash RFVNTVlfVFJBTlNBQ1RJT04= was not found");
 
-    verify(encryptedTransactionDAO).retrieveByHash(any(MessageHash.class));
+    verify(encryptedTransactionDAO).retrievePayloadByHash(any(MessageHash.class));
   }
 
   @Test
@@ -1555,23 +1602,17 @@ public class TransactionManagerTest {
     final PublicKey senderKey = mock(PublicKey.class);
     final PublicKey recipientKey = mock(PublicKey.class);
 
-    final byte[] input = "SOMEDATA".getBytes();
-    final EncryptedTransaction encryptedTransaction = mock(EncryptedTransaction.class);
     final EncodedPayload encodedPayload = mock(EncodedPayload.class);
     when(encodedPayload.getRecipientKeys()).thenReturn(List.of(senderKey, recipientKey));
-    when(encryptedTransaction.getEncodedPayload()).thenReturn(input);
 
-    when(encryptedTransactionDAO.retrieveByHash(transactionHash))
-        .thenReturn(Optional.of(encryptedTransaction));
-
-    when(payloadEncoder.decode(input)).thenReturn(encodedPayload);
+    when(encryptedTransactionDAO.retrievePayloadByHash(transactionHash))
+        .thenReturn(Optional.of(encodedPayload));
 
     final List<PublicKey> participants = transactionManager.getParticipants(transactionHash);
 
     assertThat(participants).containsExactlyInAnyOrder(senderKey, recipientKey);
 
-    verify(payloadEncoder).decode(input);
-    verify(encryptedTransactionDAO).retrieveByHash(any(MessageHash.class));
+    verify(encryptedTransactionDAO).retrievePayloadByHash(any(MessageHash.class));
   }
 
   @Test
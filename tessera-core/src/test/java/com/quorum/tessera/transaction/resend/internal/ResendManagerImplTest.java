@@ -15,6 +15,7 @@ import com.quorum.tessera.encryption.Nonce;
 import com.quorum.tessera.encryption.PublicKey;
 import com.quorum.tessera.transaction.resend.ResendManager;
 import java.util.*;
+import javax.persistence.OptimisticLockException;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -124,8 +125,8 @@ public class ResendManagerImplTest {
     when(enclave.getPublicKeys()).thenReturn(singleton(senderKey));
     when(encryptedTransactionDAO.retrieveByHash(any(MessageHash.class)))
         .thenReturn(Optional.of(et));
-    when(payloadEncoder.decode(storedData)).thenReturn(existingEncodedPayload);
-    when(payloadEncoder.encode(any(EncodedPayload.class))).thenReturn("updated".getBytes());
+    when(encryptedTransactionDAO.decodePayload(any(EncryptedTransaction.class)))
+        .thenReturn(existingEncodedPayload);
 
     resendManager.acceptOwnMessage(encodedPayload);
 
@@ -133,26 +134,57 @@ public class ResendManagerImplTest {
     assertThat(encodedPayload.getRecipientBoxes())
         .containsExactly(RecipientBox.from(recipientBox2));
 
-    ArgumentCaptor<EncodedPayload> updatedPayload = ArgumentCaptor.forClass(EncodedPayload.class);
+    verify(encryptedTransactionDAO).addRecipientBox(et, recipientKey2, recipientBox2);
+    verify(encryptedTransactionDAO).retrieveByHash(any(MessageHash.class));
+    verify(encryptedTransactionDAO).decodePayload(any(EncryptedTransaction.class));
+    verify(enclave).getPublicKeys();
+    verify(enclave).unencryptTransaction(encodedPayload, senderKey);
+    verify(enclave).unencryptTransaction(existingEncodedPayload, senderKey);
+  }
 
-    verify(payloadEncoder).encode(updatedPayload.capture());
+  @Test
+  public void storePayloadAsSenderRetriesConcurrentlyModifiedTransaction() {
+    final byte[] storedData = "SOMEDATA".getBytes();
+    final PublicKey senderKey = PublicKey.from("SENDER".getBytes());
 
-    final EncodedPayload updated = updatedPayload.getValue();
+    final EncodedPayload encodedPayload =
+        EncodedPayload.Builder.create()
+            .withSenderKey(senderKey)
+            .withCipherText("CIPHERTEXT".getBytes())
+            .withRecipientBoxes(singletonList("BOX2".getBytes()))
+            .withRecipientKeys(singletonList(PublicKey.from("RECIPIENT-KEY2".getBytes())))
+            .build();
 
-    // Check recipients are being added
-    assertThat(updated.getRecipientKeys())
-        .hasSize(2)
-        .containsExactlyInAnyOrder(recipientKey1, recipientKey2);
+    final EncodedPayload existingEncodedPayload =
+        EncodedPayload.Builder.create()
+            .withSenderKey(senderKey)
+            .withCipherText("CIPHERTEXT".getBytes())
+            .withRecipientBoxes(singletonList("BOX1".getBytes()))
+            .withRecipientKeys(singletonList(PublicKey.from("RECIPIENT-KEY1".getBytes())))
+            .build();
 
-    // Check boxes are being added
-    assertThat(updated.getRecipientBoxes()).hasSize(2);
+    when(enclave.getPublicKeys()).thenReturn(singleton(senderKey));
+    // each attempt must work on a freshly retrieved copy of the transaction
+    when(encryptedTransactionDAO.retrieveByHash(any(MessageHash.class)))
+        .thenAnswer(invocation -> Optional.of(new EncryptedTransaction(null, storedData)));
+    when(encryptedTransactionDAO.addRecipientBox(any(EncryptedTransaction.class), any(), any()))
+        .thenThrow(new OptimisticLockException())
+        .thenAnswer(invocation -> invocation.getArgument(0));
+    when(encryptedTransactionDAO.decodePayload(any(EncryptedTransaction.class)))
+        .thenReturn(existingEncodedPayload);
 
-    verify(encryptedTransactionDAO).update(et);
-    verify(encryptedTransactionDAO).retrieveByHash(any(MessageHash.class));
-    verify(payloadEncoder).decode(storedData);
+    resendManager.acceptOwnMessage(encodedPayload);
+
+    verify(encryptedTransactionDAO, times(2))
+        .addRecipientBox(
+            any(EncryptedTransaction.class),
+            eq(PublicKey.from("RECIPIENT-KEY2".getBytes())),
+            eq("BOX2".getBytes()));
+    verify(encryptedTransactionDAO, times(2)).retrieveByHash(any(MessageHash.class));
+    verify(encryptedTransactionDAO, times(2)).decodePayload(any(EncryptedTransaction.class));
     verify(enclave).getPublicKeys();
     verify(enclave).unencryptTransaction(encodedPayload, senderKey);
-    verify(enclave).unencryptTransaction(existingEncodedPayload, senderKey);
+    verify(enclave, times(2)).unencryptTransaction(existingEncodedPayload, senderKey);
   }
 
   @Test
@@ -187,24 +219,14 @@ public class ResendManagerImplTest {
     when(enclave.getPublicKeys()).thenReturn(singleton(senderKey));
     when(encryptedTransactionDAO.retrieveByHash(any(MessageHash.class)))
         .thenReturn(Optional.of(et));
-    when(payloadEncoder.decode(storedData)).thenReturn(existingEncodedPayload);
-    when(payloadEncoder.encode(any(EncodedPayload.class))).thenReturn("updated".getBytes());
+    when(encryptedTransactionDAO.decodePayload(any(EncryptedTransaction.class)))
+        .thenReturn(existingEncodedPayload);
 
     resendManager.acceptOwnMessage(encodedPayload);
 
-    ArgumentCaptor<EncodedPayload> updatedPayload = ArgumentCaptor.forClass(EncodedPayload.class);
-    verify(payloadEncoder).encode(updatedPayload.capture());
-    final EncodedPayload updated = updatedPayload.getValue();
-
-    // Check recipients are being added
-    assertThat(updated.getRecipientKeys()).containsExactlyInAnyOrder(recipientKey1, recipientKey2);
-
-    // Check boxes are being added
-    assertThat(updated.getRecipientBoxes()).hasSize(2);
-
-    verify(encryptedTransactionDAO).update(et);
+    verify(encryptedTransactionDAO).addRecipientBox(et, recipientKey2, recipientBox2);
     verify(encryptedTransactionDAO).retrieveByHash(any(MessageHash.class));
-    verify(payloadEncoder).decode(storedData);
+    verify(encryptedTransactionDAO).decodePayload(any(EncryptedTransaction.class));
     verify(enclave).getPublicKeys();
     verify(enclave, times(2)).unencryptTransaction(any(EncodedPayload.class), eq(senderKey));
   }
@@ -239,7 +261,8 @@ public class ResendManagerImplTest {
     when(enclave.getPublicKeys()).thenReturn(Set.of(senderKey));
     when(encryptedTransactionDAO.retrieveByHash(any(MessageHash.class)))
         .thenReturn(Optional.of(et));
-    when(payloadEncoder.decode(storedData)).thenReturn(existingEncodedPayload);
+    when(encryptedTransactionDAO.decodePayload(any(EncryptedTransaction.class)))
+        .thenReturn(existingEncodedPayload);
 
     resendManager.acceptOwnMessage(encodedPayload);
 
@@ -248,7 +271,7 @@ public class ResendManagerImplTest {
         .containsExactly(RecipientBox.from(recipientBox2));
 
     verify(encryptedTransactionDAO).retrieveByHash(any(MessageHash.class));
-    verify(payloadEncoder).decode(storedData);
+    verify(encryptedTransactionDAO).decodePayload(any(EncryptedTransaction.class));
     verify(enclave).getPublicKeys();
     verify(enclave).unencryptTransaction(encodedPayload, senderKey);
   }
@@ -273,7 +296,8 @@ public class ResendManagerImplTest {
     when(enclave.getPublicKeys()).thenReturn(singleton(senderKey));
     when(encryptedTransactionDAO.retrieveByHash(any(MessageHash.class)))
         .thenReturn(Optional.of(et));
-    when(payloadEncoder.decode(storedData)).thenReturn(encodedPayload);
+    when(encryptedTransactionDAO.decodePayload(any(EncryptedTransaction.class)))
+        .thenReturn(encodedPayload);
     when(payloadEncoder.encode(any(EncodedPayload.class))).thenReturn("updated".getBytes());
 
     resendManager.acceptOwnMessage(encodedPayload);
@@ -282,7 +306,7 @@ public class ResendManagerImplTest {
     assertThat(encodedPayload.getRecipientBoxes()).containsExactly(RecipientBox.from(recipientBox));
 
     verify(encryptedTransactionDAO).retrieveByHash(any(MessageHash.class));
-    verify(payloadEncoder).decode(storedData);
+    verify(encryptedTransactionDAO).decodePayload(any(EncryptedTransaction.class));
     verify(enclave).getPublicKeys();
     verify(enclave).unencryptTransaction(encodedPayload, senderKey);
   }
@@ -343,7 +367,8 @@ public class ResendManagerImplTest {
     when(enclave.getPublicKeys()).thenReturn(singleton(senderKey));
     when(encryptedTransactionDAO.retrieveByHash(any(MessageHash.class)))
         .thenReturn(Optional.of(et));
-    when(payloadEncoder.decode(storedData)).thenReturn(existingEncodedPayload);
+    when(encryptedTransactionDAO.decodePayload(any(EncryptedTransaction.class)))
+        .thenReturn(existingEncodedPayload);
     when(payloadEncoder.encode(any(EncodedPayload.class))).thenReturn("updated".getBytes());
     when(enclave.unencryptTransaction(existingEncodedPayload, senderKey))
         .thenReturn("payload1".getBytes());
@@ -356,7 +381,7 @@ public class ResendManagerImplTest {
         .hasMessage("Invalid payload provided");
 
     verify(encryptedTransactionDAO).retrieveByHash(any(MessageHash.class));
-    verify(payloadEncoder).decode(storedData);
+    verify(encryptedTransactionDAO).decodePayload(any(EncryptedTransaction.class));
     verify(enclave).getPublicKeys();
     verify(enclave).unencryptTransaction(encodedPayload, senderKey);
     verify(enclave).unencryptTransaction(existingEncodedPayload, senderKey);
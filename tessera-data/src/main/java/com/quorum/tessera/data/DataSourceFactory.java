@@ -8,6 +8,14 @@ public interface DataSourceFactory {
 
   DataSource create(JdbcConfig config);
 
+  /**
+   * Creates a data source for queries that only read, whose connections are read-only and commit
+   * automatically so that no transaction needs to be started or ended around a query.
+   */
+  default DataSource createReadOnly(JdbcConfig config) {
+    return create(config);
+  }
+
   static DataSourceFactory create() {
     return ServiceLoader.load(DataSourceFactory.class).findFirst().get();
   }
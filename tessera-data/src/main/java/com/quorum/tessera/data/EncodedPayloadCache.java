@@ -0,0 +1,322 @@
+package com.quorum.tessera.data;
+
+import com.quorum.tessera.config.JdbcConfig;
+import com.quorum.tessera.enclave.EncodedPayload;
+import com.quorum.tessera.enclave.PayloadEncoder;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A bounded, least-recently-used cache of decoded payloads, keyed by the hash of the transaction
+ * they were decoded from.
+ *
+ * <p>The same transactions are looked up again and again, e.g. by Quorum while processing a block
+ * or by every private state validation transaction sent to a contract. The cache is bounded by the
+ * encoded size of the payloads it holds rather than by their number, since a decoded payload keeps
+ * hold of the bytes it was decoded from and payloads range from a few hundred bytes to megabytes.
+ *
+ * <p>Entries are invalidated when their transaction is updated or deleted. A payload loaded while
+ * an invalidation was under way is returned but not cached, as it may have been read before the
+ * change was committed.
+ *
+ * <p>A cache with a maximum weight of zero is disabled and decodes every payload it is asked for.
+ */
+public class EncodedPayloadCache implements EncodedPayloadCacheMXBean {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(EncodedPayloadCache.class);
+
+  private final PayloadEncoder payloadEncoder;
+
+  private final long maxWeight;
+
+  private final Map<MessageHash, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+  // both guarded by entries
+  private long weight;
+
+  private long generation;
+
+  private final LongAdder hits = new LongAdder();
+
+  private final LongAdder misses = new LongAdder();
+
+  private final LongAdder evictions = new LongAdder();
+
+  private final LongAdder invalidations = new LongAdder();
+
+  public EncodedPayloadCache(PayloadEncoder payloadEncoder, long maxWeight) {
+    if (maxWeight < 0) {
+      throw new IllegalArgumentException("Payload cache size cannot be negative");
+    }
+    this.payloadEncoder = Objects.requireNonNull(payloadEncoder);
+    this.maxWeight = maxWeight;
+  }
+
+  public static EncodedPayloadCache disabled(PayloadEncoder payloadEncoder) {
+    return new EncodedPayloadCache(payloadEncoder, 0);
+  }
+
+  /**
+   * Creates the cache configured by {@link JdbcConfig#getPayloadCacheSize()}. The cache is disabled
+   * unless a size is set, since it is only safe when no other node writes to the same database.
+   */
+  public static EncodedPayloadCache from(PayloadEncoder payloadEncoder, JdbcConfig jdbcConfig) {
+    final Long configuredSize = jdbcConfig.getPayloadCacheSize();
+    if (configuredSize == null) {
+      return disabled(payloadEncoder);
+    }
+    if (configuredSize < 0) {
+      LOGGER.warn("Invalid payloadCacheSize value {}. Payload cache is disabled", configuredSize);
+      return disabled(payloadEncoder);
+    }
+    return new EncodedPayloadCache(payloadEncoder, configuredSize);
+  }
+
+  /**
+   * Retrieves the decoded payload of a transaction, loading and decoding it only if it is not
+   * already cached.
+   *
+   * @param hash the hash of the transaction
+   * @param loader retrieves the transaction from the database
+   * @return the decoded payload, or empty if the transaction could not be found
+   */
+  public Optional<EncodedPayload> get(
+      final MessageHash hash, final Function<MessageHash, Optional<EncryptedTransaction>> loader) {
+    if (maxWeight == 0) {
+      return loader.apply(hash).map(this::decode);
+    }
+
+    final long loadedGeneration;
+    synchronized (entries) {
+      final Entry entry = entries.get(hash);
+      if (entry != null) {
+        hits.increment();
+        return Optional.of(entry.payload);
+      }
+      loadedGeneration = generation;
+    }
+
+    misses.increment();
+
+    // loaded and decoded outside the lock so that misses for different hashes don't serialise
+    return loader.apply(hash).map(transaction -> store(transaction, loadedGeneration));
+  }
+
+  /**
+   * Retrieves the decoded payloads of several transactions, loading those that are not already
+   * cached with a single call to the loader.
+   *
+   * @param hashes the hashes of the transactions
+   * @param loader retrieves the transactions with the given hashes from the database
+   * @return the decoded payloads of the transactions that could be found, by hash
+   */
+  public Map<MessageHash, EncodedPayload> getAll(
+      final Collection<MessageHash> hashes,
+      final Function<Collection<MessageHash>, List<EncryptedTransaction>> loader) {
+    final Map<MessageHash, EncodedPayload> found = new HashMap<>();
+    if (maxWeight == 0) {
+      loader.apply(hashes).forEach(t -> found.put(t.getHash(), decode(t)));
+      return found;
+    }
+
+    final List<MessageHash> missing = new ArrayList<>();
+    final long loadedGeneration;
+    synchronized (entries) {
+      for (MessageHash hash : hashes) {
+        final Entry entry = entries.get(hash);
+        if (entry == null) {
+          missing.add(hash);
+        } else {
+          found.put(hash, entry.payload);
+        }
+      }
+      loadedGeneration = generation;
+    }
+
+    hits.add(found.size());
+    misses.add(missing.size());
+
+    if (!missing.isEmpty()) {
+      loader.apply(missing).forEach(t -> found.put(t.getHash(), store(t, loadedGeneration)));
+    }
+    return found;
+  }
+
+  /**
+   * Decodes the payload of a transaction that has already been retrieved, reusing the cached
+   * payload if it was decoded from the same version of the transaction.
+   *
+   * <p>The decoded payload is not cached, since the transaction may have been changed since the
+   * caller retrieved it.
+   *
+   * @param transaction the retrieved transaction
+   * @return the decoded payload of the transaction
+   */
+  public EncodedPayload decode(final EncryptedTransaction transaction) {
+    if (maxWeight == 0) {
+      return decodeTransaction(transaction);
+    }
+
+    synchronized (entries) {
+      final Entry entry = entries.get(transaction.getHash());
+      if (entry != null && entry.version == transaction.getVersion()) {
+        hits.increment();
+        return entry.payload;
+      }
+    }
+
+    misses.increment();
+    return decodeTransaction(transaction);
+  }
+
+  /**
+   * Removes the payload of a transaction that has been updated or deleted, and stops any payload
+   * being loaded at the same time from being cached.
+   *
+   * @param hash the hash of the changed transaction
+   */
+  public void invalidate(final MessageHash hash) {
+    if (maxWeight == 0) {
+      return;
+    }
+    synchronized (entries) {
+      generation++;
+      final Entry removed = entries.remove(hash);
+      if (removed != null) {
+        weight -= removed.weight;
+        invalidations.increment();
+      }
+    }
+  }
+
+  /** Removes every cached payload. */
+  public void clear() {
+    synchronized (entries) {
+      generation++;
+      entries.clear();
+      weight = 0;
+    }
+  }
+
+  /**
+   * Exposes the metrics of this cache through {@link EncodedPayloadCacheMXBean}, registered as
+   * {@code com.quorum.tessera:type=Cache,name=<name>}.
+   */
+  public void register(final String name) {
+    final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+    try {
+      mBeanServer.registerMBean(this, new ObjectName("com.quorum.tessera:type=Cache,name=" + name));
+    } catch (JMException ex) {
+      LOGGER.warn("Unable to register metrics for cache {}: {}", name, ex.getMessage());
+    }
+  }
+
+  private EncodedPayload store(final EncryptedTransaction transaction, final long generation) {
+    final EncodedPayload payload = decodeTransaction(transaction);
+    final long entryWeight =
+        transaction.getEncodedPayload().length
+            + transaction.getAddedRecipientBoxes().stream()
+                .mapToLong(box -> box.getRecipientBox().length)
+                .sum();
+    if (entryWeight > maxWeight) {
+      return payload;
+    }
+
+    synchronized (entries) {
+      if (generation != this.generation || entries.containsKey(transaction.getHash())) {
+        return payload;
+      }
+      entries.put(
+          transaction.getHash(), new Entry(transaction.getVersion(), payload, entryWeight));
+      weight += entryWeight;
+
+      final Iterator<Entry> eldest = entries.values().iterator();
+      while (weight > maxWeight) {
+        weight -= eldest.next().weight;
+        eldest.remove();
+        evictions.increment();
+      }
+    }
+    return payload;
+  }
+
+  private EncodedPayload decodeTransaction(final EncryptedTransaction transaction) {
+    return EncryptedTransactionDecoder.decode(payloadEncoder, transaction);
+  }
+
+  @Override
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  @Override
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  @Override
+  public double getHitRate() {
+    final long hitCount = hits.sum();
+    final long lookups = hitCount + misses.sum();
+    return lookups == 0 ? 0 : hitCount / (double) lookups;
+  }
+
+  @Override
+  public long getEvictionCount() {
+    return evictions.sum();
+  }
+
+  @Override
+  public long getInvalidationCount() {
+    return invalidations.sum();
+  }
+
+  @Override
+  public int getSize() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  @Override
+  public long getWeight() {
+    synchronized (entries) {
+      return weight;
+    }
+  }
+
+  @Override
+  public long getMaxWeight() {
+    return maxWeight;
+  }
+
+  private static final class Entry {
+
+    private final long version;
+
+    private final EncodedPayload payload;
+
+    private final long weight;
+
+    private Entry(long version, EncodedPayload payload, long weight) {
+      this.version = version;
+      this.payload = payload;
+      this.weight = weight;
+    }
+  }
+}
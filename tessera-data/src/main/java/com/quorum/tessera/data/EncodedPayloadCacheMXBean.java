@@ -0,0 +1,27 @@
+package com.quorum.tessera.data;
+
+/** The metrics of an {@link EncodedPayloadCache}, as exposed over JMX */
+public interface EncodedPayloadCacheMXBean {
+
+  long getHitCount();
+
+  long getMissCount();
+
+  /** @return the fraction of lookups that were answered from memory, or 0 if there were none */
+  double getHitRate();
+
+  /** @return the number of payloads dropped to make room for more recently used ones */
+  long getEvictionCount();
+
+  /** @return the number of payloads dropped because their transaction was updated or deleted */
+  long getInvalidationCount();
+
+  /** @return the number of payloads currently cached */
+  int getSize();
+
+  /** @return the encoded size of all the payloads currently cached, in bytes */
+  long getWeight();
+
+  /** @return the most bytes of encoded payloads the cache will hold */
+  long getMaxWeight();
+}
@@ -1,6 +1,7 @@
 package com.quorum.tessera.data;
 
 import java.io.Serializable;
+import java.util.List;
 import java.util.Objects;
 import javax.persistence.*;
 
@@ -17,6 +18,19 @@ import javax.persistence.*;
   @NamedQuery(
       name = "EncryptedTransaction.FindAll",
       query = "select et from EncryptedTransaction et order by et.timestamp,et.hash"),
+  @NamedQuery(
+      name = "EncryptedTransaction.FindFirstByHash",
+      query = "select et from EncryptedTransaction et order by et.hash.hashBytes"),
+  @NamedQuery(
+      name = "EncryptedTransaction.FindAfterHash",
+      query =
+          "select et from EncryptedTransaction et where et.hash.hashBytes > :hash"
+              + " order by et.hash.hashBytes"),
+  @NamedQuery(
+      name = "EncryptedTransaction.IncrementVersion",
+      query =
+          "update EncryptedTransaction et set et.version = et.version + 1"
+              + " where et.hash.hashBytes = :hash and et.version = :version"),
   @NamedQuery(
       name = "EncryptedTransaction.Upcheck",
       query = "select count(c) from EncryptedTransaction c")
@@ -38,6 +52,13 @@ public class EncryptedTransaction implements Serializable {
   @Column(name = "TIMESTAMP", updatable = false)
   private long timestamp;
 
+  @Version
+  @Column(name = "VERSION", nullable = false)
+  private long version;
+
+  /** Boxes added since the payload was stored, in the order they were added */
+  @Transient private List<EncryptedTransactionBox> addedRecipientBoxes = List.of();
+
   public EncryptedTransaction(final MessageHash hash, final byte[] encodedPayload) {
     this.hash = hash;
     this.encodedPayload = encodedPayload;
@@ -70,6 +91,26 @@ public class EncryptedTransaction implements Serializable {
     return this.timestamp;
   }
 
+  public void setTimestamp(final long timestamp) {
+    this.timestamp = timestamp;
+  }
+
+  public long getVersion() {
+    return this.version;
+  }
+
+  public void setVersion(final long version) {
+    this.version = version;
+  }
+
+  public List<EncryptedTransactionBox> getAddedRecipientBoxes() {
+    return this.addedRecipientBoxes;
+  }
+
+  public void setAddedRecipientBoxes(final List<EncryptedTransactionBox> addedRecipientBoxes) {
+    this.addedRecipientBoxes = addedRecipientBoxes;
+  }
+
   @Override
   public int hashCode() {
     return 47 * 3 + Objects.hashCode(this.hash);
@@ -0,0 +1,103 @@
+package com.quorum.tessera.data;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import javax.persistence.*;
+
+/**
+ * The JPA entity for a recipient box that was added to an {@link EncryptedTransaction} after it
+ * was stored. Keeping the box in its own row means adding it doesn't rewrite the encoded payload,
+ * which may be megabytes long and holds the cipher text that every recipient shares.
+ *
+ * <p>Boxes are added to the stored payload in the order they arrived. The version of a box is the
+ * version the transaction was given when the box was added, so it is unique for the transaction.
+ */
+@NamedQueries({
+  @NamedQuery(
+      name = "EncryptedTransactionBox.FindByHashes",
+      query =
+          "select b from EncryptedTransactionBox b where b.hash in :hashes order by b.version"),
+  @NamedQuery(
+      name = "EncryptedTransactionBox.DeleteByHash",
+      query = "delete from EncryptedTransactionBox b where b.hash = :hash")
+})
+@Entity
+@IdClass(EncryptedTransactionBoxId.class)
+@Table(name = "ENCRYPTED_TRANSACTION_BOX")
+public class EncryptedTransactionBox implements Serializable {
+
+  @Id
+  @Column(name = "HASH", nullable = false, updatable = false)
+  private byte[] hash;
+
+  @Id
+  @Column(name = "VERSION", nullable = false, updatable = false)
+  private long version;
+
+  @Column(name = "RECIPIENT_KEY", updatable = false)
+  private byte[] recipientKey;
+
+  @Lob
+  @Column(name = "RECIPIENT_BOX", nullable = false, updatable = false)
+  private byte[] recipientBox;
+
+  public EncryptedTransactionBox(
+      final byte[] hash,
+      final long version,
+      final byte[] recipientKey,
+      final byte[] recipientBox) {
+    this.hash = hash;
+    this.version = version;
+    this.recipientKey = recipientKey;
+    this.recipientBox = recipientBox;
+  }
+
+  public EncryptedTransactionBox() {}
+
+  public byte[] getHash() {
+    return hash;
+  }
+
+  public void setHash(byte[] hash) {
+    this.hash = hash;
+  }
+
+  public long getVersion() {
+    return version;
+  }
+
+  public void setVersion(long version) {
+    this.version = version;
+  }
+
+  /** @return the recipient the box is for, or {@code null} if the payload doesn't list them */
+  public byte[] getRecipientKey() {
+    return recipientKey;
+  }
+
+  public void setRecipientKey(byte[] recipientKey) {
+    this.recipientKey = recipientKey;
+  }
+
+  public byte[] getRecipientBox() {
+    return recipientBox;
+  }
+
+  public void setRecipientBox(byte[] recipientBox) {
+    this.recipientBox = recipientBox;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (!(obj instanceof EncryptedTransactionBox)) {
+      return false;
+    }
+    final EncryptedTransactionBox other = (EncryptedTransactionBox) obj;
+    return Arrays.equals(hash, other.hash) && version == other.version;
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * Arrays.hashCode(hash) + Long.hashCode(version);
+  }
+}
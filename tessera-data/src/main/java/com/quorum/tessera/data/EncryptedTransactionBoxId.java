@@ -0,0 +1,41 @@
+package com.quorum.tessera.data;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/** The composite primary key of an {@link EncryptedTransactionBox} */
+public class EncryptedTransactionBoxId implements Serializable {
+
+  private byte[] hash;
+
+  private long version;
+
+  public EncryptedTransactionBoxId(final byte[] hash, final long version) {
+    this.hash = hash;
+    this.version = version;
+  }
+
+  public EncryptedTransactionBoxId() {}
+
+  public byte[] getHash() {
+    return hash;
+  }
+
+  public long getVersion() {
+    return version;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (!(obj instanceof EncryptedTransactionBoxId)) {
+      return false;
+    }
+    final EncryptedTransactionBoxId other = (EncryptedTransactionBoxId) obj;
+    return Arrays.equals(hash, other.hash) && version == other.version;
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * Arrays.hashCode(hash) + Long.hashCode(version);
+  }
+}
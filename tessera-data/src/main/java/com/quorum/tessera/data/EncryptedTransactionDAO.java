@@ -1,10 +1,14 @@
 package com.quorum.tessera.data;
 
+import com.quorum.tessera.enclave.EncodedPayload;
+import com.quorum.tessera.encryption.PublicKey;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.ServiceLoader;
 import java.util.concurrent.Callable;
+import java.util.stream.Stream;
 
 /** A data store for transactions that need to be retrieved later */
 public interface EncryptedTransactionDAO {
@@ -20,11 +24,38 @@ public interface EncryptedTransactionDAO {
   /**
    * Update an existing Encrypted Transaction All fields are required to be non-null on the entity
    *
+   * <p>The update only succeeds if the stored transaction has not been modified since the entity
+   * was retrieved, after which the version of the given entity is brought up to date.
+   *
    * @param entity The entity to be merged
    * @return The entity that was merged
+   * @throws javax.persistence.OptimisticLockException if the stored transaction was modified
+   *     concurrently
    */
   EncryptedTransaction update(EncryptedTransaction entity);
 
+  /**
+   * Add the box of another recipient to an existing Encrypted Transaction, ahead of the boxes it
+   * already has, as {@link com.quorum.tessera.enclave.PayloadEncoder#withRecipientBox} does.
+   *
+   * <p>Depending on how the data store is configured, the box is either encoded into the stored
+   * payload or stored alongside it, so that the payload doesn't need to be rewritten. Either way
+   * the box is part of the payload read back from {@link #decodePayload(EncryptedTransaction)}.
+   *
+   * <p>As with {@link #update(EncryptedTransaction)}, the box is only added if the stored
+   * transaction has not been modified since the entity was retrieved.
+   *
+   * @param entity the retrieved transaction to add the box to
+   * @param recipientKey the recipient the box is for, or {@code null} if the payload doesn't list
+   *     its recipients
+   * @param recipientBox the box to add
+   * @return the entity the box was added to
+   * @throws javax.persistence.OptimisticLockException if the stored transaction was modified
+   *     concurrently
+   */
+  EncryptedTransaction addRecipientBox(
+      EncryptedTransaction entity, PublicKey recipientKey, byte[] recipientBox);
+
   /**
    * Retrieve a transaction based on its hash
    *
@@ -41,6 +72,33 @@ public interface EncryptedTransactionDAO {
    */
   List<EncryptedTransaction> findByHashes(Collection<MessageHash> messageHashes);
 
+  /**
+   * Retrieve the decoded payload of a transaction based on its hash, without going to the
+   * database if it has been read recently
+   *
+   * @param hash the hash of the transaction to retrieve
+   * @return the decoded payload of the transaction with the given hash
+   */
+  Optional<EncodedPayload> retrievePayloadByHash(MessageHash hash);
+
+  /**
+   * Retrieve the decoded payloads of a collection of transactions, only going to the database for
+   * those that have not been read recently
+   *
+   * @param messageHashes the collection of hashes of the transactions to retrieve
+   * @return the decoded payloads of the transactions that were found, by hash
+   */
+  Map<MessageHash, EncodedPayload> findPayloadsByHashes(Collection<MessageHash> messageHashes);
+
+  /**
+   * Decode the payload of a transaction that has already been retrieved, reusing the payload read
+   * by {@link #retrievePayloadByHash(MessageHash)} if the transaction hasn't changed since
+   *
+   * @param transaction the retrieved transaction
+   * @return the decoded payload of the transaction
+   */
+  EncodedPayload decodePayload(EncryptedTransaction transaction);
+
   /**
    * Retrieves a list of transactions stored in the database
    *
@@ -50,6 +108,39 @@ public interface EncryptedTransactionDAO {
    */
   List<EncryptedTransaction> retrieveTransactions(int offset, int maxResult);
 
+  /**
+   * Retrieves a page of transactions in hash order, starting after the last transaction of the
+   * previous page rather than at an offset, so the database can seek straight to it using the
+   * primary key index
+   *
+   * @param lastHash the hash of the last transaction of the previous page, or {@code null} to
+   *     retrieve the first page
+   * @param maxResult the maximum number of records to return
+   * @return the transactions whose hash sorts after {@code lastHash}, in hash order
+   */
+  List<EncryptedTransaction> retrieveTransactionsAfter(MessageHash lastHash, int maxResult);
+
+  /**
+   * Streams every stored transaction in hash order, fetching each page with {@link
+   * #retrieveTransactionsAfter(MessageHash, int)} once the previous one has been consumed.
+   *
+   * <p>Transactions stored while the stream is being consumed never cause others to be skipped or
+   * returned twice, but are only returned if they sort after the current position.
+   *
+   * @param pageSize the number of records to fetch from the database at a time
+   * @return a lazily populated stream of all transactions
+   */
+  default Stream<EncryptedTransaction> streamTransactions(int pageSize) {
+    return Stream.iterate(
+            retrieveTransactionsAfter(null, pageSize),
+            page -> !page.isEmpty(),
+            page ->
+                page.size() < pageSize
+                    ? List.of()
+                    : retrieveTransactionsAfter(page.get(page.size() - 1).getHash(), pageSize))
+        .flatMap(List::stream);
+  }
+
   /**
    * Retrieve the total transaction count.
    *
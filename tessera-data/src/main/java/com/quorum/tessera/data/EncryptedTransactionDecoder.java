@@ -0,0 +1,30 @@
+package com.quorum.tessera.data;
+
+import com.quorum.tessera.enclave.EncodedPayload;
+import com.quorum.tessera.enclave.PayloadEncoder;
+import com.quorum.tessera.encryption.PublicKey;
+
+/**
+ * Decodes the full payload of a stored transaction, which may be split between its encoded payload
+ * and the recipient boxes added to it since it was stored.
+ */
+public final class EncryptedTransactionDecoder {
+
+  private EncryptedTransactionDecoder() {}
+
+  /**
+   * @param payloadEncoder decodes the stored payload and adds each box to it
+   * @param transaction the transaction, with any boxes added to it loaded
+   * @return the payload of the transaction, including its added boxes in the order they were added
+   */
+  public static EncodedPayload decode(
+      final PayloadEncoder payloadEncoder, final EncryptedTransaction transaction) {
+    EncodedPayload payload = payloadEncoder.decode(transaction.getEncodedPayload());
+    for (EncryptedTransactionBox box : transaction.getAddedRecipientBoxes()) {
+      final PublicKey recipient =
+          box.getRecipientKey() == null ? null : PublicKey.from(box.getRecipientKey());
+      payload = payloadEncoder.withRecipientBox(payload, recipient, box.getRecipientBox());
+    }
+    return payload;
+  }
+}
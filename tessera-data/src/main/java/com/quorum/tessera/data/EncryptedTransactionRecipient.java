@@ -0,0 +1,68 @@
+package com.quorum.tessera.data;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import javax.persistence.*;
+
+/**
+ * The JPA entity that records which locally managed public key is able to open a recipient box of
+ * an encrypted transaction, so the key does not need to be found by trial decryption.
+ */
+@NamedQueries({
+  @NamedQuery(
+      name = "EncryptedTransactionRecipient.FindByHash",
+      query = "select r from EncryptedTransactionRecipient r where r.hash = :hash"),
+  @NamedQuery(
+      name = "EncryptedTransactionRecipient.DeleteByHash",
+      query = "delete from EncryptedTransactionRecipient r where r.hash = :hash")
+})
+@Entity
+@IdClass(EncryptedTransactionRecipientId.class)
+@Table(name = "ENCRYPTED_TRANSACTION_RECIPIENT")
+public class EncryptedTransactionRecipient implements Serializable {
+
+  @Id
+  @Column(name = "HASH", nullable = false, updatable = false)
+  private byte[] hash;
+
+  @Id
+  @Column(name = "RECIPIENT_KEY", nullable = false, updatable = false)
+  private byte[] recipientKey;
+
+  public EncryptedTransactionRecipient(final byte[] hash, final byte[] recipientKey) {
+    this.hash = hash;
+    this.recipientKey = recipientKey;
+  }
+
+  public EncryptedTransactionRecipient() {}
+
+  public byte[] getHash() {
+    return hash;
+  }
+
+  public void setHash(byte[] hash) {
+    this.hash = hash;
+  }
+
+  public byte[] getRecipientKey() {
+    return recipientKey;
+  }
+
+  public void setRecipientKey(byte[] recipientKey) {
+    this.recipientKey = recipientKey;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (!(obj instanceof EncryptedTransactionRecipient)) {
+      return false;
+    }
+    final EncryptedTransactionRecipient other = (EncryptedTransactionRecipient) obj;
+    return Arrays.equals(hash, other.hash) && Arrays.equals(recipientKey, other.recipientKey);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * Arrays.hashCode(hash) + Arrays.hashCode(recipientKey);
+  }
+}
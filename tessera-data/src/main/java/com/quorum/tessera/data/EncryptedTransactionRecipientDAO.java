@@ -0,0 +1,45 @@
+package com.quorum.tessera.data;
+
+import com.quorum.tessera.encryption.PublicKey;
+import java.util.Collection;
+import java.util.List;
+import java.util.ServiceLoader;
+
+/**
+ * An index of which locally managed keys are able to open the recipient boxes of a stored
+ * transaction.
+ *
+ * <p>The index is an optimisation only. Callers must be able to fall back to finding the key by
+ * decryption if nothing has been recorded for a transaction, so failures to read or write the
+ * index are logged rather than propagated.
+ */
+public interface EncryptedTransactionRecipientDAO {
+
+  /**
+   * Record that the given local keys are able to open a recipient box of the transaction. Keys that
+   * have already been recorded for the transaction are ignored.
+   *
+   * @param hash the hash of the transaction
+   * @param recipientKeys the local keys that own a box of the transaction
+   */
+  void save(MessageHash hash, Collection<PublicKey> recipientKeys);
+
+  /**
+   * Retrieve the local keys that have been recorded for a transaction
+   *
+   * @param hash the hash of the transaction
+   * @return the recorded keys, or an empty list if none have been recorded
+   */
+  List<PublicKey> findRecipientKeys(MessageHash hash);
+
+  /**
+   * Removes all the keys recorded for a transaction
+   *
+   * @param hash the hash of the transaction
+   */
+  void delete(MessageHash hash);
+
+  static EncryptedTransactionRecipientDAO create() {
+    return ServiceLoader.load(EncryptedTransactionRecipientDAO.class).findFirst().get();
+  }
+}
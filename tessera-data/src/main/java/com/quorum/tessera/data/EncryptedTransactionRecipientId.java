@@ -0,0 +1,41 @@
+package com.quorum.tessera.data;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/** The composite primary key of an {@link EncryptedTransactionRecipient} */
+public class EncryptedTransactionRecipientId implements Serializable {
+
+  private byte[] hash;
+
+  private byte[] recipientKey;
+
+  public EncryptedTransactionRecipientId(final byte[] hash, final byte[] recipientKey) {
+    this.hash = hash;
+    this.recipientKey = recipientKey;
+  }
+
+  public EncryptedTransactionRecipientId() {}
+
+  public byte[] getHash() {
+    return hash;
+  }
+
+  public byte[] getRecipientKey() {
+    return recipientKey;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (!(obj instanceof EncryptedTransactionRecipientId)) {
+      return false;
+    }
+    final EncryptedTransactionRecipientId other = (EncryptedTransactionRecipientId) obj;
+    return Arrays.equals(hash, other.hash) && Arrays.equals(recipientKey, other.recipientKey);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * Arrays.hashCode(hash) + Arrays.hashCode(recipientKey);
+  }
+}
@@ -0,0 +1,42 @@
+package com.quorum.tessera.data;
+
+import java.util.function.Supplier;
+import javax.persistence.OptimisticLockException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs a read-modify-write of a stored transaction again when the version check on {@link
+ * EncryptedTransaction} shows another writer changed the row between the read and the write.
+ */
+public final class OptimisticLockRetry {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(OptimisticLockRetry.class);
+
+  public static final int MAX_ATTEMPTS = 3;
+
+  private OptimisticLockRetry() {}
+
+  /**
+   * Run the given action, retrying it up to {@link #MAX_ATTEMPTS} times in total while it fails
+   * with an {@link OptimisticLockException}
+   *
+   * @param transactionHash the hash of the transaction the action updates
+   * @param action the read-modify-write to run
+   * @param <T> the type of result the action produces
+   * @return the result of the first attempt to succeed
+   * @throws OptimisticLockException if the last attempt also lost to a concurrent writer
+   */
+  public static <T> T execute(MessageHash transactionHash, Supplier<T> action) {
+    for (int attempt = 1; ; attempt++) {
+      try {
+        return action.get();
+      } catch (OptimisticLockException ex) {
+        if (attempt == MAX_ATTEMPTS) {
+          throw ex;
+        }
+        LOGGER.debug("Transaction {} was modified concurrently, retrying", transactionHash);
+      }
+    }
+  }
+}
@@ -69,6 +69,32 @@ public interface PrivacyGroupDAO {
    */
   List<PrivacyGroupEntity> findByLookupId(byte[] lookupId);
 
+  /**
+   * Retrieve the privacy groups of a type that are in the given state
+   *
+   * @param type The privacy group type
+   * @param state The privacy group state
+   * @return A list of privacy group entities
+   */
+  List<PrivacyGroupEntity> findByTypeAndState(String type, String state);
+
+  /**
+   * Retrieve the privacy groups in the given state that have a key as a member
+   *
+   * @param member The member public key
+   * @param state The privacy group state
+   * @return A list of privacy group entities
+   */
+  List<PrivacyGroupEntity> findByMemberAndState(byte[] member, String state);
+
+  /**
+   * Retrieve the privacy groups that were stored before the type, state and members had their own
+   * columns, and so are only held in the encoded data
+   *
+   * @return A list of privacy group entities
+   */
+  List<PrivacyGroupEntity> findUnindexed();
+
   List<PrivacyGroupEntity> findAll();
 
   static PrivacyGroupDAO create() {
@@ -1,10 +1,17 @@
 package com.quorum.tessera.data;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import javax.persistence.*;
 
-/** The JPA entity that contains the privacy group information */
+/**
+ * The JPA entity that contains the privacy group information
+ *
+ * <p>The type, state and members of the group are held in their own (indexed) columns as well as
+ * in the encoded data, so that groups can be found by them without decoding every group.
+ */
 @NamedQueries({
   @NamedQuery(
       name = "PrivacyGroup.FindById",
@@ -12,12 +19,26 @@ import javax.persistence.*;
   @NamedQuery(
       name = "PrivacyGroup.FindByLookupId",
       query = "select pg from PrivacyGroupEntity pg WHERE pg.lookupId = :lookupId"),
+  @NamedQuery(
+      name = "PrivacyGroup.FindByTypeAndState",
+      query = "select pg from PrivacyGroupEntity pg WHERE pg.type = :type AND pg.state = :state"),
+  @NamedQuery(
+      name = "PrivacyGroup.FindByMemberAndState",
+      query =
+          "select pg from PrivacyGroupEntity pg JOIN pg.members m"
+              + " WHERE m = :member AND pg.state = :state"),
+  @NamedQuery(
+      name = "PrivacyGroup.FindUnindexed",
+      query = "select pg from PrivacyGroupEntity pg WHERE pg.type IS NULL"),
   @NamedQuery(name = "PrivacyGroup.FindAll", query = "select pg from PrivacyGroupEntity pg")
 })
 @Entity
 @Table(
     name = "PRIVACY_GROUP",
-    indexes = {@Index(name = "PRIVACY_GROUP_LOOKUPID", columnList = "LOOKUP_ID")})
+    indexes = {
+      @Index(name = "PRIVACY_GROUP_LOOKUPID", columnList = "LOOKUP_ID"),
+      @Index(name = "PRIVACY_GROUP_TYPE_STATE", columnList = "TYPE,STATE")
+    })
 public class PrivacyGroupEntity implements Serializable {
 
   @Id
@@ -35,6 +56,20 @@ public class PrivacyGroupEntity implements Serializable {
   @Column(name = "TIMESTAMP", updatable = false)
   private long timestamp;
 
+  @Column(name = "TYPE", length = 20)
+  private String type;
+
+  @Column(name = "STATE", length = 20)
+  private String state;
+
+  @ElementCollection
+  @CollectionTable(
+      name = "PRIVACY_GROUP_MEMBER",
+      joinColumns = @JoinColumn(name = "PRIVACY_GROUP_ID"),
+      indexes = {@Index(name = "PRIVACY_GROUP_MEMBER_KEY", columnList = "MEMBER_KEY")})
+  @Column(name = "MEMBER_KEY", nullable = false)
+  private List<byte[]> members = new ArrayList<>();
+
   public PrivacyGroupEntity(final byte[] id, final byte[] lookupId, final byte[] data) {
     this.id = id;
     this.lookupId = lookupId;
@@ -76,6 +111,30 @@ public class PrivacyGroupEntity implements Serializable {
     return timestamp;
   }
 
+  public String getType() {
+    return type;
+  }
+
+  public void setType(String type) {
+    this.type = type;
+  }
+
+  public String getState() {
+    return state;
+  }
+
+  public void setState(String state) {
+    this.state = state;
+  }
+
+  public List<byte[]> getMembers() {
+    return members;
+  }
+
+  public void setMembers(List<byte[]> members) {
+    this.members = members;
+  }
+
   @Override
   public boolean equals(Object obj) {
     return (obj instanceof PrivacyGroupEntity) && Arrays.equals(id, ((PrivacyGroupEntity) obj).id);
@@ -0,0 +1,19 @@
+package com.quorum.tessera.data.internal;
+
+import com.quorum.tessera.data.EncodedPayloadCache;
+import java.util.Optional;
+
+enum EncodedPayloadCacheHolder {
+  INSTANCE;
+
+  private EncodedPayloadCache encodedPayloadCache;
+
+  Optional<EncodedPayloadCache> getEncodedPayloadCache() {
+    return Optional.ofNullable(encodedPayloadCache);
+  }
+
+  EncodedPayloadCache store(EncodedPayloadCache encodedPayloadCache) {
+    this.encodedPayloadCache = encodedPayloadCache;
+    return encodedPayloadCache;
+  }
+}
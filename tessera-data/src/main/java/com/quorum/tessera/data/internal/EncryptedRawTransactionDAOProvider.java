@@ -20,7 +20,8 @@ public class EncryptedRawTransactionDAOProvider {
   public static EncryptedRawTransactionDAO provider() {
 
     Config config = ConfigFactory.create().getConfig();
-    final DataSource dataSource = DataSourceFactory.create().create(config.getJdbcConfig());
+    final DataSourceFactory dataSourceFactory = DataSourceFactory.create();
+    final DataSource dataSource = dataSourceFactory.create(config.getJdbcConfig());
 
     Map properties = new HashMap();
 
@@ -41,6 +42,13 @@ public class EncryptedRawTransactionDAOProvider {
         Persistence.createEntityManagerFactory("tessera", properties);
     LOGGER.debug("Created EntityManagerFactory from {}", properties);
 
-    return new EncryptedRawTransactionDAOImpl(entityManagerFactory);
+    final EncryptedRawTransactionDAO encryptedRawTransactionDAO =
+        new EncryptedRawTransactionDAOImpl(entityManagerFactory);
+
+    if (!config.getJdbcConfig().isDirectReads()) {
+      return encryptedRawTransactionDAO;
+    }
+    return new JdbcEncryptedRawTransactionDAO(
+        dataSourceFactory.createReadOnly(config.getJdbcConfig()), encryptedRawTransactionDAO);
   }
 }
@@ -1,14 +1,23 @@
 package com.quorum.tessera.data.internal;
 
+import com.quorum.tessera.data.EncodedPayloadCache;
 import com.quorum.tessera.data.EncryptedTransaction;
+import com.quorum.tessera.data.EncryptedTransactionBox;
 import com.quorum.tessera.data.EncryptedTransactionDAO;
 import com.quorum.tessera.data.EntityManagerTemplate;
 import com.quorum.tessera.data.MessageHash;
+import com.quorum.tessera.enclave.EncodedPayload;
+import com.quorum.tessera.enclave.PayloadEncoder;
+import com.quorum.tessera.encryption.PublicKey;
 import java.util.*;
 import java.util.concurrent.Callable;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.EntityNotFoundException;
+import javax.persistence.OptimisticLockException;
 import javax.persistence.PersistenceException;
+import javax.persistence.TypedQuery;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Root;
@@ -20,10 +29,59 @@ public class EncryptedTransactionDAOImpl implements EncryptedTransactionDAO {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(EncryptedTransactionDAOImpl.class);
 
+  private static final String FETCH_SIZE_HINT = "eclipselink.jdbc.fetch-size";
+
+  // some databases limit the number of values in an IN list, e.g. Oracle allows 1000
+  static final int MAX_HASHES_PER_QUERY = 500;
+
   private EntityManagerTemplate entityManagerTemplate;
 
+  private final PayloadEncoder payloadEncoder;
+
+  private final EncodedPayloadCache payloadCache;
+
+  private final boolean appendRecipientBoxes;
+
+  private final int fetchSize;
+
   public EncryptedTransactionDAOImpl(EntityManagerFactory entityManagerFactory) {
+    this(entityManagerFactory, PayloadEncoder.create());
+  }
+
+  public EncryptedTransactionDAOImpl(
+      EntityManagerFactory entityManagerFactory, PayloadEncoder payloadEncoder) {
+    this(entityManagerFactory, payloadEncoder, EncodedPayloadCache.disabled(payloadEncoder), false);
+  }
+
+  /**
+   * @param appendRecipientBoxes whether boxes added to a stored transaction are kept in their own
+   *     table rather than encoded into its payload
+   */
+  public EncryptedTransactionDAOImpl(
+      EntityManagerFactory entityManagerFactory,
+      PayloadEncoder payloadEncoder,
+      EncodedPayloadCache payloadCache,
+      boolean appendRecipientBoxes) {
+    this(entityManagerFactory, payloadEncoder, payloadCache, appendRecipientBoxes, 0);
+  }
+
+  /**
+   * @param appendRecipientBoxes whether boxes added to a stored transaction are kept in their own
+   *     table rather than encoded into its payload
+   * @param fetchSize the number of rows fetched from the database at a time when paging through
+   *     transactions, or 0 to fetch a whole page at once
+   */
+  public EncryptedTransactionDAOImpl(
+      EntityManagerFactory entityManagerFactory,
+      PayloadEncoder payloadEncoder,
+      EncodedPayloadCache payloadCache,
+      boolean appendRecipientBoxes,
+      int fetchSize) {
     this.entityManagerTemplate = new EntityManagerTemplate(entityManagerFactory);
+    this.payloadEncoder = Objects.requireNonNull(payloadEncoder);
+    this.payloadCache = Objects.requireNonNull(payloadCache);
+    this.appendRecipientBoxes = appendRecipientBoxes;
+    this.fetchSize = fetchSize;
   }
 
   @Override
@@ -38,24 +96,129 @@ public class EncryptedTransactionDAOImpl implements EncryptedTransactionDAO {
 
   @Override
   public EncryptedTransaction update(final EncryptedTransaction entity) {
+    try {
+      return entityManagerTemplate.execute(
+          entityManager -> {
+            final EncryptedTransaction merged = entityManager.merge(entity);
+            // flush so that a concurrent modification surfaces as an OptimisticLockException
+            entityManager.flush();
+            entity.setVersion(merged.getVersion());
+            LOGGER.debug("Updated transaction {}", entity.getHash());
+            return entity;
+          });
+    } finally {
+      payloadCache.invalidate(entity.getHash());
+    }
+  }
+
+  @Override
+  public EncryptedTransaction addRecipientBox(
+      final EncryptedTransaction entity, final PublicKey recipientKey, final byte[] recipientBox) {
+    if (!appendRecipientBoxes) {
+      final EncodedPayload payload =
+          payloadEncoder.withRecipientBox(decodePayload(entity), recipientKey, recipientBox);
+      entity.setEncodedPayload(payloadEncoder.encode(payload));
+      return update(entity);
+    }
+
+    final byte[] hashBytes = entity.getHash().getHashBytes();
+    final byte[] keyBytes = Objects.isNull(recipientKey) ? null : recipientKey.getKeyBytes();
+    try {
+      return entityManagerTemplate.execute(
+          entityManager -> {
+            // only the version of the transaction is written, which still stops another box being
+            // added to the same version concurrently
+            final int updated =
+                entityManager
+                    .createNamedQuery("EncryptedTransaction.IncrementVersion")
+                    .setParameter("hash", hashBytes)
+                    .setParameter("version", entity.getVersion())
+                    .executeUpdate();
+            if (updated == 0) {
+              throw new OptimisticLockException(entity);
+            }
+
+            final long version = entity.getVersion() + 1;
+            final EncryptedTransactionBox box =
+                new EncryptedTransactionBox(hashBytes, version, keyBytes, recipientBox);
+            entityManager.persist(box);
+
+            final List<EncryptedTransactionBox> boxes =
+                new ArrayList<>(entity.getAddedRecipientBoxes());
+            boxes.add(box);
+            entity.setAddedRecipientBoxes(boxes);
+            entity.setVersion(version);
+            LOGGER.debug("Added recipient box to transaction {}", entity.getHash());
+            return entity;
+          });
+    } finally {
+      payloadCache.invalidate(entity.getHash());
+    }
+  }
+
+  @Override
+  public Optional<EncryptedTransaction> retrieveByHash(final MessageHash hash) {
+    LOGGER.debug("Retrieving payload with hash {}", hash);
     return entityManagerTemplate.execute(
         entityManager -> {
-          entityManager.merge(entity);
-          LOGGER.debug("Updated transaction {}", entity.getHash());
-          return entity;
+          final Optional<EncryptedTransaction> transaction =
+              entityManager
+                  .createNamedQuery("EncryptedTransaction.FindByHash", EncryptedTransaction.class)
+                  .setParameter("hash", hash.getHashBytes())
+                  .getResultStream()
+                  .findAny();
+          transaction.ifPresent(t -> withAddedRecipientBoxes(entityManager, List.of(t)));
+          return transaction;
         });
   }
 
   @Override
-  public Optional<EncryptedTransaction> retrieveByHash(final MessageHash hash) {
-    LOGGER.debug("Retrieving payload with hash {}", hash);
+  public Optional<EncodedPayload> retrievePayloadByHash(final MessageHash hash) {
+    return payloadCache.get(hash, this::retrieveByHash);
+  }
+
+  @Override
+  public Map<MessageHash, EncodedPayload> findPayloadsByHashes(
+      final Collection<MessageHash> messageHashes) {
+    if (Objects.isNull(messageHashes) || messageHashes.isEmpty()) {
+      return Collections.emptyMap();
+    }
+    return payloadCache.getAll(messageHashes, this::findByHashes);
+  }
+
+  @Override
+  public EncodedPayload decodePayload(final EncryptedTransaction transaction) {
+    return payloadCache.decode(transaction);
+  }
+
+  @Override
+  public List<EncryptedTransaction> retrieveTransactionsAfter(
+      final MessageHash lastHash, final int maxResult) {
+    LOGGER.debug(
+        "Fetching batch(after:{},maxResult:{}) EncryptedTransaction database rows",
+        lastHash,
+        maxResult);
     return entityManagerTemplate.execute(
-        entityManager ->
-            entityManager
-                .createNamedQuery("EncryptedTransaction.FindByHash", EncryptedTransaction.class)
-                .setParameter("hash", hash.getHashBytes())
-                .getResultStream()
-                .findAny());
+        entityManager -> {
+          final TypedQuery<EncryptedTransaction> query;
+          if (lastHash == null) {
+            query =
+                entityManager.createNamedQuery(
+                    "EncryptedTransaction.FindFirstByHash", EncryptedTransaction.class);
+          } else {
+            query =
+                entityManager
+                    .createNamedQuery(
+                        "EncryptedTransaction.FindAfterHash", EncryptedTransaction.class)
+                    .setParameter("hash", lastHash.getHashBytes());
+          }
+          return withAddedRecipientBoxes(
+              entityManager,
+              query
+                  .setMaxResults(maxResult)
+                  .setHint(FETCH_SIZE_HINT, fetchSize > 0 ? fetchSize : maxResult)
+                  .getResultList());
+        });
   }
 
   @Override
@@ -66,11 +229,13 @@ public class EncryptedTransactionDAOImpl implements EncryptedTransactionDAO {
         maxResult);
     return entityManagerTemplate.execute(
         entityManager ->
-            entityManager
-                .createNamedQuery("EncryptedTransaction.FindAll", EncryptedTransaction.class)
-                .setFirstResult(offset)
-                .setMaxResults(maxResult)
-                .getResultList());
+            withAddedRecipientBoxes(
+                entityManager,
+                entityManager
+                    .createNamedQuery("EncryptedTransaction.FindAll", EncryptedTransaction.class)
+                    .setFirstResult(offset)
+                    .setMaxResults(maxResult)
+                    .getResultList()));
   }
 
   @Override
@@ -91,19 +256,30 @@ public class EncryptedTransactionDAOImpl implements EncryptedTransactionDAO {
 
     LOGGER.info("Deleting transaction with hash {}", hash);
 
-    entityManagerTemplate.execute(
-        entityManager -> {
-          final EncryptedTransaction message =
+    try {
+      entityManagerTemplate.execute(
+          entityManager -> {
+            final EncryptedTransaction message =
+                entityManager
+                    .createNamedQuery("EncryptedTransaction.FindByHash", EncryptedTransaction.class)
+                    .setParameter("hash", hash.getHashBytes())
+                    .getResultStream()
+                    .findAny()
+                    .orElseThrow(EntityNotFoundException::new);
+
+            if (appendRecipientBoxes) {
               entityManager
-                  .createNamedQuery("EncryptedTransaction.FindByHash", EncryptedTransaction.class)
+                  .createNamedQuery("EncryptedTransactionBox.DeleteByHash")
                   .setParameter("hash", hash.getHashBytes())
-                  .getResultStream()
-                  .findAny()
-                  .orElseThrow(EntityNotFoundException::new);
-
-          entityManager.remove(message);
-          return message;
-        });
+                  .executeUpdate();
+            }
+            entityManager.remove(message);
+            return message;
+          });
+    } finally {
+      // after the change is committed, so that it can't be cached again by a concurrent read
+      payloadCache.invalidate(hash);
+    }
   }
 
   @Override
@@ -154,9 +330,39 @@ public class EncryptedTransactionDAOImpl implements EncryptedTransactionDAO {
 
           Root<EncryptedTransaction> root = query.from(EncryptedTransaction.class);
 
-          return entityManager
-              .createQuery(query.select(root).where(root.get("hash").in(messageHashes)))
-              .getResultList();
+          return withAddedRecipientBoxes(
+              entityManager,
+              entityManager
+                  .createQuery(query.select(root).where(root.get("hash").in(messageHashes)))
+                  .getResultList());
         });
   }
+
+  // Boxes added to a transaction are kept apart from it, so are read alongside in one query
+  private List<EncryptedTransaction> withAddedRecipientBoxes(
+      final EntityManager entityManager, final List<EncryptedTransaction> transactions) {
+    if (!appendRecipientBoxes || transactions.isEmpty()) {
+      return transactions;
+    }
+
+    final List<byte[]> hashes =
+        transactions.stream().map(t -> t.getHash().getHashBytes()).collect(Collectors.toList());
+    final Map<MessageHash, List<EncryptedTransactionBox>> boxes = new HashMap<>();
+    for (int from = 0; from < hashes.size(); from += MAX_HASHES_PER_QUERY) {
+      final List<byte[]> chunk =
+          hashes.subList(from, Math.min(from + MAX_HASHES_PER_QUERY, hashes.size()));
+      entityManager
+          .createNamedQuery("EncryptedTransactionBox.FindByHashes", EncryptedTransactionBox.class)
+          .setParameter("hashes", chunk)
+          .getResultStream()
+          .forEach(
+              box ->
+                  boxes
+                      .computeIfAbsent(new MessageHash(box.getHash()), h -> new ArrayList<>())
+                      .add(box));
+    }
+
+    transactions.forEach(t -> t.setAddedRecipientBoxes(boxes.getOrDefault(t.getHash(), List.of())));
+    return transactions;
+  }
 }
@@ -3,7 +3,9 @@ package com.quorum.tessera.data.internal;
 import com.quorum.tessera.config.Config;
 import com.quorum.tessera.config.ConfigFactory;
 import com.quorum.tessera.data.DataSourceFactory;
+import com.quorum.tessera.data.EncodedPayloadCache;
 import com.quorum.tessera.data.EncryptedTransactionDAO;
+import com.quorum.tessera.enclave.PayloadEncoder;
 import java.util.HashMap;
 import java.util.Map;
 import javax.persistence.EntityManagerFactory;
@@ -21,7 +23,8 @@ public class EncryptedTransactionDAOProvider {
 
     Config config = ConfigFactory.create().getConfig();
 
-    final DataSource dataSource = DataSourceFactory.create().create(config.getJdbcConfig());
+    final DataSourceFactory dataSourceFactory = DataSourceFactory.create();
+    final DataSource dataSource = dataSourceFactory.create(config.getJdbcConfig());
 
     Map properties = new HashMap();
 
@@ -42,6 +45,40 @@ public class EncryptedTransactionDAOProvider {
         Persistence.createEntityManagerFactory("tessera", properties);
     LOGGER.debug("Created EntityManagerFactory from {}", properties);
 
-    return new EncryptedTransactionDAOImpl(entityManagerFactory);
+    final PayloadEncoder payloadEncoder = PayloadEncoder.create();
+
+    // every DAO shares the one cache, so that an update made through one is seen by all the others
+    final EncodedPayloadCacheHolder cacheHolder = EncodedPayloadCacheHolder.INSTANCE;
+    final EncodedPayloadCache payloadCache;
+    synchronized (cacheHolder) {
+      payloadCache =
+          cacheHolder
+              .getEncodedPayloadCache()
+              .orElseGet(
+                  () -> {
+                    final EncodedPayloadCache created =
+                        EncodedPayloadCache.from(payloadEncoder, config.getJdbcConfig());
+                    created.register("encoded-payloads");
+                    return cacheHolder.store(created);
+                  });
+    }
+
+    final boolean appendRecipientBoxes = config.getJdbcConfig().isAppendRecipientBoxes();
+    final EncryptedTransactionDAO encryptedTransactionDAO =
+        new EncryptedTransactionDAOImpl(
+            entityManagerFactory,
+            payloadEncoder,
+            payloadCache,
+            appendRecipientBoxes,
+            config.getJdbcConfig().getFetchSize());
+
+    if (!config.getJdbcConfig().isDirectReads()) {
+      return encryptedTransactionDAO;
+    }
+    return new JdbcEncryptedTransactionDAO(
+        dataSourceFactory.createReadOnly(config.getJdbcConfig()),
+        encryptedTransactionDAO,
+        payloadCache,
+        appendRecipientBoxes);
   }
 }
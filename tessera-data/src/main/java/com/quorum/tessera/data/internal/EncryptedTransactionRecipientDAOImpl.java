@@ -0,0 +1,90 @@
+package com.quorum.tessera.data.internal;
+
+import com.quorum.tessera.data.EncryptedTransactionRecipient;
+import com.quorum.tessera.data.EncryptedTransactionRecipientDAO;
+import com.quorum.tessera.data.EncryptedTransactionRecipientId;
+import com.quorum.tessera.data.EntityManagerTemplate;
+import com.quorum.tessera.data.MessageHash;
+import com.quorum.tessera.encryption.PublicKey;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/** A JPA implementation of {@link EncryptedTransactionRecipientDAO} */
+public class EncryptedTransactionRecipientDAOImpl implements EncryptedTransactionRecipientDAO {
+
+  private static final Logger LOGGER =
+      LoggerFactory.getLogger(EncryptedTransactionRecipientDAOImpl.class);
+
+  private final EntityManagerTemplate entityManagerTemplate;
+
+  public EncryptedTransactionRecipientDAOImpl(EntityManagerFactory entityManagerFactory) {
+    this.entityManagerTemplate = new EntityManagerTemplate(entityManagerFactory);
+  }
+
+  @Override
+  public void save(final MessageHash hash, final Collection<PublicKey> recipientKeys) {
+    if (recipientKeys.isEmpty()) {
+      return;
+    }
+    final byte[] hashBytes = hash.getHashBytes();
+    try {
+      entityManagerTemplate.execute(
+          entityManager -> {
+            for (PublicKey recipientKey : recipientKeys) {
+              final byte[] keyBytes = recipientKey.getKeyBytes();
+              final EncryptedTransactionRecipientId id =
+                  new EncryptedTransactionRecipientId(hashBytes, keyBytes);
+              if (entityManager.find(EncryptedTransactionRecipient.class, id) == null) {
+                entityManager.persist(new EncryptedTransactionRecipient(hashBytes, keyBytes));
+              }
+            }
+            return null;
+          });
+      LOGGER.debug("Stored {} recipient keys for transaction {}", recipientKeys.size(), hash);
+    } catch (PersistenceException ex) {
+      LOGGER.warn("Unable to store recipient keys for transaction {}. {}", hash, ex.getMessage());
+      LOGGER.debug("", ex);
+    }
+  }
+
+  @Override
+  public List<PublicKey> findRecipientKeys(final MessageHash hash) {
+    try {
+      return entityManagerTemplate.execute(
+          entityManager ->
+              entityManager
+                  .createNamedQuery(
+                      "EncryptedTransactionRecipient.FindByHash",
+                      EncryptedTransactionRecipient.class)
+                  .setParameter("hash", hash.getHashBytes())
+                  .getResultStream()
+                  .map(EncryptedTransactionRecipient::getRecipientKey)
+                  .map(PublicKey::from)
+                  .collect(Collectors.toList()));
+    } catch (PersistenceException ex) {
+      LOGGER.warn("Unable to find recipient keys for transaction {}. {}", hash, ex.getMessage());
+      LOGGER.debug("", ex);
+      return List.of();
+    }
+  }
+
+  @Override
+  public void delete(final MessageHash hash) {
+    try {
+      entityManagerTemplate.execute(
+          entityManager ->
+              entityManager
+                  .createNamedQuery("EncryptedTransactionRecipient.DeleteByHash")
+                  .setParameter("hash", hash.getHashBytes())
+                  .executeUpdate());
+    } catch (PersistenceException ex) {
+      LOGGER.warn("Unable to delete recipient keys for transaction {}. {}", hash, ex.getMessage());
+      LOGGER.debug("", ex);
+    }
+  }
+}
@@ -12,12 +12,38 @@ public enum HikariDataSourceFactory implements DataSourceFactory {
 
   private DataSource dataSource;
 
+  private DataSource readOnlyDataSource;
+
   @Override
   public DataSource create(JdbcConfig config) {
     if (dataSource != null) {
       return dataSource;
     }
 
+    dataSource = new HikariDataSource(hikariConfig(config));
+
+    return dataSource;
+  }
+
+  @Override
+  public DataSource createReadOnly(JdbcConfig config) {
+    if (readOnlyDataSource != null) {
+      return readOnlyDataSource;
+    }
+
+    // a pool of its own, so connections never need switching in and out of read-only mode
+    final HikariConfig hikariConfig = hikariConfig(config);
+    hikariConfig.setPoolName("tessera-read-only");
+    // the SQLite driver can only be made read-only before a connection is opened
+    hikariConfig.setReadOnly(!hikariConfig.getJdbcUrl().startsWith("jdbc:sqlite:"));
+    hikariConfig.setAutoCommit(true);
+
+    readOnlyDataSource = new HikariDataSource(hikariConfig);
+
+    return readOnlyDataSource;
+  }
+
+  private static HikariConfig hikariConfig(JdbcConfig config) {
     final EncryptedStringResolver resolver = new EncryptedStringResolver();
     String url = resolver.resolve(config.getUrl());
 
@@ -25,13 +51,11 @@ public enum HikariDataSourceFactory implements DataSourceFactory {
     hikariConfig.setJdbcUrl(url);
     hikariConfig.setUsername(config.getUsername());
     hikariConfig.setPassword(config.getPassword());
-
-    dataSource = new HikariDataSource(hikariConfig);
-
-    return dataSource;
+    return hikariConfig;
   }
 
   protected void clear() {
     dataSource = null;
+    readOnlyDataSource = null;
   }
 }
@@ -0,0 +1,107 @@
+package com.quorum.tessera.data.internal;
+
+import com.quorum.tessera.data.EncryptedRawTransaction;
+import com.quorum.tessera.data.EncryptedRawTransactionDAO;
+import com.quorum.tessera.data.MessageHash;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import javax.persistence.PersistenceException;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An {@link EncryptedRawTransactionDAO} that looks transactions up by hash with plain JDBC, on
+ * read-only connections that commit automatically, and leaves everything else to the JPA
+ * implementation it wraps.
+ *
+ * @see JdbcEncryptedTransactionDAO
+ */
+public class JdbcEncryptedRawTransactionDAO implements EncryptedRawTransactionDAO {
+
+  private static final Logger LOGGER =
+      LoggerFactory.getLogger(JdbcEncryptedRawTransactionDAO.class);
+
+  static final String FIND_BY_HASH =
+      "SELECT ENCRYPTED_PAYLOAD, ENCRYPTED_KEY, NONCE, SENDER, TIMESTAMP"
+          + " FROM ENCRYPTED_RAW_TRANSACTION WHERE HASH = ?";
+
+  static final String UPCHECK = "SELECT 1 FROM ENCRYPTED_RAW_TRANSACTION WHERE 1 = 0";
+
+  private final DataSource dataSource;
+
+  private final EncryptedRawTransactionDAO delegate;
+
+  /**
+   * @param dataSource a data source of read-only connections that commit automatically
+   * @param delegate the DAO everything but lookups by hash is left to
+   */
+  public JdbcEncryptedRawTransactionDAO(
+      DataSource dataSource, EncryptedRawTransactionDAO delegate) {
+    this.dataSource = Objects.requireNonNull(dataSource);
+    this.delegate = Objects.requireNonNull(delegate);
+  }
+
+  @Override
+  public EncryptedRawTransaction save(final EncryptedRawTransaction entity) {
+    return delegate.save(entity);
+  }
+
+  @Override
+  public Optional<EncryptedRawTransaction> retrieveByHash(final MessageHash hash) {
+    LOGGER.debug("Retrieving payload with hash {}", hash);
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(FIND_BY_HASH)) {
+      statement.setBytes(1, hash.getHashBytes());
+      try (ResultSet resultSet = statement.executeQuery()) {
+        if (!resultSet.next()) {
+          return Optional.empty();
+        }
+        final EncryptedRawTransaction transaction =
+            new EncryptedRawTransaction(
+                hash,
+                resultSet.getBytes(1),
+                resultSet.getBytes(2),
+                resultSet.getBytes(3),
+                resultSet.getBytes(4));
+        transaction.setTimestamp(resultSet.getLong(5));
+        return Optional.of(transaction);
+      }
+    } catch (SQLException ex) {
+      throw new PersistenceException(ex);
+    }
+  }
+
+  @Override
+  public void delete(final MessageHash hash) {
+    delegate.delete(hash);
+  }
+
+  @Override
+  public boolean upcheck() {
+    // if query succeeds then DB is up and running (else get exception)
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(UPCHECK)) {
+      statement.executeQuery().close();
+      return true;
+    } catch (SQLException ex) {
+      LOGGER.debug("Upcheck failed", ex);
+      return false;
+    }
+  }
+
+  @Override
+  public long transactionCount() {
+    return delegate.transactionCount();
+  }
+
+  @Override
+  public List<EncryptedRawTransaction> retrieveTransactions(final int offset, final int maxResult) {
+    return delegate.retrieveTransactions(offset, maxResult);
+  }
+}
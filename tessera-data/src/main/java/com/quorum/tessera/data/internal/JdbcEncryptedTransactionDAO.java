@@ -0,0 +1,196 @@
+package com.quorum.tessera.data.internal;
+
+import com.quorum.tessera.data.EncodedPayloadCache;
+import com.quorum.tessera.data.EncryptedTransaction;
+import com.quorum.tessera.data.EncryptedTransactionBox;
+import com.quorum.tessera.data.EncryptedTransactionDAO;
+import com.quorum.tessera.data.MessageHash;
+import com.quorum.tessera.enclave.EncodedPayload;
+import com.quorum.tessera.encryption.PublicKey;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import javax.persistence.PersistenceException;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An {@link EncryptedTransactionDAO} that looks transactions up by hash with plain JDBC, and
+ * leaves everything else to the JPA implementation it wraps.
+ *
+ * <p>Looking a transaction up through JPA begins and commits a transaction and builds a managed
+ * entity around a copy of the payload, which is a large share of the cost of a receive. Here the
+ * lookup is a single query on a read-only connection that commits automatically, and the payload
+ * bytes are handed to the decoder as read. The queries are prepared from constant SQL, so that
+ * drivers which cache prepared statements reuse them.
+ */
+public class JdbcEncryptedTransactionDAO implements EncryptedTransactionDAO {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(JdbcEncryptedTransactionDAO.class);
+
+  static final String FIND_BY_HASH =
+      "SELECT ENCODED_PAYLOAD, TIMESTAMP, VERSION FROM ENCRYPTED_TRANSACTION WHERE HASH = ?";
+
+  // boxes added after the transaction was read are left out, as its version won't count them
+  static final String FIND_BOXES_BY_HASH =
+      "SELECT VERSION, RECIPIENT_KEY, RECIPIENT_BOX FROM ENCRYPTED_TRANSACTION_BOX"
+          + " WHERE HASH = ? AND VERSION <= ? ORDER BY VERSION";
+
+  static final String UPCHECK = "SELECT 1 FROM ENCRYPTED_TRANSACTION WHERE 1 = 0";
+
+  private final DataSource dataSource;
+
+  private final EncryptedTransactionDAO delegate;
+
+  private final EncodedPayloadCache payloadCache;
+
+  private final boolean appendRecipientBoxes;
+
+  /**
+   * @param dataSource a data source of read-only connections that commit automatically
+   * @param delegate the DAO everything but lookups by hash is left to
+   * @param payloadCache the cache that the delegate shares
+   * @param appendRecipientBoxes whether boxes added to a stored transaction are kept in their own
+   *     table rather than encoded into its payload
+   */
+  public JdbcEncryptedTransactionDAO(
+      DataSource dataSource,
+      EncryptedTransactionDAO delegate,
+      EncodedPayloadCache payloadCache,
+      boolean appendRecipientBoxes) {
+    this.dataSource = Objects.requireNonNull(dataSource);
+    this.delegate = Objects.requireNonNull(delegate);
+    this.payloadCache = Objects.requireNonNull(payloadCache);
+    this.appendRecipientBoxes = appendRecipientBoxes;
+  }
+
+  @Override
+  public EncryptedTransaction save(final EncryptedTransaction entity) {
+    return delegate.save(entity);
+  }
+
+  @Override
+  public EncryptedTransaction update(final EncryptedTransaction entity) {
+    return delegate.update(entity);
+  }
+
+  @Override
+  public EncryptedTransaction addRecipientBox(
+      final EncryptedTransaction entity, final PublicKey recipientKey, final byte[] recipientBox) {
+    return delegate.addRecipientBox(entity, recipientKey, recipientBox);
+  }
+
+  @Override
+  public Optional<EncryptedTransaction> retrieveByHash(final MessageHash hash) {
+    LOGGER.debug("Retrieving payload with hash {}", hash);
+    try (Connection connection = dataSource.getConnection()) {
+      final EncryptedTransaction transaction;
+      try (PreparedStatement statement = connection.prepareStatement(FIND_BY_HASH)) {
+        statement.setBytes(1, hash.getHashBytes());
+        try (ResultSet resultSet = statement.executeQuery()) {
+          if (!resultSet.next()) {
+            return Optional.empty();
+          }
+          transaction = new EncryptedTransaction(hash, resultSet.getBytes(1));
+          transaction.setTimestamp(resultSet.getLong(2));
+          transaction.setVersion(resultSet.getLong(3));
+        }
+      }
+
+      if (appendRecipientBoxes) {
+        transaction.setAddedRecipientBoxes(findAddedRecipientBoxes(connection, transaction));
+      }
+      return Optional.of(transaction);
+    } catch (SQLException ex) {
+      throw new PersistenceException(ex);
+    }
+  }
+
+  @Override
+  public List<EncryptedTransaction> findByHashes(final Collection<MessageHash> messageHashes) {
+    return delegate.findByHashes(messageHashes);
+  }
+
+  @Override
+  public Optional<EncodedPayload> retrievePayloadByHash(final MessageHash hash) {
+    return payloadCache.get(hash, this::retrieveByHash);
+  }
+
+  @Override
+  public Map<MessageHash, EncodedPayload> findPayloadsByHashes(
+      final Collection<MessageHash> messageHashes) {
+    return delegate.findPayloadsByHashes(messageHashes);
+  }
+
+  @Override
+  public EncodedPayload decodePayload(final EncryptedTransaction transaction) {
+    return payloadCache.decode(transaction);
+  }
+
+  @Override
+  public List<EncryptedTransaction> retrieveTransactions(final int offset, final int maxResult) {
+    return delegate.retrieveTransactions(offset, maxResult);
+  }
+
+  @Override
+  public List<EncryptedTransaction> retrieveTransactionsAfter(
+      final MessageHash lastHash, final int maxResult) {
+    return delegate.retrieveTransactionsAfter(lastHash, maxResult);
+  }
+
+  @Override
+  public long transactionCount() {
+    return delegate.transactionCount();
+  }
+
+  @Override
+  public void delete(final MessageHash hash) {
+    delegate.delete(hash);
+  }
+
+  @Override
+  public <T> EncryptedTransaction save(
+      final EncryptedTransaction transaction, final Callable<T> consumer) {
+    return delegate.save(transaction, consumer);
+  }
+
+  @Override
+  public boolean upcheck() {
+    // if query succeeds then DB is up and running (else get exception)
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(UPCHECK)) {
+      statement.executeQuery().close();
+      return true;
+    } catch (SQLException ex) {
+      LOGGER.debug("Upcheck failed", ex);
+      return false;
+    }
+  }
+
+  private static List<EncryptedTransactionBox> findAddedRecipientBoxes(
+      final Connection connection, final EncryptedTransaction transaction) throws SQLException {
+    final byte[] hashBytes = transaction.getHash().getHashBytes();
+    try (PreparedStatement statement = connection.prepareStatement(FIND_BOXES_BY_HASH)) {
+      statement.setBytes(1, hashBytes);
+      statement.setLong(2, transaction.getVersion());
+      try (ResultSet resultSet = statement.executeQuery()) {
+        final List<EncryptedTransactionBox> boxes = new ArrayList<>();
+        while (resultSet.next()) {
+          boxes.add(
+              new EncryptedTransactionBox(
+                  hashBytes, resultSet.getLong(1), resultSet.getBytes(2), resultSet.getBytes(3)));
+        }
+        return boxes;
+      }
+    }
+  }
+}
@@ -98,6 +98,37 @@ public class PrivacyGroupDAOImpl implements PrivacyGroupDAO {
                 .collect(Collectors.toList()));
   }
 
+  @Override
+  public List<PrivacyGroupEntity> findByTypeAndState(String type, String state) {
+    return entityManagerTemplate.execute(
+        entityManager ->
+            entityManager
+                .createNamedQuery("PrivacyGroup.FindByTypeAndState", PrivacyGroupEntity.class)
+                .setParameter("type", type)
+                .setParameter("state", state)
+                .getResultList());
+  }
+
+  @Override
+  public List<PrivacyGroupEntity> findByMemberAndState(byte[] member, String state) {
+    return entityManagerTemplate.execute(
+        entityManager ->
+            entityManager
+                .createNamedQuery("PrivacyGroup.FindByMemberAndState", PrivacyGroupEntity.class)
+                .setParameter("member", member)
+                .setParameter("state", state)
+                .getResultList());
+  }
+
+  @Override
+  public List<PrivacyGroupEntity> findUnindexed() {
+    return entityManagerTemplate.execute(
+        entityManager ->
+            entityManager
+                .createNamedQuery("PrivacyGroup.FindUnindexed", PrivacyGroupEntity.class)
+                .getResultList());
+  }
+
   @Override
   public List<PrivacyGroupEntity> findAll() {
     return entityManagerTemplate.execute(
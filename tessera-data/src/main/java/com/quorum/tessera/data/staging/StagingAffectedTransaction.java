@@ -6,6 +6,14 @@ import javax.validation.constraints.NotNull;
 
 @Entity
 @Table(name = "ST_AFFECTED_TRANSACTION")
+@NamedQueries({
+  @NamedQuery(
+      name = "StagingAffectedTransaction.countAll",
+      query = "select count(act) from StagingAffectedTransaction act"),
+  @NamedQuery(
+      name = "StagingAffectedTransaction.findAllHashes",
+      query = "select act.sourceTransaction.id, act.hash from StagingAffectedTransaction act")
+})
 public class StagingAffectedTransaction {
 
   @Id
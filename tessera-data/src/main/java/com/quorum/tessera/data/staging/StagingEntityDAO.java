@@ -1,7 +1,9 @@
 package com.quorum.tessera.data.staging;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalInt;
 import java.util.ServiceLoader;
 
 /** A data store for transactions that need to be retrieved later */
@@ -15,6 +17,15 @@ public interface StagingEntityDAO {
    */
   StagingTransaction save(StagingTransaction entity);
 
+  /**
+   * Save a batch of new transactions, along with the transactions they affect, in a single
+   * database transaction
+   *
+   * @param entities The entities to be persisted
+   * @return number of entities that were persisted
+   */
+  int saveAll(Collection<StagingTransaction> entities);
+
   /**
    * Update an Encrypted Transaction All fields are required to be non-null on the entity
    *
@@ -59,6 +70,16 @@ public interface StagingEntityDAO {
    */
   int updateStageForBatch(int batchSize, long validationStage);
 
+  /**
+   * Stage every transaction in one pass, by loading the dependencies between transactions into
+   * memory rather than repeatedly querying for the transactions that are ready to be staged.
+   *
+   * @param memoryBudget the most memory, in bytes, that the dependencies may take up
+   * @return number of records that have been staged, or empty if the dependencies would not fit in
+   *     the memory budget, in which case nothing is staged
+   */
+  OptionalInt stageAll(long memoryBudget);
+
   static StagingEntityDAO create() {
     return ServiceLoader.load(StagingEntityDAO.class).findFirst().get();
   }
@@ -27,6 +27,10 @@ import javax.persistence.*;
   @NamedQuery(
       name = "StagingTransaction.countStaged",
       query = "select count(st) from StagingTransaction st where st.validationStage is not null"),
+  @NamedQuery(
+      name = "StagingTransaction.findAllStages",
+      query =
+          "select st.id, st.hash, st.validationStage from StagingTransaction st order by st.id"),
   @NamedQuery(
       name = "StagingTransaction.findAllOrderByStage",
       query =
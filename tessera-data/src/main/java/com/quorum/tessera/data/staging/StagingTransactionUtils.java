@@ -4,6 +4,8 @@ import com.quorum.tessera.enclave.EncodedPayload;
 import com.quorum.tessera.enclave.PayloadDigest;
 import com.quorum.tessera.enclave.PayloadEncoder;
 import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -12,17 +14,34 @@ public class StagingTransactionUtils {
 
   private final PayloadDigest payloadDigest;
 
-  private StagingTransactionUtils(PayloadDigest payloadDigest) {
+  private final PayloadEncoder payloadEncoder;
+
+  private StagingTransactionUtils(PayloadDigest payloadDigest, PayloadEncoder payloadEncoder) {
     this.payloadDigest = Objects.requireNonNull(payloadDigest);
+    this.payloadEncoder = Objects.requireNonNull(payloadEncoder);
   }
 
   public static StagingTransaction fromRawPayload(byte[] rawPayload) {
-    PayloadDigest payloadDigest = PayloadDigest.create();
-    return new StagingTransactionUtils(payloadDigest).createFromRawPayload(rawPayload);
+    return create().createFromRawPayload(rawPayload);
+  }
+
+  /**
+   * Convert a batch of raw payloads, looking up the digest and encoder once for the whole batch
+   *
+   * @param rawPayloads the encoded payloads
+   * @return a staging transaction for each payload, in the same order
+   */
+  public static List<StagingTransaction> fromRawPayloads(Collection<byte[]> rawPayloads) {
+    final StagingTransactionUtils utils = create();
+    return rawPayloads.stream().map(utils::createFromRawPayload).collect(Collectors.toList());
+  }
+
+  private static StagingTransactionUtils create() {
+    return new StagingTransactionUtils(PayloadDigest.create(), PayloadEncoder.create());
   }
 
   private StagingTransaction createFromRawPayload(byte[] rawPayload) {
-    final EncodedPayload encodedPayload = PayloadEncoder.create().decode(rawPayload);
+    final EncodedPayload encodedPayload = payloadEncoder.decode(rawPayload);
     final byte[] messageHashData = payloadDigest.digest(encodedPayload.getCipherText());
     final String messageHash = Base64.getEncoder().encodeToString(messageHashData);
 
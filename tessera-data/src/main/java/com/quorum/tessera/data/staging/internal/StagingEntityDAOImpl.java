@@ -3,9 +3,15 @@ package com.quorum.tessera.data.staging.internal;
 import com.quorum.tessera.data.EntityManagerTemplate;
 import com.quorum.tessera.data.staging.StagingEntityDAO;
 import com.quorum.tessera.data.staging.StagingTransaction;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalInt;
 import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceException;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Root;
@@ -17,10 +23,22 @@ public class StagingEntityDAOImpl implements StagingEntityDAO {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(StagingEntityDAOImpl.class);
 
+  private static final String UPDATE_STAGE_SQL =
+      "UPDATE ST_TRANSACTION SET VALIDATION_STAGE = ? WHERE ID = ?";
+
+  static final int DEFAULT_JDBC_BATCH_SIZE = 1000;
+
   private EntityManagerTemplate entityManagerTemplate;
 
+  private final int jdbcBatchSize;
+
   public StagingEntityDAOImpl(EntityManagerFactory entityManagerFactory) {
+    this(entityManagerFactory, DEFAULT_JDBC_BATCH_SIZE);
+  }
+
+  StagingEntityDAOImpl(EntityManagerFactory entityManagerFactory, int jdbcBatchSize) {
     this.entityManagerTemplate = new EntityManagerTemplate(entityManagerFactory);
+    this.jdbcBatchSize = jdbcBatchSize;
   }
 
   @Override
@@ -35,6 +53,28 @@ public class StagingEntityDAOImpl implements StagingEntityDAO {
         });
   }
 
+  @Override
+  public int saveAll(final Collection<StagingTransaction> entities) {
+    return entityManagerTemplate.execute(
+        entityManager -> {
+          int persisted = 0;
+          for (StagingTransaction entity : entities) {
+            entityManager.persist(entity);
+
+            // write out each full JDBC batch and stop tracking it, so that a large batch does not
+            // build up in the persistence context
+            if (++persisted % jdbcBatchSize == 0) {
+              entityManager.flush();
+              entityManager.clear();
+            }
+          }
+
+          LOGGER.debug("Persisting {} StagingTransaction entities", persisted);
+
+          return persisted;
+        });
+  }
+
   @Override
   public StagingTransaction update(StagingTransaction entity) {
 
@@ -107,4 +147,70 @@ public class StagingEntityDAOImpl implements StagingEntityDAO {
           return resultList.size();
         });
   }
+
+  @Override
+  public OptionalInt stageAll(long memoryBudget) {
+
+    return entityManagerTemplate.execute(
+        entityManager -> {
+          final long transactionCount =
+              entityManager
+                  .createNamedQuery("StagingTransaction.countAll", Long.class)
+                  .getSingleResult();
+          final long affectedTransactionCount =
+              entityManager
+                  .createNamedQuery("StagingAffectedTransaction.countAll", Long.class)
+                  .getSingleResult();
+
+          final long graphSize =
+              StagingGraph.estimateSize(transactionCount, affectedTransactionCount);
+          if (graphSize > memoryBudget) {
+            LOGGER.info(
+                "Staging graph of {} transactions needs about {} bytes, over the budget of {}",
+                transactionCount,
+                graphSize,
+                memoryBudget);
+            return OptionalInt.empty();
+          }
+
+          final List<Object[]> transactions =
+              entityManager
+                  .createNamedQuery("StagingTransaction.findAllStages", Object[].class)
+                  .getResultList();
+          final List<Object[]> affectedTransactions =
+              entityManager
+                  .createNamedQuery("StagingAffectedTransaction.findAllHashes", Object[].class)
+                  .getResultList();
+
+          final StagingGraph graph = StagingGraph.stage(transactions, affectedTransactions);
+          LOGGER.debug("Staged {} of {} transactions", graph.getStagedCount(), graph.size());
+
+          writeStages(entityManager.unwrap(Connection.class), graph);
+
+          return OptionalInt.of(graph.getStagedCount());
+        });
+  }
+
+  private void writeStages(Connection connection, StagingGraph graph) {
+    try (PreparedStatement statement = connection.prepareStatement(UPDATE_STAGE_SQL)) {
+      int batched = 0;
+      for (int i = 0; i < graph.size(); i++) {
+        if (!graph.isNewlyStaged(i)) {
+          continue;
+        }
+        statement.setLong(1, graph.getStage(i));
+        statement.setLong(2, graph.getId(i));
+        statement.addBatch();
+
+        if (++batched % jdbcBatchSize == 0) {
+          statement.executeBatch();
+        }
+      }
+      if (batched % jdbcBatchSize != 0) {
+        statement.executeBatch();
+      }
+    } catch (SQLException ex) {
+      throw new PersistenceException(ex);
+    }
+  }
 }
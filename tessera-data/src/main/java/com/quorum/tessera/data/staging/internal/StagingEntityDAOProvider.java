@@ -40,6 +40,11 @@ public class StagingEntityDAOProvider {
         "eclipselink.session.customizer", "com.quorum.tessera.eclipselink.AtomicLongSequence");
     properties.put("javax.persistence.schema-generation.database.action", "drop-and-create");
 
+    properties.put("eclipselink.jdbc.batch-writing", "JDBC");
+    properties.put(
+        "eclipselink.jdbc.batch-writing.size",
+        String.valueOf(StagingEntityDAOImpl.DEFAULT_JDBC_BATCH_SIZE));
+
     LOGGER.debug("Creating EntityManagerFactory from {}", properties);
     final EntityManagerFactory entityManagerFactory =
         Persistence.createEntityManagerFactory("tessera-recover", properties);
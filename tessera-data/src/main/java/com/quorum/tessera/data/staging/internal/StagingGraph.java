@@ -0,0 +1,209 @@
+package com.quorum.tessera.data.staging.internal;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The dependency graph between staging transactions, used to work out the validation stage of
+ * every transaction in a single pass.
+ *
+ * <p>A transaction can be staged once every version of each transaction it affects has been
+ * staged, one stage after the latest of them. Stages are worked out using Kahn's algorithm, so
+ * transactions that affect a transaction which was never received, or that affect each other in a
+ * cycle, are left unstaged. Transactions are indexed by their position in the (sorted) array of
+ * ids, so that apart from the lookup of transaction hashes the graph is held in primitive arrays.
+ */
+class StagingGraph {
+
+  /** A generous estimate of the memory held per transaction while building the graph */
+  static final long BYTES_PER_TRANSACTION = 512;
+
+  /** A generous estimate of the memory held per affected transaction while building the graph */
+  static final long BYTES_PER_AFFECTED_TRANSACTION = 256;
+
+  private final long[] ids;
+
+  private final long[] stages;
+
+  private final boolean[] staged;
+
+  private int stagedCount;
+
+  private StagingGraph(long[] ids, long[] stages) {
+    this.ids = ids;
+    this.stages = stages;
+    this.staged = new boolean[ids.length];
+  }
+
+  static long estimateSize(long transactionCount, long affectedTransactionCount) {
+    return transactionCount * BYTES_PER_TRANSACTION
+        + affectedTransactionCount * BYTES_PER_AFFECTED_TRANSACTION;
+  }
+
+  /**
+   * Build the graph and stage every transaction that can be staged
+   *
+   * @param transactions rows of (id, hash, validation stage), ordered by id
+   * @param affectedTransactions rows of (source transaction id, affected hash)
+   * @return the staged graph
+   */
+  static StagingGraph stage(List<Object[]> transactions, List<Object[]> affectedTransactions) {
+
+    final int size = transactions.size();
+    final long[] ids = new long[size];
+    final long[] stages = new long[size];
+    final int[] versionOf = new int[size];
+    final boolean[] alreadyStaged = new boolean[size];
+
+    // transactions sharing a hash are versions of the same transaction
+    final Map<String, Integer> versionIndex = new HashMap<>();
+    for (int i = 0; i < size; i++) {
+      final Object[] row = transactions.get(i);
+      ids[i] = ((Number) row[0]).longValue();
+      versionOf[i] = versionIndex.computeIfAbsent((String) row[1], h -> versionIndex.size());
+      alreadyStaged[i] = row[2] != null;
+      stages[i] = alreadyStaged[i] ? ((Number) row[2]).longValue() : 0L;
+    }
+
+    final IntPairs versionMembers = new IntPairs(size);
+    for (int i = 0; i < size; i++) {
+      versionMembers.add(versionOf[i], i);
+    }
+    final int[][] versions = versionMembers.groupByFirst(versionIndex.size());
+
+    final StagingGraph graph = new StagingGraph(ids, stages);
+    final int[] pending = new int[size];
+    final boolean[] blocked = new boolean[size];
+
+    final IntPairs edges = new IntPairs(affectedTransactions.size());
+    for (Object[] row : affectedTransactions) {
+      final int source = Arrays.binarySearch(ids, ((Number) row[0]).longValue());
+      if (source < 0 || alreadyStaged[source]) {
+        continue;
+      }
+
+      final Integer affected = versionIndex.get((String) row[1]);
+      if (affected == null) {
+        blocked[source] = true;
+        continue;
+      }
+
+      for (int dependency : versions[affected]) {
+        if (alreadyStaged[dependency]) {
+          // already staged, the source just has to come after it
+          stages[source] = Math.max(stages[source], stages[dependency]);
+        } else {
+          pending[source]++;
+          edges.add(dependency, source);
+        }
+      }
+    }
+
+    final int[][] dependents = edges.groupByFirst(size);
+
+    final int[] queue = new int[size];
+    int head = 0;
+    int tail = 0;
+    for (int i = 0; i < size; i++) {
+      if (!alreadyStaged[i] && !blocked[i] && pending[i] == 0) {
+        queue[tail++] = i;
+      }
+    }
+
+    while (head < tail) {
+      final int next = queue[head++];
+      stages[next]++;
+      graph.staged[next] = true;
+      graph.stagedCount++;
+
+      for (int dependent : dependents[next]) {
+        stages[dependent] = Math.max(stages[dependent], stages[next]);
+        if (--pending[dependent] == 0 && !blocked[dependent]) {
+          queue[tail++] = dependent;
+        }
+      }
+    }
+
+    // clear the partial stages of the transactions that could not be staged
+    for (int i = 0; i < size; i++) {
+      if (!alreadyStaged[i] && !graph.staged[i]) {
+        stages[i] = 0L;
+      }
+    }
+
+    return graph;
+  }
+
+  int size() {
+    return ids.length;
+  }
+
+  long getId(int index) {
+    return ids[index];
+  }
+
+  /**
+   * @param index the position of the transaction in the graph
+   * @return the validation stage of the transaction, or 0 if it can not be staged
+   */
+  long getStage(int index) {
+    return stages[index];
+  }
+
+  /**
+   * @param index the position of the transaction in the graph
+   * @return whether the transaction was given a stage while building this graph
+   */
+  boolean isNewlyStaged(int index) {
+    return staged[index];
+  }
+
+  int getStagedCount() {
+    return stagedCount;
+  }
+
+  /** A growable list of int pairs, to avoid boxing every edge of the graph */
+  private static class IntPairs {
+
+    private int[] firsts;
+
+    private int[] seconds;
+
+    private int size;
+
+    IntPairs(int initialCapacity) {
+      this.firsts = new int[Math.max(initialCapacity, 16)];
+      this.seconds = new int[firsts.length];
+    }
+
+    void add(int first, int second) {
+      if (size == firsts.length) {
+        firsts = Arrays.copyOf(firsts, size * 2);
+        seconds = Arrays.copyOf(seconds, size * 2);
+      }
+      firsts[size] = first;
+      seconds[size] = second;
+      size++;
+    }
+
+    int[][] groupByFirst(int groupCount) {
+      final int[] counts = new int[groupCount];
+      for (int i = 0; i < size; i++) {
+        counts[firsts[i]]++;
+      }
+
+      final int[][] groups = new int[groupCount][];
+      for (int g = 0; g < groupCount; g++) {
+        groups[g] = new int[counts[g]];
+        counts[g] = 0;
+      }
+      for (int i = 0; i < size; i++) {
+        final int g = firsts[i];
+        groups[g][counts[g]++] = seconds[i];
+      }
+      return groups;
+    }
+  }
+}
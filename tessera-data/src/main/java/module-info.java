@@ -1,5 +1,6 @@
 open module tessera.data {
   requires java.instrument;
+  requires java.management;
   requires java.persistence;
   requires org.bouncycastle.provider;
   requires org.slf4j;
@@ -20,6 +21,7 @@ open module tessera.data {
 
   uses com.quorum.tessera.enclave.PayloadDigest;
   uses com.quorum.tessera.data.EncryptedTransactionDAO;
+  uses com.quorum.tessera.data.EncryptedTransactionRecipientDAO;
   uses com.quorum.tessera.data.EncryptedRawTransactionDAO;
   uses com.quorum.tessera.data.staging.StagingEntityDAO;
   uses com.quorum.tessera.data.DataSourceFactory;
@@ -27,6 +29,8 @@ open module tessera.data {
 
   provides com.quorum.tessera.data.EncryptedTransactionDAO with
       com.quorum.tessera.data.internal.EncryptedTransactionDAOProvider;
+  provides com.quorum.tessera.data.EncryptedTransactionRecipientDAO with
+      com.quorum.tessera.data.internal.EncryptedTransactionRecipientDAOProvider;
   provides com.quorum.tessera.data.EncryptedRawTransactionDAO with
       com.quorum.tessera.data.internal.EncryptedRawTransactionDAOProvider;
   provides com.quorum.tessera.data.staging.StagingEntityDAO with
@@ -1,8 +1,11 @@
 package com.quorum.tessera.data;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
 
+import com.quorum.tessera.config.JdbcConfig;
 import com.quorum.tessera.data.internal.HikariDataSourceFactory;
+import javax.sql.DataSource;
 import org.junit.Test;
 
 public class DataSourceFactoryTest {
@@ -13,4 +16,12 @@ public class DataSourceFactoryTest {
         .isNotNull()
         .isExactlyInstanceOf(HikariDataSourceFactory.class);
   }
+
+  @Test
+  public void createReadOnlyDefaultsToCreate() {
+    final DataSource dataSource = mock(DataSource.class);
+    final DataSourceFactory dataSourceFactory = config -> dataSource;
+
+    assertThat(dataSourceFactory.createReadOnly(mock(JdbcConfig.class))).isSameAs(dataSource);
+  }
 }
@@ -0,0 +1,322 @@
+package com.quorum.tessera.data;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.quorum.tessera.config.JdbcConfig;
+import com.quorum.tessera.enclave.EncodedPayload;
+import com.quorum.tessera.enclave.PayloadEncoder;
+import com.quorum.tessera.encryption.PublicKey;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import javax.management.ObjectName;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class EncodedPayloadCacheTest {
+
+  private PayloadEncoder payloadEncoder;
+
+  private EncodedPayloadCache cache;
+
+  @Before
+  public void onSetUp() {
+    payloadEncoder = mock(PayloadEncoder.class);
+    when(payloadEncoder.decode(any())).thenAnswer(invocation -> mock(EncodedPayload.class));
+
+    cache = new EncodedPayloadCache(payloadEncoder, 10);
+  }
+
+  @After
+  public void onTearDown() {
+    verifyNoMoreInteractions(payloadEncoder);
+  }
+
+  @Test
+  public void negativeSizeIsRejected() {
+    final Throwable throwable = catchThrowable(() -> new EncodedPayloadCache(payloadEncoder, -1));
+
+    assertThat(throwable)
+        .isExactlyInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Payload cache size cannot be negative");
+  }
+
+  @Test
+  public void fromJdbcConfig() {
+    final JdbcConfig jdbcConfig = new JdbcConfig();
+    assertThat(EncodedPayloadCache.from(payloadEncoder, jdbcConfig).getMaxWeight()).isZero();
+
+    jdbcConfig.setPayloadCacheSize(-1L);
+    assertThat(EncodedPayloadCache.from(payloadEncoder, jdbcConfig).getMaxWeight()).isZero();
+
+    jdbcConfig.setPayloadCacheSize(1024L);
+    assertThat(EncodedPayloadCache.from(payloadEncoder, jdbcConfig).getMaxWeight())
+        .isEqualTo(1024L);
+  }
+
+  @Test
+  public void getDecodesOnceAndThenHits() {
+    final EncryptedTransaction transaction = transaction(1, 4);
+    final Function<MessageHash, Optional<EncryptedTransaction>> loader =
+        hash -> Optional.of(transaction);
+
+    final Optional<EncodedPayload> first = cache.get(transaction.getHash(), loader);
+    final Optional<EncodedPayload> second = cache.get(transaction.getHash(), loader);
+
+    assertThat(first).isPresent();
+    assertThat(second.get()).isSameAs(first.get());
+    assertThat(cache.getHitCount()).isEqualTo(1);
+    assertThat(cache.getMissCount()).isEqualTo(1);
+    assertThat(cache.getHitRate()).isEqualTo(0.5);
+    assertThat(cache.getSize()).isEqualTo(1);
+    assertThat(cache.getWeight()).isEqualTo(4);
+
+    verify(payloadEncoder).decode(transaction.getEncodedPayload());
+  }
+
+  @Test
+  public void addedRecipientBoxesAreAppliedAndWeighed() {
+    final EncryptedTransaction transaction = transaction(1, 4);
+    final PublicKey recipient = PublicKey.from(new byte[] {9});
+    final EncryptedTransactionBox addedBox =
+        new EncryptedTransactionBox(new byte[] {1}, 1, recipient.getKeyBytes(), new byte[] {2, 2});
+    final EncryptedTransactionBox legacyBox =
+        new EncryptedTransactionBox(new byte[] {1}, 2, null, new byte[] {3, 3});
+    transaction.setAddedRecipientBoxes(List.of(addedBox, legacyBox));
+
+    final EncodedPayload withBoxes = mock(EncodedPayload.class);
+    when(payloadEncoder.withRecipientBox(any(), any(), any())).thenReturn(withBoxes);
+
+    assertThat(cache.get(transaction.getHash(), h -> Optional.of(transaction)))
+        .containsSame(withBoxes);
+    assertThat(cache.getWeight()).isEqualTo(8);
+
+    verify(payloadEncoder).decode(transaction.getEncodedPayload());
+    verify(payloadEncoder).withRecipientBox(any(), eq(recipient), eq(new byte[] {2, 2}));
+    verify(payloadEncoder).withRecipientBox(same(withBoxes), isNull(), eq(new byte[] {3, 3}));
+  }
+
+  @Test
+  public void getOfMissingTransactionIsEmpty() {
+    assertThat(cache.get(hash(1), hash -> Optional.empty())).isEmpty();
+    assertThat(cache.getSize()).isZero();
+  }
+
+  @Test
+  public void getAllLoadsOnlyMissingPayloads() {
+    final EncryptedTransaction cached = transaction(1, 2);
+    final EncryptedTransaction loaded = transaction(2, 2);
+    final EncodedPayload cachedPayload =
+        cache.get(cached.getHash(), h -> Optional.of(cached)).get();
+
+    final Function<Collection<MessageHash>, List<EncryptedTransaction>> loader =
+        hashes -> {
+          assertThat(hashes).containsExactly(loaded.getHash(), hash(3));
+          return List.of(loaded);
+        };
+
+    final Map<MessageHash, EncodedPayload> result =
+        cache.getAll(List.of(cached.getHash(), loaded.getHash(), hash(3)), loader);
+
+    assertThat(result).containsOnlyKeys(cached.getHash(), loaded.getHash());
+    assertThat(result.get(cached.getHash())).isSameAs(cachedPayload);
+    assertThat(cache.getHitCount()).isEqualTo(1);
+    assertThat(cache.getMissCount()).isEqualTo(3);
+    assertThat(cache.getSize()).isEqualTo(2);
+
+    verify(payloadEncoder).decode(cached.getEncodedPayload());
+    verify(payloadEncoder).decode(loaded.getEncodedPayload());
+  }
+
+  @Test
+  public void getAllDoesNotLoadWhenEverythingIsCached() {
+    final EncryptedTransaction cached = transaction(1, 2);
+    cache.get(cached.getHash(), h -> Optional.of(cached));
+
+    final Map<MessageHash, EncodedPayload> result =
+        cache.getAll(
+            List.of(cached.getHash()),
+            hashes -> {
+              throw new AssertionError("Nothing should be loaded");
+            });
+
+    assertThat(result).containsOnlyKeys(cached.getHash());
+    verify(payloadEncoder).decode(cached.getEncodedPayload());
+  }
+
+  @Test
+  public void decodeReusesPayloadOfSameVersionOnly() {
+    final EncryptedTransaction transaction = transaction(1, 2);
+    final EncodedPayload cached =
+        cache.get(transaction.getHash(), h -> Optional.of(transaction)).get();
+
+    assertThat(cache.decode(transaction)).isSameAs(cached);
+
+    final EncryptedTransaction updated = transaction(1, 3);
+    updated.setVersion(1);
+    assertThat(cache.decode(updated)).isNotSameAs(cached);
+
+    final EncryptedTransaction uncached = transaction(2, 2);
+    assertThat(cache.decode(uncached)).isNotNull();
+
+    // decoding doesn't add to the cache
+    assertThat(cache.getSize()).isEqualTo(1);
+    assertThat(cache.getHitCount()).isEqualTo(1);
+    assertThat(cache.getMissCount()).isEqualTo(3);
+
+    verify(payloadEncoder).decode(transaction.getEncodedPayload());
+    verify(payloadEncoder).decode(updated.getEncodedPayload());
+    verify(payloadEncoder).decode(uncached.getEncodedPayload());
+  }
+
+  @Test
+  public void invalidateRemovesPayload() {
+    final EncryptedTransaction transaction = transaction(1, 4);
+    cache.get(transaction.getHash(), h -> Optional.of(transaction));
+
+    cache.invalidate(transaction.getHash());
+    cache.invalidate(hash(2));
+
+    assertThat(cache.getSize()).isZero();
+    assertThat(cache.getWeight()).isZero();
+    assertThat(cache.getInvalidationCount()).isEqualTo(1);
+
+    cache.get(transaction.getHash(), h -> Optional.of(transaction));
+    verify(payloadEncoder, times(2)).decode(transaction.getEncodedPayload());
+  }
+
+  @Test
+  public void payloadLoadedDuringInvalidationIsNotCached() {
+    final EncryptedTransaction transaction = transaction(1, 4);
+
+    final Optional<EncodedPayload> result =
+        cache.get(
+            transaction.getHash(),
+            h -> {
+              cache.invalidate(h);
+              return Optional.of(transaction);
+            });
+
+    assertThat(result).isPresent();
+    assertThat(cache.getSize()).isZero();
+    verify(payloadEncoder).decode(transaction.getEncodedPayload());
+  }
+
+  @Test
+  public void payloadCachedByConcurrentLoadIsKept() {
+    final EncryptedTransaction transaction = transaction(1, 4);
+    final EncodedPayload first =
+        cache
+            .get(
+                transaction.getHash(),
+                h -> {
+                  cache.get(h, hash -> Optional.of(transaction));
+                  return Optional.of(transaction);
+                })
+            .get();
+
+    assertThat(cache.get(transaction.getHash(), h -> Optional.empty()).get()).isNotSameAs(first);
+    assertThat(cache.getSize()).isEqualTo(1);
+    assertThat(cache.getWeight()).isEqualTo(4);
+    verify(payloadEncoder, times(2)).decode(transaction.getEncodedPayload());
+  }
+
+  @Test
+  public void leastRecentlyUsedPayloadsAreEvicted() {
+    final EncryptedTransaction first = transaction(1, 4);
+    final EncryptedTransaction second = transaction(2, 4);
+    final EncryptedTransaction third = transaction(3, 4);
+
+    cache.get(first.getHash(), h -> Optional.of(first));
+    cache.get(second.getHash(), h -> Optional.of(second));
+    cache.get(first.getHash(), h -> Optional.empty());
+    cache.get(third.getHash(), h -> Optional.of(third));
+
+    assertThat(cache.getSize()).isEqualTo(2);
+    assertThat(cache.getWeight()).isEqualTo(8);
+    assertThat(cache.getEvictionCount()).isEqualTo(1);
+    assertThat(cache.get(second.getHash(), h -> Optional.empty())).isEmpty();
+    assertThat(cache.get(first.getHash(), h -> Optional.empty())).isPresent();
+
+    verify(payloadEncoder).decode(first.getEncodedPayload());
+    verify(payloadEncoder).decode(second.getEncodedPayload());
+    verify(payloadEncoder).decode(third.getEncodedPayload());
+  }
+
+  @Test
+  public void payloadLargerThanCacheIsNotCached() {
+    final EncryptedTransaction transaction = transaction(1, 11);
+
+    assertThat(cache.get(transaction.getHash(), h -> Optional.of(transaction))).isPresent();
+    assertThat(cache.getSize()).isZero();
+    verify(payloadEncoder).decode(transaction.getEncodedPayload());
+  }
+
+  @Test
+  public void clearRemovesEverything() {
+    final EncryptedTransaction transaction = transaction(1, 4);
+    cache.get(transaction.getHash(), h -> Optional.of(transaction));
+
+    cache.clear();
+
+    assertThat(cache.getSize()).isZero();
+    assertThat(cache.getWeight()).isZero();
+    verify(payloadEncoder).decode(transaction.getEncodedPayload());
+  }
+
+  @Test
+  public void disabledCacheAlwaysDecodes() {
+    final EncodedPayloadCache disabled = EncodedPayloadCache.disabled(payloadEncoder);
+    final EncryptedTransaction transaction = transaction(1, 4);
+
+    disabled.get(transaction.getHash(), h -> Optional.of(transaction));
+    disabled.get(transaction.getHash(), h -> Optional.of(transaction));
+    assertThat(disabled.getAll(List.of(transaction.getHash()), h -> List.of(transaction)))
+        .containsOnlyKeys(transaction.getHash());
+    disabled.decode(transaction);
+    disabled.invalidate(transaction.getHash());
+
+    assertThat(disabled.getSize()).isZero();
+    assertThat(disabled.getHitCount()).isZero();
+    assertThat(disabled.getHitRate()).isZero();
+    verify(payloadEncoder, times(4)).decode(transaction.getEncodedPayload());
+  }
+
+  @Test
+  public void register() throws Exception {
+    final String name = "cache-test";
+    final ObjectName objectName = new ObjectName("com.quorum.tessera:type=Cache,name=" + name);
+
+    cache.register(name);
+    try {
+      assertThat(ManagementFactory.getPlatformMBeanServer().isRegistered(objectName)).isTrue();
+      assertThat(ManagementFactory.getPlatformMBeanServer().getAttribute(objectName, "MaxWeight"))
+          .isEqualTo(10L);
+
+      // a second registration under the same name is logged and ignored
+      new EncodedPayloadCache(payloadEncoder, 20).register(name);
+      assertThat(ManagementFactory.getPlatformMBeanServer().getAttribute(objectName, "MaxWeight"))
+          .isEqualTo(10L);
+    } finally {
+      ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+    }
+  }
+
+  private static EncryptedTransaction transaction(int id, int size) {
+    final byte[] encodedPayload = new byte[size];
+    Arrays.fill(encodedPayload, (byte) id);
+    return new EncryptedTransaction(hash(id), encodedPayload);
+  }
+
+  private static MessageHash hash(int id) {
+    return new MessageHash(new byte[] {(byte) id});
+  }
+}
@@ -0,0 +1,73 @@
+package com.quorum.tessera.data;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+public class EncryptedTransactionBoxTest {
+
+  @Test
+  public void createInstance() {
+
+    byte[] hash = "HASH".getBytes();
+    byte[] key = "KEY".getBytes();
+    byte[] box = "BOX".getBytes();
+
+    EncryptedTransactionBox encryptedTransactionBox = new EncryptedTransactionBox();
+    encryptedTransactionBox.setHash(hash);
+    encryptedTransactionBox.setVersion(2);
+    encryptedTransactionBox.setRecipientKey(key);
+    encryptedTransactionBox.setRecipientBox(box);
+
+    assertThat(encryptedTransactionBox.getHash()).isSameAs(hash);
+    assertThat(encryptedTransactionBox.getVersion()).isEqualTo(2);
+    assertThat(encryptedTransactionBox.getRecipientKey()).isSameAs(key);
+    assertThat(encryptedTransactionBox.getRecipientBox()).isSameAs(box);
+  }
+
+  @Test
+  public void createInstanceWithConstructorArgs() {
+
+    byte[] hash = "HASH".getBytes();
+    byte[] box = "BOX".getBytes();
+
+    EncryptedTransactionBox encryptedTransactionBox =
+        new EncryptedTransactionBox(hash, 1, null, box);
+
+    assertThat(encryptedTransactionBox.getHash()).isSameAs(hash);
+    assertThat(encryptedTransactionBox.getVersion()).isEqualTo(1);
+    assertThat(encryptedTransactionBox.getRecipientKey()).isNull();
+    assertThat(encryptedTransactionBox.getRecipientBox()).isSameAs(box);
+  }
+
+  @Test
+  public void equalityIsByHashAndVersion() {
+
+    final EncryptedTransactionBox box =
+        new EncryptedTransactionBox("HASH".getBytes(), 1, null, "BOX".getBytes());
+    final EncryptedTransactionBox same =
+        new EncryptedTransactionBox("HASH".getBytes(), 1, "KEY".getBytes(), "OTHER".getBytes());
+
+    assertThat(box).isEqualTo(same).hasSameHashCodeAs(same);
+    assertThat(box)
+        .isNotEqualTo(new EncryptedTransactionBox("HASH".getBytes(), 2, null, "BOX".getBytes()));
+    assertThat(box)
+        .isNotEqualTo(new EncryptedTransactionBox("OTHER".getBytes(), 1, null, "BOX".getBytes()));
+    assertThat(box).isNotEqualTo("OTHER");
+  }
+
+  @Test
+  public void idEqualityIsByHashAndVersion() {
+
+    final EncryptedTransactionBoxId id = new EncryptedTransactionBoxId("HASH".getBytes(), 1);
+
+    assertThat(id.getHash()).isEqualTo("HASH".getBytes());
+    assertThat(id.getVersion()).isEqualTo(1);
+    assertThat(id)
+        .isEqualTo(new EncryptedTransactionBoxId("HASH".getBytes(), 1))
+        .hasSameHashCodeAs(new EncryptedTransactionBoxId("HASH".getBytes(), 1));
+    assertThat(id).isNotEqualTo(new EncryptedTransactionBoxId("HASH".getBytes(), 2));
+    assertThat(id).isNotEqualTo(new EncryptedTransactionBoxId());
+    assertThat(id).isNotEqualTo("OTHER");
+  }
+}
@@ -0,0 +1,63 @@
+package com.quorum.tessera.data;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import com.quorum.tessera.enclave.EncodedPayload;
+import com.quorum.tessera.enclave.PayloadEncoder;
+import com.quorum.tessera.encryption.PublicKey;
+import java.util.List;
+import org.junit.After;
+import org.junit.Test;
+
+public class EncryptedTransactionDecoderTest {
+
+  private final PayloadEncoder payloadEncoder = mock(PayloadEncoder.class);
+
+  private final MessageHash hash = new MessageHash("hash".getBytes());
+
+  @After
+  public void onTearDown() {
+    verifyNoMoreInteractions(payloadEncoder);
+  }
+
+  @Test
+  public void decodeWithoutAddedBoxes() {
+    final EncodedPayload decoded = mock(EncodedPayload.class);
+    when(payloadEncoder.decode("payload".getBytes())).thenReturn(decoded);
+
+    final EncodedPayload result =
+        EncryptedTransactionDecoder.decode(
+            payloadEncoder, new EncryptedTransaction(hash, "payload".getBytes()));
+
+    assertThat(result).isSameAs(decoded);
+    verify(payloadEncoder).decode("payload".getBytes());
+  }
+
+  @Test
+  public void decodeAddsBoxesInOrder() {
+    final PublicKey recipient = PublicKey.from("recipient".getBytes());
+    final EncryptedTransaction transaction = new EncryptedTransaction(hash, "payload".getBytes());
+    transaction.setAddedRecipientBoxes(
+        List.of(
+            new EncryptedTransactionBox(
+                hash.getHashBytes(), 1, recipient.getKeyBytes(), "box1".getBytes()),
+            new EncryptedTransactionBox(hash.getHashBytes(), 2, null, "box2".getBytes())));
+
+    final EncodedPayload decoded = mock(EncodedPayload.class);
+    final EncodedPayload withFirstBox = mock(EncodedPayload.class);
+    final EncodedPayload withSecondBox = mock(EncodedPayload.class);
+    when(payloadEncoder.decode("payload".getBytes())).thenReturn(decoded);
+    when(payloadEncoder.withRecipientBox(decoded, recipient, "box1".getBytes()))
+        .thenReturn(withFirstBox);
+    when(payloadEncoder.withRecipientBox(withFirstBox, null, "box2".getBytes()))
+        .thenReturn(withSecondBox);
+
+    final EncodedPayload result = EncryptedTransactionDecoder.decode(payloadEncoder, transaction);
+
+    assertThat(result).isSameAs(withSecondBox);
+    verify(payloadEncoder).decode("payload".getBytes());
+    verify(payloadEncoder).withRecipientBox(decoded, recipient, "box1".getBytes());
+    verify(payloadEncoder).withRecipientBox(withFirstBox, null, "box2".getBytes());
+  }
+}
@@ -3,6 +3,7 @@ package com.quorum.tessera.data;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 
+import java.util.List;
 import java.util.Objects;
 import org.junit.Test;
 
@@ -33,6 +34,18 @@ public class EncryptedTransactionTest {
     assertThat(encryptedTransaction.getEncodedPayload()).isSameAs(payload);
   }
 
+  @Test
+  public void addedRecipientBoxes() {
+
+    EncryptedTransaction encryptedTransaction = new EncryptedTransaction();
+    assertThat(encryptedTransaction.getAddedRecipientBoxes()).isEmpty();
+
+    List<EncryptedTransactionBox> boxes = List.of(mock(EncryptedTransactionBox.class));
+    encryptedTransaction.setAddedRecipientBoxes(boxes);
+
+    assertThat(encryptedTransaction.getAddedRecipientBoxes()).isSameAs(boxes);
+  }
+
   @Test
   public void subclassesEqual() {
 
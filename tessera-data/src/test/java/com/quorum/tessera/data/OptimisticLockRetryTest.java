@@ -0,0 +1,68 @@
+package com.quorum.tessera.data;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.Mockito.*;
+
+import java.util.function.Supplier;
+import javax.persistence.OptimisticLockException;
+import org.junit.Test;
+
+public class OptimisticLockRetryTest {
+
+  private final MessageHash transactionHash = new MessageHash("hash".getBytes());
+
+  @Test
+  public void resultOfFirstAttemptIsReturned() {
+    final Supplier<String> action = mock(Supplier.class);
+    when(action.get()).thenReturn("stored");
+
+    final String result = OptimisticLockRetry.execute(transactionHash, action);
+
+    assertThat(result).isEqualTo("stored");
+    verify(action).get();
+  }
+
+  @Test
+  public void actionIsRetriedAfterOptimisticLockFailure() {
+    final Supplier<String> action = mock(Supplier.class);
+    when(action.get())
+        .thenThrow(new OptimisticLockException())
+        .thenThrow(new OptimisticLockException())
+        .thenReturn("stored");
+
+    final String result = OptimisticLockRetry.execute(transactionHash, action);
+
+    assertThat(result).isEqualTo("stored");
+    verify(action, times(OptimisticLockRetry.MAX_ATTEMPTS)).get();
+  }
+
+  @Test
+  public void lastOptimisticLockFailureIsRethrown() {
+    final OptimisticLockException last = new OptimisticLockException("last");
+    final Supplier<String> action = mock(Supplier.class);
+    when(action.get())
+        .thenThrow(new OptimisticLockException())
+        .thenThrow(new OptimisticLockException())
+        .thenThrow(last);
+
+    final Throwable throwable =
+        catchThrowable(() -> OptimisticLockRetry.execute(transactionHash, action));
+
+    assertThat(throwable).isSameAs(last);
+    verify(action, times(OptimisticLockRetry.MAX_ATTEMPTS)).get();
+  }
+
+  @Test
+  public void otherFailuresAreNotRetried() {
+    final IllegalStateException cause = new IllegalStateException();
+    final Supplier<String> action = mock(Supplier.class);
+    when(action.get()).thenThrow(cause);
+
+    final Throwable throwable =
+        catchThrowable(() -> OptimisticLockRetry.execute(transactionHash, action));
+
+    assertThat(throwable).isSameAs(cause);
+    verify(action).get();
+  }
+}
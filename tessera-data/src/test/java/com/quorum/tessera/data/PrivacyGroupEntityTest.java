@@ -2,6 +2,7 @@ package com.quorum.tessera.data;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.util.List;
 import org.junit.Test;
 
 public class PrivacyGroupEntityTest {
@@ -20,6 +21,18 @@ public class PrivacyGroupEntityTest {
     assertThat(entity.getId()).isSameAs(id);
     assertThat(entity.getLookupId()).isSameAs(lookupId);
     assertThat(entity.getData()).isSameAs(data);
+    assertThat(entity.getType()).isNull();
+    assertThat(entity.getState()).isNull();
+    assertThat(entity.getMembers()).isEmpty();
+
+    final List<byte[]> members = List.of("member".getBytes());
+    entity.setType("PANTHEON");
+    entity.setState("ACTIVE");
+    entity.setMembers(members);
+
+    assertThat(entity.getType()).isEqualTo("PANTHEON");
+    assertThat(entity.getState()).isEqualTo("ACTIVE");
+    assertThat(entity.getMembers()).isSameAs(members);
 
     final PrivacyGroupEntity anotherEntity = new PrivacyGroupEntity(id, lookupId, data);
 
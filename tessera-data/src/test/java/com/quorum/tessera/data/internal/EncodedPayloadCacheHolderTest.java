@@ -0,0 +1,27 @@
+package com.quorum.tessera.data.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.quorum.tessera.data.EncodedPayloadCache;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class EncodedPayloadCacheHolderTest {
+
+  @Before
+  @After
+  public void clear() {
+    EncodedPayloadCacheHolder.INSTANCE.store(null);
+  }
+
+  @Test
+  public void storeAndGet() {
+    EncodedPayloadCacheHolder holder = EncodedPayloadCacheHolder.INSTANCE;
+    assertThat(holder.getEncodedPayloadCache()).isNotPresent();
+    EncodedPayloadCache encodedPayloadCache = mock(EncodedPayloadCache.class);
+    assertThat(holder.store(encodedPayloadCache)).isSameAs(encodedPayloadCache);
+    assertThat(holder.getEncodedPayloadCache()).containsSame(encodedPayloadCache);
+  }
+}
@@ -14,6 +14,7 @@ import java.util.Collection;
 import java.util.List;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.Persistence;
+import javax.sql.DataSource;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
@@ -65,6 +66,39 @@ public class EncryptedRawTransactionDAOProviderTest {
     }
   }
 
+  @Test
+  public void providesJdbcReadsWhenDirectReadsEnabled() {
+    try (var mockedConfigFactory = mockStatic(ConfigFactory.class);
+        var mockedDataSourceFactory = mockStatic(DataSourceFactory.class);
+        var mockedPersistence = mockStatic(Persistence.class)) {
+
+      mockedPersistence
+          .when(() -> Persistence.createEntityManagerFactory(anyString(), anyMap()))
+          .thenReturn(mock(EntityManagerFactory.class));
+
+      Config config = mock(Config.class);
+      JdbcConfig jdbcConfig = mock(JdbcConfig.class);
+      when(jdbcConfig.isAutoCreateTables()).thenReturn(autocreateTables);
+      when(jdbcConfig.isDirectReads()).thenReturn(true);
+      when(config.getJdbcConfig()).thenReturn(jdbcConfig);
+
+      ConfigFactory configFactory = mock(ConfigFactory.class);
+      when(configFactory.getConfig()).thenReturn(config);
+
+      mockedConfigFactory.when(ConfigFactory::create).thenReturn(configFactory);
+
+      DataSourceFactory dataSourceFactory = mock(DataSourceFactory.class);
+      when(dataSourceFactory.createReadOnly(jdbcConfig)).thenReturn(mock(DataSource.class));
+      mockedDataSourceFactory.when(DataSourceFactory::create).thenReturn(dataSourceFactory);
+
+      EncryptedRawTransactionDAO result = EncryptedRawTransactionDAOProvider.provider();
+      assertThat(result).isNotNull().isExactlyInstanceOf(JdbcEncryptedRawTransactionDAO.class);
+
+      verify(dataSourceFactory).create(jdbcConfig);
+      verify(dataSourceFactory).createReadOnly(jdbcConfig);
+    }
+  }
+
   @Parameterized.Parameters
   public static Collection<Boolean> autoCreateTables() {
     return List.of(true, false);
@@ -9,11 +9,15 @@ import com.quorum.tessera.config.Config;
 import com.quorum.tessera.config.ConfigFactory;
 import com.quorum.tessera.config.JdbcConfig;
 import com.quorum.tessera.data.DataSourceFactory;
+import com.quorum.tessera.data.EncodedPayloadCache;
 import com.quorum.tessera.data.EncryptedTransactionDAO;
 import java.util.Collection;
 import java.util.List;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.Persistence;
+import javax.sql.DataSource;
+import org.junit.After;
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
@@ -27,6 +31,12 @@ public class EncryptedTransactionDAOProviderTest {
     this.autocreateTables = autocreateTables;
   }
 
+  @Before
+  @After
+  public void clearPayloadCache() {
+    EncodedPayloadCacheHolder.INSTANCE.store(null);
+  }
+
   @Test
   public void defaultConstructorForCoverage() {
     assertThat(new EncryptedTransactionDAOProvider()).isNotNull();
@@ -45,6 +55,7 @@ public class EncryptedTransactionDAOProviderTest {
       Config config = mock(Config.class);
       JdbcConfig jdbcConfig = mock(JdbcConfig.class);
       when(jdbcConfig.isAutoCreateTables()).thenReturn(autocreateTables);
+      when(jdbcConfig.getFetchSize()).thenReturn(50);
       when(config.getJdbcConfig()).thenReturn(jdbcConfig);
 
       ConfigFactory configFactory = mock(ConfigFactory.class);
@@ -61,7 +72,46 @@ public class EncryptedTransactionDAOProviderTest {
 
       mockedPersistence.verify(() -> Persistence.createEntityManagerFactory(anyString(), anyMap()));
       mockedPersistence.verifyNoMoreInteractions();
+      verify(jdbcConfig).getFetchSize();
+
+      final EncodedPayloadCache payloadCache =
+          EncodedPayloadCacheHolder.INSTANCE.getEncodedPayloadCache().get();
       EncryptedTransactionDAOProvider.provider();
+      assertThat(EncodedPayloadCacheHolder.INSTANCE.getEncodedPayloadCache())
+          .containsSame(payloadCache);
+    }
+  }
+
+  @Test
+  public void providesJdbcReadsWhenDirectReadsEnabled() {
+    try (var mockedConfigFactory = mockStatic(ConfigFactory.class);
+        var mockedDataSourceFactory = mockStatic(DataSourceFactory.class);
+        var mockedPersistence = mockStatic(Persistence.class)) {
+
+      mockedPersistence
+          .when(() -> Persistence.createEntityManagerFactory(anyString(), anyMap()))
+          .thenReturn(mock(EntityManagerFactory.class));
+
+      Config config = mock(Config.class);
+      JdbcConfig jdbcConfig = mock(JdbcConfig.class);
+      when(jdbcConfig.isAutoCreateTables()).thenReturn(autocreateTables);
+      when(jdbcConfig.isDirectReads()).thenReturn(true);
+      when(config.getJdbcConfig()).thenReturn(jdbcConfig);
+
+      ConfigFactory configFactory = mock(ConfigFactory.class);
+      when(configFactory.getConfig()).thenReturn(config);
+
+      mockedConfigFactory.when(ConfigFactory::create).thenReturn(configFactory);
+
+      DataSourceFactory dataSourceFactory = mock(DataSourceFactory.class);
+      when(dataSourceFactory.createReadOnly(jdbcConfig)).thenReturn(mock(DataSource.class));
+      mockedDataSourceFactory.when(DataSourceFactory::create).thenReturn(dataSourceFactory);
+
+      EncryptedTransactionDAO result = EncryptedTransactionDAOProvider.provider();
+      assertThat(result).isNotNull().isExactlyInstanceOf(JdbcEncryptedTransactionDAO.class);
+
+      verify(dataSourceFactory).create(jdbcConfig);
+      verify(dataSourceFactory).createReadOnly(jdbcConfig);
     }
   }
 
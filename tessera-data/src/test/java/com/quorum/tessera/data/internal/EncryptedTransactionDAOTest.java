@@ -4,6 +4,9 @@ import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 import com.quorum.tessera.data.*;
+import com.quorum.tessera.enclave.EncodedPayload;
+import com.quorum.tessera.enclave.PayloadEncoder;
+import com.quorum.tessera.encryption.PublicKey;
 import java.util.*;
 import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -52,6 +55,7 @@ public class EncryptedTransactionDAOTest {
   public void onTearDown() {
     EntityManager entityManager = entityManagerFactory.createEntityManager();
     entityManager.getTransaction().begin();
+    entityManager.createQuery("delete from EncryptedTransactionBox").executeUpdate();
     entityManager.createQuery("delete from EncryptedTransaction").executeUpdate();
     entityManager.getTransaction().commit();
   }
@@ -125,6 +129,32 @@ public class EncryptedTransactionDAOTest {
     entityManager.getTransaction().rollback();
   }
 
+  @Test
+  public void updateOfStaleTransactionIsRejected() {
+    final MessageHash hash = new MessageHash(new byte[] {1});
+    encryptedTransactionDAO.save(new EncryptedTransaction(hash, new byte[] {5}));
+
+    final EncryptedTransaction first = encryptedTransactionDAO.retrieveByHash(hash).get();
+    final EncryptedTransaction second = encryptedTransactionDAO.retrieveByHash(hash).get();
+
+    first.setEncodedPayload(new byte[] {6});
+    encryptedTransactionDAO.update(first);
+
+    second.setEncodedPayload(new byte[] {7});
+    final Throwable throwable = catchThrowable(() -> encryptedTransactionDAO.update(second));
+
+    assertThat(throwable).isInstanceOf(OptimisticLockException.class);
+    assertThat(encryptedTransactionDAO.retrieveByHash(hash).get().getEncodedPayload())
+        .containsExactly(6);
+
+    // the version of a successfully updated entity is kept in step with the database
+    first.setEncodedPayload(new byte[] {8});
+    encryptedTransactionDAO.update(first);
+
+    assertThat(encryptedTransactionDAO.retrieveByHash(hash).get().getEncodedPayload())
+        .containsExactly(8);
+  }
+
   @Test
   public void cannotPersistMultipleOfSameHash() {
 
@@ -191,6 +221,117 @@ public class EncryptedTransactionDAOTest {
     assertThat(retrievedList).hasSameElementsAs(payloads);
   }
 
+  @Test
+  public void retrieveTransactionsAfterPagesThroughAllInHashOrder() {
+
+    EntityManager entityManager = entityManagerFactory.createEntityManager();
+    entityManager.getTransaction().begin();
+    final List<EncryptedTransaction> payloads =
+        IntStream.range(0, 25)
+            .mapToObj(i -> UUID.randomUUID().toString().getBytes())
+            .map(MessageHash::new)
+            .map(hash -> new EncryptedTransaction(hash, hash.getHashBytes()))
+            .peek(entityManager::persist)
+            .collect(Collectors.toList());
+    entityManager.getTransaction().commit();
+
+    final List<EncryptedTransaction> firstPage =
+        encryptedTransactionDAO.retrieveTransactionsAfter(null, 10);
+    final List<EncryptedTransaction> secondPage =
+        encryptedTransactionDAO.retrieveTransactionsAfter(firstPage.get(9).getHash(), 10);
+    final List<EncryptedTransaction> lastPage =
+        encryptedTransactionDAO.retrieveTransactionsAfter(secondPage.get(9).getHash(), 10);
+
+    assertThat(firstPage).hasSize(10);
+    assertThat(secondPage).hasSize(10).doesNotContainAnyElementsOf(firstPage);
+    assertThat(lastPage).hasSize(5);
+
+    final List<EncryptedTransaction> all = new ArrayList<>(firstPage);
+    all.addAll(secondPage);
+    all.addAll(lastPage);
+    assertThat(all).hasSameElementsAs(payloads);
+
+    // every page continues in the same order the database sorted the first one
+    assertThat(encryptedTransactionDAO.retrieveTransactionsAfter(null, 25)).isEqualTo(all);
+    assertThat(encryptedTransactionDAO.retrieveTransactionsAfter(lastPage.get(4).getHash(), 10))
+        .isEmpty();
+  }
+
+  @Test
+  public void retrieveTransactionsAfterUsesConfiguredFetchSize() {
+    final EntityManagerFactory mockEntityManagerFactory = mock(EntityManagerFactory.class);
+    final EntityManager mockEntityManager = mock(EntityManager.class);
+    final TypedQuery<EncryptedTransaction> query = mock(TypedQuery.class);
+
+    when(mockEntityManagerFactory.createEntityManager()).thenReturn(mockEntityManager);
+    when(mockEntityManager.getTransaction()).thenReturn(mock(EntityTransaction.class));
+    when(mockEntityManager.createNamedQuery(
+            "EncryptedTransaction.FindFirstByHash", EncryptedTransaction.class))
+        .thenReturn(query);
+    when(query.setMaxResults(anyInt())).thenReturn(query);
+    when(query.setHint(anyString(), any())).thenReturn(query);
+    when(query.getResultList()).thenReturn(List.of());
+
+    final PayloadEncoder payloadEncoder = mock(PayloadEncoder.class);
+    final EncryptedTransactionDAO configuredDAO =
+        new EncryptedTransactionDAOImpl(
+            mockEntityManagerFactory,
+            payloadEncoder,
+            EncodedPayloadCache.disabled(payloadEncoder),
+            false,
+            50);
+    final EncryptedTransactionDAO defaultDAO =
+        new EncryptedTransactionDAOImpl(mockEntityManagerFactory, payloadEncoder);
+
+    assertThat(configuredDAO.retrieveTransactionsAfter(null, 1000)).isEmpty();
+    assertThat(defaultDAO.retrieveTransactionsAfter(null, 1000)).isEmpty();
+
+    verify(query, times(2)).setMaxResults(1000);
+    verify(query).setHint("eclipselink.jdbc.fetch-size", 50);
+    verify(query).setHint("eclipselink.jdbc.fetch-size", 1000);
+  }
+
+  @Test
+  public void streamTransactionsReturnsAllTransactions() {
+
+    EntityManager entityManager = entityManagerFactory.createEntityManager();
+    entityManager.getTransaction().begin();
+    final List<EncryptedTransaction> payloads =
+        IntStream.range(0, 25)
+            .mapToObj(i -> UUID.randomUUID().toString().getBytes())
+            .map(MessageHash::new)
+            .map(hash -> new EncryptedTransaction(hash, hash.getHashBytes()))
+            .peek(entityManager::persist)
+            .collect(Collectors.toList());
+    entityManager.getTransaction().commit();
+
+    assertThat(encryptedTransactionDAO.streamTransactions(10)).hasSameElementsAs(payloads);
+    assertThat(encryptedTransactionDAO.streamTransactions(5)).hasSameSizeAs(payloads);
+    assertThat(encryptedTransactionDAO.streamTransactions(100)).hasSameSizeAs(payloads);
+  }
+
+  @Test
+  public void streamTransactionsFetchesNextPageOnlyWhenFull() {
+    final EncryptedTransactionDAO dao = mock(EncryptedTransactionDAO.class);
+    final EncryptedTransaction first =
+        new EncryptedTransaction(new MessageHash(new byte[] {1}), null);
+    final EncryptedTransaction second =
+        new EncryptedTransaction(new MessageHash(new byte[] {2}), null);
+    final EncryptedTransaction third =
+        new EncryptedTransaction(new MessageHash(new byte[] {3}), null);
+
+    when(dao.streamTransactions(anyInt())).thenCallRealMethod();
+    when(dao.retrieveTransactionsAfter(null, 2)).thenReturn(List.of(first, second));
+    when(dao.retrieveTransactionsAfter(second.getHash(), 2)).thenReturn(List.of(third));
+
+    assertThat(dao.streamTransactions(2)).containsExactly(first, second, third);
+
+    verify(dao).streamTransactions(2);
+    verify(dao).retrieveTransactionsAfter(null, 2);
+    verify(dao).retrieveTransactionsAfter(second.getHash(), 2);
+    verifyNoMoreInteractions(dao);
+  }
+
   @Test
   public void deleteTransactionRemovesFromDatabaseAndReturnsTrue() {
 
@@ -316,6 +457,208 @@ public class EncryptedTransactionDAOTest {
     assertThat(results).isEmpty();
   }
 
+  @Test
+  public void retrievePayloadByHashIsCachedUntilUpdatedOrDeleted() {
+    final PayloadEncoder payloadEncoder = mock(PayloadEncoder.class);
+    when(payloadEncoder.decode(any())).thenAnswer(invocation -> mock(EncodedPayload.class));
+    final EncryptedTransactionDAO cachedDAO =
+        new EncryptedTransactionDAOImpl(
+            entityManagerFactory,
+            payloadEncoder,
+            new EncodedPayloadCache(payloadEncoder, 1024),
+            false);
+
+    final MessageHash hash = new MessageHash(UUID.randomUUID().toString().getBytes());
+    cachedDAO.save(new EncryptedTransaction(hash, new byte[] {5}));
+
+    final EncodedPayload first = cachedDAO.retrievePayloadByHash(hash).get();
+    assertThat(cachedDAO.retrievePayloadByHash(hash)).containsSame(first);
+
+    final EncryptedTransaction transaction = cachedDAO.retrieveByHash(hash).get();
+    assertThat(cachedDAO.decodePayload(transaction)).isSameAs(first);
+
+    transaction.setEncodedPayload(new byte[] {6});
+    cachedDAO.update(transaction);
+    assertThat(cachedDAO.retrievePayloadByHash(hash).get()).isNotSameAs(first);
+
+    cachedDAO.delete(hash);
+    assertThat(cachedDAO.retrievePayloadByHash(hash)).isEmpty();
+
+    verify(payloadEncoder).decode(new byte[] {5});
+    verify(payloadEncoder).decode(new byte[] {6});
+    verifyNoMoreInteractions(payloadEncoder);
+  }
+
+  @Test
+  public void findPayloadsByHashes() {
+    final PayloadEncoder payloadEncoder = mock(PayloadEncoder.class);
+    final EncodedPayload payload = mock(EncodedPayload.class);
+    when(payloadEncoder.decode(any())).thenReturn(payload);
+    final EncryptedTransactionDAO cachedDAO =
+        new EncryptedTransactionDAOImpl(
+            entityManagerFactory,
+            payloadEncoder,
+            new EncodedPayloadCache(payloadEncoder, 1024),
+            false);
+
+    final MessageHash present = new MessageHash(UUID.randomUUID().toString().getBytes());
+    final MessageHash absent = new MessageHash(UUID.randomUUID().toString().getBytes());
+    cachedDAO.save(new EncryptedTransaction(present, new byte[] {5}));
+
+    assertThat(cachedDAO.findPayloadsByHashes(List.of(present, absent)))
+        .containsExactly(entry(present, payload));
+    assertThat(cachedDAO.findPayloadsByHashes(List.of())).isEmpty();
+    assertThat(cachedDAO.findPayloadsByHashes(null)).isEmpty();
+
+    verify(payloadEncoder).decode(new byte[] {5});
+    verifyNoMoreInteractions(payloadEncoder);
+  }
+
+  @Test
+  public void addRecipientBoxReencodesPayloadByDefault() {
+    final PayloadEncoder payloadEncoder = mock(PayloadEncoder.class);
+    final EncodedPayload decoded = mock(EncodedPayload.class);
+    final EncodedPayload withBox = mock(EncodedPayload.class);
+    final PublicKey recipient = PublicKey.from("RECIPIENT".getBytes());
+    when(payloadEncoder.decode(new byte[] {5})).thenReturn(decoded);
+    when(payloadEncoder.withRecipientBox(decoded, recipient, new byte[] {7})).thenReturn(withBox);
+    when(payloadEncoder.encode(withBox)).thenReturn(new byte[] {6});
+    final EncryptedTransactionDAO dao =
+        new EncryptedTransactionDAOImpl(entityManagerFactory, payloadEncoder);
+
+    final MessageHash hash = new MessageHash(UUID.randomUUID().toString().getBytes());
+    dao.save(new EncryptedTransaction(hash, new byte[] {5}));
+
+    final EncryptedTransaction transaction = dao.retrieveByHash(hash).get();
+    dao.addRecipientBox(transaction, recipient, new byte[] {7});
+
+    final EncryptedTransaction after = dao.retrieveByHash(hash).get();
+    assertThat(after.getEncodedPayload()).containsExactly(6);
+    assertThat(after.getVersion()).isEqualTo(transaction.getVersion());
+    assertThat(after.getAddedRecipientBoxes()).isEmpty();
+  }
+
+  @Test
+  public void addRecipientBoxStoresBoxApartFromPayload() {
+    final PayloadEncoder payloadEncoder = mock(PayloadEncoder.class);
+    final EncryptedTransactionDAO dao =
+        new EncryptedTransactionDAOImpl(
+            entityManagerFactory,
+            payloadEncoder,
+            EncodedPayloadCache.disabled(payloadEncoder),
+            true);
+
+    final MessageHash hash = new MessageHash(UUID.randomUUID().toString().getBytes());
+    final MessageHash other = new MessageHash(UUID.randomUUID().toString().getBytes());
+    dao.save(new EncryptedTransaction(hash, new byte[] {5}));
+    dao.save(new EncryptedTransaction(other, new byte[] {6}));
+
+    final EncryptedTransaction transaction = dao.retrieveByHash(hash).get();
+    final long version = transaction.getVersion();
+    final PublicKey recipient = PublicKey.from("RECIPIENT".getBytes());
+    dao.addRecipientBox(transaction, recipient, new byte[] {7});
+    dao.addRecipientBox(transaction, null, new byte[] {8});
+
+    assertThat(transaction.getVersion()).isEqualTo(version + 2);
+    assertThat(transaction.getAddedRecipientBoxes()).hasSize(2);
+
+    final EncryptedTransaction after = dao.retrieveByHash(hash).get();
+    assertThat(after.getEncodedPayload()).containsExactly(5);
+    assertThat(after.getVersion()).isEqualTo(version + 2);
+    assertThat(after.getAddedRecipientBoxes())
+        .extracting(EncryptedTransactionBox::getRecipientBox)
+        .containsExactly(new byte[] {7}, new byte[] {8});
+    assertThat(after.getAddedRecipientBoxes().get(0).getRecipientKey())
+        .isEqualTo(recipient.getKeyBytes());
+    assertThat(after.getAddedRecipientBoxes().get(1).getRecipientKey()).isNull();
+
+    final Map<MessageHash, EncryptedTransaction> found =
+        dao.findByHashes(List.of(hash, other)).stream()
+            .collect(Collectors.toMap(EncryptedTransaction::getHash, t -> t));
+    assertThat(found.get(hash).getAddedRecipientBoxes()).hasSize(2);
+    assertThat(found.get(other).getAddedRecipientBoxes()).isEmpty();
+
+    assertThat(dao.retrieveTransactions(0, 10))
+        .flatExtracting(EncryptedTransaction::getAddedRecipientBoxes)
+        .hasSize(2);
+    assertThat(dao.retrieveTransactionsAfter(null, 10))
+        .flatExtracting(EncryptedTransaction::getAddedRecipientBoxes)
+        .hasSize(2);
+
+    dao.delete(hash);
+    assertThat(dao.retrieveByHash(hash)).isEmpty();
+
+    final EntityManager entityManager = entityManagerFactory.createEntityManager();
+    assertThat(
+            entityManager
+                .createQuery("select count(b) from EncryptedTransactionBox b", Long.class)
+                .getSingleResult())
+        .isZero();
+
+    verifyNoInteractions(payloadEncoder);
+  }
+
+  @Test
+  public void addedBoxesAreLoadedForMoreTransactionsThanOneQueryTakes() {
+    final PayloadEncoder payloadEncoder = mock(PayloadEncoder.class);
+    final EncryptedTransactionDAO dao =
+        new EncryptedTransactionDAOImpl(
+            entityManagerFactory,
+            payloadEncoder,
+            EncodedPayloadCache.disabled(payloadEncoder),
+            true);
+
+    final int count = EncryptedTransactionDAOImpl.MAX_HASHES_PER_QUERY + 1;
+    final EntityManager entityManager = entityManagerFactory.createEntityManager();
+    entityManager.getTransaction().begin();
+    IntStream.range(0, count)
+        .mapToObj(i -> UUID.randomUUID().toString().getBytes())
+        .forEach(
+            hash -> {
+              entityManager.persist(new EncryptedTransaction(new MessageHash(hash), hash));
+              entityManager.persist(new EncryptedTransactionBox(hash, 1, null, hash));
+            });
+    entityManager.getTransaction().commit();
+
+    final List<EncryptedTransaction> transactions = dao.retrieveTransactionsAfter(null, count);
+
+    assertThat(transactions).hasSize(count);
+    transactions.forEach(
+        t ->
+            assertThat(t.getAddedRecipientBoxes())
+                .extracting(EncryptedTransactionBox::getRecipientBox)
+                .containsExactly(t.getHash().getHashBytes()));
+    verifyNoInteractions(payloadEncoder);
+  }
+
+  @Test
+  public void addRecipientBoxToStaleTransactionIsRejected() {
+    final PayloadEncoder payloadEncoder = mock(PayloadEncoder.class);
+    final EncryptedTransactionDAO dao =
+        new EncryptedTransactionDAOImpl(
+            entityManagerFactory,
+            payloadEncoder,
+            EncodedPayloadCache.disabled(payloadEncoder),
+            true);
+
+    final MessageHash hash = new MessageHash(UUID.randomUUID().toString().getBytes());
+    dao.save(new EncryptedTransaction(hash, new byte[] {5}));
+
+    final EncryptedTransaction first = dao.retrieveByHash(hash).get();
+    final EncryptedTransaction second = dao.retrieveByHash(hash).get();
+
+    dao.addRecipientBox(first, null, new byte[] {7});
+
+    final Throwable throwable =
+        catchThrowable(() -> dao.addRecipientBox(second, null, new byte[] {8}));
+    assertThat(throwable).isInstanceOf(OptimisticLockException.class);
+
+    assertThat(dao.retrieveByHash(hash).get().getAddedRecipientBoxes())
+        .extracting(EncryptedTransactionBox::getRecipientBox)
+        .containsExactly(new byte[] {7});
+    verifyNoInteractions(payloadEncoder);
+  }
+
   @Test
   public void saveTransactionWithCallback() throws Exception {
 
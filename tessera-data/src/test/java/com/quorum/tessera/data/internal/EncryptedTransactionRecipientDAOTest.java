@@ -0,0 +1,128 @@
+package com.quorum.tessera.data.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import com.quorum.tessera.data.*;
+import com.quorum.tessera.encryption.PublicKey;
+import java.util.*;
+import javax.persistence.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+@RunWith(Parameterized.class)
+public class EncryptedTransactionRecipientDAOTest {
+
+  private EntityManagerFactory entityManagerFactory;
+
+  private EncryptedTransactionRecipientDAO encryptedTransactionRecipientDAO;
+
+  private TestConfig testConfig;
+
+  public EncryptedTransactionRecipientDAOTest(TestConfig testConfig) {
+    this.testConfig = testConfig;
+  }
+
+  @Before
+  public void onSetUp() {
+
+    Map properties = new HashMap();
+    properties.put("javax.persistence.jdbc.url", testConfig.getUrl());
+    properties.put("javax.persistence.jdbc.user", "junit");
+    properties.put("javax.persistence.jdbc.password", "");
+    properties.put(
+        "eclipselink.logging.logger", "org.eclipse.persistence.logging.slf4j.SLF4JLogger");
+    properties.put("eclipselink.logging.level", "FINE");
+    properties.put("eclipselink.logging.parameters", "true");
+    properties.put("eclipselink.logging.level.sql", "FINE");
+    properties.put("eclipselink.cache.shared.default", "false");
+    properties.put("javax.persistence.schema-generation.database.action", "create");
+
+    entityManagerFactory = Persistence.createEntityManagerFactory("tessera", properties);
+    encryptedTransactionRecipientDAO =
+        new EncryptedTransactionRecipientDAOImpl(entityManagerFactory);
+  }
+
+  @After
+  public void onTearDown() {
+    EntityManager entityManager = entityManagerFactory.createEntityManager();
+    entityManager.getTransaction().begin();
+    entityManager.createQuery("delete from EncryptedTransactionRecipient").executeUpdate();
+    entityManager.getTransaction().commit();
+  }
+
+  @Test
+  public void saveAndFindRecipientKeys() {
+    final MessageHash hash = new MessageHash(new byte[] {1});
+    final PublicKey recipient = PublicKey.from("RECIPIENT".getBytes());
+    final PublicKey otherRecipient = PublicKey.from("OTHER_RECIPIENT".getBytes());
+
+    encryptedTransactionRecipientDAO.save(hash, List.of(recipient, otherRecipient));
+
+    assertThat(encryptedTransactionRecipientDAO.findRecipientKeys(hash))
+        .containsExactlyInAnyOrder(recipient, otherRecipient);
+    assertThat(encryptedTransactionRecipientDAO.findRecipientKeys(new MessageHash(new byte[] {2})))
+        .isEmpty();
+  }
+
+  @Test
+  public void savingExistingRecipientKeyIsIgnored() {
+    final MessageHash hash = new MessageHash(new byte[] {1});
+    final PublicKey recipient = PublicKey.from("RECIPIENT".getBytes());
+
+    encryptedTransactionRecipientDAO.save(hash, List.of(recipient));
+    encryptedTransactionRecipientDAO.save(hash, List.of(recipient));
+
+    assertThat(encryptedTransactionRecipientDAO.findRecipientKeys(hash)).containsExactly(recipient);
+  }
+
+  @Test
+  public void savingNoRecipientKeysDoesNothing() {
+    final MessageHash hash = new MessageHash(new byte[] {1});
+
+    encryptedTransactionRecipientDAO.save(hash, List.of());
+
+    assertThat(encryptedTransactionRecipientDAO.findRecipientKeys(hash)).isEmpty();
+  }
+
+  @Test
+  public void deleteRemovesOnlyMatchingHash() {
+    final MessageHash hash = new MessageHash(new byte[] {1});
+    final MessageHash otherHash = new MessageHash(new byte[] {2});
+    final PublicKey recipient = PublicKey.from("RECIPIENT".getBytes());
+
+    encryptedTransactionRecipientDAO.save(hash, List.of(recipient));
+    encryptedTransactionRecipientDAO.save(otherHash, List.of(recipient));
+
+    encryptedTransactionRecipientDAO.delete(hash);
+
+    assertThat(encryptedTransactionRecipientDAO.findRecipientKeys(hash)).isEmpty();
+    assertThat(encryptedTransactionRecipientDAO.findRecipientKeys(otherHash))
+        .containsExactly(recipient);
+  }
+
+  @Test
+  public void persistenceFailuresAreNotPropagated() {
+    final EntityManagerFactory failingEntityManagerFactory = mock(EntityManagerFactory.class);
+    when(failingEntityManagerFactory.createEntityManager())
+        .thenThrow(new PersistenceException("OUCH"));
+
+    final EncryptedTransactionRecipientDAO dao =
+        new EncryptedTransactionRecipientDAOImpl(failingEntityManagerFactory);
+    final MessageHash hash = new MessageHash(new byte[] {1});
+
+    dao.save(hash, List.of(PublicKey.from("RECIPIENT".getBytes())));
+    dao.delete(hash);
+
+    assertThat(dao.findRecipientKeys(hash)).isEmpty();
+    verify(failingEntityManagerFactory, times(3)).createEntityManager();
+  }
+
+  @Parameterized.Parameters(name = "DB {0}")
+  public static Collection<TestConfig> connectionDetails() {
+    return List.of(TestConfig.values());
+  }
+}
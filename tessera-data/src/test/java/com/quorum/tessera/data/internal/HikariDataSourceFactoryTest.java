@@ -51,4 +51,40 @@ public class HikariDataSourceFactoryTest {
         .describedAs("Second call returns same instance")
         .isSameAs(dataSourceFactory.create(jdbcConfig));
   }
+
+  @Test
+  public void createReadOnly() {
+
+    JdbcConfig jdbcConfig = mock(JdbcConfig.class);
+    when(jdbcConfig.getUsername()).thenReturn("junit");
+    when(jdbcConfig.getPassword()).thenReturn("junitpw");
+    when(jdbcConfig.getUrl()).thenReturn("jdbc:h2:mem:");
+
+    DataSource dataSource = dataSourceFactory.createReadOnly(jdbcConfig);
+
+    assertThat(dataSource).isNotNull().isExactlyInstanceOf(HikariDataSource.class);
+
+    HikariDataSource hikariDataSource = HikariDataSource.class.cast(dataSource);
+    assertThat(hikariDataSource.getJdbcUrl()).isEqualTo("jdbc:h2:mem:");
+    assertThat(hikariDataSource.isReadOnly()).isTrue();
+    assertThat(hikariDataSource.isAutoCommit()).isTrue();
+
+    assertThat(dataSource)
+        .describedAs("Second call returns same instance")
+        .isSameAs(dataSourceFactory.createReadOnly(jdbcConfig))
+        .isNotSameAs(dataSourceFactory.create(jdbcConfig));
+  }
+
+  @Test
+  public void createReadOnlySqlite() {
+
+    JdbcConfig jdbcConfig = mock(JdbcConfig.class);
+    when(jdbcConfig.getUrl()).thenReturn("jdbc:sqlite::memory:");
+
+    HikariDataSource hikariDataSource =
+        HikariDataSource.class.cast(dataSourceFactory.createReadOnly(jdbcConfig));
+
+    assertThat(hikariDataSource.isReadOnly()).isFalse();
+    assertThat(hikariDataSource.isAutoCommit()).isTrue();
+  }
 }
@@ -0,0 +1,149 @@
+package com.quorum.tessera.data.internal;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.quorum.tessera.data.*;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import java.sql.SQLException;
+import java.util.*;
+import javax.persistence.*;
+import javax.sql.DataSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+@RunWith(Parameterized.class)
+public class JdbcEncryptedRawTransactionDAOTest {
+
+  private EntityManagerFactory entityManagerFactory;
+
+  private HikariDataSource dataSource;
+
+  private EncryptedRawTransactionDAO jpaDAO;
+
+  private EncryptedRawTransactionDAO encryptedRawTransactionDAO;
+
+  private TestConfig testConfig;
+
+  public JdbcEncryptedRawTransactionDAOTest(TestConfig testConfig) {
+    this.testConfig = testConfig;
+  }
+
+  @Before
+  public void onSetUp() {
+
+    Map properties = new HashMap();
+    properties.put("javax.persistence.jdbc.url", testConfig.getUrl());
+    properties.put("javax.persistence.jdbc.user", "junit");
+    properties.put("javax.persistence.jdbc.password", "");
+    properties.put(
+        "eclipselink.logging.logger", "org.eclipse.persistence.logging.slf4j.SLF4JLogger");
+    properties.put("eclipselink.logging.level", "FINE");
+    properties.put("eclipselink.logging.parameters", "true");
+    properties.put("eclipselink.logging.level.sql", "FINE");
+    properties.put("javax.persistence.schema-generation.database.action", "drop-and-create");
+
+    entityManagerFactory = Persistence.createEntityManagerFactory("tessera", properties);
+
+    final HikariConfig hikariConfig = new HikariConfig();
+    hikariConfig.setJdbcUrl(testConfig.getUrl());
+    hikariConfig.setUsername("junit");
+    hikariConfig.setPassword("");
+    dataSource = new HikariDataSource(hikariConfig);
+
+    jpaDAO = new EncryptedRawTransactionDAOImpl(entityManagerFactory);
+    encryptedRawTransactionDAO = new JdbcEncryptedRawTransactionDAO(dataSource, jpaDAO);
+  }
+
+  @After
+  public void onTearDown() {
+    EntityManager entityManager = entityManagerFactory.createEntityManager();
+    entityManager.getTransaction().begin();
+    entityManager.createQuery("delete from EncryptedRawTransaction").executeUpdate();
+    entityManager.getTransaction().commit();
+
+    dataSource.close();
+  }
+
+  @Test
+  public void retrieveByHashFindsTransactionThatIsPresent() {
+    final MessageHash hash = new MessageHash(UUID.randomUUID().toString().getBytes());
+    jpaDAO.save(
+        new EncryptedRawTransaction(
+            hash,
+            "payload".getBytes(),
+            "key".getBytes(),
+            "nonce".getBytes(),
+            "sender".getBytes()));
+
+    final EncryptedRawTransaction expected = jpaDAO.retrieveByHash(hash).get();
+    final EncryptedRawTransaction result = encryptedRawTransactionDAO.retrieveByHash(hash).get();
+
+    assertThat(result.getHash()).isEqualTo(hash);
+    assertThat(result.getEncryptedPayload()).isEqualTo("payload".getBytes());
+    assertThat(result.getEncryptedKey()).isEqualTo("key".getBytes());
+    assertThat(result.getNonce()).isEqualTo("nonce".getBytes());
+    assertThat(result.getSender()).isEqualTo("sender".getBytes());
+    assertThat(result.getTimestamp()).isEqualTo(expected.getTimestamp()).isNotZero();
+  }
+
+  @Test
+  public void retrieveByHashOfMissingTransactionIsEmpty() {
+    final MessageHash hash = new MessageHash(UUID.randomUUID().toString().getBytes());
+
+    assertThat(encryptedRawTransactionDAO.retrieveByHash(hash)).isEmpty();
+  }
+
+  @Test
+  public void retrieveByHashWhenDatabaseIsUnavailable() throws Exception {
+    final DataSource unavailable = mock(DataSource.class);
+    final SQLException cause = new SQLException("unavailable");
+    when(unavailable.getConnection()).thenThrow(cause);
+
+    final EncryptedRawTransactionDAO dao = new JdbcEncryptedRawTransactionDAO(unavailable, jpaDAO);
+
+    final Throwable throwable =
+        catchThrowable(() -> dao.retrieveByHash(new MessageHash(new byte[] {1})));
+
+    assertThat(throwable).isExactlyInstanceOf(PersistenceException.class).hasCause(cause);
+  }
+
+  @Test
+  public void upcheck() throws Exception {
+    assertThat(encryptedRawTransactionDAO.upcheck()).isTrue();
+
+    final DataSource unavailable = mock(DataSource.class);
+    when(unavailable.getConnection()).thenThrow(new SQLException("unavailable"));
+
+    assertThat(new JdbcEncryptedRawTransactionDAO(unavailable, jpaDAO).upcheck()).isFalse();
+  }
+
+  @Test
+  public void everythingElseIsDelegated() {
+    final EncryptedRawTransactionDAO delegate = mock(EncryptedRawTransactionDAO.class);
+    final EncryptedRawTransactionDAO dao = new JdbcEncryptedRawTransactionDAO(dataSource, delegate);
+
+    final EncryptedRawTransaction transaction = mock(EncryptedRawTransaction.class);
+    final MessageHash hash = new MessageHash(new byte[] {1});
+
+    dao.save(transaction);
+    dao.delete(hash);
+    dao.transactionCount();
+    dao.retrieveTransactions(1, 2);
+
+    verify(delegate).save(transaction);
+    verify(delegate).delete(hash);
+    verify(delegate).transactionCount();
+    verify(delegate).retrieveTransactions(1, 2);
+    verifyNoMoreInteractions(delegate);
+  }
+
+  @Parameterized.Parameters(name = "DB {0}")
+  public static Collection<TestConfig> connectionDetails() {
+    return List.of(TestConfig.values());
+  }
+}
@@ -0,0 +1,255 @@
+package com.quorum.tessera.data.internal;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.quorum.tessera.data.*;
+import com.quorum.tessera.enclave.EncodedPayload;
+import com.quorum.tessera.enclave.PayloadEncoder;
+import com.quorum.tessera.encryption.PublicKey;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.Callable;
+import javax.persistence.*;
+import javax.sql.DataSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+@RunWith(Parameterized.class)
+public class JdbcEncryptedTransactionDAOTest {
+
+  private EntityManagerFactory entityManagerFactory;
+
+  private HikariDataSource dataSource;
+
+  private PayloadEncoder payloadEncoder;
+
+  private EncodedPayloadCache payloadCache;
+
+  private EncryptedTransactionDAO jpaDAO;
+
+  private EncryptedTransactionDAO encryptedTransactionDAO;
+
+  private TestConfig testConfig;
+
+  public JdbcEncryptedTransactionDAOTest(TestConfig testConfig) {
+    this.testConfig = testConfig;
+  }
+
+  @Before
+  public void onSetUp() {
+
+    Map properties = new HashMap();
+    properties.put("javax.persistence.jdbc.url", testConfig.getUrl());
+    properties.put("javax.persistence.jdbc.user", "junit");
+    properties.put("javax.persistence.jdbc.password", "");
+    properties.put(
+        "eclipselink.logging.logger", "org.eclipse.persistence.logging.slf4j.SLF4JLogger");
+    properties.put("eclipselink.logging.level", "FINE");
+    properties.put("eclipselink.logging.parameters", "true");
+    properties.put("eclipselink.logging.level.sql", "FINE");
+    properties.put("eclipselink.cache.shared.default", "false");
+    properties.put("javax.persistence.schema-generation.database.action", "create");
+
+    entityManagerFactory = Persistence.createEntityManagerFactory("tessera", properties);
+
+    final HikariConfig hikariConfig = new HikariConfig();
+    hikariConfig.setJdbcUrl(testConfig.getUrl());
+    hikariConfig.setUsername("junit");
+    hikariConfig.setPassword("");
+    dataSource = new HikariDataSource(hikariConfig);
+
+    payloadEncoder = mock(PayloadEncoder.class);
+    when(payloadEncoder.decode(any())).thenAnswer(invocation -> mock(EncodedPayload.class));
+    payloadCache = new EncodedPayloadCache(payloadEncoder, 1024);
+
+    jpaDAO =
+        new EncryptedTransactionDAOImpl(entityManagerFactory, payloadEncoder, payloadCache, true);
+    encryptedTransactionDAO =
+        new JdbcEncryptedTransactionDAO(dataSource, jpaDAO, payloadCache, true);
+  }
+
+  @After
+  public void onTearDown() {
+    EntityManager entityManager = entityManagerFactory.createEntityManager();
+    entityManager.getTransaction().begin();
+    entityManager.createQuery("delete from EncryptedTransactionBox").executeUpdate();
+    entityManager.createQuery("delete from EncryptedTransaction").executeUpdate();
+    entityManager.getTransaction().commit();
+
+    dataSource.close();
+  }
+
+  @Test
+  public void retrieveByHashFindsTransactionThatIsPresent() {
+    final MessageHash hash = new MessageHash(UUID.randomUUID().toString().getBytes());
+    jpaDAO.save(new EncryptedTransaction(hash, "PAYLOAD".getBytes()));
+
+    final EncryptedTransaction expected = jpaDAO.retrieveByHash(hash).get();
+    final EncryptedTransaction result = encryptedTransactionDAO.retrieveByHash(hash).get();
+
+    assertThat(result.getHash()).isEqualTo(hash);
+    assertThat(result.getEncodedPayload()).isEqualTo("PAYLOAD".getBytes());
+    assertThat(result.getTimestamp()).isEqualTo(expected.getTimestamp()).isNotZero();
+    assertThat(result.getVersion()).isEqualTo(expected.getVersion());
+    assertThat(result.getAddedRecipientBoxes()).isEmpty();
+  }
+
+  @Test
+  public void retrieveByHashOfMissingTransactionIsEmpty() {
+    final MessageHash hash = new MessageHash(UUID.randomUUID().toString().getBytes());
+
+    assertThat(encryptedTransactionDAO.retrieveByHash(hash)).isEmpty();
+  }
+
+  @Test
+  public void retrieveByHashIncludesBoxesAddedUpToItsVersion() {
+    final MessageHash hash = new MessageHash(UUID.randomUUID().toString().getBytes());
+    jpaDAO.save(new EncryptedTransaction(hash, "PAYLOAD".getBytes()));
+
+    final EncryptedTransaction transaction = jpaDAO.retrieveByHash(hash).get();
+    final PublicKey recipient = PublicKey.from("RECIPIENT".getBytes());
+    jpaDAO.addRecipientBox(transaction, recipient, new byte[] {7});
+    jpaDAO.addRecipientBox(transaction, null, new byte[] {8});
+
+    // a box added after the transaction row was read
+    final EntityManager entityManager = entityManagerFactory.createEntityManager();
+    entityManager.getTransaction().begin();
+    entityManager.persist(
+        new EncryptedTransactionBox(
+            hash.getHashBytes(), transaction.getVersion() + 1, null, new byte[] {9}));
+    entityManager.getTransaction().commit();
+
+    final EncryptedTransaction result = encryptedTransactionDAO.retrieveByHash(hash).get();
+
+    assertThat(result.getVersion()).isEqualTo(transaction.getVersion());
+    assertThat(result.getAddedRecipientBoxes())
+        .extracting(EncryptedTransactionBox::getRecipientBox)
+        .containsExactly(new byte[] {7}, new byte[] {8});
+    assertThat(result.getAddedRecipientBoxes().get(0).getRecipientKey())
+        .isEqualTo(recipient.getKeyBytes());
+    assertThat(result.getAddedRecipientBoxes().get(1).getRecipientKey()).isNull();
+  }
+
+  @Test
+  public void retrieveByHashDoesNotReadBoxesUnlessAppended() {
+    final MessageHash hash = new MessageHash(UUID.randomUUID().toString().getBytes());
+    jpaDAO.save(new EncryptedTransaction(hash, "PAYLOAD".getBytes()));
+    jpaDAO.addRecipientBox(jpaDAO.retrieveByHash(hash).get(), null, new byte[] {7});
+
+    final EncryptedTransactionDAO dao =
+        new JdbcEncryptedTransactionDAO(dataSource, jpaDAO, payloadCache, false);
+
+    assertThat(dao.retrieveByHash(hash).get().getAddedRecipientBoxes()).isEmpty();
+  }
+
+  @Test
+  public void retrievedTransactionCanBeUpdated() {
+    final MessageHash hash = new MessageHash(UUID.randomUUID().toString().getBytes());
+    jpaDAO.save(new EncryptedTransaction(hash, "PAYLOAD".getBytes()));
+
+    final EncryptedTransaction first = encryptedTransactionDAO.retrieveByHash(hash).get();
+    final EncryptedTransaction second = encryptedTransactionDAO.retrieveByHash(hash).get();
+
+    first.setEncodedPayload("UPDATED".getBytes());
+    encryptedTransactionDAO.update(first);
+
+    assertThat(encryptedTransactionDAO.retrieveByHash(hash).get().getEncodedPayload())
+        .isEqualTo("UPDATED".getBytes());
+
+    second.setEncodedPayload("STALE".getBytes());
+    final Throwable throwable = catchThrowable(() -> encryptedTransactionDAO.update(second));
+
+    assertThat(throwable).isInstanceOf(OptimisticLockException.class);
+  }
+
+  @Test
+  public void retrievePayloadByHashIsCached() {
+    final MessageHash hash = new MessageHash(UUID.randomUUID().toString().getBytes());
+    jpaDAO.save(new EncryptedTransaction(hash, "PAYLOAD".getBytes()));
+
+    final EncodedPayload first = encryptedTransactionDAO.retrievePayloadByHash(hash).get();
+
+    assertThat(encryptedTransactionDAO.retrievePayloadByHash(hash)).containsSame(first);
+    assertThat(encryptedTransactionDAO.decodePayload(jpaDAO.retrieveByHash(hash).get()))
+        .isSameAs(first);
+    verify(payloadEncoder).decode("PAYLOAD".getBytes());
+  }
+
+  @Test
+  public void upcheck() {
+    assertThat(encryptedTransactionDAO.upcheck()).isTrue();
+  }
+
+  @Test
+  public void upcheckFailsWhenDatabaseIsUnavailable() throws Exception {
+    final DataSource unavailable = mock(DataSource.class);
+    when(unavailable.getConnection()).thenThrow(new SQLException("unavailable"));
+
+    final EncryptedTransactionDAO dao =
+        new JdbcEncryptedTransactionDAO(unavailable, jpaDAO, payloadCache, false);
+
+    assertThat(dao.upcheck()).isFalse();
+  }
+
+  @Test
+  public void retrieveByHashWhenDatabaseIsUnavailable() throws Exception {
+    final DataSource unavailable = mock(DataSource.class);
+    final SQLException cause = new SQLException("unavailable");
+    when(unavailable.getConnection()).thenThrow(cause);
+
+    final EncryptedTransactionDAO dao =
+        new JdbcEncryptedTransactionDAO(unavailable, jpaDAO, payloadCache, false);
+
+    final Throwable throwable =
+        catchThrowable(() -> dao.retrieveByHash(new MessageHash(new byte[] {1})));
+
+    assertThat(throwable).isExactlyInstanceOf(PersistenceException.class).hasCause(cause);
+  }
+
+  @Test
+  public void everythingElseIsDelegated() throws Exception {
+    final EncryptedTransactionDAO delegate = mock(EncryptedTransactionDAO.class);
+    final EncryptedTransactionDAO dao =
+        new JdbcEncryptedTransactionDAO(dataSource, delegate, payloadCache, false);
+
+    final EncryptedTransaction transaction = mock(EncryptedTransaction.class);
+    final MessageHash hash = new MessageHash(new byte[] {1});
+    final PublicKey recipient = PublicKey.from("RECIPIENT".getBytes());
+    final Callable<Object> callback = mock(Callable.class);
+
+    dao.save(transaction);
+    dao.update(transaction);
+    dao.addRecipientBox(transaction, recipient, new byte[] {7});
+    dao.findByHashes(List.of(hash));
+    dao.findPayloadsByHashes(List.of(hash));
+    dao.retrieveTransactions(1, 2);
+    dao.retrieveTransactionsAfter(hash, 2);
+    dao.transactionCount();
+    dao.delete(hash);
+    dao.save(transaction, callback);
+
+    verify(delegate).save(transaction);
+    verify(delegate).update(transaction);
+    verify(delegate).addRecipientBox(transaction, recipient, new byte[] {7});
+    verify(delegate).findByHashes(List.of(hash));
+    verify(delegate).findPayloadsByHashes(List.of(hash));
+    verify(delegate).retrieveTransactions(1, 2);
+    verify(delegate).retrieveTransactionsAfter(hash, 2);
+    verify(delegate).transactionCount();
+    verify(delegate).delete(hash);
+    verify(delegate).save(transaction, callback);
+    verifyNoMoreInteractions(delegate);
+    verifyNoInteractions(transaction, callback);
+  }
+
+  @Parameterized.Parameters(name = "DB {0}")
+  public static Collection<TestConfig> connectionDetails() {
+    return List.of(TestConfig.values());
+  }
+}
@@ -61,6 +61,7 @@ public class PrivacyGroupDAOTest {
   public void onTearDown() {
     EntityManager entityManager = ENTITY_MANAGER.get();
     entityManager.getTransaction().begin();
+    entityManager.createNativeQuery("delete from PRIVACY_GROUP_MEMBER").executeUpdate();
     entityManager.createQuery("delete from PrivacyGroupEntity ").executeUpdate();
     entityManager.getTransaction().commit();
     ENTITY_MANAGER.remove();
@@ -185,6 +186,71 @@ public class PrivacyGroupDAOTest {
     assertThat(pgs).containsExactlyInAnyOrder(entity, another);
   }
 
+  @Test
+  public void saveAndFindByTypeAndState() {
+    assertThat(privacyGroupDAO.findByTypeAndState("RESIDENT", "ACTIVE")).isEmpty();
+
+    final PrivacyGroupEntity resident = indexed("id1", "RESIDENT", "ACTIVE");
+    privacyGroupDAO.save(resident);
+    privacyGroupDAO.save(indexed("id2", "RESIDENT", "DELETED"));
+    privacyGroupDAO.save(indexed("id3", "PANTHEON", "ACTIVE"));
+    privacyGroupDAO.save(
+        new PrivacyGroupEntity("id4".getBytes(), "lookup".getBytes(), "data".getBytes()));
+
+    final List<PrivacyGroupEntity> pgs = privacyGroupDAO.findByTypeAndState("RESIDENT", "ACTIVE");
+    assertThat(pgs).containsExactly(resident);
+    assertThat(pgs.get(0).getType()).isEqualTo("RESIDENT");
+    assertThat(pgs.get(0).getState()).isEqualTo("ACTIVE");
+  }
+
+  @Test
+  public void saveAndFindByMemberAndState() {
+    assertThat(privacyGroupDAO.findByMemberAndState("member1".getBytes(), "ACTIVE")).isEmpty();
+
+    final PrivacyGroupEntity entity = indexed("id1", "PANTHEON", "ACTIVE");
+    entity.setMembers(List.of("member1".getBytes(), "member2".getBytes()));
+    privacyGroupDAO.save(entity);
+    final PrivacyGroupEntity another = indexed("id2", "PANTHEON", "ACTIVE");
+    another.setMembers(List.of("member2".getBytes()));
+    privacyGroupDAO.save(another);
+    final PrivacyGroupEntity deleted = indexed("id3", "PANTHEON", "DELETED");
+    deleted.setMembers(List.of("member1".getBytes()));
+    privacyGroupDAO.save(deleted);
+
+    assertThat(privacyGroupDAO.findByMemberAndState("member1".getBytes(), "ACTIVE"))
+        .containsExactly(entity);
+    assertThat(privacyGroupDAO.findByMemberAndState("member2".getBytes(), "ACTIVE"))
+        .containsExactlyInAnyOrder(entity, another);
+    assertThat(privacyGroupDAO.findByMemberAndState("member3".getBytes(), "ACTIVE")).isEmpty();
+  }
+
+  @Test
+  public void updateMembers() {
+    final PrivacyGroupEntity entity = indexed("id", "PANTHEON", "ACTIVE");
+    entity.setMembers(List.of("member1".getBytes()));
+    privacyGroupDAO.save(entity);
+
+    entity.setMembers(List.of("member2".getBytes()));
+    entity.setState("DELETED");
+    privacyGroupDAO.update(entity);
+
+    assertThat(privacyGroupDAO.findByMemberAndState("member1".getBytes(), "DELETED")).isEmpty();
+    assertThat(privacyGroupDAO.findByMemberAndState("member2".getBytes(), "DELETED"))
+        .containsExactly(entity);
+  }
+
+  @Test
+  public void saveAndFindUnindexed() {
+    assertThat(privacyGroupDAO.findUnindexed()).isEmpty();
+
+    final PrivacyGroupEntity legacy =
+        new PrivacyGroupEntity("id1".getBytes(), "lookup".getBytes(), "data".getBytes());
+    privacyGroupDAO.save(legacy);
+    privacyGroupDAO.save(indexed("id2", "LEGACY", "ACTIVE"));
+
+    assertThat(privacyGroupDAO.findUnindexed()).containsExactly(legacy);
+  }
+
   @Test
   public void savePrivacyGroupWithCallback() throws Exception {
     final PrivacyGroupEntity entity =
@@ -404,6 +470,14 @@ public class PrivacyGroupDAOTest {
     }
   }
 
+  private static PrivacyGroupEntity indexed(String id, String type, String state) {
+    final PrivacyGroupEntity entity =
+        new PrivacyGroupEntity(id.getBytes(), "lookup".getBytes(), "data".getBytes());
+    entity.setType(type);
+    entity.setState(state);
+    return entity;
+  }
+
   @Parameterized.Parameters(name = "DB {0}")
   public static Collection<TestConfig> connectionDetails() {
     return List.of(TestConfig.values());
@@ -10,6 +10,7 @@ import com.quorum.tessera.enclave.*;
 import com.quorum.tessera.encryption.Nonce;
 import com.quorum.tessera.encryption.PublicKey;
 import java.util.*;
+import java.util.stream.Collectors;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -103,6 +104,40 @@ public class StagingTransactionUtilsTest {
             });
   }
 
+  @Test
+  public void testFromRawPayloads() {
+
+    final List<byte[]> rawPayloads =
+        List.of("cipherText1", "cipherText2").stream()
+            .map(
+                cipherText ->
+                    EncodedPayload.Builder.create()
+                        .withSenderKey(sender)
+                        .withCipherText(cipherText.getBytes())
+                        .withCipherTextNonce(new Nonce("nonce".getBytes()))
+                        .withRecipientBoxes(List.of("box1".getBytes()))
+                        .withRecipientNonce(new Nonce("recipientNonce".getBytes()))
+                        .withRecipientKeys(List.of(recipient1))
+                        .withPrivacyMode(PrivacyMode.STANDARD_PRIVATE)
+                        .build())
+            .map(encoder::encode)
+            .collect(Collectors.toList());
+
+    final List<StagingTransaction> results = StagingTransactionUtils.fromRawPayloads(rawPayloads);
+
+    assertThat(results).hasSize(2);
+    assertThat(results)
+        .extracting(StagingTransaction::getPayload)
+        .containsExactlyElementsOf(rawPayloads);
+    assertThat(results)
+        .extracting(StagingTransaction::getHash)
+        .containsExactly(
+            Base64.getEncoder().encodeToString(payloadDigest.digest("cipherText1".getBytes())),
+            Base64.getEncoder().encodeToString(payloadDigest.digest("cipherText2".getBytes())));
+    assertThat(results)
+        .allSatisfy(result -> assertThat(result.getAffectedContractTransactions()).isEmpty());
+  }
+
   @Parameterized.Parameters(name = "{0}")
   public static List<ClientMode> configs() {
     return List.of(ClientMode.values());
@@ -1,6 +1,7 @@
 package com.quorum.tessera.data.staging.internal;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
 import static org.mockito.Mockito.*;
 
 import com.quorum.tessera.data.TestConfig;
@@ -9,6 +10,8 @@ import com.quorum.tessera.data.staging.StagingAffectedTransaction;
 import com.quorum.tessera.data.staging.StagingEntityDAO;
 import com.quorum.tessera.data.staging.StagingTransaction;
 import com.quorum.tessera.enclave.PrivacyMode;
+import java.sql.Connection;
+import java.sql.SQLException;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
@@ -199,6 +202,83 @@ public class StagingEntityDAOTest {
     assertThat(stagingEntityDAO.countStaged()).isEqualTo(6);
   }
 
+  @Test
+  public void stageAllStagesTransactionsInOnePass() {
+
+    final OptionalInt stagedCount = stagingEntityDAO.stageAll(Long.MAX_VALUE);
+
+    assertThat(stagedCount).hasValue(6);
+
+    final Map<Long, Long> stages = new HashMap<>();
+    stagingEntityDAO
+        .retrieveTransactionBatchOrderByStageAndHash(0, Integer.MAX_VALUE)
+        .forEach(st -> stages.put(st.getId(), st.getValidationStage()));
+
+    // the same stages as the staging query assigns
+    assertThat(stages.get(1L)).isEqualTo(1L);
+    assertThat(stages.get(21L)).isEqualTo(2L);
+    assertThat(stages.get(22L)).isEqualTo(2L);
+    assertThat(stages.get(3L)).isEqualTo(2L);
+    assertThat(stages.get(4L)).isEqualTo(3L);
+    assertThat(stages.get(7L)).isEqualTo(4L);
+    assertThat(stages.get(5L)).isNull();
+
+    assertThat(stagingEntityDAO.countAll()).isEqualTo(7);
+    assertThat(stagingEntityDAO.countStaged()).isEqualTo(6);
+  }
+
+  @Test
+  public void stageAllStagesNothingWhenOverMemoryBudget() {
+
+    final OptionalInt stagedCount = stagingEntityDAO.stageAll(1L);
+
+    assertThat(stagedCount).isEmpty();
+    assertThat(stagingEntityDAO.countStaged()).isZero();
+  }
+
+  @Test
+  public void stageAllWritesStagesInSeveralBatches() {
+
+    final StagingEntityDAO smallBatchDAO = new StagingEntityDAOImpl(entityManagerFactory, 2);
+
+    assertThat(smallBatchDAO.stageAll(Long.MAX_VALUE)).hasValue(6);
+    assertThat(stagingEntityDAO.countStaged()).isEqualTo(6);
+  }
+
+  @Test
+  public void stageAllWrapsJdbcFailure() throws Exception {
+
+    final TypedQuery<Long> countQuery = mock(TypedQuery.class);
+    when(countQuery.getSingleResult()).thenReturn(1L);
+    final TypedQuery<Object[]> transactionQuery = mock(TypedQuery.class);
+    when(transactionQuery.getResultList())
+        .thenReturn(List.<Object[]>of(new Object[] {1L, "A", null}));
+    final TypedQuery<Object[]> affectedQuery = mock(TypedQuery.class);
+    when(affectedQuery.getResultList()).thenReturn(List.of());
+
+    final SQLException sqlException = new SQLException("OUCH");
+    final Connection connection = mock(Connection.class);
+    when(connection.prepareStatement(anyString())).thenThrow(sqlException);
+
+    final EntityManager entityManager = mock(EntityManager.class);
+    when(entityManager.getTransaction()).thenReturn(mock(EntityTransaction.class));
+    when(entityManager.createNamedQuery(anyString(), eq(Long.class))).thenReturn(countQuery);
+    when(entityManager.createNamedQuery("StagingTransaction.findAllStages", Object[].class))
+        .thenReturn(transactionQuery);
+    when(entityManager.createNamedQuery("StagingAffectedTransaction.findAllHashes", Object[].class))
+        .thenReturn(affectedQuery);
+    when(entityManager.unwrap(Connection.class)).thenReturn(connection);
+
+    final EntityManagerFactory mockEntityManagerFactory = mock(EntityManagerFactory.class);
+    when(mockEntityManagerFactory.createEntityManager()).thenReturn(entityManager);
+
+    final Throwable throwable =
+        catchThrowable(
+            () -> new StagingEntityDAOImpl(mockEntityManagerFactory).stageAll(Long.MAX_VALUE));
+
+    assertThat(throwable).isInstanceOf(PersistenceException.class).hasCause(sqlException);
+  }
+
   @Test
   public void testRetrieveTransactionByHash() {
 
@@ -264,6 +344,51 @@ public class StagingEntityDAOTest {
     retrieved.getAffectedContractTransactions().forEach(a -> assertThat(a.getId()).isNotNull());
   }
 
+  @Test
+  public void saveAllPersistsTransactionsWithAffectedTransactions() {
+
+    final List<StagingTransaction> batch = createBatch(3);
+
+    assertThat(stagingEntityDAO.saveAll(batch)).isEqualTo(3);
+
+    assertThat(stagingEntityDAO.countAll()).isEqualTo(10);
+    batch.forEach(
+        stagingTransaction -> {
+          final StagingTransaction retrieved =
+              stagingEntityDAO.retrieveByHash(stagingTransaction.getHash()).get();
+          assertThat(retrieved.getValidationStage()).isNull();
+          assertThat(retrieved.getAffectedContractTransactions())
+              .extracting(StagingAffectedTransaction::getHash)
+              .containsExactly(transactions.get("TXN1").getHash());
+        });
+  }
+
+  @Test
+  public void saveAllFlushesInSeveralBatches() {
+
+    final StagingEntityDAO smallBatchDAO = new StagingEntityDAOImpl(entityManagerFactory, 2);
+
+    assertThat(smallBatchDAO.saveAll(createBatch(5))).isEqualTo(5);
+    assertThat(stagingEntityDAO.countAll()).isEqualTo(12);
+  }
+
+  private List<StagingTransaction> createBatch(int size) {
+    final List<StagingTransaction> batch = new ArrayList<>();
+    for (int i = 0; i < size; i++) {
+      final StagingTransaction stagingTransaction = new StagingTransaction();
+      stagingTransaction.setHash(Utils.createHashStr());
+      stagingTransaction.setPrivacyMode(PrivacyMode.STANDARD_PRIVATE);
+
+      final StagingAffectedTransaction affected = new StagingAffectedTransaction();
+      affected.setSourceTransaction(stagingTransaction);
+      affected.setHash(transactions.get("TXN1").getHash());
+      stagingTransaction.getAffectedContractTransactions().add(affected);
+
+      batch.add(stagingTransaction);
+    }
+    return batch;
+  }
+
   public Map<String, StagingTransaction> createFixtures() {
 
     final EntityManager entityManager = entityManagerFactory.createEntityManager();
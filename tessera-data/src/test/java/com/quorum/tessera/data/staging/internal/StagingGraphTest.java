@@ -0,0 +1,123 @@
+package com.quorum.tessera.data.staging.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import org.junit.Test;
+
+public class StagingGraphTest {
+
+  @Test
+  public void transactionsWithoutDependenciesAreFirstStage() {
+    final StagingGraph graph =
+        StagingGraph.stage(
+            List.of(new Object[] {1L, "A", null}, new Object[] {2L, "B", null}), List.of());
+
+    assertThat(graph.getStagedCount()).isEqualTo(2);
+    assertThat(graph.getStage(0)).isEqualTo(1L);
+    assertThat(graph.getStage(1)).isEqualTo(1L);
+  }
+
+  @Test
+  public void transactionIsStagedAfterLatestDependency() {
+    // C affects A and B, B affects A
+    final StagingGraph graph =
+        StagingGraph.stage(
+            List.of(
+                new Object[] {1L, "A", null},
+                new Object[] {2L, "B", null},
+                new Object[] {3L, "C", null}),
+            List.of(new Object[] {3L, "A"}, new Object[] {3L, "B"}, new Object[] {2L, "A"}));
+
+    assertThat(graph.getStagedCount()).isEqualTo(3);
+    assertThat(graph.getStage(0)).isEqualTo(1L);
+    assertThat(graph.getStage(1)).isEqualTo(2L);
+    assertThat(graph.getStage(2)).isEqualTo(3L);
+  }
+
+  @Test
+  public void transactionsInCycleAreNotStaged() {
+    final StagingGraph graph =
+        StagingGraph.stage(
+            List.of(
+                new Object[] {1L, "A", null},
+                new Object[] {2L, "B", null},
+                new Object[] {3L, "C", null}),
+            List.of(new Object[] {1L, "B"}, new Object[] {2L, "A"}, new Object[] {3L, "A"}));
+
+    assertThat(graph.getStagedCount()).isZero();
+    for (int i = 0; i < graph.size(); i++) {
+      assertThat(graph.isNewlyStaged(i)).isFalse();
+      assertThat(graph.getStage(i)).isZero();
+    }
+  }
+
+  @Test
+  public void transactionAffectingUnknownTransactionIsNotStaged() {
+    final StagingGraph graph =
+        StagingGraph.stage(
+            List.of(new Object[] {1L, "A", null}, new Object[] {2L, "B", null}),
+            List.of(new Object[] {1L, "UNKNOWN"}, new Object[] {2L, "A"}));
+
+    assertThat(graph.getStagedCount()).isZero();
+    assertThat(graph.getStage(0)).isZero();
+    assertThat(graph.getStage(1)).isZero();
+  }
+
+  @Test
+  public void alreadyStagedTransactionsAreKept() {
+    final StagingGraph graph =
+        StagingGraph.stage(
+            List.of(new Object[] {1L, "A", 5L}, new Object[] {2L, "B", null}),
+            List.<Object[]>of(new Object[] {2L, "A"}));
+
+    assertThat(graph.getStagedCount()).isEqualTo(1);
+    assertThat(graph.isNewlyStaged(0)).isFalse();
+    assertThat(graph.getStage(0)).isEqualTo(5L);
+    assertThat(graph.isNewlyStaged(1)).isTrue();
+    assertThat(graph.getStage(1)).isEqualTo(6L);
+    assertThat(graph.getId(1)).isEqualTo(2L);
+  }
+
+  @Test
+  public void everyVersionOfAffectedTransactionMustBeStaged() {
+    // two versions of A, one already staged; B can only follow once the other is staged too
+    final StagingGraph graph =
+        StagingGraph.stage(
+            List.of(
+                new Object[] {1L, "A", 2L},
+                new Object[] {2L, "A", null},
+                new Object[] {3L, "B", null}),
+            List.<Object[]>of(new Object[] {3L, "A"}));
+
+    assertThat(graph.getStage(1)).isEqualTo(1L);
+    assertThat(graph.getStage(2)).isEqualTo(3L);
+  }
+
+  @Test
+  public void transactionWaitsForManyVersions() {
+    final List<Object[]> transactions =
+        LongStream.rangeClosed(1, 20)
+            .mapToObj(id -> new Object[] {id, "A", null})
+            .collect(Collectors.toList());
+    transactions.add(new Object[] {21L, "B", null});
+
+    final StagingGraph graph =
+        StagingGraph.stage(transactions, List.<Object[]>of(new Object[] {21L, "A"}));
+
+    assertThat(graph.getStagedCount()).isEqualTo(21);
+    assertThat(graph.getStage(0)).isEqualTo(1L);
+    assertThat(graph.getStage(19)).isEqualTo(1L);
+    assertThat(graph.getStage(20)).isEqualTo(2L);
+  }
+
+  @Test
+  public void estimateSize() {
+    assertThat(StagingGraph.estimateSize(2, 3))
+        .isEqualTo(
+            2 * StagingGraph.BYTES_PER_TRANSACTION
+                + 3 * StagingGraph.BYTES_PER_AFFECTED_TRANSACTION);
+  }
+}
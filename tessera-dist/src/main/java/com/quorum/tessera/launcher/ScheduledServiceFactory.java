@@ -2,6 +2,7 @@ package com.quorum.tessera.launcher;
 
 import com.quorum.tessera.config.Config;
 import com.quorum.tessera.config.util.IntervalPropertyHelper;
+import com.quorum.tessera.config.util.ServerPropertyHelper;
 import com.quorum.tessera.discovery.EnclaveKeySynchroniser;
 import com.quorum.tessera.enclave.Enclave;
 import com.quorum.tessera.p2p.partyinfo.PartyInfoBroadcaster;
@@ -10,10 +11,12 @@ import com.quorum.tessera.p2p.resend.SyncPoller;
 import com.quorum.tessera.p2p.resend.TransactionRequester;
 import com.quorum.tessera.partyinfo.P2pClient;
 import com.quorum.tessera.service.ServiceContainer;
+import com.quorum.tessera.threading.ExecutorFactory;
 import com.quorum.tessera.threading.TesseraScheduledExecutor;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.ServiceLoader;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -51,11 +54,19 @@ public class ScheduledServiceFactory {
     P2pClient p2pClient = P2pClient.create();
     LOGGER.info("Created p2p client {}", p2pClient);
 
+    final ServerPropertyHelper serverPropertyHelper =
+        new ServerPropertyHelper(config.getP2PServerConfig().getProperties());
+    final ExecutorService publisherExecutor =
+        new ExecutorFactory()
+            .publisherExecutor(
+                serverPropertyHelper.publisherThreads(), serverPropertyHelper.publisherQueueSize());
+
     if (enableSync) {
 
       ResendPartyStore resendPartyStore = ResendPartyStore.create();
       TransactionRequester transactionRequester = TransactionRequester.create();
-      SyncPoller syncPoller = new SyncPoller(resendPartyStore, transactionRequester, p2pClient);
+      SyncPoller syncPoller =
+          new SyncPoller(publisherExecutor, resendPartyStore, transactionRequester, p2pClient);
       ScheduledExecutorService scheduledExecutorService =
           java.util.concurrent.Executors.newSingleThreadScheduledExecutor();
       tesseraScheduledExecutors.add(
@@ -81,7 +92,7 @@ public class ScheduledServiceFactory {
 
     LOGGER.info("Creating PartyInfoBroadcaster");
 
-    PartyInfoBroadcaster partyInfoPoller = new PartyInfoBroadcaster(p2pClient);
+    PartyInfoBroadcaster partyInfoPoller = new PartyInfoBroadcaster(p2pClient, publisherExecutor);
     LOGGER.info("Created PartyInfoBroadcaster {}", partyInfoPoller);
 
     tesseraScheduledExecutors.add(
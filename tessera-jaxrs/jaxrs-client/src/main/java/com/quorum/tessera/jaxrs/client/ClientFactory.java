@@ -2,7 +2,9 @@ package com.quorum.tessera.jaxrs.client;
 
 import com.quorum.tessera.config.ServerConfig;
 import com.quorum.tessera.config.util.IntervalPropertyHelper;
+import com.quorum.tessera.config.util.ServerPropertyHelper;
 import com.quorum.tessera.context.RestClientFactory;
+import com.quorum.tessera.jaxrs.http2.JerseyHttp2ConnectorProvider;
 import com.quorum.tessera.reflect.ReflectCallback;
 import com.quorum.tessera.ssl.context.SSLContextFactory;
 import java.lang.reflect.Method;
@@ -18,10 +20,17 @@ import javax.ws.rs.core.Configuration;
 /**
  * Creates HTTP clients that can make requests
  *
- * <p>Makes the client SSL enabled if specified
+ * <p>Makes the client SSL enabled if specified, and sends requests over pooled HTTP/2 connections
+ * if the {@code http2} property is set
  */
 public class ClientFactory implements RestClientFactory {
 
+  static final String UNIX_SOCKET_CONNECTOR_PROVIDER =
+      "com.quorum.tessera.jaxrs.unixsocket.JerseyUnixSocketConnectorProvider";
+
+  static final String HTTP2_CONNECTOR_PROVIDER =
+      "com.quorum.tessera.jaxrs.http2.JerseyHttp2ConnectorProvider";
+
   private final SSLContextFactory sslContextFactory;
 
   public ClientFactory(final SSLContextFactory sslContextFactory) {
@@ -32,14 +41,12 @@ public class ClientFactory implements RestClientFactory {
     this(com.quorum.tessera.ssl.context.ClientSSLContextFactory.create());
   }
 
-  private static Configuration createUnixServerSocketConfig() {
+  private static Configuration createConnectorConfig(final String connectorProviderName) {
 
     return ReflectCallback.execute(
         () -> {
           Class configType = Class.forName("org.glassfish.jersey.client.ClientConfig");
-          Class providerClass =
-              Class.forName(
-                  "com.quorum.tessera.jaxrs.unixsocket.JerseyUnixSocketConnectorProvider");
+          Class providerClass = Class.forName(connectorProviderName);
           Object config = configType.getDeclaredConstructor().newInstance();
           Object provider = providerClass.getDeclaredConstructor().newInstance();
           Method connectorProviderMethod =
@@ -55,8 +62,8 @@ public class ClientFactory implements RestClientFactory {
   }
 
   /**
-   * Creates a new client, which may or may not be SSL enabled or a unix socket enabled depending on
-   * the configuration.
+   * Creates a new client, which may or may not be SSL enabled, unix socket enabled or HTTP/2
+   * enabled depending on the configuration.
    *
    * @param config
    * @return
@@ -64,8 +71,19 @@ public class ClientFactory implements RestClientFactory {
    */
   public Client buildFrom(final ServerConfig config) {
 
+    final ServerPropertyHelper properties = new ServerPropertyHelper(config.getProperties());
+
     final ClientBuilder clientBuilder = ClientBuilder.newBuilder();
 
+    if (properties.http2()) {
+      clientBuilder
+          .withConfig(createConnectorConfig(HTTP2_CONNECTOR_PROVIDER))
+          .property(
+              JerseyHttp2ConnectorProvider.MAX_CONNECTIONS_PER_DESTINATION,
+              properties.maxConnectionsPerPeer())
+          .property(JerseyHttp2ConnectorProvider.IDLE_TIMEOUT, properties.connectionIdleTimeout());
+    }
+
     final long pollInterval =
         new IntervalPropertyHelper(config.getProperties()).partyInfoInterval();
     final long timeout = Math.round(Math.ceil(pollInterval * 0.75));
@@ -74,7 +92,7 @@ public class ClientFactory implements RestClientFactory {
     clientBuilder.register(VersionHeaderDecorator.class);
 
     if (config.isUnixSocket()) {
-      Configuration clientConfig = createUnixServerSocketConfig();
+      Configuration clientConfig = createConnectorConfig(UNIX_SOCKET_CONNECTOR_PROVIDER);
       URI unixfile = config.getServerUri();
       return ClientBuilder.newClient(clientConfig).property("unixfile", unixfile);
 
@@ -1,9 +1,11 @@
 module tessera.jaxrs.client {
   requires java.ws.rs;
+  requires jersey.client;
   requires tessera.config;
   requires tessera.security;
   requires tessera.shared;
   requires tessera.context;
+  requires tessera.server.jersey.http2;
 
   exports com.quorum.tessera.jaxrs.client;
 
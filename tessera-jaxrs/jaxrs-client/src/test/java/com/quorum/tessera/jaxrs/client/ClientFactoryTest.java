@@ -7,6 +7,7 @@ import com.quorum.tessera.config.AppType;
 import com.quorum.tessera.config.CommunicationType;
 import com.quorum.tessera.config.ServerConfig;
 import com.quorum.tessera.config.SslConfig;
+import com.quorum.tessera.jaxrs.http2.JerseyHttp2ConnectorProvider;
 import com.quorum.tessera.ssl.context.SSLContextFactory;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -15,6 +16,7 @@ import java.util.HashMap;
 import java.util.Map;
 import javax.net.ssl.SSLContext;
 import javax.ws.rs.client.Client;
+import org.glassfish.jersey.client.ClientConfig;
 import org.glassfish.jersey.client.ClientProperties;
 import org.junit.After;
 import org.junit.Before;
@@ -93,6 +95,31 @@ public class ClientFactoryTest {
         .isEqualTo("com.quorum.tessera.jaxrs.unixsocket.JerseyUnixSocketConnectorProvider");
   }
 
+  @Test
+  public void createHttp2Client() {
+    ServerConfig serverConfig = mock(ServerConfig.class);
+    when(serverConfig.isSsl()).thenReturn(false);
+    Map<String, String> props = new HashMap<>();
+    props.put("http2", "true");
+    props.put("maxConnectionsPerPeer", "4");
+    props.put("connectionIdleTimeout", "10000");
+    when(serverConfig.getProperties()).thenReturn(props);
+
+    org.glassfish.jersey.client.JerseyClient result =
+        (org.glassfish.jersey.client.JerseyClient) factory.buildFrom(serverConfig);
+
+    final ClientConfig configuration = result.getConfiguration();
+    assertThat(configuration.getConnectorProvider())
+        .isExactlyInstanceOf(JerseyHttp2ConnectorProvider.class);
+    assertThat(
+            configuration.getProperty(JerseyHttp2ConnectorProvider.MAX_CONNECTIONS_PER_DESTINATION))
+        .isEqualTo(4);
+    assertThat(configuration.getProperty(JerseyHttp2ConnectorProvider.IDLE_TIMEOUT))
+        .isEqualTo(10000L);
+    assertThat(result.getConfiguration().getProperty(ClientProperties.READ_TIMEOUT))
+        .isEqualTo(3750);
+  }
+
   @Test
   public void createDefaultInstance() {
     ClientFactory clientFactory = new ClientFactory();
@@ -8,12 +8,15 @@ import com.quorum.tessera.enclave.EncodedPayload;
 import com.quorum.tessera.enclave.PayloadEncoder;
 import com.quorum.tessera.enclave.PrivacyMode;
 import com.quorum.tessera.p2p.recovery.PushBatchRequest;
+import com.quorum.tessera.p2p.recovery.PushBatchStream;
 import com.quorum.tessera.recovery.workflow.BatchResendManager;
 import com.quorum.tessera.transaction.TransactionManager;
 import io.swagger.v3.oas.annotations.Hidden;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Objects;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
@@ -30,6 +33,9 @@ public class RecoveryResource {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(RecoveryResource.class);
 
+  /** The most payloads from a push batch stream to hold in memory and store at once */
+  static final int PUSH_BATCH_STREAM_CHUNK_SIZE = 100;
+
   private final TransactionManager transactionManager;
 
   private final BatchResendManager batchResendManager;
@@ -68,6 +74,35 @@ public class RecoveryResource {
     return Response.status(Response.Status.OK).build();
   }
 
+  // path /pushBatch is overloaded on content type; the binary variant is only sent to nodes that
+  // advertise StreamingRecoveryVersion, so hide it and document /pushBatch with the JSON operation
+  @Hidden
+  @POST
+  @Path("pushBatch")
+  @Consumes(APPLICATION_OCTET_STREAM)
+  public Response pushBatchStream(final InputStream pushBatchStream) {
+
+    LOGGER.debug("Received push batch stream");
+
+    final long count;
+    try {
+      count =
+          PushBatchStream.read(
+              pushBatchStream,
+              PUSH_BATCH_STREAM_CHUNK_SIZE,
+              encodedPayloads ->
+                  batchResendManager.storeResendBatch(
+                      com.quorum.tessera.recovery.resend.PushBatchRequest.from(encodedPayloads)));
+    } catch (IOException ex) {
+      LOGGER.warn("Unable to read push batch stream: {}", ex.getMessage());
+      LOGGER.debug(null, ex);
+      return Response.status(Response.Status.BAD_REQUEST).entity(ex.getMessage()).build();
+    }
+
+    LOGGER.debug("Push batch stream of {} payloads processed successfully", count);
+    return Response.status(Response.Status.OK).build();
+  }
+
   // path /push with application/octet-stream is overloaded (RecoveryResource &
   // TransactionResource); swagger annotations cannot handle situations like this so hide this
   // operation and use TransactionResource::push to document both
@@ -11,7 +11,6 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
 import javax.ws.rs.ProcessingException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,12 +33,12 @@ public class PartyInfoBroadcaster implements Runnable {
 
   private final PartyStore partyStore;
 
-  public PartyInfoBroadcaster(final P2pClient p2pClient) {
+  public PartyInfoBroadcaster(final P2pClient p2pClient, final Executor executor) {
     this(
         Discovery.create(),
         PartyInfoParser.create(),
         p2pClient,
-        Executors.newCachedThreadPool(),
+        executor,
         PartyStore.getInstance());
   }
 
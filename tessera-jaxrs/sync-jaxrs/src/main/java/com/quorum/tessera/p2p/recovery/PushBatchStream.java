@@ -0,0 +1,93 @@
+package com.quorum.tessera.p2p.recovery;
+
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * The binary form of a batch of encoded payloads pushed to a recovering node, sent as {@code
+ * application/octet-stream} to nodes that support {@link
+ * com.quorum.tessera.version.StreamingRecoveryVersion}.
+ *
+ * <p>Each payload is written as its length, as an 8 byte long, followed by the payload itself.
+ * Unlike the JSON {@link PushBatchRequest} the payloads are not base64 encoded, and the receiver
+ * can read them a few at a time as they arrive rather than holding the whole batch in memory.
+ */
+public final class PushBatchStream {
+
+  private static final int LENGTH_BYTES = Long.BYTES;
+
+  private PushBatchStream() {}
+
+  /**
+   * Write each payload to the stream, in order
+   *
+   * @param outputStream the stream to write to
+   * @param encodedPayloads the payloads to write
+   * @throws IOException if writing to the stream fails
+   */
+  public static void write(OutputStream outputStream, Iterable<byte[]> encodedPayloads)
+      throws IOException {
+    final DataOutputStream data = new DataOutputStream(outputStream);
+    for (byte[] encodedPayload : encodedPayloads) {
+      data.writeLong(encodedPayload.length);
+      data.write(encodedPayload);
+    }
+    data.flush();
+  }
+
+  /**
+   * Read payloads from the stream until it ends, handing them on in chunks of at most {@code
+   * chunkSize} payloads
+   *
+   * @param inputStream the stream to read from
+   * @param chunkSize the most payloads to pass to the consumer at once
+   * @param consumer called with each chunk of payloads, in the order they were read
+   * @return the number of payloads read
+   * @throws IOException if reading fails, or the stream ends part way through a payload
+   */
+  public static long read(InputStream inputStream, int chunkSize, Consumer<List<byte[]>> consumer)
+      throws IOException {
+    long count = 0;
+    List<byte[]> chunk = new ArrayList<>(chunkSize);
+
+    final byte[] lengthBytes = new byte[LENGTH_BYTES];
+    int read;
+    while ((read = inputStream.readNBytes(lengthBytes, 0, LENGTH_BYTES)) != 0) {
+      if (read < LENGTH_BYTES) {
+        throw new EOFException("Push batch stream ended part way through a payload length");
+      }
+
+      final long length = ByteBuffer.wrap(lengthBytes).getLong();
+      if (length < 0 || length > Integer.MAX_VALUE) {
+        throw new IOException("Invalid payload length " + length + " in push batch stream");
+      }
+
+      // the buffer only grows as data arrives, so a bogus length is never allocated up front
+      final byte[] encodedPayload = inputStream.readNBytes((int) length);
+      if (encodedPayload.length < length) {
+        throw new EOFException("Push batch stream ended part way through a payload");
+      }
+
+      chunk.add(encodedPayload);
+      count++;
+
+      if (chunk.size() == chunkSize) {
+        consumer.accept(chunk);
+        chunk = new ArrayList<>(chunkSize);
+      }
+    }
+
+    if (!chunk.isEmpty()) {
+      consumer.accept(chunk);
+    }
+
+    return count;
+  }
+}
@@ -2,12 +2,23 @@ package com.quorum.tessera.p2p.recovery;
 
 import com.quorum.tessera.p2p.resend.ResendClient;
 import com.quorum.tessera.serviceloader.ServiceLoaderUtil;
+import java.util.List;
 import java.util.ServiceLoader;
 
 public interface RecoveryClient extends ResendClient {
 
   boolean pushBatch(String targetUrl, PushBatchRequest request);
 
+  /**
+   * Push a batch of encoded payloads as a binary {@link PushBatchStream}, to a node that supports
+   * {@link com.quorum.tessera.version.StreamingRecoveryVersion}
+   *
+   * @param targetUrl the url of the recovering node
+   * @param encodedPayloads the payloads to push
+   * @return whether the batch was stored
+   */
+  boolean pushBatchStream(String targetUrl, List<byte[]> encodedPayloads);
+
   ResendBatchResponse makeBatchResendRequest(String targetUrl, ResendBatchRequest request);
 
   static RecoveryClient create() {
@@ -1,5 +1,6 @@
 package com.quorum.tessera.p2p.recovery;
 
+import com.quorum.tessera.discovery.Discovery;
 import com.quorum.tessera.enclave.PayloadEncoder;
 import com.quorum.tessera.recovery.resend.ResendBatchPublisher;
 
@@ -9,7 +10,8 @@ public class ResendBatchPublisherProvider {
 
     RecoveryClient client = RecoveryClient.create();
     PayloadEncoder payloadEncoder = PayloadEncoder.create();
+    Discovery discovery = Discovery.create();
 
-    return new RestResendBatchPublisher(payloadEncoder, client);
+    return new RestResendBatchPublisher(payloadEncoder, client, discovery);
   }
 }
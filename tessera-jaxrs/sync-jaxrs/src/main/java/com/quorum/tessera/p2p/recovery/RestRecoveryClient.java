@@ -1,11 +1,13 @@
 package com.quorum.tessera.p2p.recovery;
 
 import com.quorum.tessera.p2p.resend.ResendRequest;
+import java.util.List;
 import java.util.Objects;
 import javax.ws.rs.client.Client;
 import javax.ws.rs.client.Entity;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 
 public class RestRecoveryClient implements RecoveryClient {
 
@@ -38,6 +40,22 @@ public class RestRecoveryClient implements RecoveryClient {
     return Response.Status.OK.getStatusCode() == response.getStatus();
   }
 
+  @Override
+  public boolean pushBatchStream(String targetUrl, List<byte[]> encodedPayloads) {
+
+    final StreamingOutput pushBatchStream =
+        outputStream -> PushBatchStream.write(outputStream, encodedPayloads);
+
+    try (Response response =
+        client
+            .target(targetUrl)
+            .path("/pushBatch")
+            .request()
+            .post(Entity.entity(pushBatchStream, MediaType.APPLICATION_OCTET_STREAM))) {
+      return Response.Status.OK.getStatusCode() == response.getStatus();
+    }
+  }
+
   @Override
   public ResendBatchResponse makeBatchResendRequest(String targetUrl, ResendBatchRequest request) {
     final Response response =
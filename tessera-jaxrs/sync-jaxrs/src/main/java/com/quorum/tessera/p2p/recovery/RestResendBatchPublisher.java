@@ -1,9 +1,11 @@
 package com.quorum.tessera.p2p.recovery;
 
+import com.quorum.tessera.discovery.Discovery;
 import com.quorum.tessera.enclave.EncodedPayload;
 import com.quorum.tessera.enclave.PayloadEncoder;
 import com.quorum.tessera.recovery.resend.ResendBatchPublisher;
 import com.quorum.tessera.transaction.publish.PublishPayloadException;
+import com.quorum.tessera.version.StreamingRecoveryVersion;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
@@ -18,10 +20,15 @@ public class RestResendBatchPublisher implements ResendBatchPublisher {
 
   private final RecoveryClient resendClient;
 
+  private final Discovery discovery;
+
   public RestResendBatchPublisher(
-      final PayloadEncoder payloadEncoder, final RecoveryClient resendClient) {
+      final PayloadEncoder payloadEncoder,
+      final RecoveryClient resendClient,
+      final Discovery discovery) {
     this.payloadEncoder = Objects.requireNonNull(payloadEncoder);
     this.resendClient = Objects.requireNonNull(resendClient);
+    this.discovery = Objects.requireNonNull(discovery);
   }
 
   @Override
@@ -32,9 +39,12 @@ public class RestResendBatchPublisher implements ResendBatchPublisher {
     final List<byte[]> encodedPayloads =
         payloads.stream().map(payloadEncoder::encode).collect(Collectors.toList());
 
-    final PushBatchRequest pushBatchRequest = new PushBatchRequest(encodedPayloads);
-
-    final boolean result = resendClient.pushBatch(targetUrl, pushBatchRequest);
+    final boolean result;
+    if (supportsStreaming(targetUrl)) {
+      result = resendClient.pushBatchStream(targetUrl, encodedPayloads);
+    } else {
+      result = resendClient.pushBatch(targetUrl, new PushBatchRequest(encodedPayloads));
+    }
 
     if (!result) {
       throw new PublishPayloadException("Unable to push payload batch to recipient " + targetUrl);
@@ -42,4 +52,14 @@ public class RestResendBatchPublisher implements ResendBatchPublisher {
 
     LOGGER.info("Published to {}", targetUrl);
   }
+
+  private boolean supportsStreaming(String targetUrl) {
+    return discovery.getRemoteNodeInfos().stream()
+        .filter(nodeInfo -> targetUrl.equals(nodeInfo.getUrl()))
+        .anyMatch(
+            nodeInfo ->
+                nodeInfo
+                    .supportedApiVersions()
+                    .contains(StreamingRecoveryVersion.API_VERSION_3_1));
+  }
 }
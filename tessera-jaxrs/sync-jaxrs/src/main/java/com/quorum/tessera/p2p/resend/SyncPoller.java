@@ -11,7 +11,6 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -37,12 +36,13 @@ public class SyncPoller implements Runnable {
   private final PartyInfoParser partyInfoParser;
 
   public SyncPoller(
+      ExecutorService executorService,
       ResendPartyStore resendPartyStore,
       TransactionRequester transactionRequester,
       P2pClient p2pClient) {
 
     this(
-        Executors.newCachedThreadPool(),
+        executorService,
         resendPartyStore,
         transactionRequester,
         Discovery.create(),
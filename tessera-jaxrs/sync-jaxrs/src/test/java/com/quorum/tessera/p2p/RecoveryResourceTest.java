@@ -7,9 +7,16 @@ import com.quorum.tessera.enclave.EncodedPayload;
 import com.quorum.tessera.enclave.PayloadEncoder;
 import com.quorum.tessera.enclave.PrivacyMode;
 import com.quorum.tessera.p2p.recovery.PushBatchRequest;
+import com.quorum.tessera.p2p.recovery.PushBatchStream;
 import com.quorum.tessera.recovery.workflow.BatchResendManager;
 import com.quorum.tessera.transaction.TransactionManager;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
 import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import javax.ws.rs.core.Response;
 import org.junit.After;
 import org.junit.Before;
@@ -55,6 +62,42 @@ public class RecoveryResourceTest {
     assertThat(capturedRequest.getEncodedPayloads()).containsExactly("SomeData".getBytes());
   }
 
+  @Test
+  public void pushBatchStream() throws Exception {
+    final List<byte[]> encodedPayloads =
+        IntStream.range(0, RecoveryResource.PUSH_BATCH_STREAM_CHUNK_SIZE + 1)
+            .mapToObj(i -> ("SomeData" + i).getBytes())
+            .collect(Collectors.toList());
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    PushBatchStream.write(outputStream, encodedPayloads);
+
+    Response result =
+        recoveryResource.pushBatchStream(new ByteArrayInputStream(outputStream.toByteArray()));
+    assertThat(result.getStatus()).isEqualTo(200);
+
+    ArgumentCaptor<com.quorum.tessera.recovery.resend.PushBatchRequest> argCaptor =
+        ArgumentCaptor.forClass(com.quorum.tessera.recovery.resend.PushBatchRequest.class);
+    verify(resendManager, times(2)).storeResendBatch(argCaptor.capture());
+
+    assertThat(argCaptor.getAllValues())
+        .extracting(r -> r.getEncodedPayloads().size())
+        .containsExactly(RecoveryResource.PUSH_BATCH_STREAM_CHUNK_SIZE, 1);
+    assertThat(
+            argCaptor.getAllValues().stream()
+                .flatMap(r -> r.getEncodedPayloads().stream())
+                .collect(Collectors.toList()))
+        .containsExactlyElementsOf(encodedPayloads);
+  }
+
+  @Test
+  public void pushBatchStreamEndingPartWayThroughPayload() {
+    final byte[] truncated = ByteBuffer.allocate(Long.BYTES + 2).putLong(10L).array();
+
+    Response result = recoveryResource.pushBatchStream(new ByteArrayInputStream(truncated));
+
+    assertThat(result.getStatus()).isEqualTo(400);
+  }
+
   @Test
   public void pushAllowedForStandardPrivate() {
     final byte[] someData = "SomeData".getBytes();
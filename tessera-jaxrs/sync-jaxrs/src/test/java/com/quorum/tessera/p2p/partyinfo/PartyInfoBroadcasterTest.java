@@ -134,7 +134,8 @@ public class PartyInfoBroadcasterTest {
       partyInfoParserMockedStatic.when(PartyInfoParser::create).thenReturn(partyInfoParser);
       partyStoreMockedStatic.when(PartyStore::getInstance).thenReturn(partyStore);
 
-      PartyInfoBroadcaster partyInfoBroadcaster = new PartyInfoBroadcaster(mock(P2pClient.class));
+      PartyInfoBroadcaster partyInfoBroadcaster =
+          new PartyInfoBroadcaster(mock(P2pClient.class), executor);
       assertThat(partyInfoBroadcaster).isNotNull();
 
       discoveryMockedStatic.verify(Discovery::create);
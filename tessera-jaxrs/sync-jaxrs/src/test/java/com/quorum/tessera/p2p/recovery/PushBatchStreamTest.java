@@ -0,0 +1,103 @@
+package com.quorum.tessera.p2p.recovery;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Test;
+
+public class PushBatchStreamTest {
+
+  private final List<List<byte[]>> chunks = new ArrayList<>();
+
+  @Test
+  public void writeAndReadInChunks() throws IOException {
+    final List<byte[]> encodedPayloads =
+        List.of("ONE".getBytes(), new byte[0], "THREE".getBytes(), "4".getBytes(), "5".getBytes());
+
+    final long count = PushBatchStream.read(stream(encodedPayloads), 2, chunks::add);
+
+    assertThat(count).isEqualTo(5);
+    assertThat(chunks).extracting(List::size).containsExactly(2, 2, 1);
+    assertThat(chunks.stream().flatMap(List::stream).collect(Collectors.toList()))
+        .containsExactlyElementsOf(encodedPayloads);
+  }
+
+  @Test
+  public void readFullChunksOnly() throws IOException {
+    final List<byte[]> encodedPayloads = List.of("ONE".getBytes(), "TWO".getBytes());
+
+    assertThat(PushBatchStream.read(stream(encodedPayloads), 2, chunks::add)).isEqualTo(2);
+    assertThat(chunks).hasSize(1);
+  }
+
+  @Test
+  public void readEmptyStream() throws IOException {
+    assertThat(PushBatchStream.read(stream(List.of()), 2, chunks::add)).isZero();
+    assertThat(chunks).isEmpty();
+  }
+
+  @Test
+  public void streamEndsInLength() {
+    final ByteArrayInputStream inputStream = new ByteArrayInputStream(new byte[] {0, 0, 0});
+
+    final Throwable throwable =
+        catchThrowable(() -> PushBatchStream.read(inputStream, 2, chunks::add));
+
+    assertThat(throwable).isInstanceOf(EOFException.class);
+    assertThat(chunks).isEmpty();
+  }
+
+  @Test
+  public void streamEndsInPayload() throws IOException {
+    final byte[] data = stream(List.of("PAYLOAD".getBytes())).readAllBytes();
+    final ByteArrayInputStream inputStream =
+        new ByteArrayInputStream(Arrays.copyOf(data, data.length - 1));
+
+    final Throwable throwable =
+        catchThrowable(() -> PushBatchStream.read(inputStream, 2, chunks::add));
+
+    assertThat(throwable).isInstanceOf(EOFException.class);
+    assertThat(chunks).isEmpty();
+  }
+
+  @Test
+  public void negativeLength() {
+    final Throwable throwable =
+        catchThrowable(() -> PushBatchStream.read(length(-1L), 2, chunks::add));
+
+    assertThat(throwable)
+        .isExactlyInstanceOf(IOException.class)
+        .hasMessage("Invalid payload length -1 in push batch stream");
+  }
+
+  @Test
+  public void lengthTooLarge() {
+    final long length = Integer.MAX_VALUE + 1L;
+
+    final Throwable throwable =
+        catchThrowable(() -> PushBatchStream.read(length(length), 2, chunks::add));
+
+    assertThat(throwable)
+        .isExactlyInstanceOf(IOException.class)
+        .hasMessage("Invalid payload length " + length + " in push batch stream");
+  }
+
+  private static ByteArrayInputStream stream(List<byte[]> encodedPayloads) throws IOException {
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    PushBatchStream.write(outputStream, encodedPayloads);
+    return new ByteArrayInputStream(outputStream.toByteArray());
+  }
+
+  private static ByteArrayInputStream length(long length) {
+    return new ByteArrayInputStream(ByteBuffer.allocate(Long.BYTES).putLong(length).array());
+  }
+}
@@ -4,6 +4,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
 
+import com.quorum.tessera.discovery.Discovery;
 import com.quorum.tessera.enclave.PayloadEncoder;
 import com.quorum.tessera.recovery.resend.ResendBatchPublisher;
 import org.junit.Test;
@@ -13,7 +14,8 @@ public class ResendBatchPublisherProviderTest {
   @Test
   public void provider() {
     try (var recoveryClientMockedStatic = mockStatic(RecoveryClient.class);
-        var payloadEncoderMockedStatic = mockStatic(PayloadEncoder.class)) {
+        var payloadEncoderMockedStatic = mockStatic(PayloadEncoder.class);
+        var discoveryMockedStatic = mockStatic(Discovery.class)) {
 
       recoveryClientMockedStatic
           .when(RecoveryClient::create)
@@ -21,6 +23,7 @@ public class ResendBatchPublisherProviderTest {
       payloadEncoderMockedStatic
           .when(PayloadEncoder::create)
           .thenReturn(mock(PayloadEncoder.class));
+      discoveryMockedStatic.when(Discovery::create).thenReturn(mock(Discovery.class));
 
       ResendBatchPublisher resendBatchPublisher = ResendBatchPublisherProvider.provider();
       assertThat(resendBatchPublisher)
@@ -32,6 +35,9 @@ public class ResendBatchPublisherProviderTest {
 
       payloadEncoderMockedStatic.verify(PayloadEncoder::create);
       payloadEncoderMockedStatic.verifyNoMoreInteractions();
+
+      discoveryMockedStatic.verify(Discovery::create);
+      discoveryMockedStatic.verifyNoMoreInteractions();
     }
   }
 
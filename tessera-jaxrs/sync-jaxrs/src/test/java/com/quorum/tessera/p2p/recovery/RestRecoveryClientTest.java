@@ -4,17 +4,23 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
 
 import com.quorum.tessera.p2p.resend.ResendRequest;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import javax.ws.rs.client.Client;
 import javax.ws.rs.client.Entity;
 import javax.ws.rs.client.Invocation;
 import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
+import org.mockito.ArgumentCaptor;
 
 @RunWith(Parameterized.class)
 public class RestRecoveryClientTest {
@@ -120,6 +126,64 @@ public class RestRecoveryClientTest {
     }
   }
 
+  @Test
+  public void pushBatchStream() throws Exception {
+
+    try (var entityMockedStatic = mockStatic(Entity.class)) {
+
+      Entity<StreamingOutput> outboundEntity = mock(Entity.class);
+      ArgumentCaptor<StreamingOutput> streamingOutputCaptor =
+          ArgumentCaptor.forClass(StreamingOutput.class);
+
+      entityMockedStatic
+          .when(
+              () ->
+                  Entity.entity(
+                      streamingOutputCaptor.capture(), eq(MediaType.APPLICATION_OCTET_STREAM)))
+          .thenReturn(outboundEntity);
+
+      String targetUrl = "targetUrl";
+      Client client = mock(Client.class);
+      WebTarget webTarget = mock(WebTarget.class);
+      when(client.target(targetUrl)).thenReturn(webTarget);
+      when(webTarget.path("/pushBatch")).thenReturn(webTarget);
+
+      Invocation.Builder invocationBuilder = mock(Invocation.Builder.class);
+      when(webTarget.request()).thenReturn(invocationBuilder);
+
+      Response response = mock(Response.class);
+      when(response.getStatus()).thenReturn(expectedResponseStatus.getStatusCode());
+
+      when(invocationBuilder.post(outboundEntity)).thenReturn(response);
+
+      RestRecoveryClient restRecoveryClient = new RestRecoveryClient(client);
+
+      List<byte[]> encodedPayloads = List.of("ONE".getBytes(), "TWO".getBytes());
+      boolean outcome = restRecoveryClient.pushBatchStream(targetUrl, encodedPayloads);
+      assertThat(outcome).isEqualTo(expectedResponseStatus == Response.Status.OK);
+
+      ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+      streamingOutputCaptor.getValue().write(outputStream);
+      List<byte[]> written = new ArrayList<>();
+      PushBatchStream.read(
+          new ByteArrayInputStream(outputStream.toByteArray()), 10, written::addAll);
+      assertThat(written).containsExactlyElementsOf(encodedPayloads);
+
+      entityMockedStatic.verify(
+          () -> Entity.entity(any(StreamingOutput.class), eq(MediaType.APPLICATION_OCTET_STREAM)));
+      entityMockedStatic.verifyNoMoreInteractions();
+
+      verify(client).target(targetUrl);
+      verify(webTarget).path("/pushBatch");
+      verify(webTarget).request();
+      verify(invocationBuilder).post(outboundEntity);
+      verify(response).getStatus();
+      verify(response).close();
+
+      verifyNoMoreInteractions(outboundEntity, client, webTarget, invocationBuilder, response);
+    }
+  }
+
   @Test
   public void makeBatchResendRequest() {
 
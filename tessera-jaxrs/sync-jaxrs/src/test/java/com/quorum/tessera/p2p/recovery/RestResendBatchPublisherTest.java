@@ -4,15 +4,20 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.catchThrowableOfType;
 import static org.mockito.Mockito.*;
 
+import com.quorum.tessera.discovery.Discovery;
 import com.quorum.tessera.enclave.EncodedPayload;
 import com.quorum.tessera.enclave.PayloadEncoder;
+import com.quorum.tessera.partyinfo.node.NodeInfo;
 import com.quorum.tessera.transaction.publish.PublishPayloadException;
+import com.quorum.tessera.version.StreamingRecoveryVersion;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import org.junit.After;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
@@ -25,11 +30,18 @@ public class RestResendBatchPublisherTest {
 
   private List<byte[]> payloadDatList;
 
+  private Discovery discovery = mock(Discovery.class);
+
   public RestResendBatchPublisherTest(Map.Entry<String, List<byte[]>> fixtures) {
     this.targetUrl = fixtures.getKey();
     this.payloadDatList = fixtures.getValue();
   }
 
+  @After
+  public void afterTest() {
+    verifyNoMoreInteractions(discovery);
+  }
+
   @Test
   public void publishBatch() {
 
@@ -52,7 +64,7 @@ public class RestResendBatchPublisherTest {
             .collect(Collectors.toList());
 
     RestResendBatchPublisher restRecoveryClient =
-        new RestResendBatchPublisher(payloadEncoder, recoveryClient);
+        new RestResendBatchPublisher(payloadEncoder, recoveryClient, discovery);
     restRecoveryClient.publishBatch(encodedPayloads, targetUrl);
 
     verify(recoveryClient).pushBatch(targetUrl, requestArgumentCaptor.getValue());
@@ -64,6 +76,8 @@ public class RestResendBatchPublisherTest {
 
     assertThat(requestArgumentCaptor.getValue().getEncodedPayloads()).isEqualTo(payloadDatList);
 
+    verify(discovery).getRemoteNodeInfos();
+
     verifyNoMoreInteractions(recoveryClient);
     verifyNoMoreInteractions(payloadEncoder);
   }
@@ -90,7 +104,7 @@ public class RestResendBatchPublisherTest {
             .collect(Collectors.toList());
 
     RestResendBatchPublisher restRecoveryClient =
-        new RestResendBatchPublisher(payloadEncoder, recoveryClient);
+        new RestResendBatchPublisher(payloadEncoder, recoveryClient, discovery);
     PublishPayloadException ex =
         catchThrowableOfType(
             () -> restRecoveryClient.publishBatch(encodedPayloads, targetUrl),
@@ -108,6 +122,70 @@ public class RestResendBatchPublisherTest {
 
     assertThat(requestArgumentCaptor.getValue().getEncodedPayloads()).isEqualTo(payloadDatList);
 
+    verify(discovery).getRemoteNodeInfos();
+
+    verifyNoMoreInteractions(recoveryClient);
+    verifyNoMoreInteractions(payloadEncoder);
+  }
+
+  @Test
+  public void publishBatchStreamsToNodeSupportingStreamingRecovery() {
+
+    PayloadEncoder payloadEncoder = mock(PayloadEncoder.class);
+
+    RecoveryClient recoveryClient = mock(RecoveryClient.class);
+    when(recoveryClient.pushBatchStream(targetUrl, payloadDatList)).thenReturn(true);
+
+    NodeInfo otherNode = mock(NodeInfo.class);
+    when(otherNode.getUrl()).thenReturn("otherUrl");
+    NodeInfo targetNode = mock(NodeInfo.class);
+    when(targetNode.getUrl()).thenReturn(targetUrl);
+    when(targetNode.supportedApiVersions())
+        .thenReturn(Set.of(StreamingRecoveryVersion.API_VERSION_3_1));
+    when(discovery.getRemoteNodeInfos()).thenReturn(Set.of(otherNode, targetNode));
+
+    List<EncodedPayload> encodedPayloads =
+        payloadDatList.stream()
+            .map(
+                o -> {
+                  EncodedPayload encodedPayload = mock(EncodedPayload.class);
+                  when(payloadEncoder.encode(encodedPayload)).thenReturn(o);
+                  return encodedPayload;
+                })
+            .collect(Collectors.toList());
+
+    RestResendBatchPublisher restRecoveryClient =
+        new RestResendBatchPublisher(payloadEncoder, recoveryClient, discovery);
+    restRecoveryClient.publishBatch(encodedPayloads, targetUrl);
+
+    verify(recoveryClient).pushBatchStream(targetUrl, payloadDatList);
+    encodedPayloads.forEach(p -> verify(payloadEncoder).encode(p));
+    verify(discovery).getRemoteNodeInfos();
+
+    verifyNoMoreInteractions(recoveryClient);
+    verifyNoMoreInteractions(payloadEncoder);
+  }
+
+  @Test
+  public void publishBatchAsJsonToNodeWithoutStreamingRecovery() {
+
+    PayloadEncoder payloadEncoder = mock(PayloadEncoder.class);
+
+    RecoveryClient recoveryClient = mock(RecoveryClient.class);
+    when(recoveryClient.pushBatch(anyString(), any(PushBatchRequest.class))).thenReturn(true);
+
+    NodeInfo targetNode = mock(NodeInfo.class);
+    when(targetNode.getUrl()).thenReturn(targetUrl);
+    when(targetNode.supportedApiVersions()).thenReturn(Set.of("v1", "v2"));
+    when(discovery.getRemoteNodeInfos()).thenReturn(Set.of(targetNode));
+
+    RestResendBatchPublisher restRecoveryClient =
+        new RestResendBatchPublisher(payloadEncoder, recoveryClient, discovery);
+    restRecoveryClient.publishBatch(List.of(), targetUrl);
+
+    verify(recoveryClient).pushBatch(eq(targetUrl), any(PushBatchRequest.class));
+    verify(discovery).getRemoteNodeInfos();
+
     verifyNoMoreInteractions(recoveryClient);
     verifyNoMoreInteractions(payloadEncoder);
   }
@@ -215,7 +215,8 @@ public class SyncPollerTest {
         var p = mockStatic(PartyInfoParser.class)) {
       d.when(Discovery::create).thenReturn(mock(Discovery.class));
       p.when(PartyInfoParser::create).thenReturn(mock(PartyInfoParser.class));
-      assertThat(new SyncPoller(resendPartyStore, transactionRequester, p2pClient)).isNotNull();
+      assertThat(new SyncPoller(executorService, resendPartyStore, transactionRequester, p2pClient))
+          .isNotNull();
 
       d.verify(Discovery::create);
       p.verify(PartyInfoParser::create);
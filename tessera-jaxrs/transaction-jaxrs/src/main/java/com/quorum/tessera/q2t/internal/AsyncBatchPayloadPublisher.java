@@ -5,12 +5,12 @@ import com.quorum.tessera.enclave.PayloadEncoder;
 import com.quorum.tessera.encryption.PublicKey;
 import com.quorum.tessera.threading.CancellableCountDownLatch;
 import com.quorum.tessera.threading.CancellableCountDownLatchFactory;
-import com.quorum.tessera.threading.ExecutorFactory;
 import com.quorum.tessera.transaction.publish.BatchPayloadPublisher;
 import com.quorum.tessera.transaction.publish.BatchPublishPayloadException;
 import com.quorum.tessera.transaction.publish.PayloadPublisher;
 import java.util.List;
 import java.util.concurrent.Executor;
+import java.util.function.Function;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -27,11 +27,11 @@ public class AsyncBatchPayloadPublisher implements BatchPayloadPublisher {
   private final PayloadEncoder encoder;
 
   public AsyncBatchPayloadPublisher(
-      ExecutorFactory executorFactory,
+      Executor executor,
       CancellableCountDownLatchFactory countDownLatchFactory,
       PayloadPublisher publisher,
       PayloadEncoder encoder) {
-    this.executor = executorFactory.createCachedThreadPool();
+    this.executor = executor;
     this.countDownLatchFactory = countDownLatchFactory;
     this.publisher = publisher;
     this.encoder = encoder;
@@ -55,12 +55,15 @@ public class AsyncBatchPayloadPublisher implements BatchPayloadPublisher {
 
     final CancellableCountDownLatch latch = countDownLatchFactory.create(recipientKeys.size());
 
+    // the parts of the payload shared by every recipient are prepared once, up front
+    final Function<PublicKey, EncodedPayload> forRecipient = encoder.forRecipients(payload);
+
     recipientKeys.forEach(
         recipient ->
             executor.execute(
                 () -> {
                   try {
-                    final EncodedPayload outgoing = encoder.forRecipient(payload, recipient);
+                    final EncodedPayload outgoing = forRecipient.apply(recipient);
                     publisher.publishPayload(outgoing, recipient);
                     latch.countDown();
                   } catch (RuntimeException e) {
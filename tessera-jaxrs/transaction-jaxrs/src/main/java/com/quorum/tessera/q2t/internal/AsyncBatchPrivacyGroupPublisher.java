@@ -6,7 +6,6 @@ import com.quorum.tessera.privacygroup.publish.BatchPrivacyGroupPublisher;
 import com.quorum.tessera.privacygroup.publish.PrivacyGroupPublisher;
 import com.quorum.tessera.threading.CancellableCountDownLatch;
 import com.quorum.tessera.threading.CancellableCountDownLatchFactory;
-import com.quorum.tessera.threading.ExecutorFactory;
 import java.util.List;
 import java.util.concurrent.Executor;
 import org.slf4j.Logger;
@@ -24,10 +23,10 @@ public class AsyncBatchPrivacyGroupPublisher implements BatchPrivacyGroupPublish
   private final PrivacyGroupPublisher publisher;
 
   public AsyncBatchPrivacyGroupPublisher(
-      ExecutorFactory executorFactory,
+      Executor executor,
       CancellableCountDownLatchFactory countDownLatchFactory,
       PrivacyGroupPublisher publisher) {
-    this.executor = executorFactory.createCachedThreadPool();
+    this.executor = executor;
     this.countDownLatchFactory = countDownLatchFactory;
     this.publisher = publisher;
   }
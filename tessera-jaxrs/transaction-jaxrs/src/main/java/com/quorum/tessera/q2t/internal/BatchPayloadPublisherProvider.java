@@ -2,18 +2,18 @@ package com.quorum.tessera.q2t.internal;
 
 import com.quorum.tessera.enclave.PayloadEncoder;
 import com.quorum.tessera.threading.CancellableCountDownLatchFactory;
-import com.quorum.tessera.threading.ExecutorFactory;
 import com.quorum.tessera.transaction.publish.BatchPayloadPublisher;
 import com.quorum.tessera.transaction.publish.PayloadPublisher;
+import java.util.concurrent.Executor;
 
 public class BatchPayloadPublisherProvider {
 
   public static BatchPayloadPublisher provider() {
-    ExecutorFactory executorFactory = new ExecutorFactory();
+    Executor executor = PublisherExecutorProvider.provider();
     CancellableCountDownLatchFactory countDownLatchFactory = new CancellableCountDownLatchFactory();
     PayloadEncoder encoder = PayloadEncoder.create();
     PayloadPublisher payloadPublisher = PayloadPublisher.create();
     return new AsyncBatchPayloadPublisher(
-        executorFactory, countDownLatchFactory, payloadPublisher, encoder);
+        executor, countDownLatchFactory, payloadPublisher, encoder);
   }
 }
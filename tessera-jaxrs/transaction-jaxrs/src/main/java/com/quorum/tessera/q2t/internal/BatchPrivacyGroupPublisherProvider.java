@@ -3,16 +3,16 @@ package com.quorum.tessera.q2t.internal;
 import com.quorum.tessera.privacygroup.publish.BatchPrivacyGroupPublisher;
 import com.quorum.tessera.privacygroup.publish.PrivacyGroupPublisher;
 import com.quorum.tessera.threading.CancellableCountDownLatchFactory;
-import com.quorum.tessera.threading.ExecutorFactory;
+import java.util.concurrent.Executor;
 
 public class BatchPrivacyGroupPublisherProvider {
 
   public static BatchPrivacyGroupPublisher provider() {
     PrivacyGroupPublisher privacyGroupPublisher = PrivacyGroupPublisher.create();
-    ExecutorFactory executorFactory = new ExecutorFactory();
+    Executor executor = PublisherExecutorProvider.provider();
     CancellableCountDownLatchFactory countDownLatchFactory = new CancellableCountDownLatchFactory();
 
     return new AsyncBatchPrivacyGroupPublisher(
-        executorFactory, countDownLatchFactory, privacyGroupPublisher);
+        executor, countDownLatchFactory, privacyGroupPublisher);
   }
 }
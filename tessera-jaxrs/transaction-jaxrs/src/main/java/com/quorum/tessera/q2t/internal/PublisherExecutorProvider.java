@@ -0,0 +1,29 @@
+package com.quorum.tessera.q2t.internal;
+
+import com.quorum.tessera.config.Config;
+import com.quorum.tessera.config.ConfigFactory;
+import com.quorum.tessera.config.ServerConfig;
+import com.quorum.tessera.config.util.ServerPropertyHelper;
+import com.quorum.tessera.threading.ExecutorFactory;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+
+/**
+ * Provides the executor shared by the batch publishers, limited by the {@code publisherThreads}
+ * and {@code publisherQueueSize} properties of the P2P server
+ */
+class PublisherExecutorProvider {
+
+  static Executor provider() {
+    final Config config = ConfigFactory.create().getConfig();
+    final ServerPropertyHelper properties =
+        new ServerPropertyHelper(
+            Optional.ofNullable(config.getP2PServerConfig())
+                .map(ServerConfig::getProperties)
+                .orElse(Collections.emptyMap()));
+
+    return new ExecutorFactory()
+        .publisherExecutor(properties.publisherThreads(), properties.publisherQueueSize());
+  }
+}
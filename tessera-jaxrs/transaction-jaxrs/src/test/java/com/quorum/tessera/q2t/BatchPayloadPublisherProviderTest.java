@@ -3,7 +3,10 @@ package com.quorum.tessera.q2t;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.when;
 
+import com.quorum.tessera.config.Config;
+import com.quorum.tessera.config.ConfigFactory;
 import com.quorum.tessera.enclave.PayloadEncoder;
 import com.quorum.tessera.q2t.internal.BatchPayloadPublisherProvider;
 import com.quorum.tessera.transaction.publish.BatchPayloadPublisher;
@@ -16,7 +19,12 @@ public class BatchPayloadPublisherProviderTest {
   public void provider() {
 
     try (var payloadEncoderMockedStatic = mockStatic(PayloadEncoder.class);
-        var payloadPublisherMockedStatic = mockStatic(PayloadPublisher.class)) {
+        var payloadPublisherMockedStatic = mockStatic(PayloadPublisher.class);
+        var configFactoryMockedStatic = mockStatic(ConfigFactory.class)) {
+      final ConfigFactory configFactory = mock(ConfigFactory.class);
+      when(configFactory.getConfig()).thenReturn(mock(Config.class));
+      configFactoryMockedStatic.when(ConfigFactory::create).thenReturn(configFactory);
+
       payloadEncoderMockedStatic
           .when(PayloadEncoder::create)
           .thenReturn(mock(PayloadEncoder.class));
@@ -28,6 +36,7 @@ public class BatchPayloadPublisherProviderTest {
       assertThat(result).isNotNull();
       payloadEncoderMockedStatic.verify(PayloadEncoder::create);
       payloadPublisherMockedStatic.verify(PayloadPublisher::create);
+      configFactoryMockedStatic.verify(ConfigFactory::create);
     }
   }
 
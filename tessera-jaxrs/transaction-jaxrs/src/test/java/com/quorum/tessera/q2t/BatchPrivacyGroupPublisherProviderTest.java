@@ -3,6 +3,8 @@ package com.quorum.tessera.q2t;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
 
+import com.quorum.tessera.config.Config;
+import com.quorum.tessera.config.ConfigFactory;
 import com.quorum.tessera.privacygroup.publish.BatchPrivacyGroupPublisher;
 import com.quorum.tessera.privacygroup.publish.PrivacyGroupPublisher;
 import com.quorum.tessera.q2t.internal.BatchPrivacyGroupPublisherProvider;
@@ -16,7 +18,11 @@ public class BatchPrivacyGroupPublisherProviderTest {
     PrivacyGroupPublisher privacyGroupPublisher = mock(PrivacyGroupPublisher.class);
 
     BatchPrivacyGroupPublisher result;
-    try (var privacyGroupPublisherMockedStatic = mockStatic(PrivacyGroupPublisher.class)) {
+    try (var privacyGroupPublisherMockedStatic = mockStatic(PrivacyGroupPublisher.class);
+        var configFactoryMockedStatic = mockStatic(ConfigFactory.class)) {
+      final ConfigFactory configFactory = mock(ConfigFactory.class);
+      when(configFactory.getConfig()).thenReturn(mock(Config.class));
+      configFactoryMockedStatic.when(ConfigFactory::create).thenReturn(configFactory);
 
       privacyGroupPublisherMockedStatic
           .when(PrivacyGroupPublisher::create)
@@ -26,6 +32,7 @@ public class BatchPrivacyGroupPublisherProviderTest {
 
       privacyGroupPublisherMockedStatic.verify(PrivacyGroupPublisher::create);
       privacyGroupPublisherMockedStatic.verifyNoMoreInteractions();
+      configFactoryMockedStatic.verify(ConfigFactory::create);
     }
 
     assertThat(result).isNotNull();
@@ -9,7 +9,6 @@ import com.quorum.tessera.enclave.PayloadEncoder;
 import com.quorum.tessera.encryption.PublicKey;
 import com.quorum.tessera.threading.CancellableCountDownLatch;
 import com.quorum.tessera.threading.CancellableCountDownLatchFactory;
-import com.quorum.tessera.threading.ExecutorFactory;
 import com.quorum.tessera.transaction.publish.BatchPublishPayloadException;
 import com.quorum.tessera.transaction.publish.PayloadPublisher;
 import com.quorum.tessera.transaction.publish.PublishPayloadException;
@@ -32,8 +31,6 @@ public class AsyncBatchPayloadPublisherTest {
 
   private Executor executor;
 
-  private ExecutorFactory executorFactory;
-
   private CancellableCountDownLatch countDownLatch;
 
   private CancellableCountDownLatchFactory countDownLatchFactory;
@@ -44,9 +41,7 @@ public class AsyncBatchPayloadPublisherTest {
 
   @Before
   public void onSetup() {
-    this.executorFactory = mock(ExecutorFactory.class);
     this.executor = mock(Executor.class);
-    when(executorFactory.createCachedThreadPool()).thenReturn(executor);
 
     this.countDownLatchFactory = mock(CancellableCountDownLatchFactory.class);
     this.countDownLatch = mock(CancellableCountDownLatch.class);
@@ -55,13 +50,12 @@ public class AsyncBatchPayloadPublisherTest {
     this.publisher = mock(PayloadPublisher.class);
     this.encoder = mock(PayloadEncoder.class);
     this.asyncPublisher =
-        new AsyncBatchPayloadPublisher(executorFactory, countDownLatchFactory, publisher, encoder);
+        new AsyncBatchPayloadPublisher(executor, countDownLatchFactory, publisher, encoder);
   }
 
   @After
   public void onTeardown() {
-    verifyNoMoreInteractions(
-        executor, executorFactory, countDownLatch, countDownLatchFactory, publisher, encoder);
+    verifyNoMoreInteractions(executor, countDownLatch, countDownLatchFactory, publisher, encoder);
   }
 
   @Test
@@ -76,7 +70,7 @@ public class AsyncBatchPayloadPublisherTest {
     asyncPublisher.publishPayload(payload, recipients);
 
     verify(countDownLatchFactory).create(2);
-    verify(executorFactory).createCachedThreadPool();
+    verify(encoder).forRecipients(payload);
     verify(executor, times(2)).execute(any(Runnable.class));
     verify(countDownLatch).await();
   }
@@ -84,10 +78,9 @@ public class AsyncBatchPayloadPublisherTest {
   @Test
   public void publishPayloadStripsAndPublishes() throws InterruptedException {
     final Executor realExecutor = Executors.newSingleThreadExecutor();
-    when(executorFactory.createCachedThreadPool()).thenReturn(realExecutor);
 
     asyncPublisher =
-        new AsyncBatchPayloadPublisher(executorFactory, countDownLatchFactory, publisher, encoder);
+        new AsyncBatchPayloadPublisher(realExecutor, countDownLatchFactory, publisher, encoder);
 
     final EncodedPayload payload = mock(EncodedPayload.class);
     final EncodedPayload strippedPayload = mock(EncodedPayload.class);
@@ -97,8 +90,7 @@ public class AsyncBatchPayloadPublisherTest {
 
     final List<PublicKey> recipients = List.of(recipient, otherRecipient);
 
-    when(encoder.forRecipient(any(EncodedPayload.class), any(PublicKey.class)))
-        .thenReturn(strippedPayload);
+    when(encoder.forRecipients(payload)).thenReturn(recipientKey -> strippedPayload);
 
     doAnswer(
             invocation -> {
@@ -111,10 +103,8 @@ public class AsyncBatchPayloadPublisherTest {
 
     asyncPublisher.publishPayload(payload, recipients);
 
-    verify(executorFactory, times(2)).createCachedThreadPool();
     verify(countDownLatchFactory).create(2);
-    verify(encoder).forRecipient(payload, recipient);
-    verify(encoder).forRecipient(payload, otherRecipient);
+    verify(encoder).forRecipients(payload);
     verify(publisher).publishPayload(strippedPayload, recipient);
     verify(publisher).publishPayload(strippedPayload, otherRecipient);
     verify(countDownLatch, times(2)).countDown();
@@ -127,8 +117,6 @@ public class AsyncBatchPayloadPublisherTest {
     final List<PublicKey> recipients = Collections.emptyList();
 
     asyncPublisher.publishPayload(payload, recipients);
-
-    verify(executorFactory).createCachedThreadPool();
   }
 
   @Test
@@ -148,7 +136,7 @@ public class AsyncBatchPayloadPublisherTest {
     assertThat(ex).isExactlyInstanceOf(BatchPublishPayloadException.class);
     assertThat(ex).hasCause(cause);
 
-    verify(executorFactory).createCachedThreadPool();
+    verify(encoder).forRecipients(payload);
     verify(executor, times(2)).execute(any(Runnable.class));
     verify(countDownLatchFactory).create(2);
     verify(countDownLatch).await();
@@ -157,10 +145,9 @@ public class AsyncBatchPayloadPublisherTest {
   @Test
   public void publishPayloadCancelsCountDownLatchIfOneTaskFails() throws InterruptedException {
     final Executor realExecutor = Executors.newCachedThreadPool();
-    when(executorFactory.createCachedThreadPool()).thenReturn(realExecutor);
 
     asyncPublisher =
-        new AsyncBatchPayloadPublisher(executorFactory, countDownLatchFactory, publisher, encoder);
+        new AsyncBatchPayloadPublisher(realExecutor, countDownLatchFactory, publisher, encoder);
 
     final EncodedPayload payload = mock(EncodedPayload.class);
     final EncodedPayload strippedPayload = mock(EncodedPayload.class);
@@ -170,8 +157,7 @@ public class AsyncBatchPayloadPublisherTest {
 
     final List<PublicKey> recipients = List.of(recipient, otherRecipient);
 
-    when(encoder.forRecipient(any(EncodedPayload.class), any(PublicKey.class)))
-        .thenReturn(strippedPayload);
+    when(encoder.forRecipients(payload)).thenReturn(recipientKey -> strippedPayload);
 
     final PublishPayloadException cause = new PublishPayloadException("some exception");
 
@@ -191,10 +177,8 @@ public class AsyncBatchPayloadPublisherTest {
 
     asyncPublisher.publishPayload(payload, recipients);
 
-    verify(executorFactory, times(2)).createCachedThreadPool();
     verify(countDownLatchFactory).create(2);
-    verify(encoder).forRecipient(payload, recipient);
-    verify(encoder).forRecipient(payload, otherRecipient);
+    verify(encoder).forRecipients(payload);
     verify(publisher).publishPayload(strippedPayload, recipient);
     verify(publisher).publishPayload(strippedPayload, otherRecipient);
     verify(countDownLatch).countDown();
@@ -10,7 +10,6 @@ import com.quorum.tessera.encryption.PublicKey;
 import com.quorum.tessera.privacygroup.exception.PrivacyGroupPublishException;
 import com.quorum.tessera.threading.CancellableCountDownLatch;
 import com.quorum.tessera.threading.CancellableCountDownLatchFactory;
-import com.quorum.tessera.threading.ExecutorFactory;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.Executor;
@@ -20,8 +19,6 @@ import org.junit.Test;
 
 public class AsyncBatchPrivacyGroupPublisherTest {
 
-  private ExecutorFactory mockExecutorFactory;
-
   private Executor mockExecutor;
 
   private CancellableCountDownLatchFactory mockCountDownLatchFactory;
@@ -41,9 +38,6 @@ public class AsyncBatchPrivacyGroupPublisherTest {
     mockExecutor = mock(Executor.class);
     mockCountDownLatch = mock(CancellableCountDownLatch.class);
 
-    mockExecutorFactory = mock(ExecutorFactory.class);
-    when(mockExecutorFactory.createCachedThreadPool()).thenReturn(mockExecutor);
-
     mockCountDownLatchFactory = mock(CancellableCountDownLatchFactory.class);
     when(mockCountDownLatchFactory.create(anyInt())).thenReturn(mockCountDownLatch);
 
@@ -51,7 +45,7 @@ public class AsyncBatchPrivacyGroupPublisherTest {
 
     publisher =
         new AsyncBatchPrivacyGroupPublisher(
-            mockExecutorFactory, mockCountDownLatchFactory, mockPublisher);
+            mockExecutor, mockCountDownLatchFactory, mockPublisher);
   }
 
   @Test
@@ -62,7 +56,7 @@ public class AsyncBatchPrivacyGroupPublisherTest {
 
     publisher.publishPrivacyGroup(data, recipients);
 
-    verify(mockExecutorFactory).createCachedThreadPool();
+    verifyNoInteractions(mockExecutor, mockCountDownLatchFactory);
   }
 
   @Test
@@ -73,7 +67,6 @@ public class AsyncBatchPrivacyGroupPublisherTest {
     publisher.publishPrivacyGroup(data, List.of(recipient, otherRecipient));
 
     verify(mockCountDownLatchFactory).create(2);
-    verify(mockExecutorFactory).createCachedThreadPool();
     verify(mockExecutor, times(2)).execute(any(Runnable.class));
     verify(mockCountDownLatch).await();
   }
@@ -91,7 +84,6 @@ public class AsyncBatchPrivacyGroupPublisherTest {
     assertThat(ex).isExactlyInstanceOf(PrivacyGroupPublishException.class);
     assertThat(ex).hasMessage("some exception");
 
-    verify(mockExecutorFactory).createCachedThreadPool();
     verify(mockExecutor, times(2)).execute(any(Runnable.class));
     verify(mockCountDownLatchFactory).create(2);
     verify(mockCountDownLatch).await();
@@ -101,11 +93,10 @@ public class AsyncBatchPrivacyGroupPublisherTest {
   public void publishSuccess() throws InterruptedException {
 
     final Executor realExecutor = Executors.newSingleThreadExecutor();
-    when(mockExecutorFactory.createCachedThreadPool()).thenReturn(realExecutor);
 
     final AsyncBatchPrivacyGroupPublisher publisher =
         new AsyncBatchPrivacyGroupPublisher(
-            mockExecutorFactory, mockCountDownLatchFactory, mockPublisher);
+            realExecutor, mockCountDownLatchFactory, mockPublisher);
 
     doAnswer(
             invocation -> {
@@ -123,7 +114,6 @@ public class AsyncBatchPrivacyGroupPublisherTest {
     verify(mockPublisher).publishPrivacyGroup(eq(data), eq(recipient));
     verify(mockPublisher).publishPrivacyGroup(eq(data), eq(otherRecipient));
 
-    verify(mockExecutorFactory, times(2)).createCachedThreadPool();
     verify(mockCountDownLatchFactory).create(2);
 
     verify(mockCountDownLatch, times(2)).countDown();
@@ -134,11 +124,10 @@ public class AsyncBatchPrivacyGroupPublisherTest {
   public void publishReturnsError() throws InterruptedException {
 
     final Executor realExecutor = Executors.newSingleThreadExecutor();
-    when(mockExecutorFactory.createCachedThreadPool()).thenReturn(realExecutor);
 
     final AsyncBatchPrivacyGroupPublisher publisher =
         new AsyncBatchPrivacyGroupPublisher(
-            mockExecutorFactory, mockCountDownLatchFactory, mockPublisher);
+            realExecutor, mockCountDownLatchFactory, mockPublisher);
 
     final byte[] data = new byte[5];
 
@@ -0,0 +1,38 @@
+package com.quorum.tessera.q2t.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import com.quorum.tessera.config.Config;
+import com.quorum.tessera.config.ConfigFactory;
+import com.quorum.tessera.config.ServerConfig;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import org.junit.Test;
+
+public class PublisherExecutorProviderTest {
+
+  @Test
+  public void providerIsSharedBetweenPublishers() {
+    final ServerConfig serverConfig = mock(ServerConfig.class);
+    when(serverConfig.getProperties()).thenReturn(Map.of("publisherThreads", "4"));
+    final Config config = mock(Config.class);
+    when(config.getP2PServerConfig()).thenReturn(serverConfig);
+    final ConfigFactory configFactory = mock(ConfigFactory.class);
+    when(configFactory.getConfig()).thenReturn(config);
+
+    try (var configFactoryMockedStatic = mockStatic(ConfigFactory.class)) {
+      configFactoryMockedStatic.when(ConfigFactory::create).thenReturn(configFactory);
+
+      final Executor executor = PublisherExecutorProvider.provider();
+
+      assertThat(executor).isNotNull().isSameAs(PublisherExecutorProvider.provider());
+      configFactoryMockedStatic.verify(ConfigFactory::create, times(2));
+    }
+  }
+
+  @Test
+  public void defaultConstructorForCoverage() {
+    assertThat(new PublisherExecutorProvider()).isNotNull();
+  }
+}
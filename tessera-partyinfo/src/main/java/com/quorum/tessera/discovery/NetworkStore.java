@@ -1,5 +1,7 @@
 package com.quorum.tessera.discovery;
 
+import com.quorum.tessera.encryption.PublicKey;
+import java.util.Optional;
 import java.util.ServiceLoader;
 import java.util.stream.Stream;
 
@@ -11,6 +13,14 @@ public interface NetworkStore {
 
   Stream<ActiveNode> getActiveNodes();
 
+  /**
+   * Find the active node that advertises the given key
+   *
+   * @param publicKey the recipient key to look up
+   * @return the node holding the key, or empty if no active node advertises it
+   */
+  Optional<ActiveNode> findByKey(PublicKey publicKey);
+
   static NetworkStore getInstance() {
     return ServiceLoader.load(NetworkStore.class).findFirst().get();
   }
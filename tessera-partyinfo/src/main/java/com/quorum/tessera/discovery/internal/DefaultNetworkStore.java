@@ -3,39 +3,72 @@ package com.quorum.tessera.discovery.internal;
 import com.quorum.tessera.discovery.ActiveNode;
 import com.quorum.tessera.discovery.NetworkStore;
 import com.quorum.tessera.discovery.NodeUri;
-import java.util.Set;
+import com.quorum.tessera.encryption.PublicKey;
+import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Holds the active nodes indexed by both uri and public key, so that finding the node for a
+ * recipient doesn't need to scan the whole network. Reads don't lock; updates are serialised so
+ * the two indexes are kept consistent with each other.
+ */
 public enum DefaultNetworkStore implements NetworkStore {
   INSTANCE;
 
-  private final Set<ActiveNode> activeNodes = ConcurrentHashMap.newKeySet();
+  private final Map<NodeUri, ActiveNode> nodesByUri = new ConcurrentHashMap<>();
+
+  private final Map<PublicKey, ActiveNode> nodesByKey = new ConcurrentHashMap<>();
 
   private static final Logger LOGGER = LoggerFactory.getLogger(DefaultNetworkStore.class);
 
   @Override
-  public NetworkStore store(ActiveNode activeNode) {
+  public synchronized NetworkStore store(ActiveNode activeNode) {
 
-    activeNodes.removeIf(a -> a.getUri().equals(activeNode.getUri()));
-    activeNodes.add(activeNode);
+    final ActiveNode previous = nodesByUri.put(activeNode.getUri(), activeNode);
+    activeNode.getKeys().forEach(key -> nodesByKey.put(key, activeNode));
+    if (previous != null) {
+      previous.getKeys().stream()
+          .filter(key -> !activeNode.getKeys().contains(key))
+          .forEach(key -> removeKey(key, previous));
+    }
 
-    LOGGER.debug("Stored node {}. Active node count {}", activeNode.getUri(), activeNodes.size());
+    LOGGER.debug("Stored node {}. Active node count {}", activeNode.getUri(), nodesByUri.size());
     return this;
   }
 
   @Override
-  public NetworkStore remove(NodeUri nodeUri) {
-    activeNodes.removeIf(a -> a.getUri().equals(nodeUri));
-    LOGGER.debug("Removed node {}. Active node count {}", nodeUri, activeNodes.size());
+  public synchronized NetworkStore remove(NodeUri nodeUri) {
+    final ActiveNode removed = nodesByUri.remove(nodeUri);
+    if (removed != null) {
+      removed.getKeys().forEach(key -> removeKey(key, removed));
+    }
+    LOGGER.debug("Removed node {}. Active node count {}", nodeUri, nodesByUri.size());
     return this;
   }
 
   @Override
   public Stream<ActiveNode> getActiveNodes() {
-    LOGGER.debug("Fetching active nodes {}", activeNodes);
-    return activeNodes.stream();
+    LOGGER.debug("Fetching active nodes {}", nodesByUri.values());
+    return nodesByUri.values().stream();
+  }
+
+  @Override
+  public Optional<ActiveNode> findByKey(PublicKey publicKey) {
+    return Optional.ofNullable(nodesByKey.get(publicKey));
+  }
+
+  private void removeKey(PublicKey key, ActiveNode node) {
+    // nodes are equal when their uris are, so this only removes the key if it still points to the
+    // node, rather than to another node that has since advertised it
+    if (nodesByKey.remove(key, node)) {
+      nodesByUri.values().stream()
+          .filter(other -> other.getKeys().contains(key))
+          .findAny()
+          .ifPresent(other -> nodesByKey.put(key, other));
+    }
   }
 }
@@ -78,9 +78,7 @@ public class DiscoveryHelperImpl implements DiscoveryHelper {
 
     final ActiveNode activeNode =
         networkStore
-            .getActiveNodes()
-            .filter(node -> node.getKeys().contains(recipientKey))
-            .findAny()
+            .findByKey(recipientKey)
             .orElseThrow(
                 () ->
                     new KeyNotFoundException(
@@ -3,6 +3,8 @@ package com.quorum.tessera.discovery;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import com.quorum.tessera.discovery.internal.DefaultNetworkStore;
+import com.quorum.tessera.encryption.PublicKey;
+import java.util.List;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -49,4 +51,64 @@ public class NetworkStoreTest {
 
     assertThat(networkStore.getActiveNodes().count()).isEqualTo(2L);
   }
+
+  @Test
+  public void findNodeByKey() {
+    PublicKey key = PublicKey.from("key".getBytes());
+    NodeUri nodeUri = NodeUri.create("http://someaddress.com");
+    ActiveNode activeNode =
+        ActiveNode.Builder.create().withUri(nodeUri).withKeys(List.of(key)).build();
+
+    networkStore.store(activeNode);
+
+    assertThat(networkStore.findByKey(key)).containsSame(activeNode);
+    assertThat(networkStore.findByKey(PublicKey.from("unknown".getBytes()))).isEmpty();
+
+    networkStore.remove(nodeUri);
+
+    assertThat(networkStore.findByKey(key)).isEmpty();
+  }
+
+  @Test
+  public void storeUpdatedNodeReplacesKeys() {
+    PublicKey key = PublicKey.from("key".getBytes());
+    PublicKey newKey = PublicKey.from("newKey".getBytes());
+    NodeUri nodeUri = NodeUri.create("http://someaddress.com");
+
+    networkStore.store(ActiveNode.Builder.create().withUri(nodeUri).withKeys(List.of(key)).build());
+    ActiveNode updated =
+        ActiveNode.Builder.create().withUri(nodeUri).withKeys(List.of(newKey)).build();
+    networkStore.store(updated);
+
+    assertThat(networkStore.getActiveNodes()).containsExactly(updated);
+    assertThat(networkStore.findByKey(key)).isEmpty();
+    assertThat(networkStore.findByKey(newKey)).containsSame(updated);
+  }
+
+  @Test
+  public void keyMovesToAnotherNodeHoldingItWhenRemoved() {
+    PublicKey key = PublicKey.from("key".getBytes());
+    NodeUri nodeUri = NodeUri.create("http://someaddress.com");
+    NodeUri someOtherNodeUri = NodeUri.create("http://someotheraddress.com");
+
+    ActiveNode activeNode =
+        ActiveNode.Builder.create().withUri(nodeUri).withKeys(List.of(key)).build();
+    ActiveNode someOtherNode =
+        ActiveNode.Builder.create().withUri(someOtherNodeUri).withKeys(List.of(key)).build();
+    networkStore.store(activeNode);
+    networkStore.store(someOtherNode);
+
+    assertThat(networkStore.findByKey(key)).containsSame(someOtherNode);
+
+    networkStore.remove(someOtherNodeUri);
+
+    assertThat(networkStore.findByKey(key)).containsSame(activeNode);
+  }
+
+  @Test
+  public void removeUnknownNode() {
+    networkStore.remove(NodeUri.create("http://someaddress.com"));
+
+    assertThat(networkStore.getActiveNodes()).isEmpty();
+  }
 }
@@ -16,6 +16,9 @@ import com.quorum.tessera.transaction.TransactionManager;
 import com.quorum.tessera.transaction.exception.PrivacyViolationException;
 import com.quorum.tessera.version.EnhancedPrivacyVersion;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Predicate;
@@ -41,17 +44,27 @@ class RecoveryImpl implements Recovery {
 
   private final PayloadEncoder payloadEncoder;
 
+  private final long stagingMemoryBudget;
+
+  private final Executor syncExecutor;
+
+  private final Map<Long, SyncSummary> syncSummaries = new LinkedHashMap<>();
+
   RecoveryImpl(
       StagingEntityDAO stagingEntityDAO,
       Discovery discovery,
       BatchTransactionRequester transactionRequester,
       TransactionManager transactionManager,
-      PayloadEncoder payloadEncoder) {
+      PayloadEncoder payloadEncoder,
+      long stagingMemoryBudget,
+      Executor syncExecutor) {
     this.stagingEntityDAO = Objects.requireNonNull(stagingEntityDAO);
     this.discovery = Objects.requireNonNull(discovery);
     this.transactionRequester = Objects.requireNonNull(transactionRequester);
     this.transactionManager = Objects.requireNonNull(transactionManager);
     this.payloadEncoder = Objects.requireNonNull(payloadEncoder);
+    this.stagingMemoryBudget = stagingMemoryBudget;
+    this.syncExecutor = Objects.requireNonNull(syncExecutor);
   }
 
   @Override
@@ -87,9 +100,17 @@ class RecoveryImpl implements Recovery {
   @Override
   public RecoveryResult stage() {
 
-    final AtomicLong stage = new AtomicLong(0);
+    final OptionalInt stagedCount = stagingEntityDAO.stageAll(stagingMemoryBudget);
+
+    if (stagedCount.isPresent()) {
+      LOGGER.debug("Staged {} transactions in memory", stagedCount.getAsInt());
+    } else {
+      LOGGER.info("Too many transactions to stage in memory, staging in batches instead");
 
-    while (stagingEntityDAO.updateStageForBatch(BATCH_SIZE, stage.incrementAndGet()) != 0) {}
+      final AtomicLong stage = new AtomicLong(0);
+
+      while (stagingEntityDAO.updateStageForBatch(BATCH_SIZE, stage.incrementAndGet()) != 0) {}
+    }
 
     final long totalCount = stagingEntityDAO.countAll();
     final long validatedCount = stagingEntityDAO.countStaged();
@@ -109,6 +130,8 @@ class RecoveryImpl implements Recovery {
     final AtomicInteger payloadCount = new AtomicInteger(0);
     final AtomicInteger syncFailureCount = new AtomicInteger(0);
 
+    syncSummaries.clear();
+
     final int maxResult = BATCH_SIZE;
 
     for (int offset = 0; offset < stagingEntityDAO.countAll(); offset += maxResult) {
@@ -116,28 +139,20 @@ class RecoveryImpl implements Recovery {
       final List<StagingTransaction> transactions =
           stagingEntityDAO.retrieveTransactionBatchOrderByStageAndHash(offset, maxResult);
 
-      final Map<String, List<StagingTransaction>> grouped =
-          transactions.stream()
-              .collect(
-                  Collectors.groupingBy(StagingTransaction::getHash, LinkedHashMap::new, toList()));
-
-      grouped.forEach(
-          (key, value) ->
-              value.stream()
-                  .filter(
-                      t -> {
-                        payloadCount.incrementAndGet();
-                        byte[] payload = t.getPayload();
-                        try {
-                          EncodedPayload encodedPayload = payloadEncoder.decode(payload);
-                          transactionManager.storePayload(encodedPayload);
-                        } catch (PrivacyViolationException | PersistenceException ex) {
-                          LOGGER.error("An error occurred during batch resend sync stage.", ex);
-                          syncFailureCount.incrementAndGet();
-                        }
-                        return PrivacyMode.PRIVATE_STATE_VALIDATION == t.getPrivacyMode();
-                      })
-                  .findFirst());
+      // transactions are ordered by stage, and those in the same stage don't depend on each other
+      int start = 0;
+      for (int i = 1; i <= transactions.size(); i++) {
+        if (i == transactions.size()
+            || !Objects.equals(
+                transactions.get(i).getValidationStage(),
+                transactions.get(start).getValidationStage())) {
+          final SyncSummary summary =
+              syncStage(transactions.subList(start, i), payloadCount, syncFailureCount);
+          syncSummaries.merge(
+              transactions.get(start).getValidationStage(), summary, SyncSummary::add);
+          start = i;
+        }
+      }
     }
 
     if (syncFailureCount.get() > 0) {
@@ -152,6 +167,65 @@ class RecoveryImpl implements Recovery {
     return RecoveryResult.SUCCESS;
   }
 
+  /*
+   * Stores the transactions of a single stage concurrently, returning once all of them have been
+   * stored. Versions of the same transaction are stored one after another by the same worker.
+   */
+  private SyncSummary syncStage(
+      List<StagingTransaction> transactions,
+      AtomicInteger payloadCount,
+      AtomicInteger syncFailureCount) {
+
+    final long startTime = System.nanoTime();
+    final AtomicInteger stageFailureCount = new AtomicInteger(0);
+
+    final Map<String, List<StagingTransaction>> grouped =
+        transactions.stream()
+            .collect(
+                Collectors.groupingBy(StagingTransaction::getHash, LinkedHashMap::new, toList()));
+
+    final CompletableFuture<?>[] workers =
+        grouped.values().stream()
+            .map(
+                versions ->
+                    CompletableFuture.runAsync(
+                        () -> syncVersions(versions, payloadCount, stageFailureCount),
+                        syncExecutor))
+            .toArray(CompletableFuture[]::new);
+
+    try {
+      CompletableFuture.allOf(workers).join();
+    } catch (CompletionException ex) {
+      if (ex.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) ex.getCause();
+      }
+      throw ex;
+    }
+
+    syncFailureCount.addAndGet(stageFailureCount.get());
+
+    return new SyncSummary(
+        transactions.size(), stageFailureCount.get(), System.nanoTime() - startTime);
+  }
+
+  private void syncVersions(
+      List<StagingTransaction> versions, AtomicInteger payloadCount, AtomicInteger failureCount) {
+    for (StagingTransaction t : versions) {
+      payloadCount.incrementAndGet();
+      byte[] payload = t.getPayload();
+      try {
+        EncodedPayload encodedPayload = payloadEncoder.decode(payload);
+        transactionManager.storePayload(encodedPayload);
+      } catch (PrivacyViolationException | PersistenceException ex) {
+        LOGGER.error("An error occurred during batch resend sync stage.", ex);
+        failureCount.incrementAndGet();
+      }
+      if (PrivacyMode.PRIVATE_STATE_VALIDATION == t.getPrivacyMode()) {
+        return;
+      }
+    }
+  }
+
   @Override
   public int recover() {
 
@@ -181,6 +255,15 @@ class RecoveryImpl implements Recovery {
         syncResult,
         (syncFinished - stagingFinished) / 1000000);
 
+    syncSummaries.forEach(
+        (validationStage, summary) ->
+            LOGGER.info(
+                "Sync of validation stage {}: {} transactions, {} failures (duration = {} ms)",
+                Optional.ofNullable(validationStage).map(String::valueOf).orElse("unstaged"),
+                summary.transactionCount,
+                summary.failureCount,
+                summary.duration / 1000000));
+
     final long endTime = System.nanoTime();
     LOGGER.info("Recovery process took {} ms", (endTime - startTime) / 1000000);
 
@@ -189,4 +272,26 @@ class RecoveryImpl implements Recovery {
         .reduce(Integer::max)
         .get();
   }
+
+  private static class SyncSummary {
+
+    private final int transactionCount;
+
+    private final int failureCount;
+
+    private final long duration;
+
+    SyncSummary(int transactionCount, int failureCount, long duration) {
+      this.transactionCount = transactionCount;
+      this.failureCount = failureCount;
+      this.duration = duration;
+    }
+
+    SyncSummary add(SyncSummary other) {
+      return new SyncSummary(
+          transactionCount + other.transactionCount,
+          failureCount + other.failureCount,
+          duration + other.duration);
+    }
+  }
 }
@@ -1,11 +1,19 @@
 package com.quorum.tessera.recovery.internal;
 
+import com.quorum.tessera.config.Config;
+import com.quorum.tessera.config.ConfigFactory;
+import com.quorum.tessera.config.ServerConfig;
+import com.quorum.tessera.config.util.ServerPropertyHelper;
 import com.quorum.tessera.data.staging.StagingEntityDAO;
 import com.quorum.tessera.discovery.Discovery;
 import com.quorum.tessera.enclave.PayloadEncoder;
 import com.quorum.tessera.recovery.Recovery;
 import com.quorum.tessera.recovery.resend.BatchTransactionRequester;
 import com.quorum.tessera.transaction.TransactionManager;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class RecoveryProvider {
 
@@ -19,7 +27,29 @@ public class RecoveryProvider {
 
     PayloadEncoder payloadEncoder = PayloadEncoder.create();
 
+    final Config config = ConfigFactory.create().getConfig();
+    final ServerPropertyHelper propertyHelper =
+        new ServerPropertyHelper(
+            Optional.ofNullable(config.getP2PServerConfig())
+                .map(ServerConfig::getProperties)
+                .orElse(Collections.emptyMap()));
+
+    final ExecutorService syncExecutor =
+        Executors.newFixedThreadPool(
+            propertyHelper.recoveryParallelism(),
+            r -> {
+              final Thread thread = new Thread(r, "recovery-sync-worker");
+              thread.setDaemon(true);
+              return thread;
+            });
+
     return new RecoveryImpl(
-        stagingEntityDAO, discovery, batchTransactionRequester, transactionManager, payloadEncoder);
+        stagingEntityDAO,
+        discovery,
+        batchTransactionRequester,
+        transactionManager,
+        payloadEncoder,
+        propertyHelper.stagingMemoryBudget(),
+        syncExecutor);
   }
 }
@@ -5,4 +5,28 @@ public interface BatchWorkflow extends BatchWorkflowAction {
   boolean execute(BatchWorkflowContext context);
 
   long getPublishedMessageCount();
+
+  /**
+   * Run the steps that decide what to publish for the given context, stopping short of publishing
+   * it. Unlike {@link #execute(BatchWorkflowContext)}, this may be called concurrently for
+   * different contexts.
+   *
+   * @param context the transaction to prepare
+   * @return whether the transaction should be published
+   */
+  default boolean prepare(BatchWorkflowContext context) {
+    return true;
+  }
+
+  /**
+   * Publish a context previously passed to {@link #prepare(BatchWorkflowContext)}. Contexts must be
+   * published one at a time, in the order the transactions were read.
+   *
+   * @param context the prepared transaction
+   * @param prepared the outcome of preparing the transaction
+   * @return whether the transaction was published
+   */
+  default boolean publish(BatchWorkflowContext context, boolean prepared) {
+    return prepared && execute(context);
+  }
 }
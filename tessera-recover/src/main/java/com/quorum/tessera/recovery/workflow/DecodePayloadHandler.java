@@ -1,6 +1,7 @@
 package com.quorum.tessera.recovery.workflow;
 
 import com.quorum.tessera.data.EncryptedTransaction;
+import com.quorum.tessera.data.EncryptedTransactionDecoder;
 import com.quorum.tessera.enclave.EncodedPayload;
 import com.quorum.tessera.enclave.PayloadEncoder;
 
@@ -17,7 +18,9 @@ public class DecodePayloadHandler implements BatchWorkflowAction {
 
     EncryptedTransaction encryptedTransaction = event.getEncryptedTransaction();
 
-    EncodedPayload encodedPayload = encoder.decode(encryptedTransaction.getEncodedPayload());
+    // boxes added since the transaction was stored may be kept apart from its payload
+    EncodedPayload encodedPayload =
+        EncryptedTransactionDecoder.decode(encoder, encryptedTransaction);
 
     event.setEncodedPayload(encodedPayload);
 
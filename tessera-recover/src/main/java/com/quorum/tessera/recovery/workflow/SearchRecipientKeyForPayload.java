@@ -3,23 +3,17 @@ package com.quorum.tessera.recovery.workflow;
 import com.quorum.tessera.data.EncryptedTransaction;
 import com.quorum.tessera.data.MessageHash;
 import com.quorum.tessera.enclave.Enclave;
-import com.quorum.tessera.enclave.EnclaveNotAvailableException;
 import com.quorum.tessera.enclave.EncodedPayload;
-import com.quorum.tessera.encryption.EncryptorException;
 import com.quorum.tessera.encryption.PublicKey;
 import com.quorum.tessera.transaction.exception.RecipientKeyNotFoundException;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 public class SearchRecipientKeyForPayload implements BatchWorkflowAction {
 
-  private static final Logger LOGGER = LoggerFactory.getLogger(SearchRecipientKeyForPayload.class);
-
   private final Enclave enclave;
 
   public SearchRecipientKeyForPayload(final Enclave enclave) {
@@ -38,43 +32,33 @@ public class SearchRecipientKeyForPayload implements BatchWorkflowAction {
     }
 
     // the keys are not present, so we need to search for the relevant recipient
-    final Set<EncodedPayload> adjustedPayloads =
-        encodedPayloads.stream()
-            .map(
-                payload -> {
-                  // this is a pre-PE tx, so find the recipient key
-                  final PublicKey recipientKey =
-                      searchForRecipientKey(payload)
-                          .orElseThrow(
-                              () -> {
-                                final EncryptedTransaction encryptedTransaction =
-                                    event.getEncryptedTransaction();
-                                final MessageHash hash = encryptedTransaction.getHash();
-                                final String message =
-                                    String.format("No key found as recipient of message %s", hash);
-                                return new RecipientKeyNotFoundException(message);
-                              });
+    // these are pre-PE txs, so ask the enclave for all of their recipients at once
+    final List<EncodedPayload> payloads = List.copyOf(encodedPayloads);
+    final List<Optional<PublicKey>> recipientKeys = enclave.findRecipientKeys(payloads);
+
+    final Set<EncodedPayload> adjustedPayloads = new HashSet<>();
+    for (int i = 0; i < payloads.size(); i++) {
+      final PublicKey recipientKey =
+          recipientKeys
+              .get(i)
+              .orElseThrow(
+                  () -> {
+                    final EncryptedTransaction encryptedTransaction =
+                        event.getEncryptedTransaction();
+                    final MessageHash hash = encryptedTransaction.getHash();
+                    final String message =
+                        String.format("No key found as recipient of message %s", hash);
+                    return new RecipientKeyNotFoundException(message);
+                  });
 
-                  return EncodedPayload.Builder.from(payload)
-                      .withRecipientKeys(List.of(recipientKey))
-                      .build();
-                })
-            .collect(Collectors.toSet());
+      adjustedPayloads.add(
+          EncodedPayload.Builder.from(payloads.get(i))
+              .withRecipientKeys(List.of(recipientKey))
+              .build());
+    }
 
     event.setPayloadsToPublish(adjustedPayloads);
 
     return true;
   }
-
-  private Optional<PublicKey> searchForRecipientKey(final EncodedPayload payload) {
-    for (final PublicKey potentialMatchingKey : enclave.getPublicKeys()) {
-      try {
-        enclave.unencryptTransaction(payload, potentialMatchingKey);
-        return Optional.of(potentialMatchingKey);
-      } catch (EnclaveNotAvailableException | IndexOutOfBoundsException | EncryptorException ex) {
-        LOGGER.debug("Attempted payload decryption using wrong key, discarding.");
-      }
-    }
-    return Optional.empty();
-  }
 }
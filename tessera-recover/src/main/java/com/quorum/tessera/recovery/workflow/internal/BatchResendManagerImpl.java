@@ -11,13 +11,28 @@ import com.quorum.tessera.recovery.workflow.BatchResendManager;
 import com.quorum.tessera.recovery.workflow.BatchWorkflow;
 import com.quorum.tessera.recovery.workflow.BatchWorkflowContext;
 import com.quorum.tessera.recovery.workflow.BatchWorkflowFactory;
+import java.util.ArrayDeque;
 import java.util.Base64;
-import java.util.List;
+import java.util.Deque;
+import java.util.Map;
 import java.util.Objects;
-import java.util.stream.IntStream;
-
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Resends a batch of transactions to a recipient as a pipeline of three stages: transactions are
+ * read from the database on the calling thread, prepared for the recipient (decoded, filtered and
+ * addressed) in parallel on the given executor, and handed to the batching publisher one at a time
+ * in the order they were read.
+ *
+ * <p>At most {@code parallelism * IN_FLIGHT_PER_WORKER} transactions are read ahead of the
+ * publisher, so reading stalls whenever preparing or publishing falls behind.
+ */
 public class BatchResendManagerImpl implements BatchResendManager {
 
+  static final int IN_FLIGHT_PER_WORKER = 2;
+
   private final StagingEntityDAO stagingEntityDAO;
 
   private final EncryptedTransactionDAO encryptedTransactionDAO;
@@ -26,21 +41,39 @@ public class BatchResendManagerImpl implements BatchResendManager {
 
   private final BatchWorkflowFactory batchWorkflowFactory;
 
+  private final Executor executor;
+
+  private final int maxInFlight;
+
   public BatchResendManagerImpl(
       StagingEntityDAO stagingEntityDAO,
       EncryptedTransactionDAO encryptedTransactionDAO,
       int maxResults,
       BatchWorkflowFactory batchWorkflowFactory) {
+    this(
+        stagingEntityDAO,
+        encryptedTransactionDAO,
+        maxResults,
+        batchWorkflowFactory,
+        Runnable::run,
+        1);
+  }
+
+  public BatchResendManagerImpl(
+      StagingEntityDAO stagingEntityDAO,
+      EncryptedTransactionDAO encryptedTransactionDAO,
+      int maxResults,
+      BatchWorkflowFactory batchWorkflowFactory,
+      Executor executor,
+      int parallelism) {
 
     this.stagingEntityDAO = Objects.requireNonNull(stagingEntityDAO);
     this.encryptedTransactionDAO = Objects.requireNonNull(encryptedTransactionDAO);
     this.maxResults = maxResults;
 
     this.batchWorkflowFactory = batchWorkflowFactory;
-  }
-
-  static int calculateBatchCount(long maxResults, long total) {
-    return (int) Math.ceil((double) total / maxResults);
+    this.executor = Objects.requireNonNull(executor);
+    this.maxInFlight = Math.max(1, parallelism) * IN_FLIGHT_PER_WORKER;
   }
 
   @Override
@@ -51,31 +84,67 @@ public class BatchResendManagerImpl implements BatchResendManager {
     final PublicKey recipientPublicKey = PublicKey.from(publicKeyData);
 
     final long transactionCount = encryptedTransactionDAO.transactionCount();
-    final long batchCount = calculateBatchCount(maxResults, transactionCount);
 
     final BatchWorkflow batchWorkflow = batchWorkflowFactory.create(transactionCount);
 
-    IntStream.range(0, (int) batchCount)
-        .map(i -> i * maxResults)
-        .mapToObj(offset -> encryptedTransactionDAO.retrieveTransactions(offset, maxResults))
-        .flatMap(List::stream)
-        .forEach(
-            encryptedTransaction -> {
-              final BatchWorkflowContext context = new BatchWorkflowContext();
-              context.setEncryptedTransaction(encryptedTransaction);
-              context.setRecipientKey(recipientPublicKey);
-              context.setBatchSize(batchSize);
-              batchWorkflow.execute(context);
-            });
+    final Deque<Map.Entry<BatchWorkflowContext, CompletableFuture<Boolean>>> inFlight =
+        new ArrayDeque<>();
+
+    try {
+      encryptedTransactionDAO
+          .streamTransactions(maxResults)
+          .forEach(
+              encryptedTransaction -> {
+                final BatchWorkflowContext context = new BatchWorkflowContext();
+                context.setEncryptedTransaction(encryptedTransaction);
+                context.setRecipientKey(recipientPublicKey);
+                context.setBatchSize(batchSize);
+
+                inFlight.add(
+                    Map.entry(
+                        context,
+                        CompletableFuture.supplyAsync(
+                            () -> batchWorkflow.prepare(context), executor)));
+
+                if (inFlight.size() >= maxInFlight) {
+                  publishNext(batchWorkflow, inFlight);
+                }
+              });
+
+      while (!inFlight.isEmpty()) {
+        publishNext(batchWorkflow, inFlight);
+      }
+    } catch (RuntimeException ex) {
+      inFlight.forEach(e -> e.getValue().cancel(false));
+      throw ex;
+    }
 
     return ResendBatchResponse.from(batchWorkflow.getPublishedMessageCount());
   }
 
   @Override
-  public synchronized void storeResendBatch(PushBatchRequest resendPushBatchRequest) {
-    resendPushBatchRequest.getEncodedPayloads().stream()
-        .map(StagingTransactionUtils::fromRawPayload)
-        .forEach(stagingEntityDAO::save);
+  public void storeResendBatch(PushBatchRequest resendPushBatchRequest) {
+    stagingEntityDAO.saveAll(
+        StagingTransactionUtils.fromRawPayloads(resendPushBatchRequest.getEncodedPayloads()));
+  }
+
+  private static void publishNext(
+      BatchWorkflow batchWorkflow,
+      Deque<Map.Entry<BatchWorkflowContext, CompletableFuture<Boolean>>> inFlight) {
+    final Map.Entry<BatchWorkflowContext, CompletableFuture<Boolean>> next = inFlight.remove();
+
+    final boolean prepared;
+    try {
+      prepared = next.getValue().join();
+    } catch (CompletionException ex) {
+      // surface the same exception the handler would have thrown when run on this thread
+      if (ex.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) ex.getCause();
+      }
+      throw ex;
+    }
+
+    batchWorkflow.publish(next.getKey(), prepared);
   }
 
   private int validateRequestBatchSize(int s) {
@@ -1,9 +1,17 @@
 package com.quorum.tessera.recovery.workflow.internal;
 
+import com.quorum.tessera.config.Config;
+import com.quorum.tessera.config.ConfigFactory;
+import com.quorum.tessera.config.ServerConfig;
+import com.quorum.tessera.config.util.ServerPropertyHelper;
 import com.quorum.tessera.data.EncryptedTransactionDAO;
 import com.quorum.tessera.data.staging.StagingEntityDAO;
 import com.quorum.tessera.recovery.workflow.BatchResendManager;
 import com.quorum.tessera.recovery.workflow.BatchWorkflowFactory;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -29,9 +37,32 @@ public class BatchResendManagerProvider {
 
     BatchWorkflowFactory batchWorkflowFactory = BatchWorkflowFactory.create();
 
+    final Config config = ConfigFactory.create().getConfig();
+    final int parallelism =
+        new ServerPropertyHelper(
+                Optional.ofNullable(config.getP2PServerConfig())
+                    .map(ServerConfig::getProperties)
+                    .orElse(Collections.emptyMap()))
+            .resendParallelism();
+
+    LOGGER.debug("Preparing resent transactions with {} workers", parallelism);
+    final ExecutorService executor =
+        Executors.newFixedThreadPool(
+            parallelism,
+            r -> {
+              final Thread thread = new Thread(r, "batch-resend-worker");
+              thread.setDaemon(true);
+              return thread;
+            });
+
     BatchResendManager batchResendManager =
         new BatchResendManagerImpl(
-            stagingEntityDAO, encryptedTransactionDAO, defaultMaxResults, batchWorkflowFactory);
+            stagingEntityDAO,
+            encryptedTransactionDAO,
+            defaultMaxResults,
+            batchWorkflowFactory,
+            executor,
+            parallelism);
 
     return BatchResendManagerHolder.INSTANCE.setBatchResendManager(batchResendManager);
   }
@@ -55,8 +55,7 @@ class BatchWorkflowFactoryImpl implements BatchWorkflowFactory {
             preparePayloadForRecipient,
             searchRecipientKeyForPayload,
             findRecipientFromPartyInfo,
-            senderIsNotRecipient,
-            encodedPayloadPublisher);
+            senderIsNotRecipient);
 
     return new BatchWorkflow() {
 
@@ -64,17 +63,29 @@ class BatchWorkflowFactoryImpl implements BatchWorkflowFactory {
 
       @Override
       public boolean execute(BatchWorkflowContext context) {
+        return publish(context, prepare(context));
+      }
 
-        context.setExpectedTotal(filteredMessageCount.get());
-
-        boolean outcome =
-            handlers.stream().filter(Predicate.not(h -> h.execute(context))).findFirst().isEmpty();
+      @Override
+      public boolean prepare(BatchWorkflowContext context) {
+        return handlers.stream()
+            .filter(Predicate.not(h -> h.execute(context)))
+            .findFirst()
+            .isEmpty();
+      }
 
-        if (!outcome) {
-          context.setExpectedTotal(filteredMessageCount.decrementAndGet());
-          encodedPayloadPublisher.checkOutstandingPayloads(context);
+      @Override
+      public boolean publish(BatchWorkflowContext context, boolean prepared) {
+        if (prepared) {
+          context.setExpectedTotal(filteredMessageCount.get());
+          return encodedPayloadPublisher.execute(context);
         }
-        return outcome;
+
+        // the publisher is told about filtered out transactions in read order, so a final partial
+        // batch is flushed as soon as no more transactions can arrive
+        context.setExpectedTotal(filteredMessageCount.decrementAndGet());
+        encodedPayloadPublisher.checkOutstandingPayloads(context);
+        return false;
       }
 
       @Override
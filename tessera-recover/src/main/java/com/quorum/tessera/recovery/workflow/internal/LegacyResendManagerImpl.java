@@ -17,7 +17,6 @@ import com.quorum.tessera.transaction.exception.TransactionNotFoundException;
 import com.quorum.tessera.transaction.publish.PayloadPublisher;
 import java.util.*;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 public class LegacyResendManagerImpl implements LegacyResendManager {
 
@@ -59,13 +58,8 @@ public class LegacyResendManagerImpl implements LegacyResendManager {
 
     final BatchWorkflow batchWorkflow = batchWorkflowFactory.create();
 
-    final long transactionCount = encryptedTransactionDAO.transactionCount();
-    final long batchCount = calculateBatchCount(resendFetchSize, transactionCount);
-
-    IntStream.range(0, (int) batchCount)
-        .map(i -> i * resendFetchSize)
-        .mapToObj(offset -> encryptedTransactionDAO.retrieveTransactions(offset, resendFetchSize))
-        .flatMap(List::stream)
+    encryptedTransactionDAO
+        .streamTransactions(resendFetchSize)
         .forEach(
             encryptedTransaction -> {
               final BatchWorkflowContext context = new BatchWorkflowContext();
@@ -88,7 +82,7 @@ public class LegacyResendManagerImpl implements LegacyResendManager {
                     new TransactionNotFoundException(
                         "Message with hash " + messageHash + " was not found"));
 
-    final EncodedPayload payload = payloadEncoder.decode(encryptedTransaction.getEncodedPayload());
+    final EncodedPayload payload = encryptedTransactionDAO.decodePayload(encryptedTransaction);
 
     if (payload.getPrivacyMode() != PrivacyMode.STANDARD_PRIVATE) {
       throw new EnhancedPrivacyNotSupportedException(
@@ -132,8 +126,4 @@ public class LegacyResendManagerImpl implements LegacyResendManager {
 
     return ResendResponse.Builder.create().withPayload(builder.build()).build();
   }
-
-  static int calculateBatchCount(long maxResults, long total) {
-    return (int) Math.ceil((double) total / maxResults);
-  }
 }
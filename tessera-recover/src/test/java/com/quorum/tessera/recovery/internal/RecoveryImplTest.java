@@ -1,6 +1,7 @@
 package com.quorum.tessera.recovery.internal;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
 import static org.mockito.Mockito.*;
 
 import com.quorum.tessera.data.MessageHash;
@@ -17,12 +18,19 @@ import com.quorum.tessera.recovery.resend.BatchTransactionRequester;
 import com.quorum.tessera.transaction.TransactionManager;
 import com.quorum.tessera.transaction.exception.PrivacyViolationException;
 import java.util.List;
+import java.util.OptionalInt;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
 public class RecoveryImplTest extends RecoveryTestCase {
 
+  private static final long STAGING_MEMORY_BUDGET = 1024L;
+
   private Recovery recovery;
 
   private StagingEntityDAO stagingEntityDAO;
@@ -52,7 +60,13 @@ public class RecoveryImplTest extends RecoveryTestCase {
 
     this.recovery =
         new RecoveryImpl(
-            stagingEntityDAO, discovery, transactionRequester, transactionManager, payloadEncoder);
+            stagingEntityDAO,
+            discovery,
+            transactionRequester,
+            transactionManager,
+            payloadEncoder,
+            STAGING_MEMORY_BUDGET,
+            Runnable::run);
   }
 
   @After
@@ -127,11 +141,29 @@ public class RecoveryImplTest extends RecoveryTestCase {
 
     assertThat(result).isEqualTo(RecoveryResult.SUCCESS);
 
+    verify(stagingEntityDAO).stageAll(STAGING_MEMORY_BUDGET);
     verify(stagingEntityDAO, times(3)).updateStageForBatch(anyInt(), anyLong());
     verify(stagingEntityDAO).countAll();
     verify(stagingEntityDAO).countStaged();
   }
 
+  @Test
+  public void testStagingInMemory() {
+
+    when(stagingEntityDAO.stageAll(STAGING_MEMORY_BUDGET)).thenReturn(OptionalInt.of(2));
+
+    when(stagingEntityDAO.countAll()).thenReturn(2L);
+    when(stagingEntityDAO.countStaged()).thenReturn(2L);
+
+    RecoveryResult result = recovery.stage();
+
+    assertThat(result).isEqualTo(RecoveryResult.SUCCESS);
+
+    verify(stagingEntityDAO).stageAll(STAGING_MEMORY_BUDGET);
+    verify(stagingEntityDAO).countAll();
+    verify(stagingEntityDAO).countStaged();
+  }
+
   @Test
   public void testStagingPartialSuccess() {
 
@@ -143,6 +175,7 @@ public class RecoveryImplTest extends RecoveryTestCase {
 
     assertThat(result).isEqualTo(RecoveryResult.PARTIAL_SUCCESS);
 
+    verify(stagingEntityDAO).stageAll(STAGING_MEMORY_BUDGET);
     verify(stagingEntityDAO).updateStageForBatch(anyInt(), anyLong());
     verify(stagingEntityDAO).countAll();
     verify(stagingEntityDAO).countStaged();
@@ -160,6 +193,7 @@ public class RecoveryImplTest extends RecoveryTestCase {
 
     assertThat(result).isEqualTo(RecoveryResult.FAILURE);
 
+    verify(stagingEntityDAO).stageAll(STAGING_MEMORY_BUDGET);
     verify(stagingEntityDAO).updateStageForBatch(anyInt(), anyLong());
     verify(stagingEntityDAO).countAll();
     verify(stagingEntityDAO).countStaged();
@@ -317,6 +351,144 @@ public class RecoveryImplTest extends RecoveryTestCase {
     verify(transactionManager).storePayload(encodedPayload2);
   }
 
+  @Test
+  public void testSyncCompletesStageBeforeStartingNext() {
+
+    final StagingTransaction first = mock(StagingTransaction.class);
+    final StagingTransaction second = mock(StagingTransaction.class);
+    final StagingTransaction dependent = mock(StagingTransaction.class);
+
+    when(first.getHash()).thenReturn("TXN1");
+    when(second.getHash()).thenReturn("TXN2");
+    when(dependent.getHash()).thenReturn("TXN3");
+    when(first.getValidationStage()).thenReturn(1L);
+    when(second.getValidationStage()).thenReturn(1L);
+    when(dependent.getValidationStage()).thenReturn(2L);
+    when(first.getPayload()).thenReturn("payload1".getBytes());
+    when(second.getPayload()).thenReturn("payload2".getBytes());
+    when(dependent.getPayload()).thenReturn("payload3".getBytes());
+
+    final EncodedPayload firstPayload = mock(EncodedPayload.class);
+    final EncodedPayload secondPayload = mock(EncodedPayload.class);
+    final EncodedPayload dependentPayload = mock(EncodedPayload.class);
+    when(payloadEncoder.decode("payload1".getBytes())).thenReturn(firstPayload);
+    when(payloadEncoder.decode("payload2".getBytes())).thenReturn(secondPayload);
+    when(payloadEncoder.decode("payload3".getBytes())).thenReturn(dependentPayload);
+
+    when(stagingEntityDAO.retrieveTransactionBatchOrderByStageAndHash(anyInt(), anyInt()))
+        .thenReturn(List.of(first, second, dependent));
+    when(stagingEntityDAO.countAll()).thenReturn(3L);
+
+    final List<EncodedPayload> stored = new CopyOnWriteArrayList<>();
+    when(transactionManager.storePayload(any()))
+        .thenAnswer(
+            invocation -> {
+              // the slower first stage must still finish before the second starts
+              Thread.sleep(20);
+              stored.add(invocation.getArgument(0));
+              return new MessageHash("hash".getBytes());
+            });
+
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      final Recovery parallelRecovery =
+          new RecoveryImpl(
+              stagingEntityDAO,
+              discovery,
+              transactionRequester,
+              transactionManager,
+              payloadEncoder,
+              STAGING_MEMORY_BUDGET,
+              executor);
+
+      assertThat(parallelRecovery.sync()).isEqualTo(RecoveryResult.SUCCESS);
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertThat(stored).hasSize(3);
+    assertThat(stored.subList(0, 2)).containsExactlyInAnyOrder(firstPayload, secondPayload);
+    assertThat(stored.get(2)).isSameAs(dependentPayload);
+
+    verify(stagingEntityDAO).retrieveTransactionBatchOrderByStageAndHash(anyInt(), anyInt());
+    verify(stagingEntityDAO, times(2)).countAll();
+    verify(payloadEncoder, times(3)).decode(any());
+    verify(transactionManager, times(3)).storePayload(any());
+  }
+
+  @Test
+  public void testSyncRethrowsUnexpectedException() {
+
+    final StagingTransaction transaction = mock(StagingTransaction.class);
+    when(transaction.getHash()).thenReturn("TXN1");
+    when(stagingEntityDAO.retrieveTransactionBatchOrderByStageAndHash(anyInt(), anyInt()))
+        .thenReturn(List.of(transaction));
+    when(stagingEntityDAO.countAll()).thenReturn(1L);
+
+    final IllegalStateException exception = new IllegalStateException("OUCH");
+    when(transactionManager.storePayload(any())).thenThrow(exception);
+
+    final Throwable throwable = catchThrowable(() -> recovery.sync());
+
+    assertThat(throwable).isSameAs(exception);
+
+    verify(stagingEntityDAO).retrieveTransactionBatchOrderByStageAndHash(anyInt(), anyInt());
+    verify(stagingEntityDAO).countAll();
+    verify(payloadEncoder).decode(any());
+    verify(transactionManager).storePayload(any());
+  }
+
+  @Test
+  public void testSyncRethrowsErrorWrapped() {
+
+    final StagingTransaction transaction = mock(StagingTransaction.class);
+    when(transaction.getHash()).thenReturn("TXN1");
+    when(stagingEntityDAO.retrieveTransactionBatchOrderByStageAndHash(anyInt(), anyInt()))
+        .thenReturn(List.of(transaction));
+    when(stagingEntityDAO.countAll()).thenReturn(1L);
+
+    final Error error = new AssertionError("OUCH");
+    when(transactionManager.storePayload(any())).thenThrow(error);
+
+    final Throwable throwable = catchThrowable(() -> recovery.sync());
+
+    assertThat(throwable).isInstanceOf(CompletionException.class).hasCause(error);
+
+    verify(stagingEntityDAO).retrieveTransactionBatchOrderByStageAndHash(anyInt(), anyInt());
+    verify(stagingEntityDAO).countAll();
+    verify(payloadEncoder).decode(any());
+    verify(transactionManager).storePayload(any());
+  }
+
+  @Test
+  public void testRecoverSummarisesStageSpanningPages() {
+
+    final StagingTransaction transaction = mock(StagingTransaction.class);
+    when(transaction.getHash()).thenReturn("TXN1");
+    when(transaction.getValidationStage()).thenReturn(1L);
+
+    // two pages, both holding transactions from the same stage
+    when(stagingEntityDAO.countAll()).thenReturn(10001L);
+    when(stagingEntityDAO.retrieveTransactionBatchOrderByStageAndHash(anyInt(), anyInt()))
+        .thenReturn(List.of(transaction));
+
+    final Recovery spy = spy(recovery);
+    doReturn(RecoveryResult.SUCCESS).when(spy).request();
+    doReturn(RecoveryResult.SUCCESS).when(spy).stage();
+
+    assertThat(spy.recover()).isEqualTo(0);
+
+    verify(spy).request();
+    verify(spy).stage();
+    verify(spy).sync();
+
+    verify(stagingEntityDAO, times(2))
+        .retrieveTransactionBatchOrderByStageAndHash(anyInt(), anyInt());
+    verify(stagingEntityDAO, times(3)).countAll();
+    verify(payloadEncoder, times(2)).decode(any());
+    verify(transactionManager, times(2)).storePayload(any());
+  }
+
   @Test
   public void testRecoverSuccess() {
 
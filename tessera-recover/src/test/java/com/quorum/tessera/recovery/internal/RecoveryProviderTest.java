@@ -3,11 +3,18 @@ package com.quorum.tessera.recovery.internal;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
 
+import com.quorum.tessera.config.Config;
+import com.quorum.tessera.config.ConfigFactory;
 import com.quorum.tessera.data.staging.StagingEntityDAO;
+import com.quorum.tessera.data.staging.StagingTransaction;
 import com.quorum.tessera.discovery.Discovery;
+import com.quorum.tessera.enclave.PayloadEncoder;
 import com.quorum.tessera.recovery.Recovery;
+import com.quorum.tessera.recovery.RecoveryResult;
 import com.quorum.tessera.recovery.resend.BatchTransactionRequester;
 import com.quorum.tessera.transaction.TransactionManager;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import org.junit.Test;
 
 public class RecoveryProviderTest {
@@ -23,11 +30,18 @@ public class RecoveryProviderTest {
     try (var staticStagingEntityDAO = mockStatic(StagingEntityDAO.class);
         var staticDiscovery = mockStatic(Discovery.class);
         var staticBatchTransactionRequester = mockStatic(BatchTransactionRequester.class);
-        var staticTransactionManager = mockStatic(TransactionManager.class)) {
+        var staticTransactionManager = mockStatic(TransactionManager.class);
+        var staticConfigFactory = mockStatic(ConfigFactory.class);
+        var staticPayloadEncoder = mockStatic(PayloadEncoder.class)) {
 
-      staticStagingEntityDAO
-          .when(StagingEntityDAO::create)
-          .thenReturn(mock(StagingEntityDAO.class));
+      staticPayloadEncoder.when(PayloadEncoder::create).thenReturn(mock(PayloadEncoder.class));
+
+      final ConfigFactory configFactory = mock(ConfigFactory.class);
+      when(configFactory.getConfig()).thenReturn(mock(Config.class));
+      staticConfigFactory.when(ConfigFactory::create).thenReturn(configFactory);
+
+      final StagingEntityDAO stagingEntityDAO = mock(StagingEntityDAO.class);
+      staticStagingEntityDAO.when(StagingEntityDAO::create).thenReturn(stagingEntityDAO);
 
       staticDiscovery.when(Discovery::create).thenReturn(mock(Discovery.class));
 
@@ -47,6 +61,29 @@ public class RecoveryProviderTest {
 
       verifyNoMoreInteractions(transactionManager);
 
+      // staged transactions are synced on the daemon worker pool
+      final List<Thread> workers = new CopyOnWriteArrayList<>();
+      when(transactionManager.storePayload(any()))
+          .thenAnswer(
+              invocation -> {
+                workers.add(Thread.currentThread());
+                return null;
+              });
+      final StagingTransaction stagingTransaction = mock(StagingTransaction.class);
+      when(stagingTransaction.getHash()).thenReturn("TXN1");
+      when(stagingEntityDAO.countAll()).thenReturn(1L);
+      when(stagingEntityDAO.retrieveTransactionBatchOrderByStageAndHash(anyInt(), anyInt()))
+          .thenReturn(List.of(stagingTransaction));
+
+      assertThat(recovery.sync()).isEqualTo(RecoveryResult.SUCCESS);
+
+      assertThat(workers).hasSize(1);
+      assertThat(workers.get(0).isDaemon()).isTrue();
+      assertThat(workers.get(0).getName()).isEqualTo("recovery-sync-worker");
+
+      staticPayloadEncoder.verify(PayloadEncoder::create);
+      staticPayloadEncoder.verifyNoMoreInteractions();
+
       staticDiscovery.verify(Discovery::create);
       staticDiscovery.verifyNoMoreInteractions();
       staticBatchTransactionRequester.verify(BatchTransactionRequester::create);
@@ -54,6 +91,9 @@ public class RecoveryProviderTest {
 
       staticTransactionManager.verify(TransactionManager::create);
       staticTransactionManager.verifyNoMoreInteractions();
+
+      staticConfigFactory.verify(ConfigFactory::create);
+      staticConfigFactory.verifyNoMoreInteractions();
     }
   }
 }
@@ -0,0 +1,43 @@
+package com.quorum.tessera.recovery.workflow;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class BatchWorkflowTest {
+
+  private final List<BatchWorkflowContext> executed = new ArrayList<>();
+
+  private final BatchWorkflow batchWorkflow =
+      new BatchWorkflow() {
+        @Override
+        public boolean execute(BatchWorkflowContext context) {
+          executed.add(context);
+          return true;
+        }
+
+        @Override
+        public long getPublishedMessageCount() {
+          return executed.size();
+        }
+      };
+
+  @Test
+  public void prepareDefersEverythingToPublish() {
+    final BatchWorkflowContext context = new BatchWorkflowContext();
+
+    assertThat(batchWorkflow.prepare(context)).isTrue();
+    assertThat(executed).isEmpty();
+
+    assertThat(batchWorkflow.publish(context, true)).isTrue();
+    assertThat(executed).containsExactly(context);
+  }
+
+  @Test
+  public void publishSkipsUnpreparedContext() {
+    assertThat(batchWorkflow.publish(new BatchWorkflowContext(), false)).isFalse();
+    assertThat(executed).isEmpty();
+  }
+}
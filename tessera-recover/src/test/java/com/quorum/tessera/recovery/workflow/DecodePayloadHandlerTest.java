@@ -4,8 +4,11 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
 
 import com.quorum.tessera.data.EncryptedTransaction;
+import com.quorum.tessera.data.EncryptedTransactionBox;
 import com.quorum.tessera.enclave.EncodedPayload;
 import com.quorum.tessera.enclave.PayloadEncoder;
+import com.quorum.tessera.encryption.PublicKey;
+import java.util.List;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -49,7 +52,43 @@ public class DecodePayloadHandlerTest {
     verify(context).setEncodedPayload(encodedPayload);
     verify(payloadEncoder).decode(payloadData);
     verify(encryptedTransaction).getEncodedPayload();
+    verify(encryptedTransaction).getAddedRecipientBoxes();
 
     verifyNoMoreInteractions(context, encryptedTransaction, encodedPayload);
   }
+
+  @Test
+  public void handleWithAddedRecipientBoxes() {
+
+    final byte[] payloadData = "SOMEDATA".getBytes();
+    final PublicKey recipient = PublicKey.from("RECIPIENT".getBytes());
+
+    final BatchWorkflowContext context = mock(BatchWorkflowContext.class);
+    final EncryptedTransaction encryptedTransaction = mock(EncryptedTransaction.class);
+    final EncryptedTransactionBox addedBox = mock(EncryptedTransactionBox.class);
+    final EncryptedTransactionBox legacyBox = mock(EncryptedTransactionBox.class);
+
+    when(context.getEncryptedTransaction()).thenReturn(encryptedTransaction);
+    when(encryptedTransaction.getEncodedPayload()).thenReturn(payloadData);
+    when(encryptedTransaction.getAddedRecipientBoxes()).thenReturn(List.of(addedBox, legacyBox));
+    when(addedBox.getRecipientKey()).thenReturn(recipient.getKeyBytes());
+    when(addedBox.getRecipientBox()).thenReturn("BOX1".getBytes());
+    when(legacyBox.getRecipientBox()).thenReturn("BOX2".getBytes());
+
+    final EncodedPayload decoded = mock(EncodedPayload.class);
+    final EncodedPayload withAddedBox = mock(EncodedPayload.class);
+    final EncodedPayload withLegacyBox = mock(EncodedPayload.class);
+    when(payloadEncoder.decode(payloadData)).thenReturn(decoded);
+    when(payloadEncoder.withRecipientBox(decoded, recipient, "BOX1".getBytes()))
+        .thenReturn(withAddedBox);
+    when(payloadEncoder.withRecipientBox(withAddedBox, null, "BOX2".getBytes()))
+        .thenReturn(withLegacyBox);
+
+    assertThat(handler.execute(context)).isTrue();
+
+    verify(context).setEncodedPayload(withLegacyBox);
+    verify(payloadEncoder).decode(payloadData);
+    verify(payloadEncoder).withRecipientBox(decoded, recipient, "BOX1".getBytes());
+    verify(payloadEncoder).withRecipientBox(withAddedBox, null, "BOX2".getBytes());
+  }
 }
@@ -3,8 +3,7 @@ package com.quorum.tessera.recovery.workflow.internal;
 import static java.util.Collections.emptyMap;
 import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.AdditionalMatchers.gt;
-import static org.mockito.AdditionalMatchers.lt;
+import static org.assertj.core.api.Assertions.catchThrowable;
 import static org.mockito.Mockito.*;
 
 import com.quorum.tessera.base64.Base64Codec;
@@ -22,11 +21,17 @@ import com.quorum.tessera.recovery.workflow.BatchResendManager;
 import com.quorum.tessera.recovery.workflow.BatchWorkflow;
 import com.quorum.tessera.recovery.workflow.BatchWorkflowContext;
 import com.quorum.tessera.recovery.workflow.BatchWorkflowFactory;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.ServiceLoader;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -74,15 +79,13 @@ public class BatchResendManagerImplTest {
         ResendBatchRequest.Builder.create().withBatchSize(3).withPublicKey(KEY_STRING).build();
 
     List<EncryptedTransaction> transactions =
-        IntStream.range(0, 5)
+        IntStream.range(0, 101)
             .mapToObj(i -> mock(EncryptedTransaction.class))
             .collect(Collectors.toUnmodifiableList());
 
     when(encryptedTransactionDAO.transactionCount()).thenReturn(101L);
 
-    when(encryptedTransactionDAO.retrieveTransactions(lt(100), anyInt())).thenReturn(transactions);
-    when(encryptedTransactionDAO.retrieveTransactions(gt(99), anyInt()))
-        .thenReturn(singletonList(mock(EncryptedTransaction.class)));
+    when(encryptedTransactionDAO.streamTransactions(5)).thenReturn(transactions.stream());
 
     BatchWorkflow batchWorkflow = mock(BatchWorkflow.class);
     when(batchWorkflow.getPublishedMessageCount()).thenReturn(999L);
@@ -94,9 +97,10 @@ public class BatchResendManagerImplTest {
     assertThat(result.getTotal()).isEqualTo(999L);
     verify(batchWorkflow).getPublishedMessageCount();
 
-    verify(batchWorkflow, times(101)).execute(any(BatchWorkflowContext.class));
+    verify(batchWorkflow, times(101)).prepare(any(BatchWorkflowContext.class));
+    verify(batchWorkflow, times(101)).publish(any(BatchWorkflowContext.class), eq(false));
 
-    verify(encryptedTransactionDAO, times(21)).retrieveTransactions(anyInt(), anyInt());
+    verify(encryptedTransactionDAO).streamTransactions(5);
 
     verify(encryptedTransactionDAO).transactionCount();
 
@@ -110,7 +114,7 @@ public class BatchResendManagerImplTest {
         ResendBatchRequest.Builder.create().withPublicKey(KEY_STRING).build();
 
     List<EncryptedTransaction> transactions =
-        IntStream.range(0, 5)
+        IntStream.range(0, 101)
             .mapToObj(i -> mock(EncryptedTransaction.class))
             .collect(Collectors.toUnmodifiableList());
 
@@ -123,17 +127,16 @@ public class BatchResendManagerImplTest {
 
     when(batchWorkflowFactory.create(101L)).thenReturn(batchWorkflow);
 
-    when(encryptedTransactionDAO.retrieveTransactions(lt(100), anyInt())).thenReturn(transactions);
-    when(encryptedTransactionDAO.retrieveTransactions(gt(99), anyInt()))
-        .thenReturn(List.of(mock(EncryptedTransaction.class)));
+    when(encryptedTransactionDAO.streamTransactions(5)).thenReturn(transactions.stream());
 
     final ResendBatchResponse result = manager.resendBatch(request);
 
     assertThat(result.getTotal()).isEqualTo(999L);
 
-    verify(batchWorkflow, times(101)).execute(any(BatchWorkflowContext.class));
+    verify(batchWorkflow, times(101)).prepare(any(BatchWorkflowContext.class));
+    verify(batchWorkflow, times(101)).publish(any(BatchWorkflowContext.class), eq(false));
 
-    verify(encryptedTransactionDAO, times(21)).retrieveTransactions(anyInt(), anyInt());
+    verify(encryptedTransactionDAO).streamTransactions(5);
     verify(encryptedTransactionDAO).transactionCount();
 
     verify(batchWorkflowFactory).create(101L);
@@ -149,15 +152,13 @@ public class BatchResendManagerImplTest {
             .build();
 
     List<EncryptedTransaction> transactions =
-        IntStream.range(0, 5)
+        IntStream.range(0, 101)
             .mapToObj(i -> mock(EncryptedTransaction.class))
             .collect(Collectors.toUnmodifiableList());
 
     when(encryptedTransactionDAO.transactionCount()).thenReturn(101L);
 
-    when(encryptedTransactionDAO.retrieveTransactions(lt(100), anyInt())).thenReturn(transactions);
-    when(encryptedTransactionDAO.retrieveTransactions(gt(99), anyInt()))
-        .thenReturn(singletonList(mock(EncryptedTransaction.class)));
+    when(encryptedTransactionDAO.streamTransactions(5)).thenReturn(transactions.stream());
 
     final BatchWorkflow batchWorkflow = mock(BatchWorkflow.class);
     when(batchWorkflow.getPublishedMessageCount()).thenReturn(999L);
@@ -166,9 +167,10 @@ public class BatchResendManagerImplTest {
     final ResendBatchResponse result = manager.resendBatch(request);
     assertThat(result.getTotal()).isEqualTo(999L);
 
-    verify(batchWorkflow, times(101)).execute(any(BatchWorkflowContext.class));
+    verify(batchWorkflow, times(101)).prepare(any(BatchWorkflowContext.class));
+    verify(batchWorkflow, times(101)).publish(any(BatchWorkflowContext.class), eq(false));
 
-    verify(encryptedTransactionDAO, times(21)).retrieveTransactions(anyInt(), anyInt());
+    verify(encryptedTransactionDAO).streamTransactions(5);
 
     verify(encryptedTransactionDAO).transactionCount();
 
@@ -176,31 +178,131 @@ public class BatchResendManagerImplTest {
   }
 
   @Test
-  public void createWithMinimalConstructor() {
-    assertThat(
-            new BatchResendManagerImpl(
-                stagingEntityDAO, encryptedTransactionDAO, 1, mock(BatchWorkflowFactory.class)))
-        .isNotNull();
+  public void preparedTransactionsArePublishedInReadOrder() throws Exception {
+
+    final ResendBatchRequest request =
+        ResendBatchRequest.Builder.create().withBatchSize(3).withPublicKey(KEY_STRING).build();
+
+    final List<EncryptedTransaction> transactions =
+        IntStream.range(0, 50)
+            .mapToObj(i -> mock(EncryptedTransaction.class))
+            .collect(Collectors.toUnmodifiableList());
+
+    when(encryptedTransactionDAO.transactionCount()).thenReturn(50L);
+    when(encryptedTransactionDAO.streamTransactions(5)).thenReturn(transactions.stream());
+
+    final BatchWorkflow batchWorkflow = mock(BatchWorkflow.class);
+    final List<EncryptedTransaction> published = new ArrayList<>();
+    when(batchWorkflow.prepare(any(BatchWorkflowContext.class)))
+        .thenAnswer(
+            invocation -> {
+              // finish out of order so the publisher has to wait for earlier transactions
+              Thread.sleep(ThreadLocalRandom.current().nextInt(3));
+              return true;
+            });
+    when(batchWorkflow.publish(any(BatchWorkflowContext.class), eq(true)))
+        .thenAnswer(
+            invocation -> {
+              final BatchWorkflowContext context = invocation.getArgument(0);
+              published.add(context.getEncryptedTransaction());
+              return true;
+            });
+    when(batchWorkflow.getPublishedMessageCount()).thenReturn(50L);
+    when(batchWorkflowFactory.create(50L)).thenReturn(batchWorkflow);
+
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      final BatchResendManager pipelinedManager =
+          new BatchResendManagerImpl(
+              stagingEntityDAO, encryptedTransactionDAO, 5, batchWorkflowFactory, executor, 4);
+
+      final ResendBatchResponse result = pipelinedManager.resendBatch(request);
+
+      assertThat(result.getTotal()).isEqualTo(50L);
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertThat(published).containsExactlyElementsOf(transactions);
+
+    verify(encryptedTransactionDAO).streamTransactions(5);
+    verify(encryptedTransactionDAO).transactionCount();
+    verify(batchWorkflowFactory).create(50L);
   }
 
   @Test
-  public void calculateBatchCount() {
-    long numberOfRecords = 10;
-    long maxResults = 3;
+  public void failureToPrepareTransactionStopsPublishing() {
+
+    final ResendBatchRequest request =
+        ResendBatchRequest.Builder.create().withBatchSize(3).withPublicKey(KEY_STRING).build();
 
-    int batchCount = BatchResendManagerImpl.calculateBatchCount(maxResults, numberOfRecords);
+    final EncryptedTransaction good = mock(EncryptedTransaction.class);
+    final EncryptedTransaction bad = mock(EncryptedTransaction.class);
+    final EncryptedTransaction unreached = mock(EncryptedTransaction.class);
 
-    assertThat(batchCount).isEqualTo(4);
+    when(encryptedTransactionDAO.transactionCount()).thenReturn(3L);
+    when(encryptedTransactionDAO.streamTransactions(5))
+        .thenReturn(Stream.of(good, bad, unreached));
+
+    final BatchWorkflow batchWorkflow = mock(BatchWorkflow.class);
+    when(batchWorkflow.prepare(any(BatchWorkflowContext.class)))
+        .thenAnswer(
+            invocation -> {
+              final BatchWorkflowContext context = invocation.getArgument(0);
+              if (context.getEncryptedTransaction() == bad) {
+                throw new IllegalStateException("OUCH");
+              }
+              return true;
+            });
+    when(batchWorkflowFactory.create(3L)).thenReturn(batchWorkflow);
+
+    final Throwable throwable = catchThrowable(() -> manager.resendBatch(request));
+
+    assertThat(throwable).isExactlyInstanceOf(IllegalStateException.class).hasMessage("OUCH");
+
+    // the next transaction is read ahead of the publisher, but never published
+    verify(batchWorkflow, times(3)).prepare(any(BatchWorkflowContext.class));
+    verify(batchWorkflow).publish(any(BatchWorkflowContext.class), eq(true));
+    verifyNoMoreInteractions(batchWorkflow);
+
+    verify(encryptedTransactionDAO).streamTransactions(5);
+    verify(encryptedTransactionDAO).transactionCount();
+    verify(batchWorkflowFactory).create(3L);
   }
 
   @Test
-  public void calculateBatchCountTotalLowerThanBatchSizeIsSingleBatch() {
-    long numberOfRecords = 100;
-    long maxResults = 10;
+  public void errorPreparingTransactionIsRethrownWrapped() {
+
+    final ResendBatchRequest request =
+        ResendBatchRequest.Builder.create().withBatchSize(3).withPublicKey(KEY_STRING).build();
+
+    when(encryptedTransactionDAO.transactionCount()).thenReturn(1L);
+    when(encryptedTransactionDAO.streamTransactions(5))
+        .thenReturn(Stream.of(mock(EncryptedTransaction.class)));
+
+    final BatchWorkflow batchWorkflow = mock(BatchWorkflow.class);
+    final Error error = new AssertionError("OUCH");
+    when(batchWorkflow.prepare(any(BatchWorkflowContext.class))).thenThrow(error);
+    when(batchWorkflowFactory.create(1L)).thenReturn(batchWorkflow);
+
+    final Throwable throwable = catchThrowable(() -> manager.resendBatch(request));
 
-    int batchCount = BatchResendManagerImpl.calculateBatchCount(maxResults, numberOfRecords);
+    assertThat(throwable).isInstanceOf(CompletionException.class).hasCause(error);
 
-    assertThat(batchCount).isEqualTo(10);
+    verify(batchWorkflow).prepare(any(BatchWorkflowContext.class));
+    verifyNoMoreInteractions(batchWorkflow);
+
+    verify(encryptedTransactionDAO).streamTransactions(5);
+    verify(encryptedTransactionDAO).transactionCount();
+    verify(batchWorkflowFactory).create(1L);
+  }
+
+  @Test
+  public void createWithMinimalConstructor() {
+    assertThat(
+            new BatchResendManagerImpl(
+                stagingEntityDAO, encryptedTransactionDAO, 1, mock(BatchWorkflowFactory.class)))
+        .isNotNull();
   }
 
   @Test
@@ -246,7 +348,7 @@ public class BatchResendManagerImplTest {
 
       final byte[] raw = new PayloadEncoderImpl().encode(encodedPayload);
 
-      PushBatchRequest request = PushBatchRequest.from(List.of(raw));
+      PushBatchRequest request = PushBatchRequest.from(List.of(raw, raw));
 
       StagingTransaction existing = new StagingTransaction();
 
@@ -256,7 +358,7 @@ public class BatchResendManagerImplTest {
 
       manager.storeResendBatch(request);
 
-      verify(stagingEntityDAO).save(any(StagingTransaction.class));
+      verify(stagingEntityDAO).saveAll(argThat(entities -> entities.size() == 2));
 
       payloadDigestMockedStatic.verify(PayloadDigest::create);
       payloadDigestMockedStatic.verifyNoMoreInteractions();
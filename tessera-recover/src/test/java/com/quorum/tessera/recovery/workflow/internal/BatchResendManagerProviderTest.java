@@ -3,10 +3,21 @@ package com.quorum.tessera.recovery.workflow.internal;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
 
+import com.quorum.tessera.config.Config;
+import com.quorum.tessera.config.ConfigFactory;
+import com.quorum.tessera.config.ServerConfig;
+import com.quorum.tessera.data.EncryptedTransaction;
 import com.quorum.tessera.data.EncryptedTransactionDAO;
 import com.quorum.tessera.data.staging.StagingEntityDAO;
+import com.quorum.tessera.recovery.resend.ResendBatchRequest;
 import com.quorum.tessera.recovery.workflow.BatchResendManager;
+import com.quorum.tessera.recovery.workflow.BatchWorkflow;
+import com.quorum.tessera.recovery.workflow.BatchWorkflowContext;
 import com.quorum.tessera.recovery.workflow.BatchWorkflowFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
 import org.junit.Test;
 
 public class BatchResendManagerProviderTest {
@@ -21,17 +32,28 @@ public class BatchResendManagerProviderTest {
 
     try (var staticEncryptedTransactionDAO = mockStatic(EncryptedTransactionDAO.class);
         var staticStagingEntityDAO = mockStatic(StagingEntityDAO.class);
-        var staticBatchWorkflowFactory = mockStatic(BatchWorkflowFactory.class); ) {
+        var staticBatchWorkflowFactory = mockStatic(BatchWorkflowFactory.class);
+        var staticConfigFactory = mockStatic(ConfigFactory.class)) {
 
+      final ServerConfig serverConfig = mock(ServerConfig.class);
+      when(serverConfig.getProperties()).thenReturn(Map.of("resendParallelism", "2"));
+      final Config config = mock(Config.class);
+      when(config.getP2PServerConfig()).thenReturn(serverConfig);
+      final ConfigFactory configFactory = mock(ConfigFactory.class);
+      when(configFactory.getConfig()).thenReturn(config);
+      staticConfigFactory.when(ConfigFactory::create).thenReturn(configFactory);
+
+      final EncryptedTransactionDAO encryptedTransactionDAO = mock(EncryptedTransactionDAO.class);
       staticEncryptedTransactionDAO
           .when(EncryptedTransactionDAO::create)
-          .thenReturn(mock(EncryptedTransactionDAO.class));
+          .thenReturn(encryptedTransactionDAO);
       staticStagingEntityDAO
           .when(StagingEntityDAO::create)
           .thenReturn(mock(StagingEntityDAO.class));
+      final BatchWorkflowFactory batchWorkflowFactory = mock(BatchWorkflowFactory.class);
       staticBatchWorkflowFactory
           .when(BatchWorkflowFactory::create)
-          .thenReturn(mock(BatchWorkflowFactory.class));
+          .thenReturn(batchWorkflowFactory);
 
       BatchResendManager batchResendManager = BatchResendManagerProvider.provider();
       assertThat(batchResendManager).isNotNull().isExactlyInstanceOf(BatchResendManagerImpl.class);
@@ -39,16 +61,41 @@ public class BatchResendManagerProviderTest {
       staticEncryptedTransactionDAO.verify(EncryptedTransactionDAO::create);
       staticStagingEntityDAO.verify(StagingEntityDAO::create);
       staticBatchWorkflowFactory.verify(BatchWorkflowFactory::create);
+      staticConfigFactory.verify(ConfigFactory::create);
 
       staticEncryptedTransactionDAO.verifyNoMoreInteractions();
       staticStagingEntityDAO.verifyNoMoreInteractions();
       staticBatchWorkflowFactory.verifyNoMoreInteractions();
+      staticConfigFactory.verifyNoMoreInteractions();
 
       assertThat(BatchResendManagerHolder.INSTANCE.getBatchResendManager())
           .isPresent()
           .containsSame(batchResendManager);
 
       assertThat(BatchResendManagerProvider.provider()).isSameAs(batchResendManager);
+
+      // transactions are prepared on the daemon worker pool
+      final List<Thread> workers = new CopyOnWriteArrayList<>();
+      final BatchWorkflow batchWorkflow = mock(BatchWorkflow.class);
+      when(batchWorkflow.prepare(any(BatchWorkflowContext.class)))
+          .thenAnswer(
+              invocation -> {
+                workers.add(Thread.currentThread());
+                return true;
+              });
+      when(batchWorkflowFactory.create(anyLong())).thenReturn(batchWorkflow);
+      when(encryptedTransactionDAO.streamTransactions(anyInt()))
+          .thenReturn(Stream.of(mock(EncryptedTransaction.class)));
+
+      batchResendManager.resendBatch(
+          ResendBatchRequest.Builder.create()
+              .withBatchSize(1)
+              .withPublicKey("ROAZBWtSacxXQrOe3FGAqJDyJjFePR5ce4TSIzmJ0Bc=")
+              .build());
+
+      assertThat(workers).hasSize(1);
+      assertThat(workers.get(0).isDaemon()).isTrue();
+      assertThat(workers.get(0).getName()).isEqualTo("batch-resend-worker");
     }
   }
 }
@@ -121,4 +121,31 @@ public class BatchWorkflowFactoryImplTest {
     verify(payloadEncoder).decode(payloadData);
     verify(enclave).status();
   }
+
+  @Test
+  public void publishingFilteredTransactionFlushesOutstandingPayloads() {
+
+    BatchWorkflowFactoryImpl batchWorkflowFactory =
+        new BatchWorkflowFactoryImpl(enclave, payloadEncoder, discovery, resendBatchPublisher);
+
+    BatchWorkflow batchWorkflow = batchWorkflowFactory.create(2L);
+
+    EncodedPayload encodedPayload = mock(EncodedPayload.class);
+    BatchWorkflowContext prepared = new BatchWorkflowContext();
+    prepared.setBatchSize(10);
+    prepared.setPayloadsToPublish(Set.of(encodedPayload));
+    prepared.setRecipient(Recipient.of(mock(PublicKey.class), "url"));
+
+    assertThat(batchWorkflow.publish(prepared, true)).isTrue();
+    assertThat(batchWorkflow.getPublishedMessageCount()).isZero();
+
+    BatchWorkflowContext filtered = new BatchWorkflowContext();
+    filtered.setBatchSize(10);
+
+    assertThat(batchWorkflow.publish(filtered, false)).isFalse();
+    assertThat(batchWorkflow.getPublishedMessageCount()).isOne();
+    assertThat(filtered.getExpectedTotal()).isOne();
+
+    verify(resendBatchPublisher).publishBatch(List.of(encodedPayload), "url");
+  }
 }
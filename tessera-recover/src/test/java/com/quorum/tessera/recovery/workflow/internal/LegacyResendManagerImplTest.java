@@ -23,6 +23,7 @@ import com.quorum.tessera.transaction.publish.PayloadPublisher;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Stream;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -88,7 +89,7 @@ public class LegacyResendManagerImplTest {
     databaseTx.setEncodedPayload(new byte[0]);
 
     when(dao.retrieveByHash(any(MessageHash.class))).thenReturn(Optional.of(databaseTx));
-    when(encoder.decode(any(byte[].class))).thenReturn(nonSPPayload);
+    when(dao.decodePayload(databaseTx)).thenReturn(nonSPPayload);
 
     final MessageHash txHash = new MessageHash("sample-hash".getBytes());
     final PublicKey targetResendKey = PublicKey.from("target".getBytes());
@@ -106,7 +107,7 @@ public class LegacyResendManagerImplTest {
         .hasMessage("Cannot resend enhanced privacy transaction in legacy resend");
 
     verify(dao).retrieveByHash(txHash);
-    verify(encoder).decode(any(byte[].class));
+    verify(dao).decodePayload(databaseTx);
   }
 
   @Test
@@ -127,7 +128,7 @@ public class LegacyResendManagerImplTest {
             .build();
 
     when(dao.retrieveByHash(any(MessageHash.class))).thenReturn(Optional.of(databaseTx));
-    when(encoder.decode(any(byte[].class))).thenReturn(nonSPPayload);
+    when(dao.decodePayload(databaseTx)).thenReturn(nonSPPayload);
     when(encoder.forRecipient(nonSPPayload, targetResendKey)).thenReturn(nonSPPayload);
 
     final ResendResponse response = resendManager.resend(request);
@@ -136,7 +137,7 @@ public class LegacyResendManagerImplTest {
     assertThat(response.getPayload()).isEqualTo(nonSPPayload);
 
     verify(dao).retrieveByHash(txHash);
-    verify(encoder).decode(any(byte[].class));
+    verify(dao).decodePayload(databaseTx);
     verify(encoder).forRecipient(nonSPPayload, targetResendKey);
   }
 
@@ -163,9 +164,9 @@ public class LegacyResendManagerImplTest {
             .build();
 
     when(dao.retrieveByHash(any(MessageHash.class))).thenReturn(Optional.of(databaseTx));
-    when(encoder.decode(any(byte[].class))).thenReturn(nonSPPayload);
-    when(enclave.getPublicKeys()).thenReturn(Set.of(localRecipientKey));
-    when(enclave.unencryptTransaction(any(), eq(localRecipientKey))).thenReturn(new byte[0]);
+    when(dao.decodePayload(databaseTx)).thenReturn(nonSPPayload);
+    when(enclave.findRecipientKeys(List.of(nonSPPayload)))
+        .thenReturn(List.of(Optional.of(localRecipientKey)));
 
     final ResendResponse response = resendManager.resend(request);
 
@@ -175,9 +176,8 @@ public class LegacyResendManagerImplTest {
     assertThat(response.getPayload()).isEqualToComparingFieldByFieldRecursively(expected);
 
     verify(dao).retrieveByHash(txHash);
-    verify(encoder).decode(any(byte[].class));
-    verify(enclave).getPublicKeys();
-    verify(enclave).unencryptTransaction(any(), eq(localRecipientKey));
+    verify(dao).decodePayload(databaseTx);
+    verify(enclave).findRecipientKeys(List.of(nonSPPayload));
   }
 
   @Test
@@ -194,9 +194,8 @@ public class LegacyResendManagerImplTest {
     // We are not testing the workflow itself, only that the workflow gets the right amount of
     // transactions
 
-    when(dao.transactionCount()).thenReturn(2L);
-    when(dao.retrieveTransactions(0, 1)).thenReturn(List.of(new EncryptedTransaction()));
-    when(dao.retrieveTransactions(1, 1)).thenReturn(List.of(new EncryptedTransaction()));
+    when(dao.streamTransactions(1))
+        .thenReturn(Stream.of(new EncryptedTransaction(), new EncryptedTransaction()));
 
     final ResendResponse response = resendManager.resend(request);
     assertThat(response).isNotNull();
@@ -204,8 +203,6 @@ public class LegacyResendManagerImplTest {
 
     verify(enclave, times(2)).status();
     verify(encoder, times(2)).decode(any());
-    verify(dao).transactionCount();
-    verify(dao).retrieveTransactions(0, 1);
-    verify(dao).retrieveTransactions(1, 1);
+    verify(dao).streamTransactions(1);
   }
 }
@@ -0,0 +1,86 @@
+package com.quorum.tessera.benchmark;
+
+import com.quorum.tessera.enclave.*;
+import com.quorum.tessera.encryption.*;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures {@link EnclaveImpl} encrypting a payload for a number of recipients and decrypting it
+ * again as one of them, using each encryptor and the shared key cache a node is configured with
+ * by default.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EnclaveBenchmark {
+
+  @Param({"NACL", "EC"})
+  public String encryptorType;
+
+  @Param({"1", "10"})
+  public int recipientCount;
+
+  @Param({"1024", "65536"})
+  public int payloadSize;
+
+  private Enclave enclave;
+
+  private byte[] message;
+
+  private PublicKey sender;
+
+  private List<PublicKey> recipients;
+
+  private PrivacyMetadata privacyMetadata;
+
+  private EncodedPayload encrypted;
+
+  @Setup(Level.Trial)
+  public void onSetUp() {
+    final Encryptor encryptor = EncryptorFactory.newFactory(encryptorType).create();
+
+    final List<KeyPair> keys =
+        IntStream.rangeClosed(0, recipientCount)
+            .mapToObj(i -> encryptor.generateNewKeys())
+            .collect(Collectors.toList());
+
+    enclave =
+        new EnclaveImpl(
+            encryptor,
+            new KeyManagerImpl(keys, Set.of()),
+            SharedKeyCache.from(encryptor, Map.of()));
+
+    message = new byte[payloadSize];
+    ThreadLocalRandom.current().nextBytes(message);
+
+    sender = keys.get(0).getPublicKey();
+    recipients =
+        keys.subList(1, keys.size()).stream()
+            .map(KeyPair::getPublicKey)
+            .collect(Collectors.toList());
+    privacyMetadata =
+        PrivacyMetadata.Builder.create().withPrivacyMode(PrivacyMode.STANDARD_PRIVATE).build();
+
+    encrypted = enclave.encryptPayload(message, sender, recipients, privacyMetadata);
+  }
+
+  @Benchmark
+  public EncodedPayload encryptPayload() {
+    return enclave.encryptPayload(message, sender, recipients, privacyMetadata);
+  }
+
+  @Benchmark
+  public byte[] unencryptTransaction() {
+    return enclave.unencryptTransaction(encrypted, recipients.get(recipientCount - 1));
+  }
+}
@@ -0,0 +1,95 @@
+package com.quorum.tessera.benchmark;
+
+import com.quorum.tessera.data.EncryptedTransaction;
+import com.quorum.tessera.data.EncryptedTransactionDAO;
+import com.quorum.tessera.data.MessageHash;
+import com.quorum.tessera.data.internal.EncryptedTransactionDAOImpl;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures saving and retrieving transactions through {@link EncryptedTransactionDAOImpl} backed by
+ * an in-memory H2 database, so that the cost of JPA and the mapping is seen without any network or
+ * disk in the way.
+ *
+ * <p>The table is filled with {@code storedTransactions} rows before measuring, and each retrieval
+ * looks up one of them at random.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EncryptedTransactionDAOBenchmark {
+
+  @Param({"10000"})
+  public int storedTransactions;
+
+  @Param({"1024", "65536"})
+  public int payloadSize;
+
+  private final AtomicLong sequence = new AtomicLong();
+
+  private EntityManagerFactory entityManagerFactory;
+
+  private EncryptedTransactionDAO encryptedTransactionDAO;
+
+  private byte[] encodedPayload;
+
+  @Setup(Level.Trial)
+  public void onSetUp() {
+    entityManagerFactory =
+        Persistence.createEntityManagerFactory(
+            "tessera",
+            Map.of(
+                "javax.persistence.jdbc.url",
+                "jdbc:h2:mem:dao-benchmark;DB_CLOSE_DELAY=-1",
+                "javax.persistence.jdbc.user",
+                "sa",
+                "javax.persistence.jdbc.password",
+                "",
+                "javax.persistence.schema-generation.database.action",
+                "drop-and-create",
+                "eclipselink.logging.level",
+                "WARNING"));
+
+    encryptedTransactionDAO = new EncryptedTransactionDAOImpl(entityManagerFactory);
+
+    encodedPayload = new byte[payloadSize];
+    ThreadLocalRandom.current().nextBytes(encodedPayload);
+
+    for (long i = 0; i < storedTransactions; i++) {
+      encryptedTransactionDAO.save(new EncryptedTransaction(hash(i), encodedPayload));
+    }
+    sequence.set(storedTransactions);
+  }
+
+  @TearDown(Level.Trial)
+  public void onTearDown() {
+    entityManagerFactory.close();
+  }
+
+  @Benchmark
+  public EncryptedTransaction save() {
+    return encryptedTransactionDAO.save(
+        new EncryptedTransaction(hash(sequence.getAndIncrement()), encodedPayload));
+  }
+
+  @Benchmark
+  public Optional<EncryptedTransaction> retrieveByHash() {
+    return encryptedTransactionDAO.retrieveByHash(
+        hash(ThreadLocalRandom.current().nextInt(storedTransactions)));
+  }
+
+  private static MessageHash hash(long value) {
+    return new MessageHash(ByteBuffer.allocate(64).putLong(value).array());
+  }
+}
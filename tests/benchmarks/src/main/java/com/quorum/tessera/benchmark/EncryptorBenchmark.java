@@ -0,0 +1,91 @@
+package com.quorum.tessera.benchmark;
+
+import com.quorum.tessera.encryption.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures the operations the enclave uses from each {@link Encryptor}: jnacl ({@code NACL}),
+ * kalium ({@code CUSTOM}) and elliptic curve ({@code EC}).
+ *
+ * <p>Kalium binds to libsodium, which must be installed on the machine running the benchmarks.
+ * Leave it out with {@code -p encryptorType=NACL,EC} where it is not.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EncryptorBenchmark {
+
+  @Param({"NACL", "CUSTOM", "EC"})
+  public String encryptorType;
+
+  @Param({"1024", "65536"})
+  public int messageSize;
+
+  private Encryptor encryptor;
+
+  private KeyPair sender;
+
+  private KeyPair recipient;
+
+  private SharedKey sharedKey;
+
+  private Nonce nonce;
+
+  private byte[] message;
+
+  private byte[] sealed;
+
+  private byte[] boxedKey;
+
+  @Setup(Level.Trial)
+  public void onSetUp() {
+    encryptor = EncryptorFactory.newFactory(encryptorType).create();
+
+    sender = encryptor.generateNewKeys();
+    recipient = encryptor.generateNewKeys();
+    sharedKey = encryptor.computeSharedKey(recipient.getPublicKey(), sender.getPrivateKey());
+    nonce = encryptor.randomNonce();
+
+    message = new byte[messageSize];
+    ThreadLocalRandom.current().nextBytes(message);
+
+    sealed = encryptor.sealAfterPrecomputation(message, nonce, sharedKey);
+    boxedKey =
+        encryptor.seal(
+            encryptor.createMasterKey().getKeyBytes(),
+            nonce,
+            recipient.getPublicKey(),
+            sender.getPrivateKey());
+  }
+
+  @Benchmark
+  public KeyPair generateNewKeys() {
+    return encryptor.generateNewKeys();
+  }
+
+  @Benchmark
+  public SharedKey computeSharedKey() {
+    return encryptor.computeSharedKey(recipient.getPublicKey(), sender.getPrivateKey());
+  }
+
+  @Benchmark
+  public byte[] sealAfterPrecomputation() {
+    return encryptor.sealAfterPrecomputation(message, nonce, sharedKey);
+  }
+
+  @Benchmark
+  public byte[] openAfterPrecomputation() {
+    return encryptor.openAfterPrecomputation(sealed, nonce, sharedKey);
+  }
+
+  /** A master key sealed for a recipient, as done for every recipient box */
+  @Benchmark
+  public byte[] open() {
+    return encryptor.open(boxedKey, nonce, sender.getPublicKey(), recipient.getPrivateKey());
+  }
+}
@@ -0,0 +1,148 @@
+package com.quorum.tessera.benchmark;
+
+import com.quorum.tessera.enclave.*;
+import com.quorum.tessera.encryption.Nonce;
+import com.quorum.tessera.encryption.PublicKey;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares decoding a payload by copying every field up front, as {@link PayloadEncoderImpl} used
+ * to, against the lazily decoded payload it returns now.
+ *
+ * <p>{@code lazyDecodeSender} reads only the sender key and privacy mode, which is all many callers
+ * look at; {@code lazyDecodeAllFields} reads every field, to show the cost when nothing is skipped.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PayloadDecodeBenchmark {
+
+  @Param({"1", "10", "100"})
+  public int recipientCount;
+
+  private final PayloadEncoder payloadEncoder = new PayloadEncoderImpl();
+
+  private byte[] encoded;
+
+  @Setup(Level.Trial)
+  public void onSetUp() {
+    final List<PublicKey> recipients =
+        IntStream.range(0, recipientCount)
+            .mapToObj(i -> PublicKey.from(filled((byte) i, 32)))
+            .collect(Collectors.toList());
+    final List<byte[]> boxes =
+        IntStream.range(0, recipientCount)
+            .mapToObj(i -> filled((byte) i, 48))
+            .collect(Collectors.toList());
+
+    final EncodedPayload payload =
+        EncodedPayload.Builder.create()
+            .withSenderKey(PublicKey.from(new byte[32]))
+            .withCipherText(filled((byte) 7, 1024))
+            .withCipherTextNonce(new Nonce(new byte[24]))
+            .withRecipientBoxes(boxes)
+            .withRecipientNonce(new Nonce(new byte[24]))
+            .withRecipientKeys(recipients)
+            .withPrivacyMode(PrivacyMode.STANDARD_PRIVATE)
+            .build();
+
+    encoded = payloadEncoder.encode(payload);
+  }
+
+  @Benchmark
+  public EncodedPayload eagerDecode() {
+    return EagerDecoder.decode(encoded);
+  }
+
+  @Benchmark
+  public void lazyDecodeSender(Blackhole blackhole) {
+    final EncodedPayload payload = payloadEncoder.decode(encoded);
+    blackhole.consume(payload.getSenderKey());
+    blackhole.consume(payload.getPrivacyMode());
+  }
+
+  @Benchmark
+  public void lazyDecodeAllFields(Blackhole blackhole) {
+    final EncodedPayload payload = payloadEncoder.decode(encoded);
+    blackhole.consume(payload.getSenderKey());
+    blackhole.consume(payload.getCipherText());
+    blackhole.consume(payload.getCipherTextNonce());
+    blackhole.consume(payload.getRecipientBoxes());
+    blackhole.consume(payload.getRecipientNonce());
+    blackhole.consume(payload.getRecipientKeys());
+    blackhole.consume(payload.getPrivacyMode());
+    blackhole.consume(payload.getAffectedContractTransactions());
+    blackhole.consume(payload.getExecHash());
+  }
+
+  private static byte[] filled(byte value, int length) {
+    final byte[] data = new byte[length];
+    Arrays.fill(data, value);
+    return data;
+  }
+
+  /** The decoder as it was before payloads were decoded lazily, kept here for comparison */
+  static final class EagerDecoder {
+
+    static EncodedPayload decode(final byte[] input) {
+      final ByteBuffer buffer = ByteBuffer.wrap(input);
+
+      final byte[] senderKey = read(buffer);
+      final byte[] cipherText = read(buffer);
+      final byte[] nonce = read(buffer);
+
+      final long numberOfRecipients = buffer.getLong();
+      final List<byte[]> recipientBoxes = new ArrayList<>();
+      for (long i = 0; i < numberOfRecipients; i++) {
+        recipientBoxes.add(read(buffer));
+      }
+
+      final byte[] recipientNonce = read(buffer);
+
+      final long recipientLength = buffer.getLong();
+      final List<PublicKey> recipientKeys = new ArrayList<>();
+      for (long i = 0; i < recipientLength; i++) {
+        recipientKeys.add(PublicKey.from(read(buffer)));
+      }
+
+      final byte[] privacyFlag = read(buffer);
+
+      final long affectedContractTransactionsLength = buffer.getLong();
+      final Map<TxHash, byte[]> affectedContractTransactions = new HashMap<>();
+      for (long i = 0; i < affectedContractTransactionsLength; i++) {
+        affectedContractTransactions.put(new TxHash(read(buffer)), read(buffer));
+      }
+
+      return EncodedPayload.Builder.create()
+          .withSenderKey(PublicKey.from(senderKey))
+          .withCipherText(cipherText)
+          .withCipherTextNonce(nonce)
+          .withRecipientBoxes(recipientBoxes)
+          .withRecipientNonce(recipientNonce)
+          .withRecipientKeys(recipientKeys)
+          .withPrivacyMode(PrivacyMode.fromFlag(privacyFlag[0]))
+          .withAffectedContractTransactions(affectedContractTransactions)
+          .withExecHash(new byte[0])
+          .build();
+    }
+
+    private static byte[] read(ByteBuffer buffer) {
+      final byte[] data = new byte[Math.toIntExact(buffer.getLong())];
+      buffer.get(data);
+      return data;
+    }
+  }
+}
@@ -0,0 +1,45 @@
+package com.quorum.tessera.benchmark;
+
+import com.quorum.tessera.enclave.DefaultPayloadDigest;
+import com.quorum.tessera.enclave.PayloadDigest;
+import com.quorum.tessera.enclave.SHA512256PayloadDigest;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures hashing cipher text into a transaction hash with {@link DefaultPayloadDigest} (SHA3-512)
+ * and {@link SHA512256PayloadDigest} (SHA-512/256, used in Orion mode).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PayloadDigestBenchmark {
+
+  @Param({"DEFAULT", "SHA512256"})
+  public String digest;
+
+  @Param({"1024", "65536", "1048576"})
+  public int cipherTextSize;
+
+  private PayloadDigest payloadDigest;
+
+  private byte[] cipherText;
+
+  @Setup(Level.Trial)
+  public void onSetUp() {
+    payloadDigest =
+        "SHA512256".equals(digest) ? new SHA512256PayloadDigest() : new DefaultPayloadDigest();
+
+    cipherText = new byte[cipherTextSize];
+    ThreadLocalRandom.current().nextBytes(cipherText);
+  }
+
+  @Benchmark
+  public byte[] digest() {
+    return payloadDigest.digest(cipherText);
+  }
+}
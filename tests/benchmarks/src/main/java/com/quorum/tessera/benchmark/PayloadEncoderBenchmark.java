@@ -0,0 +1,92 @@
+package com.quorum.tessera.benchmark;
+
+import com.quorum.tessera.enclave.*;
+import com.quorum.tessera.encryption.Nonce;
+import com.quorum.tessera.encryption.PublicKey;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures {@link PayloadEncoderImpl} encoding, decoding and cutting down a payload for a single
+ * recipient, across recipient counts and cipher text sizes.
+ *
+ * <p>Decoding is lazy, so {@code decode} reads the fields a stored payload is used for (the
+ * sender, cipher text and recipient boxes) to include the cost of decoding them.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PayloadEncoderBenchmark {
+
+  @Param({"1", "10", "100"})
+  public int recipientCount;
+
+  @Param({"1024", "65536", "1048576"})
+  public int payloadSize;
+
+  private final PayloadEncoder payloadEncoder = new PayloadEncoderImpl();
+
+  private EncodedPayload payload;
+
+  private byte[] encoded;
+
+  private PublicKey recipient;
+
+  @Setup(Level.Trial)
+  public void onSetUp() {
+    final List<PublicKey> recipients =
+        IntStream.range(0, recipientCount)
+            .mapToObj(i -> PublicKey.from(filled((byte) i, 32)))
+            .collect(Collectors.toList());
+    final List<byte[]> boxes =
+        IntStream.range(0, recipientCount)
+            .mapToObj(i -> filled((byte) i, 48))
+            .collect(Collectors.toList());
+
+    payload =
+        EncodedPayload.Builder.create()
+            .withSenderKey(PublicKey.from(new byte[32]))
+            .withCipherText(filled((byte) 7, payloadSize))
+            .withCipherTextNonce(new Nonce(new byte[24]))
+            .withRecipientBoxes(boxes)
+            .withRecipientNonce(new Nonce(new byte[24]))
+            .withRecipientKeys(recipients)
+            .withPrivacyMode(PrivacyMode.STANDARD_PRIVATE)
+            .build();
+
+    encoded = payloadEncoder.encode(payload);
+    recipient = recipients.get(recipientCount - 1);
+  }
+
+  @Benchmark
+  public byte[] encode() {
+    return payloadEncoder.encode(payload);
+  }
+
+  @Benchmark
+  public void decode(Blackhole blackhole) {
+    final EncodedPayload decoded = payloadEncoder.decode(encoded);
+    blackhole.consume(decoded.getSenderKey());
+    blackhole.consume(decoded.getCipherText());
+    blackhole.consume(decoded.getRecipientBoxes());
+  }
+
+  @Benchmark
+  public EncodedPayload forRecipient() {
+    return payloadEncoder.forRecipient(payload, recipient);
+  }
+
+  private static byte[] filled(byte value, int length) {
+    final byte[] data = new byte[length];
+    Arrays.fill(data, value);
+    return data;
+  }
+}
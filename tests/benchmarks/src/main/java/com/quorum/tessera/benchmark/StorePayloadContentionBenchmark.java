@@ -0,0 +1,138 @@
+package com.quorum.tessera.benchmark;
+
+import com.quorum.tessera.data.EncryptedTransactionDAO;
+import com.quorum.tessera.data.MessageHash;
+import com.quorum.tessera.data.internal.EncryptedRawTransactionDAOImpl;
+import com.quorum.tessera.data.internal.EncryptedTransactionDAOImpl;
+import com.quorum.tessera.data.internal.EncryptedTransactionRecipientDAOImpl;
+import com.quorum.tessera.enclave.*;
+import com.quorum.tessera.encryption.*;
+import com.quorum.tessera.transaction.TransactionManager;
+import com.quorum.tessera.transaction.internal.PrivacyHelperImpl;
+import com.quorum.tessera.transaction.internal.TransactionManagerImpl;
+import com.quorum.tessera.transaction.resend.internal.ResendManagerImpl;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures the throughput of payloads pushed to this node by other nodes, i.e. the work done by
+ * {@link TransactionManager#storePayload(EncodedPayload)} for each inbound {@code /push}.
+ *
+ * <p>Every push is for a new transaction, so the only contention comes from the locking inside
+ * the transaction manager and the database. Run with increasing thread counts (e.g. {@code -t 1},
+ * {@code -t 4}, {@code -t 8}) to see how throughput scales with cores; {@code pushWithGlobalLock}
+ * serialises every push behind one monitor, as storePayload used to, for comparison.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StorePayloadContentionBenchmark {
+
+  private static final Object GLOBAL_LOCK = new Object();
+
+  private final AtomicLong sequence = new AtomicLong();
+
+  private PublicKey sender;
+
+  private PublicKey recipient;
+
+  private EntityManagerFactory entityManagerFactory;
+
+  private TransactionManager transactionManager;
+
+  @Setup(Level.Trial)
+  public void onSetUp() {
+    entityManagerFactory =
+        Persistence.createEntityManagerFactory(
+            "tessera",
+            Map.of(
+                "javax.persistence.jdbc.url",
+                "jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                "javax.persistence.jdbc.user",
+                "sa",
+                "javax.persistence.jdbc.password",
+                "",
+                "javax.persistence.schema-generation.database.action",
+                "drop-and-create",
+                "eclipselink.logging.level",
+                "WARNING"));
+
+    final PayloadEncoder payloadEncoder = new PayloadEncoderImpl();
+    final PayloadDigest payloadDigest = new SHA512256PayloadDigest();
+    final Enclave enclave = newRecipientEnclave();
+    final EncryptedTransactionDAO encryptedTransactionDAO =
+        new EncryptedTransactionDAOImpl(entityManagerFactory);
+
+    transactionManager =
+        new TransactionManagerImpl(
+            payloadEncoder,
+            encryptedTransactionDAO,
+            (payload, recipients) -> {},
+            enclave,
+            new EncryptedRawTransactionDAOImpl(entityManagerFactory),
+            new ResendManagerImpl(encryptedTransactionDAO, payloadEncoder, enclave, payloadDigest),
+            new PrivacyHelperImpl(encryptedTransactionDAO, false),
+            payloadDigest,
+            new EncryptedTransactionRecipientDAOImpl(entityManagerFactory));
+  }
+
+  @TearDown(Level.Trial)
+  public void onTearDown() {
+    entityManagerFactory.close();
+  }
+
+  @Benchmark
+  public MessageHash push() {
+    return transactionManager.storePayload(nextPayload());
+  }
+
+  @Benchmark
+  public MessageHash pushWithGlobalLock() {
+    final EncodedPayload payload = nextPayload();
+    synchronized (GLOBAL_LOCK) {
+      return transactionManager.storePayload(payload);
+    }
+  }
+
+  /**
+   * A real enclave holding only the recipient's key. The pushed payloads carry no affected
+   * contracts and are never decrypted on this path, so the benchmark measures the transaction
+   * manager and storage rather than cryptography.
+   */
+  private Enclave newRecipientEnclave() {
+    final Encryptor encryptor = EncryptorFactory.newFactory("NACL").create();
+    final KeyPair recipientKeys = encryptor.generateNewKeys();
+
+    sender = encryptor.generateNewKeys().getPublicKey();
+    recipient = recipientKeys.getPublicKey();
+
+    return new EnclaveImpl(
+        encryptor,
+        new KeyManagerImpl(List.of(recipientKeys), Set.of()),
+        SharedKeyCache.from(encryptor, Map.of()));
+  }
+
+  private EncodedPayload nextPayload() {
+    final byte[] cipherText = ByteBuffer.allocate(256).putLong(sequence.incrementAndGet()).array();
+
+    return EncodedPayload.Builder.create()
+        .withSenderKey(sender)
+        .withCipherText(cipherText)
+        .withCipherTextNonce(new Nonce(new byte[24]))
+        .withRecipientNonce(new Nonce(new byte[24]))
+        .withRecipientKey(recipient)
+        .withRecipientBox(new byte[48])
+        .withPrivacyMode(PrivacyMode.STANDARD_PRIVATE)
+        .build();
+  }
+}
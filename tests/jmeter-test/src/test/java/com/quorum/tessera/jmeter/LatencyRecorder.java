@@ -0,0 +1,68 @@
+package com.quorum.tessera.jmeter;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.json.Json;
+import javax.json.JsonObject;
+
+/** Records the latency of every request in a run, and summarises them as percentiles */
+public class LatencyRecorder {
+
+  private final long[] latencies;
+
+  private final AtomicInteger recorded = new AtomicInteger();
+
+  private final AtomicInteger errors = new AtomicInteger();
+
+  public LatencyRecorder(int capacity) {
+    this.latencies = new long[capacity];
+  }
+
+  public void record(long nanos) {
+    latencies[recorded.getAndIncrement()] = nanos;
+  }
+
+  public void error() {
+    errors.incrementAndGet();
+  }
+
+  /**
+   * @param elapsedNanos how long the whole run took, to work out the throughput
+   * @return the request count, errors, throughput (per second) and latency percentiles (in ms)
+   */
+  public JsonObject summary(long elapsedNanos) {
+    final int count = recorded.get();
+    final long[] sorted = Arrays.copyOf(latencies, count);
+    Arrays.sort(sorted);
+
+    final double seconds = elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1);
+
+    return Json.createObjectBuilder()
+        .add("requests", count)
+        .add("errors", errors.get())
+        .add("durationMs", TimeUnit.NANOSECONDS.toMillis(elapsedNanos))
+        .add("throughput", seconds > 0 ? count / seconds : 0)
+        .add(
+            "latencyMs",
+            Json.createObjectBuilder()
+                .add("mean", millis(count == 0 ? 0 : Arrays.stream(sorted).sum() / count))
+                .add("p50", millis(percentile(sorted, 0.5)))
+                .add("p99", millis(percentile(sorted, 0.99)))
+                .add("p999", millis(percentile(sorted, 0.999)))
+                .add("max", millis(count == 0 ? 0 : sorted[count - 1])))
+        .build();
+  }
+
+  static long percentile(long[] sorted, double percentile) {
+    if (sorted.length == 0) {
+      return 0;
+    }
+    final int rank = (int) Math.ceil(percentile * sorted.length);
+    return sorted[Math.max(0, rank - 1)];
+  }
+
+  private static double millis(long nanos) {
+    return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+  }
+}
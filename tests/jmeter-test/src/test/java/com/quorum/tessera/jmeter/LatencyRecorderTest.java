@@ -0,0 +1,42 @@
+package com.quorum.tessera.jmeter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import javax.json.JsonObject;
+import org.junit.Test;
+
+public class LatencyRecorderTest {
+
+  @Test
+  public void percentiles() {
+    final long[] sorted = LongStream.rangeClosed(1, 1000).toArray();
+
+    assertThat(LatencyRecorder.percentile(sorted, 0.5)).isEqualTo(500);
+    assertThat(LatencyRecorder.percentile(sorted, 0.99)).isEqualTo(990);
+    assertThat(LatencyRecorder.percentile(sorted, 0.999)).isEqualTo(999);
+    assertThat(LatencyRecorder.percentile(new long[] {7}, 0.999)).isEqualTo(7);
+    assertThat(LatencyRecorder.percentile(new long[0], 0.5)).isZero();
+  }
+
+  @Test
+  public void summary() {
+    final LatencyRecorder recorder = new LatencyRecorder(4);
+    recorder.record(TimeUnit.MILLISECONDS.toNanos(4));
+    recorder.record(TimeUnit.MILLISECONDS.toNanos(1));
+    recorder.record(TimeUnit.MILLISECONDS.toNanos(2));
+    recorder.error();
+
+    final JsonObject summary = recorder.summary(TimeUnit.SECONDS.toNanos(2));
+
+    assertThat(summary.getInt("requests")).isEqualTo(3);
+    assertThat(summary.getInt("errors")).isEqualTo(1);
+    assertThat(summary.getJsonNumber("throughput").doubleValue()).isEqualTo(1.5);
+
+    final JsonObject latency = summary.getJsonObject("latencyMs");
+    assertThat(latency.getJsonNumber("p50").doubleValue()).isEqualTo(2.0);
+    assertThat(latency.getJsonNumber("p99").doubleValue()).isEqualTo(4.0);
+    assertThat(latency.getJsonNumber("max").doubleValue()).isEqualTo(4.0);
+  }
+}
@@ -0,0 +1,216 @@
+package com.quorum.tessera.jmeter;
+
+import com.quorum.tessera.encryption.KeyPair;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import javax.json.Json;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObject;
+import javax.json.JsonString;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/** A Tessera node started from the distribution, listening on free ports on localhost */
+public class LocalNode {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(LocalNode.class);
+
+  private final String name;
+
+  private final Path directory;
+
+  private final List<KeyPair> keys;
+
+  private final int q2tPort = freePort();
+
+  private final int p2pPort = freePort();
+
+  private final int thirdPartyPort = freePort();
+
+  private Process process;
+
+  public LocalNode(String name, Path directory, List<KeyPair> keys) {
+    this.name = name;
+    this.directory = directory;
+    this.keys = List.copyOf(keys);
+  }
+
+  /**
+   * Writes the config file for this node, peered with all the other nodes
+   *
+   * @param jdbcUrl the database this node stores transactions in
+   * @param peers every node in the network, which may include this one
+   * @return the path of the written config file
+   */
+  public Path writeConfig(String jdbcUrl, List<LocalNode> peers) throws IOException {
+    final JsonArrayBuilder keyData = Json.createArrayBuilder();
+    keys.forEach(
+        k ->
+            keyData.add(
+                Json.createObjectBuilder()
+                    .add("publicKey", k.getPublicKey().encodeToBase64())
+                    .add("privateKey", k.getPrivateKey().encodeToBase64())));
+
+    final JsonArrayBuilder peerUrls = Json.createArrayBuilder();
+    peers.stream()
+        .filter(p -> p != this)
+        .forEach(p -> peerUrls.add(Json.createObjectBuilder().add("url", p.getP2pUrl())));
+
+    final JsonObject config =
+        Json.createObjectBuilder()
+            .add("useWhiteList", false)
+            .add(
+                "jdbc",
+                Json.createObjectBuilder()
+                    .add("username", "sa")
+                    .add("password", "")
+                    .add("url", jdbcUrl)
+                    .add("autoCreateTables", true))
+            .add(
+                "serverConfigs",
+                Json.createArrayBuilder()
+                    .add(serverConfig("Q2T", q2tPort))
+                    .add(serverConfig("P2P", p2pPort))
+                    .add(serverConfig("ThirdParty", thirdPartyPort)))
+            .add("peer", peerUrls)
+            .add("keys", Json.createObjectBuilder().add("keyData", keyData))
+            .add("alwaysSendTo", Json.createArrayBuilder())
+            .build();
+
+    Files.createDirectories(directory);
+    final Path configFile = directory.resolve("config.json");
+    Files.writeString(configFile, config.toString());
+    return configFile;
+  }
+
+  private static JsonObject serverConfig(String app, int port) {
+    return Json.createObjectBuilder()
+        .add("app", app)
+        .add("enabled", true)
+        .add("serverAddress", "http://localhost:" + port)
+        .add("communicationType", "REST")
+        .build();
+  }
+
+  /**
+   * Starts the node with the distribution's start script, waiting until its Q2T API is up
+   *
+   * @param startScript the {@code bin/tessera} script of the unpacked distribution
+   * @param configFile the config written by {@link #writeConfig(String, List)}
+   */
+  public void start(Path startScript, Path configFile) throws Exception {
+    final Path logFile = directory.resolve("node.log");
+    process =
+        new ProcessBuilder(
+                startScript.toString(),
+                "-configfile",
+                configFile.toString(),
+                "-pidfile",
+                directory.resolve("node.pid").toString())
+            .redirectErrorStream(true)
+            .redirectOutput(logFile.toFile())
+            .start();
+
+    LOGGER.info("Started {} (pid {}), logging to {}", name, process.pid(), logFile);
+
+    final HttpClient client = HttpClient.newHttpClient();
+    final HttpRequest upcheck =
+        HttpRequest.newBuilder(URI.create(getQ2tUrl() + "/upcheck")).GET().build();
+    final long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(2);
+    while (System.nanoTime() < deadline) {
+      if (!process.isAlive()) {
+        throw new IllegalStateException(name + " exited on startup, see " + logFile);
+      }
+      try {
+        if (client.send(upcheck, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+          return;
+        }
+      } catch (IOException ex) {
+        // not listening yet
+      }
+      Thread.sleep(500);
+    }
+    throw new IllegalStateException(name + " did not start in time, see " + logFile);
+  }
+
+  /** Waits until this node has discovered the given keys from its peers */
+  public void awaitKeys(Set<String> expectedKeys) throws Exception {
+    final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    final HttpRequest request =
+        HttpRequest.newBuilder(URI.create(getThirdPartyUrl() + "/partyinfo/keys")).GET().build();
+
+    final long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(2);
+    while (System.nanoTime() < deadline) {
+      final String body = client.send(request, HttpResponse.BodyHandlers.ofString()).body();
+      final Set<String> known =
+          Json.createReader(new StringReader(body))
+              .readObject()
+              .getJsonArray("keys")
+              .getValuesAs(JsonObject.class)
+              .stream()
+              .map(k -> k.getJsonString("key"))
+              .map(JsonString::getString)
+              .collect(Collectors.toSet());
+      if (known.containsAll(expectedKeys)) {
+        return;
+      }
+      Thread.sleep(1000);
+    }
+    throw new IllegalStateException(name + " did not discover all of its peers in time");
+  }
+
+  public void stop() throws InterruptedException {
+    if (process == null) {
+      return;
+    }
+    // the start script runs java as a child process
+    process.descendants().forEach(ProcessHandle::destroy);
+    process.destroy();
+    if (!process.waitFor(30, TimeUnit.SECONDS)) {
+      process.descendants().forEach(ProcessHandle::destroyForcibly);
+      process.destroyForcibly();
+    }
+    LOGGER.info("Stopped {}", name);
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public List<KeyPair> getKeys() {
+    return keys;
+  }
+
+  public String getQ2tUrl() {
+    return "http://localhost:" + q2tPort;
+  }
+
+  public String getP2pUrl() {
+    return "http://localhost:" + p2pPort;
+  }
+
+  public String getThirdPartyUrl() {
+    return "http://localhost:" + thirdPartyPort;
+  }
+
+  private static int freePort() {
+    try (ServerSocket socket = new ServerSocket(0)) {
+      return socket.getLocalPort();
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+}
@@ -0,0 +1,124 @@
+package com.quorum.tessera.jmeter;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import javax.json.Json;
+import javax.json.JsonArray;
+import javax.json.JsonNumber;
+import javax.json.JsonObject;
+import javax.json.JsonReader;
+
+/**
+ * A workload sent through the Q2T API of the first node: how many recipients each transaction is
+ * sent to, how many affected contracts each private-state validation transaction lists, and the
+ * mix of payload sizes to pick from.
+ */
+public class Scenario {
+
+  private final String name;
+
+  private final int recipients;
+
+  private final int affectedContracts;
+
+  private final List<Integer> payloadSizes;
+
+  private final int requests;
+
+  private final int warmupRequests;
+
+  private final int concurrency;
+
+  public Scenario(
+      String name,
+      int recipients,
+      int affectedContracts,
+      List<Integer> payloadSizes,
+      int requests,
+      int warmupRequests,
+      int concurrency) {
+    if (recipients < 1) {
+      throw new IllegalArgumentException(name + ": recipients must be at least 1");
+    }
+    if (payloadSizes.isEmpty()) {
+      throw new IllegalArgumentException(name + ": at least one payload size is required");
+    }
+    if (requests < 1 || concurrency < 1) {
+      throw new IllegalArgumentException(name + ": requests and concurrency must be at least 1");
+    }
+    this.name = Objects.requireNonNull(name);
+    this.recipients = recipients;
+    this.affectedContracts = affectedContracts;
+    this.payloadSizes = List.copyOf(payloadSizes);
+    this.requests = requests;
+    this.warmupRequests = warmupRequests;
+    this.concurrency = concurrency;
+  }
+
+  /**
+   * Reads scenarios from a JSON array, e.g.
+   *
+   * <pre>{@code
+   * [{"name": "psv", "recipients": 2, "affectedContracts": 4, "payloadSizes": [1024, 65536],
+   *   "requests": 2000, "warmupRequests": 200, "concurrency": 8}]
+   * }</pre>
+   *
+   * <p>Only the name and recipients are required; no affected contracts means standard private
+   * transactions are sent.
+   */
+  public static List<Scenario> read(InputStream inputStream) {
+    try (JsonReader reader = Json.createReader(inputStream)) {
+      return reader.readArray().getValuesAs(JsonObject.class).stream()
+          .map(Scenario::from)
+          .collect(Collectors.toList());
+    }
+  }
+
+  private static Scenario from(JsonObject json) {
+    final JsonArray payloadSizes =
+        json.containsKey("payloadSizes")
+            ? json.getJsonArray("payloadSizes")
+            : Json.createArrayBuilder().add(1024).build();
+
+    return new Scenario(
+        json.getString("name"),
+        json.getInt("recipients"),
+        json.getInt("affectedContracts", 0),
+        payloadSizes.getValuesAs(JsonNumber.class).stream()
+            .map(JsonNumber::intValue)
+            .collect(Collectors.toList()),
+        json.getInt("requests", 1000),
+        json.getInt("warmupRequests", 100),
+        json.getInt("concurrency", 4));
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public int getRecipients() {
+    return recipients;
+  }
+
+  public int getAffectedContracts() {
+    return affectedContracts;
+  }
+
+  public List<Integer> getPayloadSizes() {
+    return payloadSizes;
+  }
+
+  public int getRequests() {
+    return requests;
+  }
+
+  public int getWarmupRequests() {
+    return warmupRequests;
+  }
+
+  public int getConcurrency() {
+    return concurrency;
+  }
+}
@@ -0,0 +1,308 @@
+package com.quorum.tessera.jmeter;
+
+import com.quorum.tessera.encryption.Encryptor;
+import com.quorum.tessera.encryption.EncryptorFactory;
+import com.quorum.tessera.encryption.KeyPair;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import javax.json.Json;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Starts a network of Tessera nodes on localhost and measures sending transactions through the Q2T
+ * API of the first node to keys held by the others, for each {@link Scenario}.
+ *
+ * <p>Nodes are forked from the unpacked distribution, as in the acceptance tests, since a node
+ * can't share a JVM with another. The harness is configured with system properties:
+ *
+ * <ul>
+ *   <li>{@code application.jar} - the distribution's {@code bin/tessera} start script
+ *   <li>{@code throughput.nodes} - how many nodes to start, at least 2 (default 3)
+ *   <li>{@code throughput.database} - {@code h2-mem} (default) or {@code h2-file}
+ *   <li>{@code throughput.scenarios} - a scenario file (default {@code throughput-scenarios.json})
+ *   <li>{@code throughput.workDir} - where node configs, databases and logs are written
+ *   <li>{@code throughput.report} - where the JSON report is written
+ * </ul>
+ *
+ * <p>Each node is given enough keys for the widest scenario to send to a distinct key for every
+ * recipient, spread across the receiving nodes.
+ */
+public class ThroughputHarness {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ThroughputHarness.class);
+
+  private static final int PRIVATE_STATE_VALIDATION = 3;
+
+  private final HttpClient client = HttpClient.newHttpClient();
+
+  public static void main(String[] args) throws Exception {
+    final int nodeCount = Integer.getInteger("throughput.nodes", 3);
+    final String database = System.getProperty("throughput.database", "h2-mem");
+    final Path startScript =
+        Paths.get(
+            Objects.requireNonNull(
+                System.getProperty("application.jar"), "application.jar is required"));
+    final Path workDir = Paths.get(System.getProperty("throughput.workDir", "build/throughput"));
+    final Path report =
+        Paths.get(
+            System.getProperty("throughput.report", workDir.resolve("results.json").toString()));
+
+    if (nodeCount < 2) {
+      throw new IllegalArgumentException("At least 2 nodes are needed to send transactions");
+    }
+
+    final List<Scenario> scenarios;
+    try (InputStream inputStream = openScenarios(System.getProperty("throughput.scenarios"))) {
+      scenarios = Scenario.read(inputStream);
+    }
+
+    final JsonObject results =
+        new ThroughputHarness().run(nodeCount, database, startScript, workDir, scenarios);
+
+    Files.createDirectories(report.toAbsolutePath().getParent());
+    Files.writeString(report, results.toString());
+    LOGGER.info("Written report to {}", report.toAbsolutePath());
+  }
+
+  private static InputStream openScenarios(String path) throws IOException {
+    if (path != null) {
+      return Files.newInputStream(Paths.get(path));
+    }
+    return Objects.requireNonNull(
+        ThroughputHarness.class.getResourceAsStream("/throughput-scenarios.json"));
+  }
+
+  JsonObject run(
+      int nodeCount, String database, Path startScript, Path workDir, List<Scenario> scenarios)
+      throws Exception {
+
+    final int widest = scenarios.stream().mapToInt(Scenario::getRecipients).max().orElse(1);
+    final int keysPerNode = (widest + nodeCount - 2) / (nodeCount - 1);
+
+    final Encryptor encryptor = EncryptorFactory.newFactory("NACL").create();
+    final List<LocalNode> nodes = new ArrayList<>();
+    for (int i = 1; i <= nodeCount; i++) {
+      final List<KeyPair> keys =
+          Stream.generate(encryptor::generateNewKeys)
+              .limit(keysPerNode)
+              .collect(Collectors.toList());
+      nodes.add(new LocalNode("node" + i, workDir.resolve("node" + i), keys));
+    }
+
+    final JsonArrayBuilder scenarioResults = Json.createArrayBuilder();
+    try {
+      for (LocalNode node : nodes) {
+        deleteRecursively(workDir.resolve(node.getName()));
+        final Path configFile = node.writeConfig(jdbcUrl(database, workDir, node), nodes);
+        node.start(startScript, configFile);
+      }
+
+      final LocalNode sender = nodes.get(0);
+      final List<String> recipientKeys = recipientKeys(nodes.subList(1, nodes.size()));
+      sender.awaitKeys(Set.copyOf(recipientKeys));
+
+      for (Scenario scenario : scenarios) {
+        scenarioResults.add(run(scenario, sender, recipientKeys));
+      }
+    } finally {
+      for (LocalNode node : nodes) {
+        node.stop();
+      }
+    }
+
+    return Json.createObjectBuilder()
+        .add("timestamp", Instant.now().toString())
+        .add("nodes", nodeCount)
+        .add("keysPerNode", keysPerNode)
+        .add("database", database)
+        .add("scenarios", scenarioResults)
+        .build();
+  }
+
+  // Interleaves the keys of the receiving nodes, so that wider fan-outs reach more nodes
+  private static List<String> recipientKeys(List<LocalNode> receivers) {
+    final int keysPerNode = receivers.get(0).getKeys().size();
+    return IntStream.range(0, keysPerNode)
+        .boxed()
+        .flatMap(i -> receivers.stream().map(n -> n.getKeys().get(i)))
+        .map(k -> k.getPublicKey().encodeToBase64())
+        .collect(Collectors.toList());
+  }
+
+  private static String jdbcUrl(String database, Path workDir, LocalNode node) {
+    switch (database) {
+      case "h2-mem":
+        return "jdbc:h2:mem:" + node.getName() + ";DB_CLOSE_DELAY=-1";
+      case "h2-file":
+        return "jdbc:h2:" + workDir.resolve(node.getName()).resolve("db").toAbsolutePath();
+      default:
+        throw new IllegalArgumentException("Unknown database " + database);
+    }
+  }
+
+  private JsonObject run(Scenario scenario, LocalNode sender, List<String> recipientKeys)
+      throws Exception {
+    final String from = sender.getKeys().get(0).getPublicKey().encodeToBase64();
+    final List<String> to = recipientKeys.subList(0, scenario.getRecipients());
+
+    // the same payloads are sent every run, and each is encrypted with a new key and nonce
+    final Random random = new Random(scenario.getName().hashCode());
+    final List<String> payloads =
+        scenario.getPayloadSizes().stream()
+            .map(
+                size -> {
+                  final byte[] payload = new byte[size];
+                  random.nextBytes(payload);
+                  return Base64.getEncoder().encodeToString(payload);
+                })
+            .collect(Collectors.toList());
+
+    final List<String> affectedContracts = new ArrayList<>();
+    for (int i = 0; i < scenario.getAffectedContracts(); i++) {
+      final HttpResponse<String> response = send(sender, body(scenario, from, to, payloads.get(0)));
+      if (response.statusCode() / 100 != 2) {
+        throw new IllegalStateException(
+            "Unable to create affected contract for " + scenario.getName() + ": " + response);
+      }
+      affectedContracts.add(
+          Json.createReader(new StringReader(response.body())).readObject().getString("key"));
+    }
+
+    final List<String> bodies =
+        payloads.stream()
+            .map(p -> body(scenario, from, to, p, affectedContracts))
+            .collect(Collectors.toList());
+
+    LOGGER.info("Running {}", scenario.getName());
+    execute(sender, bodies, scenario.getWarmupRequests(), scenario.getConcurrency());
+    final long start = System.nanoTime();
+    final LatencyRecorder recorder =
+        execute(sender, bodies, scenario.getRequests(), scenario.getConcurrency());
+    final JsonObject summary = recorder.summary(System.nanoTime() - start);
+    LOGGER.info("{}: {}", scenario.getName(), summary);
+
+    final JsonArrayBuilder payloadSizes = Json.createArrayBuilder();
+    scenario.getPayloadSizes().forEach(payloadSizes::add);
+
+    return Json.createObjectBuilder(summary)
+        .add("name", scenario.getName())
+        .add("recipients", scenario.getRecipients())
+        .add("affectedContracts", scenario.getAffectedContracts())
+        .add("payloadSizes", payloadSizes)
+        .add("concurrency", scenario.getConcurrency())
+        .build();
+  }
+
+  // Sends the bodies in turn, so every payload size is sent the same number of times
+  private LatencyRecorder execute(
+      LocalNode sender, List<String> bodies, int requests, int concurrency) throws Exception {
+    final LatencyRecorder recorder = new LatencyRecorder(requests);
+    final AtomicInteger next = new AtomicInteger();
+
+    final ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+    try {
+      final List<Future<?>> workers = new ArrayList<>();
+      for (int i = 0; i < concurrency; i++) {
+        workers.add(
+            executor.submit(
+                () -> {
+                  for (int n = next.getAndIncrement(); n < requests; n = next.getAndIncrement()) {
+                    final long start = System.nanoTime();
+                    try {
+                      final HttpResponse<String> response =
+                          send(sender, bodies.get(n % bodies.size()));
+                      if (response.statusCode() / 100 == 2) {
+                        recorder.record(System.nanoTime() - start);
+                      } else {
+                        recorder.error();
+                      }
+                    } catch (IOException ex) {
+                      recorder.error();
+                    }
+                  }
+                  return null;
+                }));
+      }
+      for (Future<?> worker : workers) {
+        worker.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    return recorder;
+  }
+
+  private HttpResponse<String> send(LocalNode sender, String body)
+      throws IOException, InterruptedException {
+    final HttpRequest request =
+        HttpRequest.newBuilder(URI.create(sender.getQ2tUrl() + "/send"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+    return client.send(request, HttpResponse.BodyHandlers.ofString());
+  }
+
+  private static String body(Scenario scenario, String from, List<String> to, String payload) {
+    return body(scenario, from, to, payload, List.of());
+  }
+
+  private static String body(
+      Scenario scenario,
+      String from,
+      List<String> to,
+      String payload,
+      List<String> affectedContracts) {
+    final JsonArrayBuilder recipients = Json.createArrayBuilder();
+    to.forEach(recipients::add);
+
+    final JsonObjectBuilder body =
+        Json.createObjectBuilder().add("from", from).add("to", recipients).add("payload", payload);
+
+    if (scenario.getAffectedContracts() > 0) {
+      final JsonArrayBuilder affected = Json.createArrayBuilder();
+      affectedContracts.forEach(affected::add);
+      body.add("privacyFlag", PRIVATE_STATE_VALIDATION)
+          .add("affectedContractTransactions", affected)
+          .add("execHash", Base64.getEncoder().encodeToString(scenario.getName().getBytes()));
+    }
+    return body.build().toString();
+  }
+
+  private static void deleteRecursively(Path directory) throws IOException {
+    if (Files.notExists(directory)) {
+      return;
+    }
+    try (Stream<Path> paths = Files.walk(directory)) {
+      for (Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+        Files.delete(path);
+      }
+    }
+  }
+}